@@ -0,0 +1,200 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import io.github.tcdl.msb.config.amqp.AdaptivePrefetchConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.rabbitmq.client.Channel;
+
+/**
+ * Tunes the prefetch count of a single consumer so that there are about as many unacknowledged messages as needed
+ * to keep the consumer busy: the bandwidth-delay product (acknowledgement rate multiplied by the broker round trip time)
+ * plus the messages being processed.
+ *
+ * Every adjustment interval the controller compares the current time between delivery and acknowledgement of a message
+ * (plus the round trip time) with the lowest one observed. The difference tells how many messages wait in the local
+ * queues instead of being processed (like TCP Vegas does for packets). If messages wait, the prefetch count is decreased
+ * so that other instances of the service can take them. If the consumer used the whole prefetch count and messages didn't
+ * wait, it is increased. The round trip time is measured by the basic.qos calls themselves.
+ *
+ * The prefetch count is applied to the channel (global basic.qos), since each consumer has a channel of its own and a
+ * per-consumer limit can't be changed once the consumer is started.
+ */
+public class AdaptivePrefetchController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptivePrefetchController.class);
+
+    private static final double ROUND_TRIP_SMOOTHING = 0.2;
+
+    /**
+     * The lowest latency is forgotten after this number of adjustments so that it follows changes of handler cost.
+     */
+    private static final int MIN_LATENCY_RESET_ADJUSTMENTS = 30;
+
+    private final Channel channel;
+    private final String topic;
+    private final int minPrefetchCount;
+    private final int maxPrefetchCount;
+    private final long adjustmentIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger unacknowledgedCount = new AtomicInteger();
+    private final AtomicInteger peakUnacknowledgedCount = new AtomicInteger();
+    private final LongAdder acknowledgedCount = new LongAdder();
+    private final LongAdder acknowledgementNanos = new LongAdder();
+    private final AtomicLong nextAdjustmentNanos;
+    private final LongAdder increasesCount = new LongAdder();
+    private final LongAdder decreasesCount = new LongAdder();
+
+    private volatile int prefetchCount;
+    private volatile long roundTripNanos = -1;
+    private volatile double throughputPerSec;
+
+    // guarded by this
+    private long lastAdjustmentNanos;
+    private long minLatencyNanos = Long.MAX_VALUE;
+    private int adjustmentsSinceMinLatencyReset;
+
+    public AdaptivePrefetchController(Channel channel, String topic, int initialPrefetchCount, AdaptivePrefetchConfig config) {
+        this(channel, topic, initialPrefetchCount, config, System::nanoTime);
+    }
+
+    AdaptivePrefetchController(Channel channel, String topic, int initialPrefetchCount, AdaptivePrefetchConfig config, LongSupplier nanoClock) {
+        this.channel = channel;
+        this.topic = topic;
+        this.minPrefetchCount = config.getMinPrefetchCount();
+        this.maxPrefetchCount = config.getMaxPrefetchCount();
+        this.adjustmentIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getAdjustmentIntervalMs());
+        this.nanoClock = nanoClock;
+        this.prefetchCount = clamp(initialPrefetchCount);
+        this.lastAdjustmentNanos = nanoClock.getAsLong();
+        this.nextAdjustmentNanos = new AtomicLong(lastAdjustmentNanos + adjustmentIntervalNanos);
+    }
+
+    /**
+     * Applies the initial prefetch count to the channel.
+     */
+    public void start() throws IOException {
+        applyPrefetchCount(prefetchCount);
+    }
+
+    /**
+     * @return time of the delivery to be passed to {@link #messageAcknowledged(long)}
+     */
+    long messageDelivered() {
+        int unacknowledged = unacknowledgedCount.incrementAndGet();
+        peakUnacknowledgedCount.accumulateAndGet(unacknowledged, Math::max);
+        return nanoClock.getAsLong();
+    }
+
+    /**
+     * Must be called once for each delivered message, whether it was confirmed, rejected or requeued.
+     * Adjusts the prefetch count in the calling thread once the adjustment interval has elapsed.
+     */
+    void messageAcknowledged(long deliveredAtNanos) {
+        long now = nanoClock.getAsLong();
+        unacknowledgedCount.decrementAndGet();
+        acknowledgedCount.increment();
+        acknowledgementNanos.add(now - deliveredAtNanos);
+
+        long next = nextAdjustmentNanos.get();
+        if (now - next >= 0 && nextAdjustmentNanos.compareAndSet(next, now + adjustmentIntervalNanos)) {
+            adjust(now);
+        }
+    }
+
+    synchronized void adjust(long now) {
+        long elapsedNanos = now - lastAdjustmentNanos;
+        lastAdjustmentNanos = now;
+        long acknowledged = acknowledgedCount.sumThenReset();
+        long totalAcknowledgementNanos = acknowledgementNanos.sumThenReset();
+        int peakUnacknowledged = peakUnacknowledgedCount.getAndSet(unacknowledgedCount.get());
+        if (acknowledged == 0 || elapsedNanos <= 0) {
+            return;
+        }
+
+        int current = prefetchCount;
+        long roundTrip = Math.max(roundTripNanos, 0);
+        long latencyNanos = totalAcknowledgementNanos / acknowledged + roundTrip;
+        if (latencyNanos < minLatencyNanos || ++adjustmentsSinceMinLatencyReset >= MIN_LATENCY_RESET_ADJUSTMENTS) {
+            minLatencyNanos = latencyNanos;
+            adjustmentsSinceMinLatencyReset = 0;
+        }
+        throughputPerSec = acknowledged * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        int bandwidthDelayProduct = (int) Math.min(maxPrefetchCount, Math.ceil(acknowledged * (double) roundTrip / elapsedNanos));
+        double waitingCount = latencyNanos == 0 ? 0 : current * (1 - (double) minLatencyNanos / latencyNanos);
+
+        int target = current;
+        if (waitingCount >= current / 2.0) {
+            target = Math.max(bandwidthDelayProduct + 1, (int) (current - waitingCount / 2));
+        } else if (peakUnacknowledged >= current && waitingCount < Math.max(1, current / 10.0)) {
+            target = Math.max(bandwidthDelayProduct + 1, current + Math.max(1, current / 4));
+        }
+        target = clamp(target);
+
+        if (target != current) {
+            LOG.debug("[topic: {}] Changing prefetch count from {} to {}: {} messages/s, round trip {} µs, {} messages waiting",
+                    topic, current, target, (long) throughputPerSec, TimeUnit.NANOSECONDS.toMicros(roundTrip), (long) waitingCount);
+            try {
+                applyPrefetchCount(target);
+                (target > current ? increasesCount : decreasesCount).increment();
+            } catch (IOException e) {
+                LOG.warn("[topic: {}] Failed to change prefetch count to {}", topic, target, e);
+            }
+        }
+    }
+
+    private void applyPrefetchCount(int count) throws IOException {
+        long start = nanoClock.getAsLong();
+        channel.basicQos(count, true);
+        long sample = nanoClock.getAsLong() - start;
+        long previous = roundTripNanos;
+        roundTripNanos = previous < 0 ? sample : (long) (previous + ROUND_TRIP_SMOOTHING * (sample - previous));
+        prefetchCount = count;
+    }
+
+    private int clamp(int count) {
+        return Math.max(minPrefetchCount, Math.min(maxPrefetchCount, count));
+    }
+
+    public int getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    /**
+     * @return number of delivered messages that haven't been acknowledged yet
+     */
+    public int getUnacknowledgedCount() {
+        return unacknowledgedCount.get();
+    }
+
+    /**
+     * @return smoothed broker round trip time in microseconds, -1 if not measured yet
+     */
+    public long getRoundTripMicros() {
+        long roundTrip = roundTripNanos;
+        return roundTrip < 0 ? -1 : TimeUnit.NANOSECONDS.toMicros(roundTrip);
+    }
+
+    /**
+     * @return acknowledged messages per second during the last adjustment interval
+     */
+    public double getThroughputPerSec() {
+        return throughputPerSec;
+    }
+
+    public long getIncreasesCount() {
+        return increasesCount.sum();
+    }
+
+    public long getDecreasesCount() {
+        return decreasesCount.sum();
+    }
+}
@@ -10,25 +10,56 @@ public class AmqpAcknowledgementAdapter implements AcknowledgementAdapter {
     final Channel channel;
     final String identifier;
     final long deliveryTag;
+    final AdaptivePrefetchController prefetchController;
+    final long deliveredAtNanos;
 
     public AmqpAcknowledgementAdapter(Channel channel, String identifier, long deliveryTag) {
+        this(channel, identifier, deliveryTag, null, 0);
+    }
+
+    /**
+     * @param prefetchController controller to be notified when the message is acknowledged, may be null
+     * @param deliveredAtNanos time returned by the controller when the message was delivered
+     */
+    public AmqpAcknowledgementAdapter(Channel channel, String identifier, long deliveryTag,
+            AdaptivePrefetchController prefetchController, long deliveredAtNanos) {
         this.channel = channel;
         this.identifier = identifier;
         this.deliveryTag = deliveryTag;
+        this.prefetchController = prefetchController;
+        this.deliveredAtNanos = deliveredAtNanos;
     }
 
     @Override
     public void confirm() throws Exception {
-        channel.basicAck(deliveryTag, false);
+        try {
+            channel.basicAck(deliveryTag, false);
+        } finally {
+            acknowledged();
+        }
     }
 
     @Override
     public void reject() throws Exception {
-        channel.basicReject(deliveryTag, false);
+        try {
+            channel.basicReject(deliveryTag, false);
+        } finally {
+            acknowledged();
+        }
     }
 
     @Override
     public void retry() throws Exception {
-        channel.basicReject(deliveryTag, true);
+        try {
+            channel.basicReject(deliveryTag, true);
+        } finally {
+            acknowledged();
+        }
+    }
+
+    private void acknowledged() {
+        if (prefetchController != null) {
+            prefetchController.messageAcknowledged(deliveredAtNanos);
+        }
     }
 }
@@ -12,10 +12,15 @@ import io.github.tcdl.msb.api.exception.ChannelException;
 import io.github.tcdl.msb.api.exception.ConfigurationException;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
+import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig.ResponseRouting;
+import io.github.tcdl.msb.support.Utils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.*;
 
@@ -28,6 +33,13 @@ public class AmqpAdapterFactory implements AdapterFactory {
 
     private volatile AmqpBrokerConfig amqpBrokerConfig;
     private volatile AmqpConnectionManager connectionManager;
+    private volatile ExecutorService dispatchExecutor;
+    private volatile AmqpAutoRecoveringChannel responseChannel;
+    private volatile AmqpResponseQueue responseQueue;
+    private final AmqpReplyAddresses replyAddresses = new AmqpReplyAddresses();
+    private volatile AmqpAutoRecoveringChannel replyChannel;
+    private volatile String directReplyTopic;
+    private volatile AmqpDirectReplyAdapter directReplyAdapter;
 
     /**
      * @throws ChannelException if an error is encountered during connecting to broker
@@ -37,8 +49,44 @@ public class AmqpAdapterFactory implements AdapterFactory {
         amqpBrokerConfig = createAmqpBrokerConfig(msbConfig);
         LOG.debug("MSB AMQP Broker configuration {}", amqpBrokerConfig);
         ConnectionFactory connectionFactory = createConnectionFactory(amqpBrokerConfig);
-        Connection connection = createConnection(connectionFactory);
-        connectionManager = createConnectionManager(connection);
+        List<Connection> consumerConnections = createConnections(connectionFactory, amqpBrokerConfig.getConsumerConnections());
+        List<Connection> producerConnections = amqpBrokerConfig.getProducerConnections() > 0
+                ? createConnections(connectionFactory, amqpBrokerConfig.getProducerConnections())
+                : consumerConnections;
+        connectionManager = createConnectionManager(consumerConnections, producerConnections);
+        if (amqpBrokerConfig.getResponseRouting() == ResponseRouting.DIRECT) {
+            initDirectResponseRouting(msbConfig.getServiceDetails().getInstanceId());
+        }
+        replyChannel = new AmqpAutoRecoveringChannel(connectionManager);
+        if (amqpBrokerConfig.isDirectReplyTo()) {
+            directReplyTopic = AmqpReplyAddresses.TOPIC_PREFIX + msbConfig.getServiceDetails().getInstanceId();
+            directReplyAdapter = new AmqpDirectReplyAdapter(directReplyTopic, amqpBrokerConfig, connectionManager);
+        }
+    }
+
+    /**
+     * Declares the exchange shared by all response topics. Responses of this instance are published through a single channel
+     * and received from a single queue.
+     *
+     * @throws ChannelException if the exchange can't be declared
+     */
+    private void initDirectResponseRouting(String instanceId) {
+        String exchange = amqpBrokerConfig.getResponseExchange();
+        responseChannel = new AmqpAutoRecoveringChannel(connectionManager);
+        try {
+            responseChannel.exchangeDeclare(exchange, "direct", true /* durable */, false /* auto-delete */, null);
+        } catch (IOException e) {
+            throw new ChannelException(String.format("Failed to declare response exchange %s", exchange), e);
+        }
+        responseQueue = new AmqpResponseQueue(exchange, instanceId, amqpBrokerConfig, connectionManager);
+    }
+
+    private List<Connection> createConnections(ConnectionFactory connectionFactory, int numberOfConnections) {
+        List<Connection> connections = new ArrayList<>(numberOfConnections);
+        for (int i = 0; i < numberOfConnections; i++) {
+            connections.add(createConnection(connectionFactory));
+        }
+        return connections;
     }
 
     protected AmqpBrokerConfig createAmqpBrokerConfig(MsbConfig msbConfig) {
@@ -58,12 +106,47 @@ public class AmqpAdapterFactory implements AdapterFactory {
     
     @Override
     public ProducerAdapter createProducerAdapter(String topic) {
-        return new AmqpProducerAdapter(topic, amqpBrokerConfig, connectionManager);
+        return new AmqpProducerAdapter(topic, amqpBrokerConfig, connectionManager, directReplyAdapter);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Responses to requesters that use direct reply-to are published to the reply address regardless of the configuration of this instance.
+     */
+    @Override
+    public ProducerAdapter createProducerAdapter(String topic, boolean isResponseTopic) {
+        if (isResponseTopic && AmqpReplyAddresses.isDirectReplyTopic(topic)) {
+            return new AmqpDirectReplyProducerAdapter(topic, replyAddresses, amqpBrokerConfig, replyChannel);
+        }
+        if (isResponseTopic && responseChannel != null) {
+            return new AmqpProducerAdapter(amqpBrokerConfig.getResponseExchange(), topic, amqpBrokerConfig, responseChannel);
+        }
+        return createProducerAdapter(topic);
     }
 
     @Override
     public ConsumerAdapter createConsumerAdapter(String topic, boolean isResponseTopic) {
-        return new AmqpConsumerAdapter(topic, amqpBrokerConfig, connectionManager, isResponseTopic);
+        return createConsumerAdapter(topic, isResponseTopic, Optional.empty());
+    }
+
+    @Override
+    public ConsumerAdapter createConsumerAdapter(String topic, boolean isResponseTopic, Optional<Integer> prefetchCount) {
+        if (isResponseTopic && topic.equals(directReplyTopic)) {
+            return directReplyAdapter;
+        }
+        if (isResponseTopic && responseQueue != null) {
+            return new AmqpResponseConsumerAdapter(topic, responseQueue);
+        }
+        return new AmqpConsumerAdapter(topic, amqpBrokerConfig, connectionManager, isResponseTopic, prefetchCount, replyAddresses);
+    }
+
+    /**
+     * @return topic of the responses received through RabbitMQ Direct Reply-to if it is enabled
+     */
+    @Override
+    public Optional<String> getDirectReplyTopic() {
+        return Optional.ofNullable(directReplyTopic);
     }
 
     protected ConnectionFactory createConnectionFactory(AmqpBrokerConfig adapterConfig) {
@@ -79,6 +162,10 @@ public class AmqpAdapterFactory implements AdapterFactory {
         connectionFactory.setAutomaticRecoveryEnabled(true);
         connectionFactory.setNetworkRecoveryInterval(adapterConfig.getNetworkRecoveryIntervalMs());
         connectionFactory.setRequestedHeartbeat(adapterConfig.getHeartbeatIntervalSec());
+        if (adapterConfig.getDispatchThreads() > 0) {
+            dispatchExecutor = createDispatchExecutor(adapterConfig.getDispatchThreads());
+            connectionFactory.setSharedExecutor(dispatchExecutor);
+        }
         if (username.isPresent()) {
             connectionFactory.setUsername(username.get());
         }
@@ -107,9 +194,19 @@ public class AmqpAdapterFactory implements AdapterFactory {
     protected ConnectionFactory createConnectionFactory() {
         return new ConnectionFactory();
     }
+
+    /**
+     * Creates the thread pool that runs consumer callbacks of all connections instead of the client library default pool per connection.
+     */
+    protected ExecutorService createDispatchExecutor(int numberOfThreads) {
+        return Executors.newFixedThreadPool(numberOfThreads, new BasicThreadFactory.Builder()
+                .namingPattern("msb-amqp-dispatch-%d")
+                .daemon(true)
+                .build());
+    }
     
-    protected AmqpConnectionManager createConnectionManager(Connection connection) {
-        return new AmqpConnectionManager(connection);
+    protected AmqpConnectionManager createConnectionManager(List<Connection> consumerConnections, List<Connection> producerConnections) {
+        return new AmqpConnectionManager(consumerConnections, producerConnections);
     }
 
     /**
@@ -141,7 +238,11 @@ public class AmqpAdapterFactory implements AdapterFactory {
         try {
             connectionManager.close();
         } catch (IOException e) {
-            LOG.error("Error while closing AMQP connection", e);
+            LOG.error("Error while closing AMQP connections", e);
+        }
+        if (dispatchExecutor != null) {
+            // the client library doesn't shut down an executor it has been given
+            Utils.gracefulShutdown(dispatchExecutor, "amqp dispatch");
         }
     }
 
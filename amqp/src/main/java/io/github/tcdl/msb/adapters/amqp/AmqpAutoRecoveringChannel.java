@@ -3,11 +3,18 @@ package io.github.tcdl.msb.adapters.amqp;
 import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.Connection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Wrapper for {@link Channel} that support automatic re-initialization upon errors.
@@ -15,8 +22,12 @@ import java.util.Map;
 public class AmqpAutoRecoveringChannel {
     private static final Logger LOG = LoggerFactory.getLogger(AmqpAutoRecoveringChannel.class);
 
+    static final long BATCH_CONFIRM_TIMEOUT_MS = 30000;
+
     private AmqpConnectionManager connectionManager;
     private volatile Channel channel;
+    private Connection connection;
+    private BatchConfirmListener batchConfirmListener;
 
     /**
      * Lock object used for 2 purposes:
@@ -35,6 +46,16 @@ public class AmqpAutoRecoveringChannel {
         return channel.exchangeDeclare(exchange, type, durable, autoDelete, arguments);
     }
 
+    /**
+     * Declares the exchange without waiting for the broker unless it has been declared through the connection of the channel already.
+     */
+    public void exchangeDeclare(AmqpTopologyCache topologyCache, String exchange, String type, boolean durable, boolean autoDelete) throws IOException {
+        synchronized (lock) {
+            Channel channel = obtainChannelForPublisherConfirms();
+            topologyCache.exchangeDeclare(connection, channel, exchange, type, durable, autoDelete);
+        }
+    }
+
     public void basicPublish(String exchange, String routingKey, AMQP.BasicProperties props, byte[] body) throws IOException {
         synchronized (lock) {
             Channel channel = obtainChannelForPublisherConfirms();
@@ -42,6 +63,50 @@ public class AmqpAutoRecoveringChannel {
         }
     }
 
+    /**
+     * Publishes the messages holding the channel once and waits until the broker confirms all of them. Only confirms
+     * of these messages are waited for, not of the ones other publishers send through the channel meanwhile.
+     *
+     * @throws IOException if the messages can't be published, or the broker rejects any of them or doesn't confirm them
+     * within {@value #BATCH_CONFIRM_TIMEOUT_MS} ms
+     */
+    public void basicPublishBatch(String exchange, String routingKey, AMQP.BasicProperties props, List<byte[]> bodies) throws IOException {
+        if (bodies.isEmpty()) {
+            return;
+        }
+        BatchConfirmListener confirmListener;
+        PendingBatch batch = new PendingBatch(bodies.size());
+        long firstSeqNo;
+        synchronized (lock) {
+            Channel channel = obtainChannelForPublisherConfirms();
+            confirmListener = batchConfirmListener;
+            firstSeqNo = channel.getNextPublishSeqNo();
+            confirmListener.register(firstSeqNo, batch);
+            try {
+                for (byte[] body : bodies) {
+                    channel.basicPublish(exchange, routingKey, props, body);
+                }
+            } catch (IOException | RuntimeException e) {
+                confirmListener.unregister(firstSeqNo, bodies.size());
+                throw e;
+            }
+        }
+
+        try {
+            if (!batch.await(BATCH_CONFIRM_TIMEOUT_MS) || batch.isAborted()) {
+                throw new IOException(String.format("%d messages published into exchange '%s' aren't confirmed", bodies.size(), exchange));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for publisher confirms", e);
+        } finally {
+            confirmListener.unregister(firstSeqNo, bodies.size());
+        }
+        if (batch.isRejected()) {
+            throw new IOException(String.format("Broker rejected some of %d messages published into exchange '%s'", bodies.size(), exchange));
+        }
+    }
+
     private Channel obtainChannelForPublisherConfirms() throws IOException {
         synchronized (lock) {
             if (channel == null || !channel.isOpen()) {
@@ -57,22 +122,17 @@ public class AmqpAutoRecoveringChannel {
             closeChannel(channel);
         }
 
-        channel = connectionManager.obtainConnection().createChannel();
+        connection = connectionManager.obtainProducerConnection();
+        channel = connection.createChannel();
         channel.confirmSelect();
 
-        channel.addConfirmListener(new ConfirmListener() {
-            @Override
-            public void handleAck(long deliveryTag, boolean multiple) throws IOException {
-                LOG.debug("Processing publisher ack (deliveryTag = {}, multiple = {})", deliveryTag, multiple);
-            }
-
-            @Override
-            public void handleNack(long deliveryTag, boolean multiple) throws IOException {
-                LOG.debug("Processing publisher nack (deliveryTag = {}, multiple = {})", deliveryTag, multiple);
-            }
-        });
+        BatchConfirmListener confirmListener = new BatchConfirmListener();
+        batchConfirmListener = confirmListener;
+        channel.addConfirmListener(confirmListener);
 
         channel.addShutdownListener(cause -> {
+            // the channel won't confirm anything anymore
+            confirmListener.abortAll();
             synchronized (lock) {
                 LOG.debug("Handling channel shutdown...");
                 if (cause.isInitiatedByApplication()) {
@@ -91,6 +151,94 @@ public class AmqpAutoRecoveringChannel {
         });
     }
 
+    /**
+     * Counts down the messages of the batches published through a channel as they are confirmed.
+     */
+    private static class BatchConfirmListener implements ConfirmListener {
+
+        private final ConcurrentNavigableMap<Long, PendingBatch> batchesBySeqNo = new ConcurrentSkipListMap<>();
+
+        void register(long firstSeqNo, PendingBatch batch) {
+            for (int i = 0; i < batch.size; i++) {
+                batchesBySeqNo.put(firstSeqNo + i, batch);
+            }
+        }
+
+        void unregister(long firstSeqNo, int size) {
+            batchesBySeqNo.subMap(firstSeqNo, firstSeqNo + size).clear();
+        }
+
+        void abortAll() {
+            batchesBySeqNo.values().forEach(PendingBatch::abort);
+            batchesBySeqNo.clear();
+        }
+
+        @Override
+        public void handleAck(long deliveryTag, boolean multiple) throws IOException {
+            LOG.debug("Processing publisher ack (deliveryTag = {}, multiple = {})", deliveryTag, multiple);
+            confirm(deliveryTag, multiple, false);
+        }
+
+        @Override
+        public void handleNack(long deliveryTag, boolean multiple) throws IOException {
+            LOG.debug("Processing publisher nack (deliveryTag = {}, multiple = {})", deliveryTag, multiple);
+            confirm(deliveryTag, multiple, true);
+        }
+
+        private void confirm(long deliveryTag, boolean multiple, boolean rejected) {
+            if (multiple) {
+                Map<Long, PendingBatch> confirmed = batchesBySeqNo.headMap(deliveryTag, true);
+                confirmed.values().forEach(batch -> batch.confirm(rejected));
+                confirmed.clear();
+            } else {
+                PendingBatch batch = batchesBySeqNo.remove(deliveryTag);
+                if (batch != null) {
+                    batch.confirm(rejected);
+                }
+            }
+        }
+    }
+
+    private static class PendingBatch {
+
+        private final int size;
+        private final AtomicInteger unconfirmed;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean rejected;
+        private volatile boolean aborted;
+
+        PendingBatch(int size) {
+            this.size = size;
+            this.unconfirmed = new AtomicInteger(size);
+        }
+
+        void confirm(boolean rejected) {
+            if (rejected) {
+                this.rejected = true;
+            }
+            if (unconfirmed.decrementAndGet() == 0) {
+                done.countDown();
+            }
+        }
+
+        void abort() {
+            aborted = true;
+            done.countDown();
+        }
+
+        boolean await(long timeoutMs) throws InterruptedException {
+            return done.await(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        boolean isRejected() {
+            return rejected;
+        }
+
+        boolean isAborted() {
+            return aborted;
+        }
+    }
+
     private void closeChannel(Channel channel) {
         try {
             channel.abort();
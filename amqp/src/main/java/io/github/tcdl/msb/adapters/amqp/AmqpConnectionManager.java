@@ -1,34 +1,151 @@
 package io.github.tcdl.msb.adapters.amqp;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.Recoverable;
 
 /**
- * To work with AMQP broker (for example RabbitMQ) we use single connection.
- * The responsibility of this singleton class is to manage the lifecycle of that connection.
+ * To work with AMQP broker (for example RabbitMQ) we use a pool of connections: consumer channels are spread across
+ * consumer connections and producer channels across producer connections, so each connection has its own I/O thread and
+ * TCP flow control on publishing doesn't stall deliveries. Producers may also share the consumer connections.
+ *
+ * Each connection recovers on its own. While a connection is being recovered new channels are created on the other open
+ * connections of the same kind.
+ *
+ * The responsibility of this class is to manage the lifecycle of those connections and to keep track of the topology
+ * declared through them (see {@link AmqpTopologyCache}).
  */
 public class AmqpConnectionManager {
     private static Logger LOG = LoggerFactory.getLogger(AmqpConnectionManager.class);
 
-    private Connection connection;
+    private final List<Connection> consumerConnections;
+    private final List<Connection> producerConnections;
+    private final AtomicInteger nextConsumerConnection = new AtomicInteger();
+    private final AtomicInteger nextProducerConnection = new AtomicInteger();
+    private final LongAdder recoveriesCount = new LongAdder();
+    private final AmqpTopologyCache topologyCache = new AmqpTopologyCache();
 
+    /**
+     * Consumers and producers share the given connection.
+     */
     public AmqpConnectionManager(Connection connection) {
-        this.connection = connection;
+        this(Collections.singletonList(connection), Collections.singletonList(connection));
     }
 
+    public AmqpConnectionManager(List<Connection> consumerConnections, List<Connection> producerConnections) {
+        Validate.notEmpty(consumerConnections, "the 'consumerConnections' must not be empty");
+        Validate.notEmpty(producerConnections, "the 'producerConnections' must not be empty");
+        this.consumerConnections = new ArrayList<>(consumerConnections);
+        this.producerConnections = new ArrayList<>(producerConnections);
+
+        for (Connection connection : getAllConnections()) {
+            if (connection instanceof Recoverable) {
+                // This cast is possible for connections created by a factory that supports auto-recovery
+                ((Recoverable) connection).addRecoveryListener(recoverable -> {
+                    recoveriesCount.increment();
+                    topologyCache.connectionRecovered(connection);
+                });
+            }
+        }
+    }
+
+    /**
+     * @return the next consumer connection
+     */
     public Connection obtainConnection() {
-        return connection;
+        return obtainConsumerConnection();
+    }
+
+    /**
+     * @return the next open consumer connection in round-robin order, or the next one if none is open
+     */
+    public Connection obtainConsumerConnection() {
+        return nextConnection(consumerConnections, nextConsumerConnection);
     }
 
+    /**
+     * @return the next open producer connection in round-robin order, or the next one if none is open
+     */
+    public Connection obtainProducerConnection() {
+        return nextConnection(producerConnections, nextProducerConnection);
+    }
+
+    private static Connection nextConnection(List<Connection> connections, AtomicInteger next) {
+        int start = Math.floorMod(next.getAndIncrement(), connections.size());
+        for (int i = 0; i < connections.size(); i++) {
+            Connection connection = connections.get((start + i) % connections.size());
+            if (connection.isOpen()) {
+                return connection;
+            }
+        }
+        // all connections are being recovered, let the caller fail or wait on any of them
+        return connections.get(start);
+    }
+
+    public int getConsumerConnectionsCount() {
+        return consumerConnections.size();
+    }
+
+    public int getProducerConnectionsCount() {
+        return producerConnections.size();
+    }
+
+    /**
+     * @return total number of automatic recoveries of all connections
+     */
+    public long getRecoveriesCount() {
+        return recoveriesCount.sum();
+    }
+
+    /**
+     * @return exchanges, queues and bindings declared through the connections of this manager
+     */
+    public AmqpTopologyCache getTopologyCache() {
+        return topologyCache;
+    }
+
+    private Set<Connection> getAllConnections() {
+        Set<Connection> connections = new LinkedHashSet<>(consumerConnections);
+        connections.addAll(producerConnections);
+        return connections;
+    }
+
+    /**
+     * Closes all open connections.
+     *
+     * @throws IOException the first error encountered, the remaining connections are closed anyway
+     */
     public void close() throws IOException {
-        if (connection.isOpen()) {
-            LOG.info("Closing AMQP connection...");
-            connection.close();
-            LOG.info("AMQP connection closed.");
+        IOException firstError = null;
+        for (Connection connection : getAllConnections()) {
+            if (connection.isOpen()) {
+                LOG.info("Closing AMQP connection...");
+                try {
+                    connection.close();
+                    LOG.info("AMQP connection closed.");
+                } catch (IOException e) {
+                    if (firstError == null) {
+                        firstError = e;
+                    } else {
+                        LOG.error("Error while closing AMQP connection", e);
+                    }
+                }
+            }
         }
-    }    
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
 }
@@ -1,22 +1,34 @@
 package io.github.tcdl.msb.adapters.amqp;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
 import io.github.tcdl.msb.adapters.ConsumerAdapter;
 import io.github.tcdl.msb.api.exception.ChannelException;
 import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
 import io.github.tcdl.msb.support.Utils;
 import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class AmqpConsumerAdapter implements ConsumerAdapter {
 
+    private static final Logger LOG = LoggerFactory.getLogger(AmqpConsumerAdapter.class);
+
     private String topic;
+    private Connection connection;
     private Channel channel;
+    private AmqpTopologyCache topologyCache;
     private String exchangeName;
+    private String queueName;
     private String consumerTag;
     private AmqpBrokerConfig adapterConfig;
     private boolean isResponseTopic = false;
+    private Optional<Integer> prefetchCount;
+    private Optional<AdaptivePrefetchController> prefetchController = Optional.empty();
+    private AmqpReplyAddresses replyAddresses;
 
     /**
      * The constructor.
@@ -24,16 +36,43 @@ public class AmqpConsumerAdapter implements ConsumerAdapter {
      * @throws ChannelException if some problems during setup channel from RabbitMQ connection were occurred
      */
     public AmqpConsumerAdapter(String topic, AmqpBrokerConfig amqpBrokerConfig, AmqpConnectionManager connectionManager, boolean isResponseTopic) {
+        this(topic, amqpBrokerConfig, connectionManager, isResponseTopic, Optional.empty());
+    }
+
+    /**
+     * The constructor.
+     * @param topic - a topic name associated with the adapter
+     * @param prefetchCount - prefetch count to be used instead of the one from {@link AmqpBrokerConfig}, it is not tuned at runtime
+     * @throws ChannelException if some problems during setup channel from RabbitMQ connection were occurred
+     */
+    public AmqpConsumerAdapter(String topic, AmqpBrokerConfig amqpBrokerConfig, AmqpConnectionManager connectionManager, boolean isResponseTopic,
+            Optional<Integer> prefetchCount) {
+        this(topic, amqpBrokerConfig, connectionManager, isResponseTopic, prefetchCount, null);
+    }
+
+    /**
+     * The constructor.
+     * @param topic - a topic name associated with the adapter
+     * @param prefetchCount - prefetch count to be used instead of the one from {@link AmqpBrokerConfig}, it is not tuned at runtime
+     * @param replyAddresses - registry of the reply addresses of consumed requests, may be null
+     * @throws ChannelException if some problems during setup channel from RabbitMQ connection were occurred
+     */
+    public AmqpConsumerAdapter(String topic, AmqpBrokerConfig amqpBrokerConfig, AmqpConnectionManager connectionManager, boolean isResponseTopic,
+            Optional<Integer> prefetchCount, AmqpReplyAddresses replyAddresses) {
         Validate.notNull(topic, "the 'topic' must not be null");
 
         this.topic = topic;
         this.exchangeName = topic;
         this.adapterConfig = amqpBrokerConfig;
         this.isResponseTopic = isResponseTopic;
+        this.prefetchCount = prefetchCount;
+        this.replyAddresses = replyAddresses;
+
+        this.topologyCache = connectionManager.getTopologyCache();
 
         try {
-            channel = connectionManager.obtainConnection().createChannel();
-            channel.exchangeDeclare(exchangeName, "fanout", false /* durable */, true /* auto-delete */, null);
+            connection = connectionManager.obtainConsumerConnection();
+            channel = connection.createChannel();
         } catch (IOException e) {
             throw new ChannelException("Failed to setup channel from ActiveMQ connection", e);
         }
@@ -46,21 +85,55 @@ public class AmqpConsumerAdapter implements ConsumerAdapter {
     public void subscribe(RawMessageHandler msgHandler) {
         String groupId = adapterConfig.getGroupId().orElse(Utils.generateId());
         boolean durable = isDurable();
-        int prefetchCount = adapterConfig.getPrefetchCount();
+        int prefetchCount = this.prefetchCount.orElse(adapterConfig.getPrefetchCount());
 
-        String queueName = generateQueueName(topic, groupId, durable);
+        queueName = generateQueueName(topic, groupId, durable);
 
         try {
-            channel.queueDeclare(queueName, durable /* durable */, false /* exclusive */, !durable /*auto-delete */, null);
-            channel.basicQos(prefetchCount); // Don't accept more messages if we have any unacknowledged
-            channel.queueBind(queueName, exchangeName, "");
+            // declarations are pipelined, a rejected one makes the synchronous methods below fail
+            topologyCache.exchangeDeclare(connection, channel, exchangeName, "fanout", false /* durable */, true /* auto-delete */);
+            topologyCache.queueDeclare(connection, channel, queueName, durable /* durable */, false /* exclusive */, !durable /*auto-delete */);
+            topologyCache.queueBind(connection, channel, queueName, exchangeName, "");
+
+            AdaptivePrefetchController controller = null;
+            if (adapterConfig.getAdaptivePrefetch().isPresent() && !this.prefetchCount.isPresent()) {
+                controller = new AdaptivePrefetchController(channel, topic, prefetchCount, adapterConfig.getAdaptivePrefetch().get());
+                controller.start();
+            } else {
+                channel.basicQos(prefetchCount); // Don't accept more messages if we have any unacknowledged
+            }
+            prefetchController = Optional.ofNullable(controller);
 
-            consumerTag = channel.basicConsume(queueName, false /* autoAck */, new AmqpMessageConsumer(channel, msgHandler, adapterConfig));
+            consumerTag = channel.basicConsume(queueName, false /* autoAck */, new AmqpMessageConsumer(channel, msgHandler, adapterConfig, controller,
+                    replyAddresses, topic));
         } catch (IOException e) {
+            topologyCache.forget(exchangeName, queueName);
+            resetChannel();
             throw new ChannelException(String.format("Failed to subscribe to topic %s", topic), e);
         }
     }
 
+    /**
+     * A rejected pipelined declaration closes the channel, a new one lets the next subscription succeed.
+     */
+    private void resetChannel() {
+        if (channel.isOpen()) {
+            return;
+        }
+        try {
+            channel = connection.createChannel();
+        } catch (IOException e) {
+            LOG.warn("[topic: {}] Failed to replace closed channel", topic, e);
+        }
+    }
+
+    /**
+     * @return controller that tunes prefetch count of this consumer, empty if prefetch count is fixed or the adapter isn't subscribed
+     */
+    public Optional<AdaptivePrefetchController> getPrefetchController() {
+        return prefetchController;
+    }
+
     protected boolean isDurable() {
         if(isResponseTopic) {
             //response topic is always auto-delete and not durable
@@ -0,0 +1,117 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import io.github.tcdl.msb.acknowledge.AcknowledgementAdapter;
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerImpl;
+import io.github.tcdl.msb.adapters.ConsumerAdapter;
+import io.github.tcdl.msb.api.exception.ChannelException;
+import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.MessageProperties;
+
+/**
+ * Consumer of the direct reply topic of a service instance. Responses are consumed from the RabbitMQ Direct Reply-to
+ * pseudo-queue without declaring a queue and without acknowledgements.
+ *
+ * The broker delivers a reply only to the channel its request was published on, so requests that expect
+ * responses on this topic are published through {@link #publish(String, byte[])} on the same channel.
+ */
+public class AmqpDirectReplyAdapter implements ConsumerAdapter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AmqpDirectReplyAdapter.class);
+
+    public static final String REPLY_TO = "amq.rabbitmq.reply-to";
+
+    private static final AcknowledgementAdapter NO_ACKNOWLEDGEMENT = new AcknowledgementAdapter() {
+        @Override
+        public void confirm() {
+        }
+
+        @Override
+        public void reject() {
+        }
+
+        @Override
+        public void retry() {
+        }
+    };
+
+    private final String topic;
+    private final AmqpBrokerConfig amqpBrokerConfig;
+    private final AmqpConnectionManager connectionManager;
+    private final AMQP.BasicProperties requestProperties;
+
+    // guarded by this
+    private Channel channel;
+    private String consumerTag;
+
+    public AmqpDirectReplyAdapter(String topic, AmqpBrokerConfig amqpBrokerConfig, AmqpConnectionManager connectionManager) {
+        Validate.notNull(topic, "the 'topic' must not be null");
+        this.topic = topic;
+        this.amqpBrokerConfig = amqpBrokerConfig;
+        this.connectionManager = connectionManager;
+        this.requestProperties = MessageProperties.PERSISTENT_BASIC.builder()
+                .replyTo(REPLY_TO)
+                .headers(Collections.singletonMap(AmqpReplyAddresses.RESPONSE_TOPIC_HEADER, topic))
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void subscribe(RawMessageHandler msgHandler) {
+        try {
+            if (channel == null) {
+                channel = connectionManager.obtainConsumerConnection().createChannel();
+            }
+            consumerTag = channel.basicConsume(REPLY_TO, true /* autoAck */, new AmqpMessageConsumer(channel, msgHandler, amqpBrokerConfig, null, null, topic) {
+                @Override
+                AcknowledgementHandlerImpl createAcknowledgementHandler(Channel channel, String consumerTag, long deliveryTag,
+                        boolean isRequeueRejectedMessages) {
+                    // replies are acknowledged on delivery and can't be rejected
+                    return new AcknowledgementHandlerImpl(NO_ACKNOWLEDGEMENT, false, "consumer tag: " + consumerTag);
+                }
+            });
+            LOG.info("Consuming responses to topic {} through direct reply-to", topic);
+        } catch (IOException e) {
+            throw new ChannelException(String.format("Failed to subscribe to topic %s", topic), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void unsubscribe() {
+        if (consumerTag == null) {
+            return;
+        }
+        try {
+            channel.basicCancel(consumerTag);
+            consumerTag = null;
+        } catch (IOException e) {
+            throw new ChannelException(String.format("Failed to unsubscribe from topic %s", topic), e);
+        }
+    }
+
+    /**
+     * Publishes the request with the reply-to property on the channel that consumes its responses.
+     *
+     * @throws ChannelException if the topic isn't subscribed since the broker closes the channel in this case
+     * @throws IOException if the request can't be published
+     */
+    public synchronized void publish(String exchangeName, byte[] body) throws IOException {
+        if (consumerTag == null) {
+            throw new ChannelException(String.format("Can't publish a request to exchange '%s' before topic %s is subscribed", exchangeName, topic), null);
+        }
+        channel.basicPublish(exchangeName, "", requestProperties, body);
+    }
+}
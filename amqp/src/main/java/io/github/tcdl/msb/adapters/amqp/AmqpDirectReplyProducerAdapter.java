@@ -0,0 +1,62 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import io.github.tcdl.msb.adapters.ProducerAdapter;
+import io.github.tcdl.msb.api.exception.ChannelException;
+import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.rabbitmq.client.MessageProperties;
+
+/**
+ * Producer of responses to a requester that receives them through RabbitMQ Direct Reply-to. Responses are published
+ * through the default exchange to the latest reply address of the topic.
+ */
+public class AmqpDirectReplyProducerAdapter implements ProducerAdapter {
+
+    private final String topic;
+    private final AmqpReplyAddresses replyAddresses;
+    private final AmqpBrokerConfig amqpBrokerConfig;
+    private final AmqpAutoRecoveringChannel amqpAutoRecoveringChannel;
+
+    /**
+     * @param channel - channel shared with other adapters
+     */
+    public AmqpDirectReplyProducerAdapter(String topic, AmqpReplyAddresses replyAddresses, AmqpBrokerConfig amqpBrokerConfig,
+            AmqpAutoRecoveringChannel channel) {
+        Validate.notNull(topic, "the 'topic' must not be null");
+        this.topic = topic;
+        this.replyAddresses = replyAddresses;
+        this.amqpBrokerConfig = amqpBrokerConfig;
+        this.amqpAutoRecoveringChannel = channel;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publish(String jsonMessage) {
+        publish(jsonMessage.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publish(byte[] jsonMessage) {
+        String address = replyAddresses.getAddress(topic);
+        if (address == null) {
+            throw new ChannelException(String.format("No reply address of topic %s is known to publish message '%s'",
+                    topic, new String(jsonMessage, StandardCharsets.UTF_8)), null);
+        }
+        try {
+            amqpAutoRecoveringChannel.basicPublish("", address, MessageProperties.PERSISTENT_BASIC,
+                    AmqpProducerAdapter.encode(jsonMessage, amqpBrokerConfig.getCharset()));
+        } catch (IOException e) {
+            throw new ChannelException(String.format("Failed to publish message '%s' to reply address '%s'",
+                    new String(jsonMessage, StandardCharsets.UTF_8), address), e);
+        }
+    }
+}
@@ -2,8 +2,9 @@ package io.github.tcdl.msb.adapters.amqp;
 
 import io.github.tcdl.msb.adapters.ConsumerAdapter;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerImpl;
-import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
+import io.github.tcdl.msb.jfr.MessageEventType;
+import io.github.tcdl.msb.jfr.MessageEvents;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
@@ -26,18 +27,54 @@ public class AmqpMessageConsumer extends DefaultConsumer {
 
     ConsumerAdapter.RawMessageHandler msgHandler;
     private AmqpBrokerConfig amqpBrokerConfig;
+    private final AdaptivePrefetchController prefetchController;
+    private final AmqpReplyAddresses replyAddresses;
+    private final String topic;
 
     public AmqpMessageConsumer(Channel channel, ConsumerAdapter.RawMessageHandler msgHandler, AmqpBrokerConfig amqpBrokerConfig) {
+        this(channel, msgHandler, amqpBrokerConfig, null);
+    }
+
+    /**
+     * @param prefetchController controller that tunes prefetch count of the channel, may be null
+     */
+    public AmqpMessageConsumer(Channel channel, ConsumerAdapter.RawMessageHandler msgHandler, AmqpBrokerConfig amqpBrokerConfig,
+            AdaptivePrefetchController prefetchController) {
+        this(channel, msgHandler, amqpBrokerConfig, prefetchController, null);
+    }
+
+    /**
+     * @param prefetchController controller that tunes prefetch count of the channel, may be null
+     * @param replyAddresses registry of the reply addresses of consumed requests, may be null
+     */
+    public AmqpMessageConsumer(Channel channel, ConsumerAdapter.RawMessageHandler msgHandler, AmqpBrokerConfig amqpBrokerConfig,
+            AdaptivePrefetchController prefetchController, AmqpReplyAddresses replyAddresses) {
+        this(channel, msgHandler, amqpBrokerConfig, prefetchController, replyAddresses, null);
+    }
+
+    /**
+     * @param prefetchController controller that tunes prefetch count of the channel, may be null
+     * @param replyAddresses registry of the reply addresses of consumed requests, may be null
+     * @param topic topic the messages are consumed from, may be null if it's resolved from the delivery
+     */
+    public AmqpMessageConsumer(Channel channel, ConsumerAdapter.RawMessageHandler msgHandler, AmqpBrokerConfig amqpBrokerConfig,
+            AdaptivePrefetchController prefetchController, AmqpReplyAddresses replyAddresses, String topic) {
         super(channel);
         this.msgHandler = msgHandler;
         this.amqpBrokerConfig = amqpBrokerConfig;
+        this.prefetchController = prefetchController;
+        this.replyAddresses = replyAddresses;
+        this.topic = topic;
     }
 
     @Override
     public void handleDelivery(String consumerTag, Envelope envelope, AMQP.BasicProperties properties, byte[] body) throws IOException {
+        Object receivedEvent = MessageEvents.begin(MessageEventType.RECEIVED);
         long deliveryTag = envelope.getDeliveryTag();
-        AcknowledgementHandlerInternal ackHandler = createAcknowledgementHandler(
+        AcknowledgementHandlerImpl ackHandler = createAcknowledgementHandler(
                 getChannel(), consumerTag, deliveryTag, envelope.isRedeliver());
+        // the correlation id is not known until the message is parsed
+        ackHandler.messageReceived(resolveTopic(envelope), receivedEvent);
         try {
             Charset charset = amqpBrokerConfig.getCharset();
 
@@ -45,8 +82,20 @@ public class AmqpMessageConsumer extends DefaultConsumer {
 
             LOG.debug("[consumer tag: {}] Message consumed from broker: {}", consumerTag, bodyStr);
 
+            if (replyAddresses != null) {
+                replyAddresses.update(properties);
+            }
+
+            ConsumerAdapter.RawMessageHandler handler = resolveMessageHandler(envelope);
+            if (handler == null) {
+                LOG.warn("[consumer tag: {}] No handler for a message with routing key '{}'. Rejecting it: {}",
+                        consumerTag, envelope.getRoutingKey(), bodyStr);
+                ackHandler.autoReject();
+                return;
+            }
+
             try {
-                msgHandler.onMessage(bodyStr, ackHandler);
+                handler.onMessage(bodyStr, ackHandler);
                 LOG.debug("[consumer tag: {}] Raw message has been handled: {}.",
                         consumerTag, bodyStr);
             } catch (Exception e) {
@@ -61,8 +110,24 @@ public class AmqpMessageConsumer extends DefaultConsumer {
         }
     }
 
-    AcknowledgementHandlerInternal createAcknowledgementHandler(Channel channel, String consumerTag, long deliveryTag, boolean isRequeueRejectedMessages) {
-        AmqpAcknowledgementAdapter adapter = new AmqpAcknowledgementAdapter(channel, consumerTag, deliveryTag);
+    /**
+     * @return handler of the delivered message or null if there is none
+     */
+    protected ConsumerAdapter.RawMessageHandler resolveMessageHandler(Envelope envelope) {
+        return msgHandler;
+    }
+
+    /**
+     * @return topic of the delivered message
+     */
+    protected String resolveTopic(Envelope envelope) {
+        return topic;
+    }
+
+    AcknowledgementHandlerImpl createAcknowledgementHandler(Channel channel, String consumerTag, long deliveryTag, boolean isRequeueRejectedMessages) {
+        AmqpAcknowledgementAdapter adapter = prefetchController == null
+                ? new AmqpAcknowledgementAdapter(channel, consumerTag, deliveryTag)
+                : new AmqpAcknowledgementAdapter(channel, consumerTag, deliveryTag, prefetchController, prefetchController.messageDelivered());
         String messageTextIdentifier = "consumer tag: " + consumerTag;
         return new AcknowledgementHandlerImpl(adapter, isRequeueRejectedMessages, messageTextIdentifier);
     }
@@ -8,11 +8,16 @@ import org.apache.commons.lang3.Validate;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 public class AmqpProducerAdapter implements ProducerAdapter {
     private String exchangeName;
+    private String routingKey = "";
     private AmqpBrokerConfig amqpBrokerConfig;
     private AmqpAutoRecoveringChannel amqpAutoRecoveringChannel;
+    private AmqpDirectReplyAdapter directReplyAdapter;
 
     /**
      * The constructor.
@@ -20,19 +25,47 @@ public class AmqpProducerAdapter implements ProducerAdapter {
      * @throws ChannelException if some problems during setup channel from RabbitMQ connection were occurred
      */
     public AmqpProducerAdapter(String topic, AmqpBrokerConfig amqpBrokerConfig, AmqpConnectionManager connectionManager) {
+        this(topic, amqpBrokerConfig, connectionManager, null);
+    }
+
+    /**
+     * The constructor.
+     * @param topic - a topic name associated with the adapter
+     * @param directReplyAdapter - adapter that publishes requests expecting responses through direct reply-to, may be null
+     * @throws ChannelException if some problems during setup channel from RabbitMQ connection were occurred
+     */
+    public AmqpProducerAdapter(String topic, AmqpBrokerConfig amqpBrokerConfig, AmqpConnectionManager connectionManager,
+            AmqpDirectReplyAdapter directReplyAdapter) {
         Validate.notNull(topic, "the 'topic' must not be null");
 
         this.exchangeName = topic;
         this.amqpBrokerConfig = amqpBrokerConfig;
         this.amqpAutoRecoveringChannel = new AmqpAutoRecoveringChannel(connectionManager);
+        this.directReplyAdapter = directReplyAdapter;
 
         try {
-            amqpAutoRecoveringChannel.exchangeDeclare(exchangeName, "fanout", false /* durable */, true /* auto-delete */, null);
+            amqpAutoRecoveringChannel.exchangeDeclare(connectionManager.getTopologyCache(), exchangeName, "fanout", false /* durable */, true /* auto-delete */);
         } catch (IOException e) {
             throw new ChannelException("Failed to setup channel from ActiveMQ connection", e);
         }
     }
 
+    /**
+     * The constructor for messages routed through an exchange declared elsewhere and shared with other adapters.
+     * @param exchangeName - name of the existing exchange
+     * @param routingKey - routing key of the published messages
+     * @param channel - channel shared with other adapters
+     */
+    public AmqpProducerAdapter(String exchangeName, String routingKey, AmqpBrokerConfig amqpBrokerConfig, AmqpAutoRecoveringChannel channel) {
+        Validate.notNull(exchangeName, "the 'exchangeName' must not be null");
+        Validate.notNull(routingKey, "the 'routingKey' must not be null");
+
+        this.exchangeName = exchangeName;
+        this.routingKey = routingKey;
+        this.amqpBrokerConfig = amqpBrokerConfig;
+        this.amqpAutoRecoveringChannel = channel;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -40,9 +73,79 @@ public class AmqpProducerAdapter implements ProducerAdapter {
     public void publish(String jsonMessage) {
         try {
             Charset charset = amqpBrokerConfig.getCharset();
-            amqpAutoRecoveringChannel.basicPublish(exchangeName, "" /* routing key */, MessageProperties.PERSISTENT_BASIC, jsonMessage.getBytes(charset));
+            amqpAutoRecoveringChannel.basicPublish(exchangeName, routingKey, MessageProperties.PERSISTENT_BASIC, jsonMessage.getBytes(charset));
         } catch (IOException e) {
             throw new ChannelException(String.format("Failed to publish message '%s' into exchange '%s'", jsonMessage, exchangeName), e);
         }
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The bytes are published as they are unless the configured charset is not UTF-8.
+     */
+    @Override
+    public void publish(byte[] jsonMessage) {
+        try {
+            amqpAutoRecoveringChannel.basicPublish(exchangeName, routingKey, MessageProperties.PERSISTENT_BASIC,
+                    encode(jsonMessage, amqpBrokerConfig.getCharset()));
+        } catch (IOException e) {
+            throw new ChannelException(String.format("Failed to publish message '%s' into exchange '%s'",
+                    new String(jsonMessage, StandardCharsets.UTF_8), exchangeName), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The messages are published holding the channel once and the broker confirmation of all of them is awaited.
+     */
+    @Override
+    public void publishBatch(List<byte[]> jsonMessages) {
+        Charset charset = amqpBrokerConfig.getCharset();
+        List<byte[]> bodies = new ArrayList<>(jsonMessages.size());
+        for (byte[] jsonMessage : jsonMessages) {
+            bodies.add(encode(jsonMessage, charset));
+        }
+        try {
+            amqpAutoRecoveringChannel.basicPublishBatch(exchangeName, routingKey, MessageProperties.PERSISTENT_BASIC, bodies);
+        } catch (IOException e) {
+            throw new ChannelException(String.format("Failed to publish %d messages into exchange '%s'", jsonMessages.size(), exchangeName), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publishForDirectReply(String jsonMessage) {
+        publishForDirectReply(jsonMessage.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publishForDirectReply(byte[] jsonMessage) {
+        if (directReplyAdapter == null) {
+            publish(jsonMessage);
+            return;
+        }
+        try {
+            directReplyAdapter.publish(exchangeName, encode(jsonMessage, amqpBrokerConfig.getCharset()));
+        } catch (IOException e) {
+            throw new ChannelException(String.format("Failed to publish message '%s' into exchange '%s'",
+                    new String(jsonMessage, StandardCharsets.UTF_8), exchangeName), e);
+        }
+    }
+
+    /**
+     * Re-encodes the UTF-8 message in the charset of the broker configuration, the same array is returned for UTF-8.
+     */
+    static byte[] encode(byte[] utf8JsonMessage, Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return utf8JsonMessage;
+        }
+        return new String(utf8JsonMessage, StandardCharsets.UTF_8).getBytes(charset);
+    }
 }
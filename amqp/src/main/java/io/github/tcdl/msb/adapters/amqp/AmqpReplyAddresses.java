@@ -0,0 +1,55 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.rabbitmq.client.AMQP;
+
+/**
+ * Reply addresses of the requesters that receive responses through RabbitMQ Direct Reply-to, by their response topics.
+ *
+ * A requester publishes such requests with {@value AmqpDirectReplyAdapter#REPLY_TO} as reply-to and its response topic in a header.
+ * The broker replaces the reply-to with the address of the requesting channel, which is remembered here when the request is consumed
+ * and used when the response is published to the topic. The address of a topic changes if the requester's channel is recovered,
+ * the next request brings the new one.
+ */
+public class AmqpReplyAddresses {
+
+    /**
+     * Prefix of the response topics that are answered through Direct Reply-to.
+     */
+    public static final String TOPIC_PREFIX = "_direct-reply:";
+
+    /**
+     * Header of the request with the response topic of the requester.
+     */
+    public static final String RESPONSE_TOPIC_HEADER = "msbResponseTopic";
+
+    private final Map<String, String> addressesByTopic = new ConcurrentHashMap<>();
+
+    public static boolean isDirectReplyTopic(String topic) {
+        return topic.startsWith(TOPIC_PREFIX);
+    }
+
+    /**
+     * Remembers the reply address of a consumed request if it has one.
+     */
+    void update(AMQP.BasicProperties properties) {
+        if (properties == null || properties.getReplyTo() == null || properties.getHeaders() == null
+                || !properties.getReplyTo().startsWith(AmqpDirectReplyAdapter.REPLY_TO)) {
+            return;
+        }
+        Object topic = properties.getHeaders().get(RESPONSE_TOPIC_HEADER);
+        if (topic != null) {
+            // the header value is delivered as a LongString
+            addressesByTopic.put(topic.toString(), properties.getReplyTo());
+        }
+    }
+
+    /**
+     * @return reply address of the requester listening to the topic or null if no request with this topic has been consumed
+     */
+    public String getAddress(String topic) {
+        return addressesByTopic.get(topic);
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import io.github.tcdl.msb.adapters.ConsumerAdapter;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Consumer of a response topic that receives its messages from the {@link AmqpResponseQueue} of the service instance.
+ */
+public class AmqpResponseConsumerAdapter implements ConsumerAdapter {
+
+    private final String topic;
+    private final AmqpResponseQueue responseQueue;
+
+    public AmqpResponseConsumerAdapter(String topic, AmqpResponseQueue responseQueue) {
+        Validate.notNull(topic, "the 'topic' must not be null");
+        this.topic = topic;
+        this.responseQueue = responseQueue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subscribe(RawMessageHandler msgHandler) {
+        responseQueue.subscribe(topic, msgHandler);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unsubscribe() {
+        responseQueue.unsubscribe(topic);
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.tcdl.msb.adapters.ConsumerAdapter.RawMessageHandler;
+import io.github.tcdl.msb.api.exception.ChannelException;
+import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+
+/**
+ * The only queue of a service instance that receives responses to all its response topics when responses are routed
+ * through the shared direct exchange. Each response topic is bound to the queue with the topic name as routing key
+ * and responses are passed to the handler of their topic.
+ *
+ * The queue is declared and consumed when the first response topic is subscribed.
+ */
+public class AmqpResponseQueue {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AmqpResponseQueue.class);
+
+    private final String exchangeName;
+    private final String queueName;
+    private final AmqpBrokerConfig amqpBrokerConfig;
+    private final AmqpConnectionManager connectionManager;
+    private final Map<String, RawMessageHandler> handlersByTopic = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private Channel channel;
+
+    public AmqpResponseQueue(String exchangeName, String instanceId, AmqpBrokerConfig amqpBrokerConfig, AmqpConnectionManager connectionManager) {
+        this.exchangeName = exchangeName;
+        this.queueName = exchangeName + "." + instanceId + ".t";
+        this.amqpBrokerConfig = amqpBrokerConfig;
+        this.connectionManager = connectionManager;
+    }
+
+    /**
+     * @throws ChannelException if the queue can't be declared or bound
+     */
+    public synchronized void subscribe(String topic, RawMessageHandler msgHandler) {
+        handlersByTopic.put(topic, msgHandler);
+        try {
+            startConsuming();
+            channel.queueBind(queueName, exchangeName, topic);
+        } catch (IOException e) {
+            handlersByTopic.remove(topic);
+            throw new ChannelException(String.format("Failed to subscribe to response topic %s", topic), e);
+        }
+    }
+
+    /**
+     * @throws ChannelException if the topic can't be unbound from the queue
+     */
+    public synchronized void unsubscribe(String topic) {
+        if (handlersByTopic.remove(topic) == null || channel == null) {
+            return;
+        }
+        try {
+            channel.queueUnbind(queueName, exchangeName, topic);
+        } catch (IOException e) {
+            throw new ChannelException(String.format("Failed to unsubscribe from response topic %s", topic), e);
+        }
+    }
+
+    private void startConsuming() throws IOException {
+        if (channel != null) {
+            return;
+        }
+        Channel newChannel = connectionManager.obtainConsumerConnection().createChannel();
+        newChannel.queueDeclare(queueName, false /* durable */, true /* exclusive */, true /* auto-delete */, null);
+        newChannel.basicQos(amqpBrokerConfig.getPrefetchCount());
+        newChannel.basicConsume(queueName, false /* autoAck */, new AmqpMessageConsumer(newChannel, null, amqpBrokerConfig) {
+            @Override
+            protected RawMessageHandler resolveMessageHandler(Envelope envelope) {
+                return handlersByTopic.get(envelope.getRoutingKey());
+            }
+
+            @Override
+            protected String resolveTopic(Envelope envelope) {
+                // responses to all topics are routed to the queue by their topic
+                return envelope.getRoutingKey();
+            }
+        });
+        LOG.info("Consuming responses from queue {}", queueName);
+        channel = newChannel;
+    }
+
+    String getQueueName() {
+        return queueName;
+    }
+}
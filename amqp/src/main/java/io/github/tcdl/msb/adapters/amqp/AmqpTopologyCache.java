@@ -0,0 +1,106 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+
+/**
+ * Sends the declarations of exchanges, queues and bindings without waiting for the broker, so that subscribing to many topics
+ * doesn't take a blocking round-trip per declaration. Concurrent declarations of the same entity are harmless. One that the
+ * broker rejects closes the channel, so callers follow them by a synchronous method (like {@code basic.consume}), call
+ * {@link #forget(String, String)} and replace the channel if it fails.
+ *
+ * Only durable queues, and bindings between remembered queues and exchanges, are skipped once they have been declared through
+ * a connection. Auto-delete exchanges and queues are declared every time because the broker deletes them as soon as their
+ * last binding or consumer is gone, which may be one of another service instance. MSB exchanges are always auto-delete, so
+ * their bindings are declared every time as well and the saving comes from pipelining rather than from skipped declarations.
+ *
+ * Declarations are remembered per connection and forgotten when it is recovered, in case the broker has lost them meanwhile.
+ */
+public class AmqpTopologyCache {
+
+    private final Map<Connection, Set<String>> declarationsByConnection = new ConcurrentHashMap<>();
+
+    /**
+     * Declares the exchange unless it isn't auto-delete and has been declared through the connection already.
+     */
+    public void exchangeDeclare(Connection connection, Channel channel, String exchange, String type, boolean durable, boolean autoDelete)
+            throws IOException {
+        Set<String> declarations = declarations(connection);
+        String key = exchangeKey(exchange);
+        if (!declarations.contains(key)) {
+            channel.exchangeDeclareNoWait(exchange, type, durable, autoDelete, false /* internal */, null);
+            if (!autoDelete) {
+                declarations.add(key);
+            }
+        }
+    }
+
+    /**
+     * Declares the queue unless it isn't auto-delete and has been declared through the connection already.
+     */
+    public void queueDeclare(Connection connection, Channel channel, String queue, boolean durable, boolean exclusive, boolean autoDelete)
+            throws IOException {
+        Set<String> declarations = declarations(connection);
+        String key = queueKey(queue);
+        if (!declarations.contains(key)) {
+            channel.queueDeclareNoWait(queue, durable, exclusive, autoDelete, null);
+            if (!autoDelete) {
+                declarations.add(key);
+            }
+        }
+    }
+
+    /**
+     * Binds the queue to the exchange unless it has been bound through the connection already and both of them are remembered.
+     */
+    public void queueBind(Connection connection, Channel channel, String queue, String exchange, String routingKey) throws IOException {
+        Set<String> declarations = declarations(connection);
+        String key = bindingKey(queue, exchange, routingKey);
+        if (!declarations.contains(key)) {
+            channel.queueBindNoWait(queue, exchange, routingKey, null);
+            if (declarations.contains(queueKey(queue)) && declarations.contains(exchangeKey(exchange))) {
+                declarations.add(key);
+            }
+        }
+    }
+
+    /**
+     * Forgets the exchange, the queue and the bindings of the queue on all connections, e.g. because their declaration has failed.
+     */
+    public void forget(String exchange, String queue) {
+        String exchangeKey = exchangeKey(exchange);
+        String queueKey = queueKey(queue);
+        String bindingKeyPrefix = "binding " + queue + " ";
+        for (Set<String> declarations : declarationsByConnection.values()) {
+            declarations.removeIf(key -> key.equals(exchangeKey) || key.equals(queueKey) || key.startsWith(bindingKeyPrefix));
+        }
+    }
+
+    /**
+     * Forgets everything declared through the connection.
+     */
+    public void connectionRecovered(Connection connection) {
+        declarationsByConnection.remove(connection);
+    }
+
+    private Set<String> declarations(Connection connection) {
+        return declarationsByConnection.computeIfAbsent(connection, key -> ConcurrentHashMap.newKeySet());
+    }
+
+    private static String exchangeKey(String exchange) {
+        return "exchange " + exchange;
+    }
+
+    private static String queueKey(String queue) {
+        return "queue " + queue;
+    }
+
+    private static String bindingKey(String queue, String exchange, String routingKey) {
+        return "binding " + queue + " " + exchange + " " + routingKey;
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.tcdl.msb.config.amqp;
+
+import io.github.tcdl.msb.api.exception.ConfigurationException;
+import io.github.tcdl.msb.config.ConfigurationUtil;
+
+import com.typesafe.config.Config;
+
+/**
+ * Bounds and adjustment interval of the prefetch count that is tuned for each consumer at runtime.
+ */
+public class AdaptivePrefetchConfig {
+
+    private final int minPrefetchCount;
+    private final int maxPrefetchCount;
+    private final long adjustmentIntervalMs;
+
+    /**
+     * @throws ConfigurationException if bounds are not positive, min is greater than max or interval is not positive
+     */
+    public AdaptivePrefetchConfig(int minPrefetchCount, int maxPrefetchCount, long adjustmentIntervalMs) {
+        if (minPrefetchCount < 1 || maxPrefetchCount < minPrefetchCount) {
+            throw new ConfigurationException(String.format("Invalid adaptive prefetch bounds: minPrefetchCount = %d, maxPrefetchCount = %d",
+                    minPrefetchCount, maxPrefetchCount), null);
+        }
+        if (adjustmentIntervalMs < 1) {
+            throw new ConfigurationException(String.format("Invalid adaptive prefetch adjustment interval: %d", adjustmentIntervalMs), null);
+        }
+        this.minPrefetchCount = minPrefetchCount;
+        this.maxPrefetchCount = maxPrefetchCount;
+        this.adjustmentIntervalMs = adjustmentIntervalMs;
+    }
+
+    /**
+     * @param config the "adaptivePrefetch" section of the broker configuration
+     * @throws ConfigurationException if provided configuration is broken
+     */
+    static AdaptivePrefetchConfig fromConfig(Config config) {
+        return new AdaptivePrefetchConfig(
+                ConfigurationUtil.getInt(config, "minPrefetchCount"),
+                ConfigurationUtil.getInt(config, "maxPrefetchCount"),
+                ConfigurationUtil.getLong(config, "adjustmentIntervalMs"));
+    }
+
+    public int getMinPrefetchCount() {
+        return minPrefetchCount;
+    }
+
+    public int getMaxPrefetchCount() {
+        return maxPrefetchCount;
+    }
+
+    public long getAdjustmentIntervalMs() {
+        return adjustmentIntervalMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AdaptivePrefetchConfig [minPrefetchCount=%d, maxPrefetchCount=%d, adjustmentIntervalMs=%d]",
+                minPrefetchCount, maxPrefetchCount, adjustmentIntervalMs);
+    }
+}
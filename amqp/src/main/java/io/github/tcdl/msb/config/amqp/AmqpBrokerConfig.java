@@ -10,6 +10,25 @@ import com.typesafe.config.Config;
 
 public class AmqpBrokerConfig {
 
+    private static final int DEFAULT_CONNECTIONS = 1;
+    public static final String DEFAULT_RESPONSE_EXCHANGE = "msb:responses";
+
+    /**
+     * Defines how responses reach the requester instance.
+     */
+    public enum ResponseRouting {
+        /**
+         * Each response topic is a fanout exchange with a queue of its own.
+         */
+        FANOUT,
+
+        /**
+         * Responses to all response topics are sent through one shared direct exchange with the response topic as routing key
+         * and land in the single response queue of the requester instance.
+         */
+        DIRECT
+    }
+
     private Charset charset;
 
     private final int port;
@@ -24,11 +43,82 @@ public class AmqpBrokerConfig {
     private final int heartbeatIntervalSec;
     private final long networkRecoveryIntervalMs;
     private final int prefetchCount;
+    private final int consumerConnections;
+    private final int producerConnections;
+    private final int dispatchThreads;
+    private final Optional<AdaptivePrefetchConfig> adaptivePrefetch;
+    private final ResponseRouting responseRouting;
+    private final String responseExchange;
+    private final boolean directReplyTo;
 
     public AmqpBrokerConfig(Charset charset, String host, int port,
             Optional<String> username, Optional<String> password, Optional<String> virtualHost, boolean useSSL,
             Optional<String> groupId, boolean durable,
             int heartbeatIntervalSec, long networkRecoveryIntervalMs, int prefetchCount) {
+        this(charset, host, port, username, password, virtualHost, useSSL, groupId, durable,
+                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount, DEFAULT_CONNECTIONS, DEFAULT_CONNECTIONS, 0);
+    }
+
+    public AmqpBrokerConfig(Charset charset, String host, int port,
+            Optional<String> username, Optional<String> password, Optional<String> virtualHost, boolean useSSL,
+            Optional<String> groupId, boolean durable,
+            int heartbeatIntervalSec, long networkRecoveryIntervalMs, int prefetchCount,
+            int consumerConnections, int producerConnections, int dispatchThreads) {
+        this(charset, host, port, username, password, virtualHost, useSSL, groupId, durable,
+                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount, consumerConnections, producerConnections, dispatchThreads,
+                Optional.empty());
+    }
+
+    public AmqpBrokerConfig(Charset charset, String host, int port,
+            Optional<String> username, Optional<String> password, Optional<String> virtualHost, boolean useSSL,
+            Optional<String> groupId, boolean durable,
+            int heartbeatIntervalSec, long networkRecoveryIntervalMs, int prefetchCount,
+            int consumerConnections, int producerConnections, int dispatchThreads,
+            Optional<AdaptivePrefetchConfig> adaptivePrefetch) {
+        this(charset, host, port, username, password, virtualHost, useSSL, groupId, durable,
+                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount, consumerConnections, producerConnections, dispatchThreads,
+                adaptivePrefetch, ResponseRouting.FANOUT, DEFAULT_RESPONSE_EXCHANGE);
+    }
+
+    /**
+     * @param consumerConnections number of connections consumer channels are spread across
+     * @param producerConnections number of connections producer channels are spread across, 0 means producers use consumer connections
+     * @param dispatchThreads size of the thread pool shared by all connections to deliver messages to consumers,
+     *                        0 means the client library default pool per connection
+     * @param adaptivePrefetch if present, prefetch count of each consumer is tuned at runtime within the given bounds
+     *                         and {@code prefetchCount} is only the initial value
+     * @param responseRouting how responses reach the requester instance
+     * @param responseExchange name of the direct exchange shared by all response topics, applicable to {@link ResponseRouting#DIRECT}
+     */
+    public AmqpBrokerConfig(Charset charset, String host, int port,
+            Optional<String> username, Optional<String> password, Optional<String> virtualHost, boolean useSSL,
+            Optional<String> groupId, boolean durable,
+            int heartbeatIntervalSec, long networkRecoveryIntervalMs, int prefetchCount,
+            int consumerConnections, int producerConnections, int dispatchThreads,
+            Optional<AdaptivePrefetchConfig> adaptivePrefetch, ResponseRouting responseRouting, String responseExchange) {
+        this(charset, host, port, username, password, virtualHost, useSSL, groupId, durable,
+                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount, consumerConnections, producerConnections, dispatchThreads,
+                adaptivePrefetch, responseRouting, responseExchange, false);
+    }
+
+    /**
+     * @param directReplyTo if true, responses to requesters that wait for a single response are received through RabbitMQ Direct Reply-to
+     *                      instead of a response queue
+     */
+    public AmqpBrokerConfig(Charset charset, String host, int port,
+            Optional<String> username, Optional<String> password, Optional<String> virtualHost, boolean useSSL,
+            Optional<String> groupId, boolean durable,
+            int heartbeatIntervalSec, long networkRecoveryIntervalMs, int prefetchCount,
+            int consumerConnections, int producerConnections, int dispatchThreads,
+            Optional<AdaptivePrefetchConfig> adaptivePrefetch, ResponseRouting responseRouting, String responseExchange,
+            boolean directReplyTo) {
+        if (consumerConnections < 1 || producerConnections < 0) {
+            throw new ConfigurationException(String.format("Invalid number of connections: consumerConnections = %d, producerConnections = %d",
+                    consumerConnections, producerConnections), null);
+        }
+        if (dispatchThreads < 0) {
+            throw new ConfigurationException(String.format("Invalid number of dispatch threads: %d", dispatchThreads), null);
+        }
         this.charset = charset;
         this.port = port;
         this.host = host;
@@ -41,6 +131,13 @@ public class AmqpBrokerConfig {
         this.heartbeatIntervalSec = heartbeatIntervalSec;
         this.networkRecoveryIntervalMs = networkRecoveryIntervalMs;
         this.prefetchCount = prefetchCount;
+        this.consumerConnections = consumerConnections;
+        this.producerConnections = producerConnections;
+        this.dispatchThreads = dispatchThreads;
+        this.adaptivePrefetch = adaptivePrefetch;
+        this.responseRouting = responseRouting;
+        this.responseExchange = responseExchange;
+        this.directReplyTo = directReplyTo;
     }
 
     public static class AmqpBrokerConfigBuilder {
@@ -56,6 +153,13 @@ public class AmqpBrokerConfig {
         private int heartbeatIntervalSec;
         private long networkRecoveryIntervalMs;
         private int prefetchCount;
+        private int consumerConnections = DEFAULT_CONNECTIONS;
+        private int producerConnections = DEFAULT_CONNECTIONS;
+        private int dispatchThreads = 0;
+        private Optional<AdaptivePrefetchConfig> adaptivePrefetch = Optional.empty();
+        private ResponseRouting responseRouting = ResponseRouting.FANOUT;
+        private String responseExchange = DEFAULT_RESPONSE_EXCHANGE;
+        private boolean directReplyTo;
 
         /**
          * Initialize Builder with Config
@@ -83,6 +187,32 @@ public class AmqpBrokerConfig {
             this.heartbeatIntervalSec = ConfigurationUtil.getInt(config, "heartbeatIntervalSec");
             this.networkRecoveryIntervalMs = ConfigurationUtil.getLong(config, "networkRecoveryIntervalMs");
             this.prefetchCount = ConfigurationUtil.getInt(config, "prefetchCount");
+            if (config.hasPath("consumerConnections")) {
+                this.consumerConnections = ConfigurationUtil.getInt(config, "consumerConnections");
+            }
+            if (config.hasPath("producerConnections")) {
+                this.producerConnections = ConfigurationUtil.getInt(config, "producerConnections");
+            }
+            if (config.hasPath("dispatchThreads")) {
+                this.dispatchThreads = ConfigurationUtil.getInt(config, "dispatchThreads");
+            }
+            if (config.hasPath("adaptivePrefetch") && ConfigurationUtil.getBoolean(config, "adaptivePrefetch.enabled")) {
+                this.adaptivePrefetch = Optional.of(AdaptivePrefetchConfig.fromConfig(config.getConfig("adaptivePrefetch")));
+            }
+            if (config.hasPath("responseRouting")) {
+                String responseRoutingName = ConfigurationUtil.getString(config, "responseRouting");
+                try {
+                    this.responseRouting = ResponseRouting.valueOf(responseRoutingName);
+                } catch (IllegalArgumentException e) {
+                    throw new ConfigurationException(String.format("Unknown response routing: '%s'", responseRoutingName), e);
+                }
+            }
+            if (config.hasPath("responseExchange")) {
+                this.responseExchange = ConfigurationUtil.getString(config, "responseExchange");
+            }
+            if (config.hasPath("directReplyTo")) {
+                this.directReplyTo = ConfigurationUtil.getBoolean(config, "directReplyTo");
+            }
             return this;
         }
 
@@ -92,7 +222,9 @@ public class AmqpBrokerConfig {
         public AmqpBrokerConfig build() {
             return new AmqpBrokerConfig(charset, host, port, username, password, virtualHost, useSSL,
                     groupId, durable,
-                    heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount);
+                    heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount,
+                    consumerConnections, producerConnections, dispatchThreads, adaptivePrefetch,
+                    responseRouting, responseExchange, directReplyTo);
         }
     }
 
@@ -147,14 +279,44 @@ public class AmqpBrokerConfig {
     public int getPrefetchCount() {
         return prefetchCount;
     }
+
+    public int getConsumerConnections() {
+        return consumerConnections;
+    }
+
+    public int getProducerConnections() {
+        return producerConnections;
+    }
+
+    public int getDispatchThreads() {
+        return dispatchThreads;
+    }
+
+    public Optional<AdaptivePrefetchConfig> getAdaptivePrefetch() {
+        return adaptivePrefetch;
+    }
+
+    public ResponseRouting getResponseRouting() {
+        return responseRouting;
+    }
+
+    public String getResponseExchange() {
+        return responseExchange;
+    }
+
+    public boolean isDirectReplyTo() {
+        return directReplyTo;
+    }
     
     @Override
     public String toString() {
         return String.format("AmqpBrokerConfig [charset=%s, host=%s, port=%d, username=%s, password=xxx, virtualHost=%s, useSSL=%s, groupId=%s, durable=%s, "
                         + "heartbeatIntervalSec=%s, "
-                        + "networkRecoveryIntervalMs=%s, prefetchCount=%s]",
+                        + "networkRecoveryIntervalMs=%s, prefetchCount=%s, consumerConnections=%s, producerConnections=%s, dispatchThreads=%s, "
+                        + "adaptivePrefetch=%s, responseRouting=%s, responseExchange=%s, directReplyTo=%s]",
                 charset, host, port, username, virtualHost, useSSL, groupId, durable,
-                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount);
+                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount, consumerConnections, producerConnections, dispatchThreads,
+                adaptivePrefetch, responseRouting, responseExchange, directReplyTo);
     }
 
 }
\ No newline at end of file
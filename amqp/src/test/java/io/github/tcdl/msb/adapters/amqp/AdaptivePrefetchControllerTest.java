@@ -0,0 +1,179 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import io.github.tcdl.msb.config.amqp.AdaptivePrefetchConfig;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.rabbitmq.client.Channel;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptivePrefetchControllerTest {
+
+    private static final long ONE_HOUR_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Mock
+    private Channel channel;
+
+    private final AtomicLong clock = new AtomicLong();
+    private long nextAdjustmentNanos = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testInitialPrefetchCountApplied() throws IOException {
+        AdaptivePrefetchController controller = createController(500, 1, 100, ONE_HOUR_MS);
+
+        controller.start();
+
+        verify(channel).basicQos(100, true);
+        assertEquals(100, controller.getPrefetchCount());
+        assertEquals(0, controller.getRoundTripMicros());
+    }
+
+    @Test
+    public void testIncreasedWhenSaturatedAndMessagesDontWait() throws IOException {
+        AdaptivePrefetchController controller = createController(10, 1, 100, ONE_HOUR_MS);
+        controller.start();
+
+        processMessages(controller, 10, TimeUnit.MILLISECONDS.toNanos(1));
+        adjustAfterOneSecond(controller);
+
+        verify(channel).basicQos(12, true);
+        assertEquals(12, controller.getPrefetchCount());
+        assertEquals(1, controller.getIncreasesCount());
+        assertEquals(10.0, controller.getThroughputPerSec(), 0.001);
+    }
+
+    @Test
+    public void testNotChangedWhenNotSaturated() throws IOException {
+        AdaptivePrefetchController controller = createController(10, 1, 100, ONE_HOUR_MS);
+        controller.start();
+
+        processMessages(controller, 3, TimeUnit.MILLISECONDS.toNanos(1));
+        adjustAfterOneSecond(controller);
+
+        verify(channel, times(1)).basicQos(anyInt(), anyBoolean());
+        assertEquals(10, controller.getPrefetchCount());
+    }
+
+    @Test
+    public void testDecreasedWhenMessagesWaitLocally() throws IOException {
+        AdaptivePrefetchController controller = createController(10, 1, 100, ONE_HOUR_MS);
+        controller.start();
+
+        processMessages(controller, 3, TimeUnit.MILLISECONDS.toNanos(1));
+        adjustAfterOneSecond(controller);
+        // the same handler now takes ten times longer to acknowledge a message because messages are queued
+        processMessages(controller, 3, TimeUnit.MILLISECONDS.toNanos(10));
+        adjustAfterOneSecond(controller);
+
+        verify(channel).basicQos(5, true);
+        assertEquals(5, controller.getPrefetchCount());
+        assertEquals(1, controller.getDecreasesCount());
+    }
+
+    @Test
+    public void testIncreasedToBandwidthDelayProduct() throws IOException {
+        // each basic.qos round trip takes 20 ms
+        doAnswer(invocation -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(20))).when(channel).basicQos(anyInt(), anyBoolean());
+        AdaptivePrefetchController controller = createController(10, 1, 100, ONE_HOUR_MS);
+        controller.start();
+        assertEquals(20000, controller.getRoundTripMicros());
+
+        // 1000 messages per second with 20 ms round trip need 20 messages in flight
+        for (int i = 0; i < 100; i++) {
+            processMessages(controller, 10, TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        adjustAfterOneSecond(controller);
+
+        verify(channel).basicQos(21, true);
+    }
+
+    @Test
+    public void testBoundsRespected() throws IOException {
+        AdaptivePrefetchController controller = createController(10, 1, 11, ONE_HOUR_MS);
+        controller.start();
+
+        processMessages(controller, 10, TimeUnit.MILLISECONDS.toNanos(1));
+        adjustAfterOneSecond(controller);
+        processMessages(controller, 11, TimeUnit.MILLISECONDS.toNanos(1));
+        adjustAfterOneSecond(controller);
+
+        verify(channel).basicQos(10, true);
+        verify(channel).basicQos(11, true);
+        verify(channel, times(2)).basicQos(anyInt(), anyBoolean());
+        assertEquals(11, controller.getPrefetchCount());
+    }
+
+    @Test
+    public void testAdjustedByAcknowledgementAfterInterval() throws IOException {
+        AdaptivePrefetchController controller = createController(10, 1, 100, 1000);
+        controller.start();
+
+        long[] deliveredAt = new long[10];
+        for (int i = 0; i < deliveredAt.length; i++) {
+            deliveredAt[i] = controller.messageDelivered();
+        }
+        for (int i = 0; i < deliveredAt.length - 1; i++) {
+            controller.messageAcknowledged(deliveredAt[i]);
+        }
+        verify(channel, times(1)).basicQos(anyInt(), anyBoolean());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        controller.messageAcknowledged(deliveredAt[deliveredAt.length - 1]);
+
+        verify(channel).basicQos(12, true);
+        assertEquals(0, controller.getUnacknowledgedCount());
+    }
+
+    @Test
+    public void testFailedAdjustmentKeepsPrefetchCount() throws IOException {
+        AdaptivePrefetchController controller = createController(10, 1, 100, ONE_HOUR_MS);
+        controller.start();
+        doThrow(new IOException()).when(channel).basicQos(12, true);
+
+        processMessages(controller, 10, TimeUnit.MILLISECONDS.toNanos(1));
+        adjustAfterOneSecond(controller);
+
+        assertEquals(10, controller.getPrefetchCount());
+        assertEquals(0, controller.getIncreasesCount());
+    }
+
+    private AdaptivePrefetchController createController(int initialPrefetchCount, int min, int max, long adjustmentIntervalMs) {
+        return new AdaptivePrefetchController(channel, "test:prefetch", initialPrefetchCount,
+                new AdaptivePrefetchConfig(min, max, adjustmentIntervalMs), clock::get);
+    }
+
+    /**
+     * Delivers the given number of messages at once and acknowledges them after the given time.
+     */
+    private void processMessages(AdaptivePrefetchController controller, int count, long acknowledgementNanos) {
+        long[] deliveredAt = new long[count];
+        for (int i = 0; i < count; i++) {
+            deliveredAt[i] = controller.messageDelivered();
+        }
+        clock.addAndGet(acknowledgementNanos);
+        for (long delivered : deliveredAt) {
+            controller.messageAcknowledged(delivered);
+        }
+    }
+
+    /**
+     * Ends the current one second interval.
+     */
+    private void adjustAfterOneSecond(AdaptivePrefetchController controller) {
+        clock.set(nextAdjustmentNanos);
+        controller.adjust(nextAdjustmentNanos);
+        nextAdjustmentNanos += TimeUnit.SECONDS.toNanos(1);
+    }
+}
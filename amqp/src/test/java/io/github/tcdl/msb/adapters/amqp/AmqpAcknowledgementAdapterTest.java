@@ -1,12 +1,15 @@
 package io.github.tcdl.msb.adapters.amqp;
 
 import com.rabbitmq.client.Channel;
+import java.io.IOException;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -42,4 +45,19 @@ public class AmqpAcknowledgementAdapterTest {
         verify(channel, times(1)).basicReject(DELIVERY_TAG, true);
     }
 
+    @Test
+    public void testPrefetchControllerNotifiedEvenIfAckFailed() throws Exception {
+        AdaptivePrefetchController controller = mock(AdaptivePrefetchController.class);
+        adapter = new AmqpAcknowledgementAdapter(channel, MESSAGE_TEXT_ID, DELIVERY_TAG, controller, 42);
+        doThrow(new IOException()).when(channel).basicAck(DELIVERY_TAG, false);
+
+        try {
+            adapter.confirm();
+            fail("Exception should have been propagated");
+        } catch (IOException e) {
+            // expected
+        }
+
+        verify(controller).messageAcknowledged(42);
+    }
 }
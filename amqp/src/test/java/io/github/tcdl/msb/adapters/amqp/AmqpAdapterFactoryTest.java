@@ -1,24 +1,35 @@
 package io.github.tcdl.msb.adapters.amqp;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import io.github.tcdl.msb.adapters.ConsumerAdapter;
 import io.github.tcdl.msb.adapters.ProducerAdapter;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
+import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig.ResponseRouting;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
 import com.typesafe.config.Config;
@@ -55,6 +66,8 @@ public class AmqpAdapterFactoryTest {
     Connection mockConnection;
 
     AmqpBrokerConfig amqpConfig;
+    List<Connection> createdConsumerConnections;
+    List<Connection> createdProducerConnections;
     AmqpAdapterFactory amqpAdapterFactory;
     MsbConfig msbConfigurations;
     
@@ -89,7 +102,9 @@ public class AmqpAdapterFactoryTest {
             }
             
             @Override
-            protected AmqpConnectionManager createConnectionManager(Connection connection) {
+            protected AmqpConnectionManager createConnectionManager(List<Connection> consumerConnections, List<Connection> producerConnections) {
+                createdConsumerConnections = consumerConnections;
+                createdProducerConnections = producerConnections;
                 return mockConnectionManager;
             }
 
@@ -118,6 +133,113 @@ public class AmqpAdapterFactoryTest {
         assertEquals(amqpAdapterFactory.getConnectionManager(), mockConnectionManager);
     }
 
+    @Test
+    public void testInitSeparateConsumerAndProducerConnections() {
+        amqpConfig = new AmqpBrokerConfig(charset, host, port,
+                Optional.of(username), Optional.of(password), Optional.of(virtualHost), useSSL, Optional.of(groupId), durable,
+                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount, 3, 2, 0);
+
+        amqpAdapterFactory.init(msbConfigurations);
+
+        assertEquals(3, createdConsumerConnections.size());
+        assertEquals(2, createdProducerConnections.size());
+    }
+
+    @Test
+    public void testInitProducersShareConsumerConnections() {
+        amqpConfig = new AmqpBrokerConfig(charset, host, port,
+                Optional.of(username), Optional.of(password), Optional.of(virtualHost), useSSL, Optional.of(groupId), durable,
+                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount, 2, 0, 0);
+
+        amqpAdapterFactory.init(msbConfigurations);
+
+        assertEquals(2, createdConsumerConnections.size());
+        assertSame(createdConsumerConnections, createdProducerConnections);
+    }
+
+    @Test
+    public void testSharedDispatchExecutor() {
+        amqpConfig = new AmqpBrokerConfig(charset, host, port,
+                Optional.of(username), Optional.of(password), Optional.of(virtualHost), useSSL, Optional.of(groupId), durable,
+                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount, 1, 1, 4);
+
+        amqpAdapterFactory.init(msbConfigurations);
+        verify(mockConnectionFactory).setSharedExecutor(any(ExecutorService.class));
+
+        amqpAdapterFactory.shutdown();
+    }
+
+    @Test
+    public void testDefaultDispatchExecutor() {
+        amqpAdapterFactory.init(msbConfigurations);
+
+        verify(mockConnectionFactory, never()).setSharedExecutor(any(ExecutorService.class));
+    }
+
+    @Test
+    public void testDirectResponseRouting() throws IOException {
+        Channel mockChannel = mock(Channel.class);
+        when(mockConnectionManager.obtainProducerConnection()).thenReturn(mockConnection);
+        when(mockConnection.createChannel()).thenReturn(mockChannel);
+        amqpConfig = new AmqpBrokerConfig(charset, host, port,
+                Optional.of(username), Optional.of(password), Optional.of(virtualHost), useSSL, Optional.of(groupId), durable,
+                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount, 1, 1, 0,
+                Optional.empty(), ResponseRouting.DIRECT, "test:responses");
+
+        amqpAdapterFactory.init(msbConfigurations);
+        verify(mockChannel).exchangeDeclare("test:responses", "direct", true, false, null);
+
+        String responseTopic = "test:namespace:response:instance";
+        amqpAdapterFactory.createProducerAdapter(responseTopic, true).publish("{}");
+        verify(mockChannel).basicPublish(eq("test:responses"), eq(responseTopic), any(), any());
+        verify(mockChannel, never()).exchangeDeclare(eq(responseTopic), anyString(), anyBoolean(), anyBoolean(), any());
+
+        assertTrue(amqpAdapterFactory.createConsumerAdapter(responseTopic, true, Optional.empty()) instanceof AmqpResponseConsumerAdapter);
+    }
+
+    @Test
+    public void testFanoutResponseRoutingByDefault() throws IOException {
+        when(mockConnectionManager.obtainConsumerConnection()).thenReturn(mockConnection);
+        when(mockConnection.createChannel()).thenReturn(mock(Channel.class));
+        amqpAdapterFactory.init(msbConfigurations);
+
+        assertTrue(amqpAdapterFactory.createConsumerAdapter("test:namespace:response:instance", true, Optional.empty()) instanceof AmqpConsumerAdapter);
+    }
+
+    @Test
+    public void testDirectReplyTo() throws IOException {
+        Channel mockChannel = mock(Channel.class);
+        when(mockConnectionManager.obtainConsumerConnection()).thenReturn(mockConnection);
+        when(mockConnection.createChannel()).thenReturn(mockChannel);
+        amqpConfig = new AmqpBrokerConfig(charset, host, port,
+                Optional.of(username), Optional.of(password), Optional.of(virtualHost), useSSL, Optional.of(groupId), durable,
+                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount, 1, 1, 0,
+                Optional.empty(), ResponseRouting.FANOUT, "test:responses", true);
+
+        amqpAdapterFactory.init(msbConfigurations);
+
+        String directReplyTopic = "_direct-reply:" + msbConfigurations.getServiceDetails().getInstanceId();
+        assertEquals(Optional.of(directReplyTopic), amqpAdapterFactory.getDirectReplyTopic());
+        ConsumerAdapter consumerAdapter = amqpAdapterFactory.createConsumerAdapter(directReplyTopic, true, Optional.empty());
+        assertTrue(consumerAdapter instanceof AmqpDirectReplyAdapter);
+        assertSame(consumerAdapter, amqpAdapterFactory.createConsumerAdapter(directReplyTopic, true, Optional.empty()));
+        assertTrue(amqpAdapterFactory.createConsumerAdapter("test:namespace:response:instance", true, Optional.empty()) instanceof AmqpConsumerAdapter);
+    }
+
+    @Test
+    public void testDirectReplyToDisabledByDefault() {
+        amqpAdapterFactory.init(msbConfigurations);
+
+        assertFalse(amqpAdapterFactory.getDirectReplyTopic().isPresent());
+    }
+
+    @Test
+    public void testResponseToDirectReplyTopicPublishedToReplyAddress() {
+        amqpAdapterFactory.init(msbConfigurations);
+
+        assertTrue(amqpAdapterFactory.createProducerAdapter("_direct-reply:requester", true) instanceof AmqpDirectReplyProducerAdapter);
+    }
+
     @Test
     public void testInitGroupIdWithServiceName() {
         AmqpBrokerConfig amqpBrokerConfig = new AmqpAdapterFactory().createAmqpBrokerConfig(msbConfigurations);
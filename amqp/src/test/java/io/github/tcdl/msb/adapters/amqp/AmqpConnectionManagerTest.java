@@ -1,18 +1,29 @@
 package io.github.tcdl.msb.adapters.amqp;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.Recoverable;
+import com.rabbitmq.client.RecoveryListener;
 
 public class AmqpConnectionManagerTest {
     
@@ -42,6 +53,93 @@ public class AmqpConnectionManagerTest {
         }
     }
     
+    @Test
+    public void testConsumerAndProducerConnectionsSeparated() {
+        Connection consumerConnection = mockOpenConnection();
+        Connection producerConnection = mockOpenConnection();
+        AmqpConnectionManager connectionManager = new AmqpConnectionManager(Collections.singletonList(consumerConnection),
+                Collections.singletonList(producerConnection));
+
+        assertSame(consumerConnection, connectionManager.obtainConsumerConnection());
+        assertSame(producerConnection, connectionManager.obtainProducerConnection());
+    }
+
+    @Test
+    public void testConnectionsAssignedRoundRobin() {
+        Connection connection1 = mockOpenConnection();
+        Connection connection2 = mockOpenConnection();
+        List<Connection> connections = Arrays.asList(connection1, connection2);
+        AmqpConnectionManager connectionManager = new AmqpConnectionManager(connections, connections);
+
+        assertSame(connection1, connectionManager.obtainConsumerConnection());
+        assertSame(connection2, connectionManager.obtainConsumerConnection());
+        assertSame(connection1, connectionManager.obtainConsumerConnection());
+        assertSame(connection1, connectionManager.obtainProducerConnection());
+    }
+
+    @Test
+    public void testRecoveringConnectionSkipped() {
+        Connection recoveringConnection = mock(Connection.class);
+        Connection openConnection = mockOpenConnection();
+        List<Connection> connections = Arrays.asList(recoveringConnection, openConnection);
+        AmqpConnectionManager connectionManager = new AmqpConnectionManager(connections, connections);
+
+        assertSame(openConnection, connectionManager.obtainConsumerConnection());
+        assertSame(openConnection, connectionManager.obtainConsumerConnection());
+    }
+
+    @Test
+    public void testAllConnectionsClosedOnce() throws IOException {
+        Connection connection1 = mockOpenConnection();
+        Connection connection2 = mockOpenConnection();
+        Connection producerConnection = mockOpenConnection();
+        doThrow(new IOException("expected")).when(connection1).close();
+        AmqpConnectionManager connectionManager = new AmqpConnectionManager(Arrays.asList(connection1, connection2),
+                Collections.singletonList(producerConnection));
+
+        try {
+            connectionManager.close();
+            fail("Error of the first connection should have been thrown");
+        } catch (IOException e) {
+            assertEquals("expected", e.getMessage());
+        }
+
+        verify(connection2).close();
+        verify(producerConnection).close();
+    }
+
+    @Test
+    public void testSharedConnectionClosedOnce() throws IOException {
+        Connection connection = mockOpenConnection();
+        List<Connection> connections = Collections.singletonList(connection);
+
+        new AmqpConnectionManager(connections, connections).close();
+
+        verify(connection, times(1)).close();
+    }
+
+    @Test
+    public void testTopologyForgottenAfterRecovery() throws IOException {
+        Connection connection = mock(Connection.class, withSettings().extraInterfaces(Recoverable.class));
+        Channel channel = mock(Channel.class);
+        AmqpConnectionManager connectionManager = new AmqpConnectionManager(connection);
+        ArgumentCaptor<RecoveryListener> listenerCaptor = ArgumentCaptor.forClass(RecoveryListener.class);
+        verify((Recoverable) connection).addRecoveryListener(listenerCaptor.capture());
+
+        connectionManager.getTopologyCache().exchangeDeclare(connection, channel, "test:topic", "fanout", false, true);
+        listenerCaptor.getValue().handleRecovery((Recoverable) connection);
+        connectionManager.getTopologyCache().exchangeDeclare(connection, channel, "test:topic", "fanout", false, true);
+
+        verify(channel, times(2)).exchangeDeclareNoWait("test:topic", "fanout", false, true, false, null);
+        assertEquals(1, connectionManager.getRecoveriesCount());
+    }
+
+    private static Connection mockOpenConnection() {
+        Connection connection = mock(Connection.class);
+        when(connection.isOpen()).thenReturn(true);
+        return connection;
+    }
+
     @Test
     public void testConnectionRepeatedClose() {
         when(mockConnection.isOpen()).thenReturn(false);
@@ -1,15 +1,18 @@
 package io.github.tcdl.msb.adapters.amqp;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 import io.github.tcdl.msb.adapters.ConsumerAdapter;
 import io.github.tcdl.msb.api.exception.ChannelException;
+import io.github.tcdl.msb.config.amqp.AdaptivePrefetchConfig;
 import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
 
 import java.io.IOException;
@@ -23,6 +26,7 @@ import org.mockito.ArgumentCaptor;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.Envelope;
 
 public class AmqpConsumerAdapterTest {
 
@@ -36,7 +40,8 @@ public class AmqpConsumerAdapterTest {
         mockChannel = mock(Channel.class);
         mockAmqpConnectionManager = mock(AmqpConnectionManager.class);
         
-        when(mockAmqpConnectionManager.obtainConnection()).thenReturn(mockConnection);
+        when(mockAmqpConnectionManager.obtainConsumerConnection()).thenReturn(mockConnection);
+        when(mockAmqpConnectionManager.getTopologyCache()).thenReturn(new AmqpTopologyCache());
         when(mockConnection.createChannel()).thenReturn(mockChannel);
     }
 
@@ -48,12 +53,12 @@ public class AmqpConsumerAdapterTest {
         adapter.subscribe((jsonMessage, ackHandler) -> {
         });
 
-        verify(mockChannel).exchangeDeclare(topicName, "fanout", false, true, null);
+        verify(mockChannel).exchangeDeclareNoWait(topicName, "fanout", false, true, false, null);
     }
 
     @Test(expected = RuntimeException.class)
     public void testInitializationError() throws IOException {
-        when(mockChannel.exchangeDeclare(anyString(), anyString(), anyBoolean(), anyBoolean(), any())).thenThrow(new IOException());
+        when(mockAmqpConnectionManager.obtainConsumerConnection().createChannel()).thenThrow(new IOException());
 
         createAdapterWithNonDurableConf("myTopic", "myGroupId", false);
     }
@@ -66,13 +71,13 @@ public class AmqpConsumerAdapterTest {
         });
 
         // Verify that the queue has been declared with correct name and settings
-        verify(mockChannel).queueDeclare("myTopic.myGroupId.t", /* queue name */
+        verify(mockChannel).queueDeclareNoWait("myTopic.myGroupId.t", /* queue name */
                 false, /* durable */
                 false, /* exclusive */
                 true,  /* auto-delete */
                 null);
         // Verify that the queue has been bound to the exchange
-        verify(mockChannel).queueBind("myTopic.myGroupId.t", "myTopic", "");
+        verify(mockChannel).queueBindNoWait("myTopic.myGroupId.t", "myTopic", "", null);
     }
 
     @Test
@@ -83,13 +88,13 @@ public class AmqpConsumerAdapterTest {
         });
 
         // Verify that the queue has been declared with correct name and settings
-        verify(mockChannel).queueDeclare("myTopic.myGroupId.t", /* queue name */
+        verify(mockChannel).queueDeclareNoWait("myTopic.myGroupId.t", /* queue name */
                 false, /* durable */
                 false, /* exclusive */
                 true,  /* auto-delete */
                 null);
         // Verify that the queue has been bound to the exchange
-        verify(mockChannel).queueBind("myTopic.myGroupId.t", "myTopic", "");
+        verify(mockChannel).queueBindNoWait("myTopic.myGroupId.t", "myTopic", "", null);
     }
 
     @Test
@@ -100,13 +105,13 @@ public class AmqpConsumerAdapterTest {
         });
 
         // Verify that the queue has been declared with correct name and settings
-        verify(mockChannel).queueDeclare("myTopic.myGroupId.d", /* queue name */
+        verify(mockChannel).queueDeclareNoWait("myTopic.myGroupId.d", /* queue name */
                 true, /* durable */
                 false, /* exclusive */
                 false,  /* auto-delete */
                 null);
         // Verify that the queue has been bound to the exchange
-        verify(mockChannel).queueBind("myTopic.myGroupId.d", "myTopic", "");
+        verify(mockChannel).queueBindNoWait("myTopic.myGroupId.d", "myTopic", "", null);
     }
 
 
@@ -132,6 +137,7 @@ public class AmqpConsumerAdapterTest {
         AmqpMessageConsumer consumer = amqpConsumerCaptor.getValue();
         assertEquals(mockChannel, consumer.getChannel());
         assertEquals(mockHandler, consumer.msgHandler);
+        assertEquals("myTopic", consumer.resolveTopic(new Envelope(1, false, "myTopic", "")));
     }
 
     @Test
@@ -147,6 +153,66 @@ public class AmqpConsumerAdapterTest {
         verify(mockChannel).basicCancel(consumerTag);
     }
 
+    @Test
+    public void testDeclarationsSharedByAdaptersOfSameConnection() throws IOException {
+        createAdapterWithDurableConf("myTopic", "myGroupId", false).subscribe((jsonMessage, ackHandler) -> {});
+        createAdapterWithDurableConf("myTopic", "myGroupId", false).subscribe((jsonMessage, ackHandler) -> {});
+
+        // the exchange is auto-delete and may be gone together with the binding of another service instance
+        verify(mockChannel, times(2)).exchangeDeclareNoWait("myTopic", "fanout", false, true, false, null);
+        verify(mockChannel, times(1)).queueDeclareNoWait("myTopic.myGroupId.d", true, false, false, null);
+        verify(mockChannel, times(2)).queueBindNoWait("myTopic.myGroupId.d", "myTopic", "", null);
+        verify(mockChannel, times(2)).basicConsume(eq("myTopic.myGroupId.d"), eq(false), any(Consumer.class));
+    }
+
+    @Test
+    public void testTransientQueueDeclaredAgainAfterUnsubscribe() throws IOException {
+        AmqpConsumerAdapter adapter = createAdapterWithNonDurableConf("myTopic", "myGroupId", false);
+        adapter.subscribe((jsonMessage, ackHandler) -> {});
+        adapter.unsubscribe();
+
+        createAdapterWithNonDurableConf("myTopic", "myGroupId", false).subscribe((jsonMessage, ackHandler) -> {});
+
+        verify(mockChannel, times(2)).exchangeDeclareNoWait("myTopic", "fanout", false, true, false, null);
+        verify(mockChannel, times(2)).queueDeclareNoWait("myTopic.myGroupId.t", false, false, true, null);
+        verify(mockChannel, times(2)).queueBindNoWait("myTopic.myGroupId.t", "myTopic", "", null);
+    }
+
+    @Test
+    public void testDeclaredAgainAfterFailedSubscribe() throws IOException {
+        when(mockChannel.basicConsume(anyString(), anyBoolean(), any(Consumer.class))).thenThrow(new IOException()).thenReturn("consumer tag");
+        try {
+            createAdapterWithDurableConf("myTopic", "myGroupId", false).subscribe((jsonMessage, ackHandler) -> {});
+        } catch (ChannelException e) {
+            // expected
+        }
+
+        createAdapterWithDurableConf("myTopic", "myGroupId", false).subscribe((jsonMessage, ackHandler) -> {});
+
+        verify(mockChannel, times(2)).queueDeclareNoWait("myTopic.myGroupId.d", true, false, false, null);
+    }
+
+    @Test
+    public void testChannelReplacedAfterFailedSubscribe() throws IOException {
+        Connection mockConnection = mockAmqpConnectionManager.obtainConsumerConnection();
+        Channel closedChannel = mockChannel;
+        AmqpConsumerAdapter adapter = createAdapterWithNonDurableConf("myTopic", "myGroupId", false);
+        when(closedChannel.basicConsume(anyString(), anyBoolean(), any(Consumer.class))).thenThrow(new IOException());
+        when(closedChannel.isOpen()).thenReturn(false);
+        Channel newChannel = mock(Channel.class);
+        when(mockConnection.createChannel()).thenReturn(newChannel);
+
+        try {
+            adapter.subscribe((jsonMessage, ackHandler) -> {});
+        } catch (ChannelException e) {
+            // expected
+        }
+        adapter.subscribe((jsonMessage, ackHandler) -> {});
+
+        verify(newChannel).exchangeDeclareNoWait("myTopic", "fanout", false, true, false, null);
+        verify(newChannel).basicConsume(eq("myTopic.myGroupId.t"), eq(false), any(Consumer.class));
+    }
+
     @Test(expected = ChannelException.class)
     public void testUnsubscribeException() throws IOException {
         AmqpConsumerAdapter adapter = createAdapterWithNonDurableConf("myTopic", "myGroupId", false);
@@ -193,6 +259,57 @@ public class AmqpConsumerAdapterTest {
         assertTrue(adapter.isDurable() == true);
     }
 
+    @Test
+    public void testSubscribeWithDefaultPrefetchCount() throws IOException {
+        AmqpConsumerAdapter adapter = createAdapterWithNonDurableConf("myTopic", "myGroupId", false);
+
+        adapter.subscribe((jsonMessage, ackHandler) -> {});
+
+        verify(mockChannel).basicQos(1);
+    }
+
+    @Test
+    public void testSubscribeWithPrefetchCountOverride() throws IOException {
+        AmqpBrokerConfig amqpConfig = new AmqpBrokerConfig(Charset.forName("UTF-8"), "127.0.0.1", 10, Optional.empty(), Optional.empty(), Optional.empty(),
+                false, Optional.of("myGroupId"), false, 1, 5000, 1);
+        AmqpConsumerAdapter adapter = new AmqpConsumerAdapter("myTopic", amqpConfig, mockAmqpConnectionManager, false, Optional.of(20));
+
+        adapter.subscribe((jsonMessage, ackHandler) -> {});
+
+        verify(mockChannel).basicQos(20);
+    }
+
+    @Test
+    public void testSubscribeWithAdaptivePrefetch() throws IOException {
+        AmqpBrokerConfig amqpConfig = createAdaptivePrefetchConf();
+        AmqpConsumerAdapter adapter = new AmqpConsumerAdapter("myTopic", amqpConfig, mockAmqpConnectionManager, false);
+
+        adapter.subscribe((jsonMessage, ackHandler) -> {});
+
+        // channel-wide limit since a per-consumer one can't be changed after the consumer has started
+        verify(mockChannel).basicQos(10, true);
+        verify(mockChannel, never()).basicQos(anyInt());
+        assertTrue(adapter.getPrefetchController().isPresent());
+        assertEquals(10, adapter.getPrefetchController().get().getPrefetchCount());
+    }
+
+    @Test
+    public void testPrefetchCountOverrideIsNotAdaptive() throws IOException {
+        AmqpBrokerConfig amqpConfig = createAdaptivePrefetchConf();
+        AmqpConsumerAdapter adapter = new AmqpConsumerAdapter("myTopic", amqpConfig, mockAmqpConnectionManager, false, Optional.of(20));
+
+        adapter.subscribe((jsonMessage, ackHandler) -> {});
+
+        verify(mockChannel).basicQos(20);
+        verify(mockChannel, never()).basicQos(anyInt(), anyBoolean());
+        assertFalse(adapter.getPrefetchController().isPresent());
+    }
+
+    private AmqpBrokerConfig createAdaptivePrefetchConf() {
+        return new AmqpBrokerConfig(Charset.forName("UTF-8"), "127.0.0.1", 10, Optional.empty(), Optional.empty(), Optional.empty(),
+                false, Optional.of("myGroupId"), false, 1, 5000, 10, 1, 1, 0, Optional.of(new AdaptivePrefetchConfig(1, 100, 1000)));
+    }
+
     private AmqpConsumerAdapter createAdapterWithNonDurableConf(String topic, String groupId, boolean isResponseTopic) {
         boolean isDurableConf = false;
         AmqpBrokerConfig nondurableAmqpConfig = new AmqpBrokerConfig(Charset.forName("UTF-8"), "127.0.0.1", 10, Optional.empty(), Optional.empty(), Optional.empty(),
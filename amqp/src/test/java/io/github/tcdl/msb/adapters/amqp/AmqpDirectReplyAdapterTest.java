@@ -0,0 +1,117 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
+import io.github.tcdl.msb.adapters.ConsumerAdapter;
+import io.github.tcdl.msb.api.exception.ChannelException;
+import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.Envelope;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AmqpDirectReplyAdapterTest {
+
+    private static final String TOPIC = "_direct-reply:instance";
+
+    @Mock
+    private AmqpConnectionManager mockConnectionManager;
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private Channel mockChannel;
+
+    @Mock
+    private AmqpBrokerConfig mockBrokerConfig;
+
+    @Mock
+    private ConsumerAdapter.RawMessageHandler mockHandler;
+
+    private AmqpDirectReplyAdapter adapter;
+
+    @Before
+    public void setUp() throws IOException {
+        when(mockConnectionManager.obtainConsumerConnection()).thenReturn(mockConnection);
+        when(mockConnection.createChannel()).thenReturn(mockChannel);
+        when(mockChannel.basicConsume(eq("amq.rabbitmq.reply-to"), anyBoolean(), any(Consumer.class))).thenReturn("consumer tag");
+        when(mockBrokerConfig.getCharset()).thenReturn(Charset.forName("UTF-8"));
+
+        adapter = new AmqpDirectReplyAdapter(TOPIC, mockBrokerConfig, mockConnectionManager);
+    }
+
+    @Test
+    public void testRepliesConsumedWithoutAcknowledgements() throws IOException {
+        adapter.subscribe(mockHandler);
+
+        ArgumentCaptor<Consumer> consumerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(mockChannel).basicConsume(eq("amq.rabbitmq.reply-to"), eq(true), consumerCaptor.capture());
+        verify(mockChannel, never()).queueDeclare(any(), anyBoolean(), anyBoolean(), anyBoolean(), any());
+        assertEquals(TOPIC, ((AmqpMessageConsumer) consumerCaptor.getValue()).resolveTopic(new Envelope(1, false, "", "amq.rabbitmq.reply-to.abc")));
+
+        consumerCaptor.getValue().handleDelivery("consumer tag", new Envelope(1, false, "", "amq.rabbitmq.reply-to.abc"), null, "{}".getBytes());
+
+        ArgumentCaptor<AcknowledgementHandlerInternal> ackCaptor = ArgumentCaptor.forClass(AcknowledgementHandlerInternal.class);
+        verify(mockHandler).onMessage(eq("{}"), ackCaptor.capture());
+        ackCaptor.getValue().confirmMessage();
+        ackCaptor.getValue().rejectMessage();
+        verify(mockChannel, never()).basicAck(anyLong(), anyBoolean());
+        verify(mockChannel, never()).basicReject(anyLong(), anyBoolean());
+    }
+
+    @Test
+    public void testRequestPublishedWithReplyToOnConsumingChannel() throws IOException {
+        adapter.subscribe(mockHandler);
+
+        adapter.publish("test:namespace", "{}".getBytes());
+
+        ArgumentCaptor<AMQP.BasicProperties> propertiesCaptor = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(mockChannel).basicPublish(eq("test:namespace"), eq(""), propertiesCaptor.capture(), eq("{}".getBytes()));
+        assertEquals("amq.rabbitmq.reply-to", propertiesCaptor.getValue().getReplyTo());
+        assertEquals(TOPIC, propertiesCaptor.getValue().getHeaders().get(AmqpReplyAddresses.RESPONSE_TOPIC_HEADER));
+    }
+
+    @Test
+    public void testRequestNotPublishedBeforeSubscribe() throws IOException {
+        try {
+            adapter.publish("test:namespace", "{}".getBytes());
+            fail("Exception should have been thrown");
+        } catch (ChannelException e) {
+            // expected
+        }
+
+        verify(mockConnectionManager, never()).obtainConsumerConnection();
+    }
+
+    @Test
+    public void testChannelReusedAfterUnsubscribe() throws IOException {
+        adapter.subscribe(mockHandler);
+        adapter.unsubscribe();
+        adapter.subscribe(mockHandler);
+
+        verify(mockChannel).basicCancel("consumer tag");
+        verify(mockConnection, times(1)).createChannel();
+        verify(mockChannel, times(2)).basicConsume(eq("amq.rabbitmq.reply-to"), eq(true), any(Consumer.class));
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.tcdl.msb.api.exception.ChannelException;
+import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.impl.LongStringHelper;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AmqpDirectReplyProducerAdapterTest {
+
+    private static final String TOPIC = "_direct-reply:requester";
+
+    @Mock
+    private AmqpBrokerConfig mockBrokerConfig;
+
+    @Mock
+    private AmqpAutoRecoveringChannel mockChannel;
+
+    private AmqpReplyAddresses replyAddresses = new AmqpReplyAddresses();
+
+    private AmqpDirectReplyProducerAdapter adapter;
+
+    @Before
+    public void setUp() {
+        when(mockBrokerConfig.getCharset()).thenReturn(Charset.forName("UTF-8"));
+        adapter = new AmqpDirectReplyProducerAdapter(TOPIC, replyAddresses, mockBrokerConfig, mockChannel);
+    }
+
+    @Test
+    public void testPublishedToLatestReplyAddress() throws IOException {
+        replyAddresses.update(requestProperties("amq.rabbitmq.reply-to.first"));
+        replyAddresses.update(requestProperties("amq.rabbitmq.reply-to.second"));
+
+        adapter.publish("{}");
+
+        verify(mockChannel).basicPublish(eq(""), eq("amq.rabbitmq.reply-to.second"), any(), eq("{}".getBytes()));
+    }
+
+    @Test
+    public void testUnknownReplyAddress() throws IOException {
+        replyAddresses.update(new AMQP.BasicProperties.Builder().replyTo("test:namespace:response:requester").build());
+        try {
+            adapter.publish("{}");
+            fail("Exception should have been thrown");
+        } catch (ChannelException e) {
+            // expected
+        }
+
+        verify(mockChannel, never()).basicPublish(anyString(), anyString(), any(), any());
+    }
+
+    private AMQP.BasicProperties requestProperties(String replyTo) {
+        return new AMQP.BasicProperties.Builder()
+                .replyTo(replyTo)
+                .headers(Collections.singletonMap(AmqpReplyAddresses.RESPONSE_TOPIC_HEADER, LongStringHelper.asLongString(TOPIC)))
+                .build();
+    }
+}
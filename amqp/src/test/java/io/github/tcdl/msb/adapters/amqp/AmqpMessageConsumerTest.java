@@ -13,6 +13,7 @@ import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 
@@ -21,8 +22,10 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 
+import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.impl.LongStringHelper;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -70,6 +73,26 @@ public class AmqpMessageConsumerTest {
 
     }
 
+    @Test
+    public void testReplyAddressOfRequestRecorded() throws IOException {
+        AmqpReplyAddresses replyAddresses = new AmqpReplyAddresses();
+        AmqpMessageConsumer consumer = new AmqpMessageConsumer(mockChannel, mockMessageHandler, mockBrokerConfig, null, replyAddresses) {
+            @Override
+            AcknowledgementHandlerImpl createAcknowledgementHandler(Channel channel, String consumerTag, long deliveryTag, boolean isRequeueRejectedMessages) {
+                return amqpAcknowledgementHandler;
+            }
+        };
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                .replyTo("amq.rabbitmq.reply-to.g2dkAAZyYWJiaXQ")
+                .headers(Collections.singletonMap(AmqpReplyAddresses.RESPONSE_TOPIC_HEADER, LongStringHelper.asLongString("_direct-reply:requester")))
+                .build();
+
+        consumer.handleDelivery("consumer tag", new Envelope(1, false, "test:topic", ""), properties, "some message".getBytes());
+
+        assertEquals("amq.rabbitmq.reply-to.g2dkAAZyYWJiaXQ", replyAddresses.getAddress("_direct-reply:requester"));
+        verify(mockMessageHandler).onMessage(eq("some message"), eq(amqpAcknowledgementHandler));
+    }
+
     @Test
     public void testMessageCannotBeSubmittedForProcessing() throws IOException {
         long deliveryTag = 1234L;
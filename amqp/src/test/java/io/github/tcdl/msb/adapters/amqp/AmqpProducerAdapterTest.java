@@ -2,21 +2,35 @@ package io.github.tcdl.msb.adapters.amqp;
 
 import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.MessageProperties;
+import com.rabbitmq.client.ShutdownListener;
+import com.rabbitmq.client.ShutdownSignalException;
 import io.github.tcdl.msb.api.exception.ChannelException;
 import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.AdditionalMatchers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,8 +48,10 @@ public class AmqpProducerAdapterTest {
 
         mockAmqpConnectionManager = mock(AmqpConnectionManager.class);
 
-        when(mockAmqpConnectionManager.obtainConnection()).thenReturn(mockConnection);
+        when(mockAmqpConnectionManager.obtainProducerConnection()).thenReturn(mockConnection);
+        when(mockAmqpConnectionManager.getTopologyCache()).thenReturn(new AmqpTopologyCache());
         when(mockConnection.createChannel()).thenReturn(mockChannel);
+        when(mockChannel.isOpen()).thenReturn(true);
     }
 
     @Test
@@ -44,12 +60,12 @@ public class AmqpProducerAdapterTest {
 
         new AmqpProducerAdapter(topicName, mockAmqpBrokerConfig, mockAmqpConnectionManager);
 
-        verify(mockChannel).exchangeDeclare(topicName, "fanout", false, true, null);
+        verify(mockChannel).exchangeDeclareNoWait(topicName, "fanout", false, true, false, null);
     }
 
     @Test(expected = RuntimeException.class)
     public void testInitializationError() throws IOException {
-        when(mockChannel.exchangeDeclare(anyString(), anyString(), anyBoolean(), anyBoolean(), any())).thenThrow(new IOException());
+        doThrow(new IOException()).when(mockChannel).exchangeDeclareNoWait(anyString(), anyString(), anyBoolean(), anyBoolean(), anyBoolean(), any());
         new AmqpProducerAdapter("myTopic", mockAmqpBrokerConfig, mockAmqpConnectionManager);
     }
 
@@ -64,6 +80,78 @@ public class AmqpProducerAdapterTest {
         verify(mockChannel).basicPublish(topicName, "" /* routing key */, MessageProperties.PERSISTENT_BASIC, message.getBytes());
     }
 
+    @Test
+    public void testPublishBytesAsTheyAre() throws ChannelException, IOException {
+        byte[] message = "message".getBytes(StandardCharsets.UTF_8);
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter("myTopic", mockAmqpBrokerConfig, mockAmqpConnectionManager);
+
+        producerAdapter.publish(message);
+
+        verify(mockChannel).basicPublish(eq("myTopic"), eq(""), eq(MessageProperties.PERSISTENT_BASIC), same(message));
+    }
+
+    @Test
+    public void testPublishBatch() throws Exception {
+        when(mockChannel.getNextPublishSeqNo()).thenReturn(1L);
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter("myTopic", mockAmqpBrokerConfig, mockAmqpConnectionManager);
+        ConfirmListener confirmListener = captureConfirmListener();
+        doAnswer(invocation -> {
+            confirmListener.handleAck(3, true);
+            return null;
+        }).when(mockChannel).basicPublish("myTopic", "", MessageProperties.PERSISTENT_BASIC, "message3".getBytes());
+
+        producerAdapter.publishBatch(Arrays.asList("message1".getBytes(), "message2".getBytes(), "message3".getBytes()));
+
+        InOrder inOrder = inOrder(mockChannel);
+        inOrder.verify(mockChannel).basicPublish("myTopic", "", MessageProperties.PERSISTENT_BASIC, "message1".getBytes());
+        inOrder.verify(mockChannel).basicPublish("myTopic", "", MessageProperties.PERSISTENT_BASIC, "message2".getBytes());
+        inOrder.verify(mockChannel).basicPublish("myTopic", "", MessageProperties.PERSISTENT_BASIC, "message3".getBytes());
+        verify(mockChannel, never()).waitForConfirms(anyLong());
+    }
+
+    @Test
+    public void testPublishBatchWaitsOnlyForItsOwnConfirms() throws Exception {
+        // messages 1-4 are published by other producers and never confirmed
+        when(mockChannel.getNextPublishSeqNo()).thenReturn(5L);
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter("myTopic", mockAmqpBrokerConfig, mockAmqpConnectionManager);
+        ConfirmListener confirmListener = captureConfirmListener();
+        doAnswer(invocation -> {
+            confirmListener.handleAck(6, false);
+            confirmListener.handleAck(5, false);
+            return null;
+        }).when(mockChannel).basicPublish("myTopic", "", MessageProperties.PERSISTENT_BASIC, "message2".getBytes());
+
+        producerAdapter.publishBatch(Arrays.asList("message1".getBytes(), "message2".getBytes()));
+    }
+
+    @Test(expected = ChannelException.class)
+    public void testPublishBatchRejected() throws Exception {
+        when(mockChannel.getNextPublishSeqNo()).thenReturn(1L);
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter("myTopic", mockAmqpBrokerConfig, mockAmqpConnectionManager);
+        ConfirmListener confirmListener = captureConfirmListener();
+        doAnswer(invocation -> {
+            confirmListener.handleAck(1, false);
+            confirmListener.handleNack(2, false);
+            return null;
+        }).when(mockChannel).basicPublish("myTopic", "", MessageProperties.PERSISTENT_BASIC, "message2".getBytes());
+
+        producerAdapter.publishBatch(Arrays.asList("message1".getBytes(), "message2".getBytes()));
+    }
+
+    @Test(expected = ChannelException.class)
+    public void testPublishBatchNotConfirmed() throws Exception {
+        when(mockChannel.getNextPublishSeqNo()).thenReturn(1L);
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter("myTopic", mockAmqpBrokerConfig, mockAmqpConnectionManager);
+        ArgumentCaptor<ShutdownListener> shutdownListenerCaptor = ArgumentCaptor.forClass(ShutdownListener.class);
+        verify(mockChannel).addShutdownListener(shutdownListenerCaptor.capture());
+        doAnswer(invocation -> {
+            shutdownListenerCaptor.getValue().shutdownCompleted(new ShutdownSignalException(false, false, null, mockChannel));
+            return null;
+        }).when(mockChannel).basicPublish("myTopic", "", MessageProperties.PERSISTENT_BASIC, "message2".getBytes());
+
+        producerAdapter.publishBatch(Arrays.asList("message1".getBytes(), "message2".getBytes()));
+    }
+
     @Test
     public void testProperCharsetUsed() throws IOException {
         when(mockAmqpBrokerConfig.getCharset()).thenReturn(Charset.forName("UTF-32"));
@@ -76,4 +164,23 @@ public class AmqpProducerAdapterTest {
 
         verify(mockChannel).basicPublish(anyString(), anyString(), any(AMQP.BasicProperties.class), AdditionalMatchers.aryEq(expectedEncodedMessage));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testProperCharsetUsedForBytes() throws IOException {
+        when(mockAmqpBrokerConfig.getCharset()).thenReturn(Charset.forName("UTF-32"));
+
+        byte[] message = "ö".getBytes(StandardCharsets.UTF_8);
+        byte[] expectedEncodedMessage = new byte[] { 0, 0, 0, -10 };
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter("myTopic", mockAmqpBrokerConfig, mockAmqpConnectionManager);
+
+        producerAdapter.publish(message);
+
+        verify(mockChannel).basicPublish(anyString(), anyString(), any(AMQP.BasicProperties.class), AdditionalMatchers.aryEq(expectedEncodedMessage));
+    }
+
+    private ConfirmListener captureConfirmListener() {
+        ArgumentCaptor<ConfirmListener> confirmListenerCaptor = ArgumentCaptor.forClass(ConfirmListener.class);
+        verify(mockChannel).addConfirmListener(confirmListenerCaptor.capture());
+        return confirmListenerCaptor.getValue();
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+import io.github.tcdl.msb.adapters.ConsumerAdapter;
+import io.github.tcdl.msb.api.exception.ChannelException;
+import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.Envelope;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AmqpResponseQueueTest {
+
+    private static final String EXCHANGE = "test:responses";
+    private static final String QUEUE = "test:responses.instance.t";
+    private static final String TOPIC_1 = "test:first:response:instance";
+    private static final String TOPIC_2 = "test:second:response:instance";
+
+    @Mock
+    private AmqpConnectionManager mockConnectionManager;
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private Channel mockChannel;
+
+    @Mock
+    private AmqpBrokerConfig mockBrokerConfig;
+
+    @Mock
+    private ConsumerAdapter.RawMessageHandler handler1;
+
+    @Mock
+    private ConsumerAdapter.RawMessageHandler handler2;
+
+    private AmqpResponseQueue responseQueue;
+
+    @Before
+    public void setUp() throws IOException {
+        when(mockConnectionManager.obtainConsumerConnection()).thenReturn(mockConnection);
+        when(mockConnection.createChannel()).thenReturn(mockChannel);
+        when(mockBrokerConfig.getCharset()).thenReturn(Charset.forName("UTF-8"));
+        when(mockBrokerConfig.getPrefetchCount()).thenReturn(10);
+
+        responseQueue = new AmqpResponseQueue(EXCHANGE, "instance", mockBrokerConfig, mockConnectionManager);
+    }
+
+    @Test
+    public void testSingleQueueBoundForEachTopic() throws IOException {
+        responseQueue.subscribe(TOPIC_1, handler1);
+        responseQueue.subscribe(TOPIC_2, handler2);
+
+        verify(mockChannel, times(1)).queueDeclare(QUEUE, false, true, true, null);
+        verify(mockChannel, times(1)).basicQos(10);
+        verify(mockChannel, times(1)).basicConsume(eq(QUEUE), eq(false), any(Consumer.class));
+        verify(mockChannel).queueBind(QUEUE, EXCHANGE, TOPIC_1);
+        verify(mockChannel).queueBind(QUEUE, EXCHANGE, TOPIC_2);
+        verify(mockChannel, never()).exchangeDeclare(anyString(), anyString(), anyBoolean(), anyBoolean(), any());
+    }
+
+    @Test
+    public void testResponseDispatchedByRoutingKey() throws IOException {
+        responseQueue.subscribe(TOPIC_1, handler1);
+        responseQueue.subscribe(TOPIC_2, handler2);
+
+        deliver(TOPIC_2, 1);
+
+        verify(handler2).onMessage(eq("{}"), any());
+        verify(handler1, never()).onMessage(anyString(), any());
+    }
+
+    @Test
+    public void testTopicOfResponseResolvedByRoutingKey() throws IOException {
+        responseQueue.subscribe(TOPIC_1, handler1);
+
+        ArgumentCaptor<AmqpMessageConsumer> consumerCaptor = ArgumentCaptor.forClass(AmqpMessageConsumer.class);
+        verify(mockChannel).basicConsume(eq(QUEUE), eq(false), consumerCaptor.capture());
+
+        assertEquals(TOPIC_1, consumerCaptor.getValue().resolveTopic(new Envelope(1, false, EXCHANGE, TOPIC_1)));
+    }
+
+    @Test
+    public void testResponseOfUnsubscribedTopicRejected() throws IOException {
+        responseQueue.subscribe(TOPIC_1, handler1);
+        responseQueue.unsubscribe(TOPIC_1);
+
+        deliver(TOPIC_1, 7);
+
+        verify(mockChannel).queueUnbind(QUEUE, EXCHANGE, TOPIC_1);
+        verify(handler1, never()).onMessage(anyString(), any());
+        verify(mockChannel).basicReject(7, false);
+    }
+
+    @Test
+    public void testFailedBindingNotSubscribed() throws IOException {
+        when(mockChannel.queueBind(QUEUE, EXCHANGE, TOPIC_1)).thenThrow(new IOException());
+        try {
+            responseQueue.subscribe(TOPIC_1, handler1);
+            fail("Exception should have been thrown");
+        } catch (ChannelException e) {
+            // expected
+        }
+
+        deliver(TOPIC_1, 1);
+
+        verify(handler1, never()).onMessage(anyString(), any());
+    }
+
+    private void deliver(String routingKey, long deliveryTag) throws IOException {
+        ArgumentCaptor<Consumer> consumerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(mockChannel).basicConsume(eq(QUEUE), eq(false), consumerCaptor.capture());
+        Envelope envelope = new Envelope(deliveryTag, false, EXCHANGE, routingKey);
+        consumerCaptor.getValue().handleDelivery("consumer tag", envelope, null, "{}".getBytes());
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AmqpTopologyCacheTest {
+
+    @Mock
+    private Connection connection1;
+
+    @Mock
+    private Connection connection2;
+
+    @Mock
+    private Channel channel;
+
+    private AmqpTopologyCache topologyCache = new AmqpTopologyCache();
+
+    @Test
+    public void testDeclaredOncePerConnection() throws IOException {
+        declareTopology(connection1);
+        declareTopology(connection1);
+        declareTopology(connection2);
+
+        verify(channel, times(2)).exchangeDeclareNoWait("test:topic", "fanout", true, false, false, null);
+        verify(channel, times(2)).queueDeclareNoWait("test:topic.group.d", true, false, false, null);
+        verify(channel, times(2)).queueBindNoWait("test:topic.group.d", "test:topic", "", null);
+    }
+
+    @Test
+    public void testAutoDeleteDeclarationsNotRemembered() throws IOException {
+        for (int i = 0; i < 2; i++) {
+            topologyCache.exchangeDeclare(connection1, channel, "test:topic", "fanout", false, true);
+            topologyCache.queueDeclare(connection1, channel, "test:topic.group.d", true, false, false);
+            topologyCache.queueBind(connection1, channel, "test:topic.group.d", "test:topic", "");
+            topologyCache.queueDeclare(connection1, channel, "test:topic.group.t", false, false, true);
+        }
+
+        verify(channel, times(2)).exchangeDeclareNoWait("test:topic", "fanout", false, true, false, null);
+        verify(channel, times(1)).queueDeclareNoWait("test:topic.group.d", true, false, false, null);
+        verify(channel, times(2)).queueBindNoWait("test:topic.group.d", "test:topic", "", null);
+        verify(channel, times(2)).queueDeclareNoWait("test:topic.group.t", false, false, true, null);
+    }
+
+    @Test
+    public void testDeclaredAgainAfterRecovery() throws IOException {
+        declareTopology(connection1);
+        declareTopology(connection2);
+
+        topologyCache.connectionRecovered(connection1);
+        declareTopology(connection1);
+        declareTopology(connection2);
+
+        verify(channel, times(3)).exchangeDeclareNoWait("test:topic", "fanout", true, false, false, null);
+        verify(channel, times(3)).queueBindNoWait("test:topic.group.d", "test:topic", "", null);
+    }
+
+    @Test
+    public void testForgottenOnAllConnections() throws IOException {
+        declareTopology(connection1);
+        declareTopology(connection2);
+        topologyCache.exchangeDeclare(connection1, channel, "test:other", "fanout", true, false);
+
+        topologyCache.forget("test:topic", "test:topic.group.d");
+        declareTopology(connection1);
+        declareTopology(connection2);
+        topologyCache.exchangeDeclare(connection1, channel, "test:other", "fanout", true, false);
+
+        verify(channel, times(4)).exchangeDeclareNoWait("test:topic", "fanout", true, false, false, null);
+        verify(channel, times(4)).queueDeclareNoWait("test:topic.group.d", true, false, false, null);
+        verify(channel, times(4)).queueBindNoWait("test:topic.group.d", "test:topic", "", null);
+        verify(channel, times(1)).exchangeDeclareNoWait("test:other", "fanout", true, false, false, null);
+    }
+
+    @Test
+    public void testFailedDeclarationNotRemembered() throws IOException {
+        doThrow(new IOException()).doNothing()
+                .when(channel).exchangeDeclareNoWait(anyString(), anyString(), anyBoolean(), anyBoolean(), anyBoolean(), any());
+
+        try {
+            topologyCache.exchangeDeclare(connection1, channel, "test:topic", "fanout", true, false);
+        } catch (IOException e) {
+            // expected
+        }
+        topologyCache.exchangeDeclare(connection1, channel, "test:topic", "fanout", true, false);
+
+        verify(channel, times(2)).exchangeDeclareNoWait("test:topic", "fanout", true, false, false, null);
+    }
+
+    private void declareTopology(Connection connection) throws IOException {
+        topologyCache.exchangeDeclare(connection, channel, "test:topic", "fanout", true, false);
+        topologyCache.queueDeclare(connection, channel, "test:topic.group.d", true, false, false);
+        topologyCache.queueBind(connection, channel, "test:topic.group.d", "test:topic", "");
+    }
+}
@@ -90,6 +90,84 @@ public class AmqpBrokerConfigTest {
         assertFalse(brokerConfig.getPassword().isPresent());
         assertFalse(brokerConfig.getVirtualHost().isPresent());
         assertFalse(brokerConfig.getGroupId().isPresent());
+        assertEquals(1, brokerConfig.getConsumerConnections());
+        assertEquals(1, brokerConfig.getProducerConnections());
+        assertEquals(0, brokerConfig.getDispatchThreads());
+        assertFalse(brokerConfig.getAdaptivePrefetch().isPresent());
+        assertEquals(AmqpBrokerConfig.ResponseRouting.FANOUT, brokerConfig.getResponseRouting());
+        assertEquals("msb:responses", brokerConfig.getResponseExchange());
+        assertFalse(brokerConfig.isDirectReplyTo());
+    }
+
+    @Test
+    public void testConnectionsConfigurationOptions() {
+        Config amqpConfig = ConfigFactory.parseString("consumerConnections = 4\nproducerConnections = 0\ndispatchThreads = 8")
+                .withFallback(ConfigFactory.load("amqp").getConfig("config.amqp"));
+
+        AmqpBrokerConfig brokerConfig = new AmqpBrokerConfig.AmqpBrokerConfigBuilder().withConfig(amqpConfig).build();
+
+        assertEquals(4, brokerConfig.getConsumerConnections());
+        assertEquals(0, brokerConfig.getProducerConnections());
+        assertEquals(8, brokerConfig.getDispatchThreads());
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testNoConsumerConnections() {
+        Config amqpConfig = ConfigFactory.parseString("consumerConnections = 0")
+                .withFallback(ConfigFactory.load("amqp").getConfig("config.amqp"));
+
+        new AmqpBrokerConfig.AmqpBrokerConfigBuilder().withConfig(amqpConfig).build();
+    }
+
+    @Test
+    public void testAdaptivePrefetchConfigurationOptions() {
+        Config amqpConfig = ConfigFactory.parseString("adaptivePrefetch { enabled = true, minPrefetchCount = 2, maxPrefetchCount = 50, adjustmentIntervalMs = 500 }")
+                .withFallback(ConfigFactory.load("amqp").getConfig("config.amqp"));
+
+        AmqpBrokerConfig brokerConfig = new AmqpBrokerConfig.AmqpBrokerConfigBuilder().withConfig(amqpConfig).build();
+
+        assertTrue(brokerConfig.getAdaptivePrefetch().isPresent());
+        AdaptivePrefetchConfig adaptivePrefetch = brokerConfig.getAdaptivePrefetch().get();
+        assertEquals(2, adaptivePrefetch.getMinPrefetchCount());
+        assertEquals(50, adaptivePrefetch.getMaxPrefetchCount());
+        assertEquals(500, adaptivePrefetch.getAdjustmentIntervalMs());
+    }
+
+    @Test
+    public void testResponseRoutingConfigurationOptions() {
+        Config amqpConfig = ConfigFactory.parseString("responseRouting = DIRECT\nresponseExchange = \"test:responses\"")
+                .withFallback(ConfigFactory.load("amqp").getConfig("config.amqp"));
+
+        AmqpBrokerConfig brokerConfig = new AmqpBrokerConfig.AmqpBrokerConfigBuilder().withConfig(amqpConfig).build();
+
+        assertEquals(AmqpBrokerConfig.ResponseRouting.DIRECT, brokerConfig.getResponseRouting());
+        assertEquals("test:responses", brokerConfig.getResponseExchange());
+    }
+
+    @Test
+    public void testDirectReplyToConfigurationOption() {
+        Config amqpConfig = ConfigFactory.parseString("directReplyTo = true")
+                .withFallback(ConfigFactory.load("amqp").getConfig("config.amqp"));
+
+        AmqpBrokerConfig brokerConfig = new AmqpBrokerConfig.AmqpBrokerConfigBuilder().withConfig(amqpConfig).build();
+
+        assertTrue(brokerConfig.isDirectReplyTo());
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testUnknownResponseRouting() {
+        Config amqpConfig = ConfigFactory.parseString("responseRouting = TOPIC")
+                .withFallback(ConfigFactory.load("amqp").getConfig("config.amqp"));
+
+        new AmqpBrokerConfig.AmqpBrokerConfigBuilder().withConfig(amqpConfig).build();
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testAdaptivePrefetchInvalidBounds() {
+        Config amqpConfig = ConfigFactory.parseString("adaptivePrefetch { enabled = true, minPrefetchCount = 20, maxPrefetchCount = 10 }")
+                .withFallback(ConfigFactory.load("amqp").getConfig("config.amqp"));
+
+        new AmqpBrokerConfig.AmqpBrokerConfigBuilder().withConfig(amqpConfig).build();
     }
 
     @Test
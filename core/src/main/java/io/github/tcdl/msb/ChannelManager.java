@@ -2,19 +2,26 @@ package io.github.tcdl.msb;
 
 import java.time.Clock;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.tcdl.msb.adapters.*;
 import io.github.tcdl.msb.api.Callback;
+import io.github.tcdl.msb.api.ResponderOptions;
 import io.github.tcdl.msb.api.exception.ConsumerSubscriptionException;
 import io.github.tcdl.msb.collector.CollectorManager;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.impl.SimpleMessageHandlerResolverImpl;
+import io.github.tcdl.msb.message.ServiceDetailsRegistry;
 import io.github.tcdl.msb.monitor.agent.ChannelMonitorAgent;
 import io.github.tcdl.msb.monitor.agent.NoopChannelMonitorAgent;
+import io.github.tcdl.msb.monitor.agent.TopicStatsRecorder;
+import io.github.tcdl.msb.threading.ConsumerExecutorFactory;
+import io.github.tcdl.msb.threading.ConsumerExecutorFactoryImpl;
 import io.github.tcdl.msb.threading.MessageHandlerInvoker;
+import io.github.tcdl.msb.threading.ThreadPoolMessageHandlerInvoker;
 import io.github.tcdl.msb.support.JsonValidator;
 import io.github.tcdl.msb.support.Utils;
 import org.apache.commons.lang3.Validate;
@@ -35,28 +42,69 @@ public class ChannelManager {
     private final ObjectMapper messageMapper;
     private final AdapterFactory adapterFactory;
     private final MessageHandlerInvoker messageHandlerInvoker;
-    private ChannelMonitorAgent channelMonitorAgent;
+    private final MessageHandlerInvoker responseMessageHandlerInvoker;
+    private final ConsumerExecutorFactory consumerExecutorFactory;
+    private final ConsumerExecutorFactory dedicatedExecutorFactory;
+    private volatile ChannelMonitorAgent channelMonitorAgent;
 
     private final Map<String, Producer> producersByTopic;
+    private final Map<String, ProducerStatsCallback> producerStatsCallbacksByTopic;
     private final Map<String, Consumer> consumersByTopic;
+    private final Map<String, MessageHandlerInvoker> dedicatedInvokersByTopic;
+    private final ServiceDetailsRegistry serviceDetailsRegistry = new ServiceDetailsRegistry();
 
     public ChannelManager(MsbConfig msbConfig, Clock clock, JsonValidator validator, ObjectMapper messageMapper, AdapterFactory adapterFactory, MessageHandlerInvoker messageHandlerInvoker) {
+        this(msbConfig, clock, validator, messageMapper, adapterFactory, messageHandlerInvoker, messageHandlerInvoker, new ConsumerExecutorFactoryImpl());
+    }
+
+    /**
+     * @param messageHandlerInvoker         invoker shared by all responder servers that don't have a dedicated thread pool
+     * @param responseMessageHandlerInvoker invoker used for response topics, may be the same instance as messageHandlerInvoker
+     * @param consumerExecutorFactory       factory of thread pools dedicated to particular responder servers
+     */
+    public ChannelManager(MsbConfig msbConfig, Clock clock, JsonValidator validator, ObjectMapper messageMapper, AdapterFactory adapterFactory,
+            MessageHandlerInvoker messageHandlerInvoker, MessageHandlerInvoker responseMessageHandlerInvoker, ConsumerExecutorFactory consumerExecutorFactory) {
+        this(msbConfig, clock, validator, messageMapper, adapterFactory, messageHandlerInvoker, responseMessageHandlerInvoker, consumerExecutorFactory,
+                consumerExecutorFactory);
+    }
+
+    /**
+     * @param messageHandlerInvoker         invoker shared by all responder servers that don't have a dedicated thread pool
+     * @param responseMessageHandlerInvoker invoker used for response topics, may be the same instance as messageHandlerInvoker
+     * @param consumerExecutorFactory       factory of the consumer and response thread pools
+     * @param dedicatedExecutorFactory      factory of thread pools dedicated to particular responder servers
+     */
+    public ChannelManager(MsbConfig msbConfig, Clock clock, JsonValidator validator, ObjectMapper messageMapper, AdapterFactory adapterFactory,
+            MessageHandlerInvoker messageHandlerInvoker, MessageHandlerInvoker responseMessageHandlerInvoker, ConsumerExecutorFactory consumerExecutorFactory,
+            ConsumerExecutorFactory dedicatedExecutorFactory) {
         this.msbConfig = msbConfig;
         this.clock = clock;
         this.validator = validator;
         this.messageMapper = messageMapper;
         this.adapterFactory = adapterFactory;
         this.messageHandlerInvoker = messageHandlerInvoker;
+        this.responseMessageHandlerInvoker = responseMessageHandlerInvoker;
+        this.consumerExecutorFactory = consumerExecutorFactory;
+        this.dedicatedExecutorFactory = dedicatedExecutorFactory;
         this.producersByTopic = new ConcurrentHashMap<>();
+        this.producerStatsCallbacksByTopic = new ConcurrentHashMap<>();
         this.consumersByTopic = new ConcurrentHashMap<>();
+        this.dedicatedInvokersByTopic = new ConcurrentHashMap<>();
 
         channelMonitorAgent = new NoopChannelMonitorAgent();
     }
 
     public Producer findOrCreateProducer(final String topic) {
+        return findOrCreateProducer(topic, false);
+    }
+
+    /**
+     * @param isResponseTopic true if the topic is used to send responses, it is taken into account when the producer is created
+     */
+    public Producer findOrCreateProducer(final String topic, boolean isResponseTopic) {
         Validate.notNull(topic, "field 'topic' is null");
         Producer producer = producersByTopic.computeIfAbsent(topic, key -> {
-            Producer newProducer = createProducer(key);
+            Producer newProducer = createProducer(key, isResponseTopic);
             channelMonitorAgent.producerTopicCreated(key);
             return newProducer;
         });
@@ -64,6 +112,14 @@ public class ChannelManager {
         return producer;
     }
 
+    /**
+     * @return response topic of requests whose responses are delivered by the adapter straight to the requesting channel,
+     * empty if the adapter doesn't support it
+     */
+    public Optional<String> getDirectReplyTopic() {
+        return adapterFactory.getDirectReplyTopic();
+    }
+
     /**
      * Start consuming messages on specified topic with handler.
      * Calls to subscribe() and unsubscribe() have to be properly synchronized by client code not to lose messages.
@@ -73,12 +129,30 @@ public class ChannelManager {
      * @throws ConsumerSubscriptionException if subscriber for topic already exist
      */
     public synchronized boolean subscribe(String topic, MessageHandler messageHandler) {
+        return subscribe(topic, messageHandler, ResponderOptions.DEFAULTS);
+    }
+
+    /**
+     * Start consuming messages on specified topic with handler. If {@literal responderOptions} specify a dedicated thread pool,
+     * messages are processed by that pool only so they neither wait for nor delay messages on other topics.
+     * The dedicated pool lives until {@link #shutdown()} and is reused if the topic is subscribed again.
+     * Calls to subscribe() and unsubscribe() have to be properly synchronized by client code not to lose messages.
+     *
+     * @param topic
+     * @param messageHandler handler for processing messages
+     * @param responderOptions thread pool and prefetch settings for the topic
+     * @throws ConsumerSubscriptionException if subscriber for topic already exist
+     */
+    public synchronized boolean subscribe(String topic, MessageHandler messageHandler, ResponderOptions responderOptions) {
         Validate.notNull(topic, "field 'topic' is null");
         Validate.notNull(messageHandler, "field 'messageHandler' is null");
+        Validate.notNull(responderOptions, "field 'responderOptions' is null");
         if (consumersByTopic.get(topic) != null) {
             throw new ConsumerSubscriptionException("Subscriber for this topic: " + topic + " already exist");
         } else {
-            Consumer newConsumer = createConsumer(topic, false, new SimpleMessageHandlerResolverImpl(messageHandler, RESPONDER_LOGGING_NAME));
+            MessageHandlerInvoker invoker = getMessageHandlerInvoker(topic, responderOptions);
+            Consumer newConsumer = createConsumer(topic, false, new SimpleMessageHandlerResolverImpl(messageHandler, RESPONDER_LOGGING_NAME),
+                    invoker, Optional.ofNullable(responderOptions.getPrefetchCount()));
             channelMonitorAgent.consumerTopicCreated(topic);
             consumersByTopic.put(topic, newConsumer);
             return false;
@@ -99,7 +173,7 @@ public class ChannelManager {
         if (consumersByTopic.get(topic) != null) {
             throw new ConsumerSubscriptionException("Subscriber for this topic: " + topic + " already exist");
         } else {
-            Consumer newConsumer = createConsumer(topic, true, collectorManager);
+            Consumer newConsumer = createConsumer(topic, true, collectorManager, responseMessageHandlerInvoker, Optional.empty());
             channelMonitorAgent.consumerTopicCreated(topic);
             consumersByTopic.put(topic, newConsumer);
             return false;
@@ -120,26 +194,62 @@ public class ChannelManager {
         }
     }
 
-    private Producer createProducer(String topic) {
+    private Producer createProducer(String topic, boolean isResponseTopic) {
         Utils.validateTopic(topic);
 
-        ProducerAdapter adapter = getAdapterFactory().createProducerAdapter(topic);
-        Callback<Message> handler = message -> channelMonitorAgent.producerMessageSent(topic);
-        return new Producer(adapter, topic, handler, messageMapper);
+        ProducerAdapter adapter = getAdapterFactory().createProducerAdapter(topic, isResponseTopic);
+        ProducerStatsCallback handler = new ProducerStatsCallback();
+        synchronized (producerStatsCallbacksByTopic) {
+            handler.statsRecorder = channelMonitorAgent.producerStatsRecorder(topic);
+            producerStatsCallbacksByTopic.put(topic, handler);
+        }
+        return new Producer(adapter, topic, handler, messageMapper, adapterFactory.getDirectReplyTopic().orElse(null));
     }
 
-    private Consumer createConsumer(String topic, boolean isResponseTopic, MessageHandlerResolver messageHandlerResolver) {
+    private Consumer createConsumer(String topic, boolean isResponseTopic, MessageHandlerResolver messageHandlerResolver,
+            MessageHandlerInvoker invoker, Optional<Integer> prefetchCount) {
         Utils.validateTopic(topic);
 
-        ConsumerAdapter adapter = getAdapterFactory().createConsumerAdapter(topic, isResponseTopic );
+        ConsumerAdapter adapter = getAdapterFactory().createConsumerAdapter(topic, isResponseTopic, prefetchCount);
 
-        return new Consumer(adapter, messageHandlerInvoker, topic, messageHandlerResolver, msbConfig, clock, channelMonitorAgent, validator, messageMapper);
+        return new Consumer(adapter, invoker, topic, messageHandlerResolver, msbConfig, clock, channelMonitorAgent, validator, messageMapper,
+                serviceDetailsRegistry);
+    }
+
+    private MessageHandlerInvoker getMessageHandlerInvoker(String topic, ResponderOptions responderOptions) {
+        if (!responderOptions.hasDedicatedThreadPool() || !adapterFactory.isUseMsbThreadingModel()) {
+            return messageHandlerInvoker;
+        }
+        return dedicatedInvokersByTopic.computeIfAbsent(topic, key -> {
+            LOG.info("[{}] Creating dedicated thread pool: {}", key, responderOptions);
+            return new ThreadPoolMessageHandlerInvoker(responderOptions.getConsumerThreadPoolSize(),
+                    responderOptions.getConsumerThreadPoolQueueCapacity(), dedicatedExecutorFactory, msbConfig.isEarliestDeadlineFirst(), clock);
+        });
+    }
+
+    /**
+     * @return number of messages that were dropped without processing because they had expired while waiting in the queues
+     * of the consumer, response and dedicated thread pools
+     */
+    public long getExpiredMessagesCount() {
+        long count = messageHandlerInvoker.getExpiredMessagesCount();
+        if (responseMessageHandlerInvoker != messageHandlerInvoker) {
+            count += responseMessageHandlerInvoker.getExpiredMessagesCount();
+        }
+        for (MessageHandlerInvoker dedicatedInvoker : dedicatedInvokersByTopic.values()) {
+            count += dedicatedInvoker.getExpiredMessagesCount();
+        }
+        return count;
     }
 
     public void shutdown() {
         LOG.info("Shutting down...");
         adapterFactory.shutdown();
         messageHandlerInvoker.shutdown();
+        if (responseMessageHandlerInvoker != messageHandlerInvoker) {
+            responseMessageHandlerInvoker.shutdown();
+        }
+        dedicatedInvokersByTopic.values().forEach(MessageHandlerInvoker::shutdown);
         LOG.info("Shutdown complete");
     }
 
@@ -148,7 +258,40 @@ public class ChannelManager {
     }
 
 
+    /**
+     * Sets the agent and lets the producers created before record their messages with it.
+     */
     public void setChannelMonitorAgent(ChannelMonitorAgent channelMonitorAgent) {
-        this.channelMonitorAgent = channelMonitorAgent;
+        synchronized (producerStatsCallbacksByTopic) {
+            this.channelMonitorAgent = channelMonitorAgent;
+            producerStatsCallbacksByTopic.forEach((topic, callback) -> callback.statsRecorder = channelMonitorAgent.producerStatsRecorder(topic));
+        }
+    }
+
+    /**
+     * @return service details of the instances that have sent messages to the consumers of this channel manager
+     */
+    public ServiceDetailsRegistry getServiceDetailsRegistry() {
+        return serviceDetailsRegistry;
+    }
+
+    /**
+     * @return factory of the consumer and response thread pools
+     */
+    public ConsumerExecutorFactory getConsumerExecutorFactory() {
+        return consumerExecutorFactory;
+    }
+
+    /**
+     * Records the messages sent by a producer. The recorder is replaced when the agent is set after the producer was created.
+     */
+    private static class ProducerStatsCallback implements Callback<Message> {
+
+        private volatile TopicStatsRecorder statsRecorder;
+
+        @Override
+        public void call(Message message) {
+            statsRecorder.record();
+        }
     }
 }
@@ -4,16 +4,24 @@ import io.github.tcdl.msb.adapters.ConsumerAdapter;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.threading.MessageHandlerInvoker;
 import io.github.tcdl.msb.api.message.Message;
-import io.github.tcdl.msb.api.message.MetaMessage;
 import io.github.tcdl.msb.collector.ConsumedMessagesAwareMessageHandler;
 import io.github.tcdl.msb.config.MsbConfig;
+import io.github.tcdl.msb.jfr.MessageEventType;
+import io.github.tcdl.msb.jfr.MessageEvents;
+import io.github.tcdl.msb.message.ServiceDetailsRegistry;
 import io.github.tcdl.msb.monitor.agent.ChannelMonitorAgent;
+import io.github.tcdl.msb.monitor.agent.TopicStatsRecorder;
 import io.github.tcdl.msb.support.JsonValidator;
+import io.github.tcdl.msb.support.MdcContext;
+import io.github.tcdl.msb.support.Trace;
+import io.github.tcdl.msb.support.TraceEvent;
+import io.github.tcdl.msb.support.TypedConverter;
 import io.github.tcdl.msb.support.Utils;
 
 import java.time.Clock;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
@@ -22,7 +30,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.slf4j.MDC;
 
 /**
  * {@link Consumer} is a component responsible for consuming messages from the bus.
@@ -35,13 +42,19 @@ public class Consumer {
     private final MessageHandlerInvoker messageHandlerInvoker;
     private final String topic;
     private final MsbConfig msbConfig;
-    private final ChannelMonitorAgent channelMonitorAgent;
+    private final TopicStatsRecorder statsRecorder;
     private final Clock clock;
     private final MessageHandlerResolver messageHandlerResolver;
     private final JsonValidator validator;
-    private final ObjectMapper messageMapper;
+    private final TypedConverter<Message> messageConverter;
     private final String loggingTag;
+    private final boolean mdcLogging;
+    private final String mdcLoggingKeyMessageTags;
+    private final String mdcLoggingKeyCorrelationId;
+    private final String mdcLoggingSplitTagsBy;
     private final boolean isSplitTagsForMdcLogging;
+    private final boolean parseOnInvokerThreads;
+    private final ServiceDetailsRegistry serviceDetailsRegistry;
 
     /**
      * @param rawAdapter instance of {@link ConsumerAdapter} that allows to receive messages from message bus
@@ -56,6 +69,17 @@ public class Consumer {
     public Consumer(ConsumerAdapter rawAdapter, MessageHandlerInvoker messageHandlerInvoker,
             String topic, MessageHandlerResolver messageHandlerResolver, MsbConfig msbConfig,
             Clock clock, ChannelMonitorAgent channelMonitorAgent, JsonValidator validator, ObjectMapper messageMapper) {
+        this(rawAdapter, messageHandlerInvoker, topic, messageHandlerResolver, msbConfig, clock, channelMonitorAgent, validator, messageMapper,
+                new ServiceDetailsRegistry());
+    }
+
+    /**
+     * @param serviceDetailsRegistry remembers the service details carried by incoming messages
+     */
+    public Consumer(ConsumerAdapter rawAdapter, MessageHandlerInvoker messageHandlerInvoker,
+            String topic, MessageHandlerResolver messageHandlerResolver, MsbConfig msbConfig,
+            Clock clock, ChannelMonitorAgent channelMonitorAgent, JsonValidator validator, ObjectMapper messageMapper,
+            ServiceDetailsRegistry serviceDetailsRegistry) {
 
         LOG.debug("Creating consumer for topic: {}", topic);
         Validate.notNull(rawAdapter, "the 'rawAdapter' must not be null");
@@ -67,6 +91,7 @@ public class Consumer {
         Validate.notNull(channelMonitorAgent, "the 'channelMonitorAgent' must not be null");
         Validate.notNull(validator, "the 'validator' must not be null");
         Validate.notNull(messageMapper, "the 'messageMapper' must not be null");
+        Validate.notNull(serviceDetailsRegistry, "the 'serviceDetailsRegistry' must not be null");
 
         this.rawAdapter = rawAdapter;
         this.messageHandlerInvoker = messageHandlerInvoker;
@@ -74,14 +99,20 @@ public class Consumer {
         this.messageHandlerResolver = messageHandlerResolver;
         this.msbConfig = msbConfig;
         this.clock = clock;
-        this.channelMonitorAgent = channelMonitorAgent;
+        this.statsRecorder = channelMonitorAgent.consumerStatsRecorder(topic);
         this.validator = validator;
-        this.messageMapper = messageMapper;
+        this.messageConverter = new TypedConverter<>(Message.class, messageMapper);
+        this.parseOnInvokerThreads = msbConfig.isParseOnInvokerThreads();
+        this.serviceDetailsRegistry = serviceDetailsRegistry;
 
         this.rawAdapter.subscribe(this::handleRawMessage);
 
         this.loggingTag = String.format("[Consumer for: '%s' on topic: '%s']", messageHandlerResolver.getLoggingName(), topic);
-        this.isSplitTagsForMdcLogging = !StringUtils.isEmpty(msbConfig.getMdcLoggingSplitTagsBy());
+        this.mdcLogging = msbConfig.isMdcLogging();
+        this.mdcLoggingKeyMessageTags = msbConfig.getMdcLoggingKeyMessageTags();
+        this.mdcLoggingKeyCorrelationId = msbConfig.getMdcLoggingKeyCorrelationId();
+        this.mdcLoggingSplitTagsBy = msbConfig.getMdcLoggingSplitTagsBy();
+        this.isSplitTagsForMdcLogging = !StringUtils.isEmpty(mdcLoggingSplitTagsBy);
     }
 
     /**
@@ -95,14 +126,31 @@ public class Consumer {
     /**
      * Process raw incoming message JSON. If Message JSON is invalid or the message has been expired, the message
      * will be rejected by means of {@link AcknowledgementHandlerInternal}.
+     * If parsing on invoker threads is enabled, the message is parsed by the invoker threads instead of the calling one.
      *
      * @param jsonMessage message to process
      */
     protected void handleRawMessage(String jsonMessage, AcknowledgementHandlerInternal acknowledgeHandler) {
-        LOG.debug("{} message received [{}]", loggingTag, jsonMessage);
+        Trace.record(TraceEvent.MESSAGE_RECEIVED, topic);
 
-        channelMonitorAgent.consumerMessageReceived(topic);
+        statsRecorder.record();
 
+        if (parseOnInvokerThreads) {
+            try {
+                messageHandlerInvoker.execute(invoker -> processRawMessage(jsonMessage, acknowledgeHandler, invoker));
+            } catch (Exception e) {
+                LOG.warn("{} Error while trying to handle a message: {}", loggingTag, jsonMessage, e);
+                acknowledgeHandler.autoRetry();
+            }
+        } else {
+            processRawMessage(jsonMessage, acknowledgeHandler, messageHandlerInvoker);
+        }
+    }
+
+    /**
+     * Parses, validates and checks the message and passes it to the given invoker.
+     */
+    private void processRawMessage(String jsonMessage, AcknowledgementHandlerInternal acknowledgeHandler, MessageHandlerInvoker invoker) {
         Message message;
 
         try {
@@ -112,12 +160,15 @@ public class Consumer {
             acknowledgeHandler.autoReject();
             return;
         }
+        acknowledgeHandler.messageParsed(message.getCorrelationId());
 
         ConsumedMessagesAwareMessageHandler consumedMessagesAwareMessageHandler = null;
+        MdcContext mdcContext = null;
 
         try {
-            if(msbConfig.isMdcLogging()) {
-                saveMdc(message);
+            if(mdcLogging) {
+                mdcContext = createMdcContext(message);
+                mdcContext.install();
             }
 
             if (isMessageExpired(message)) {
@@ -133,7 +184,7 @@ public class Consumer {
                     consumedMessagesAwareMessageHandler = ((ConsumedMessagesAwareMessageHandler) messageHandler);
                     consumedMessagesAwareMessageHandler.notifyMessageConsumed();
                 }
-                messageHandlerInvoker.execute(messageHandler, message, acknowledgeHandler);
+                invoker.execute(messageHandler, message, acknowledgeHandler, mdcContext);
             } else {
                 LOG.warn("{} Cant't resolve message handler for a message: {}", loggingTag, jsonMessage);
                 acknowledgeHandler.autoReject();
@@ -145,51 +196,60 @@ public class Consumer {
                 consumedMessagesAwareMessageHandler.notifyConsumedMessageIsLost();
             }
         } finally {
-            if(msbConfig.isMdcLogging()) {
-                clearMdc();
+            if(mdcContext != null) {
+                mdcContext.uninstall();
             }
         }
     }
 
     private Message parseMessage(String jsonMessage) {
+        Object parsedEvent = MessageEvents.begin(MessageEventType.PARSED);
         if (msbConfig.getSchema() != null && !Utils.isServiceTopic(topic) && msbConfig.isValidateMessage()) {
-            LOG.debug("{} Validating schema for {}", loggingTag, jsonMessage);
             validator.validate(jsonMessage, msbConfig.getSchema());
+            Trace.record(TraceEvent.MESSAGE_VALIDATED, topic);
+        }
+        Message result = messageConverter.fromJson(jsonMessage);
+        if (result != null) {
+            serviceDetailsRegistry.register(result.getMeta());
+            Trace.record(TraceEvent.MESSAGE_PARSED, result.getCorrelationId());
+            MessageEvents.commit(parsedEvent, topic, result.getCorrelationId());
         }
-        LOG.debug("{} Parsing message {}", loggingTag, jsonMessage);
-        Message result = Utils.fromJson(jsonMessage, Message.class, messageMapper);
-        LOG.debug("{} Message has been successfully parsed {}", loggingTag, jsonMessage);
         return result;
     }
 
     private boolean isMessageExpired(Message message) {
-        MetaMessage meta = message.getMeta();
-        if (meta == null || meta.getTtl() == null) {
-            return false;
-        }
-
-        Integer ttl = meta.getTtl();
-        Instant expiryTime = meta.getCreatedAt().plus(ttl, ChronoUnit.MILLIS);
-        Instant now = clock.instant();
-
-        return expiryTime.isBefore(now);
+        Optional<Instant> expiryTime = Utils.getExpiryTime(message);
+        return expiryTime.isPresent() && expiryTime.get().isBefore(clock.instant());
     }
 
-    private void saveMdc(Message message) {
-        String tags = StringUtils.join(message.getTags(), ",");
-        MDC.put(msbConfig.getMdcLoggingKeyMessageTags(), tags);
-        MDC.put(msbConfig.getMdcLoggingKeyCorrelationId(), message.getCorrelationId());
-        if(isSplitTagsForMdcLogging) {
-            for(String tag: message.getTags()) {
-                String[] parts = StringUtils.split(tag, msbConfig.getMdcLoggingSplitTagsBy(), 2);
-                if(parts.length == 2) {
-                    MDC.put(parts[0], parts[1]);
+    /**
+     * Tags split into a key and a value by the first of the configured separator characters follow the tags and the correlation id.
+     */
+    private MdcContext createMdcContext(Message message) {
+        List<String> tags = message.getTags();
+        int maxSize = isSplitTagsForMdcLogging && tags != null ? tags.size() + 2 : 2;
+        String[] keys = new String[maxSize];
+        String[] values = new String[maxSize];
+        keys[0] = mdcLoggingKeyMessageTags;
+        values[0] = StringUtils.join(tags, ",");
+        keys[1] = mdcLoggingKeyCorrelationId;
+        values[1] = message.getCorrelationId();
+
+        int size = 2;
+        if (maxSize > 2) {
+            for (String tag : tags) {
+                int separatorIndex = StringUtils.indexOfAny(tag, mdcLoggingSplitTagsBy);
+                if (separatorIndex > 0 && separatorIndex < tag.length() - 1) {
+                    keys[size] = tag.substring(0, separatorIndex);
+                    values[size] = tag.substring(separatorIndex + 1);
+                    size++;
                 }
             }
         }
-    }
-
-    private void clearMdc() {
-        MDC.clear();
+        if (size < maxSize) {
+            keys = Arrays.copyOf(keys, size);
+            values = Arrays.copyOf(values, size);
+        }
+        return new MdcContext(keys, values);
     }
 }
\ No newline at end of file
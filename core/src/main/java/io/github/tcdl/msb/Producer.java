@@ -6,11 +6,18 @@ import io.github.tcdl.msb.api.Callback;
 import io.github.tcdl.msb.api.exception.ChannelException;
 import io.github.tcdl.msb.api.exception.JsonConversionException;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.jfr.MessageEventType;
+import io.github.tcdl.msb.jfr.MessageEvents;
+import io.github.tcdl.msb.message.PreparedEnvelope;
 import io.github.tcdl.msb.support.Utils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * {@link Producer} is a component responsible for producing messages to the bus.
  */
@@ -21,8 +28,17 @@ public class Producer {
     private final ProducerAdapter rawAdapter;
     private final Callback<Message> messageHandler;
     private final ObjectMapper messageMapper;
+    private final String directReplyTopic;
 
     public Producer(ProducerAdapter rawAdapter, String topic, Callback<Message> messageHandler, ObjectMapper messageMapper) {
+        this(rawAdapter, topic, messageHandler, messageMapper, null);
+    }
+
+    /**
+     * @param directReplyTopic response topic of requests that are published with {@link ProducerAdapter#publishForDirectReply(byte[])},
+     *                         may be null
+     */
+    public Producer(ProducerAdapter rawAdapter, String topic, Callback<Message> messageHandler, ObjectMapper messageMapper, String directReplyTopic) {
         LOG.debug("Creating producer for topic: {}", topic);
         Validate.notNull(rawAdapter, "the 'rawAdapter' must not be null");
         Validate.notNull(topic, "the 'topic' must not be null");
@@ -32,13 +48,33 @@ public class Producer {
         this.rawAdapter = rawAdapter;
         this.messageHandler = messageHandler;
         this.messageMapper = messageMapper;
+        this.directReplyTopic = directReplyTopic;
     }
 
     public void publish(Message message) {
+        publish(message, null);
+    }
+
+    /**
+     * Publishes the message serializing only its own parts if it matches the envelope.
+     *
+     * @param envelope envelope prepared by {@link #prepareEnvelope(Message)}, may be null
+     */
+    public void publish(Message message, PreparedEnvelope envelope) {
+        Object publishedEvent = MessageEvents.begin(MessageEventType.PUBLISHED);
         try {
-            String jsonMessage = Utils.toJson(message, messageMapper);
-            LOG.debug("Publishing message to adapter : {}", jsonMessage);
-            rawAdapter.publish(jsonMessage);
+            byte[] jsonMessage = envelope != null && envelope.matches(message)
+                    ? envelope.toJsonBytes(message)
+                    : Utils.toJsonBytes(message, messageMapper);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Publishing message to adapter : {}", new String(jsonMessage, StandardCharsets.UTF_8));
+            }
+            if (isDirectReply(message)) {
+                rawAdapter.publishForDirectReply(jsonMessage);
+            } else {
+                rawAdapter.publish(jsonMessage);
+            }
+            MessageEvents.commit(publishedEvent, message);
             messageHandler.call(message);
         } catch (ChannelException | JsonConversionException e) {
             LOG.error("Exception while message publish to adapter", e);
@@ -46,5 +82,46 @@ public class Producer {
         }
     }
 
+    /**
+     * Prepares the envelope of the messages built by the same builder as the template for {@link #publish(Message, PreparedEnvelope)}.
+     *
+     * @throws JsonConversionException if the envelope can't be serialized
+     */
+    public PreparedEnvelope prepareEnvelope(Message template) {
+        return new PreparedEnvelope(template, messageMapper);
+    }
+
+    /**
+     * Publishes the messages at once. All of them are converted to JSON in the calling thread before the first one is published.
+     */
+    public void publishBatch(List<Message> messages) {
+        try {
+            List<byte[]> jsonMessages = new ArrayList<>(messages.size());
+            List<byte[]> directReplyJsonMessages = new ArrayList<>();
+            for (Message message : messages) {
+                byte[] jsonMessage = Utils.toJsonBytes(message, messageMapper);
+                if (isDirectReply(message)) {
+                    directReplyJsonMessages.add(jsonMessage);
+                } else {
+                    jsonMessages.add(jsonMessage);
+                }
+            }
+            LOG.debug("Publishing {} messages to adapter", messages.size());
+            if (!jsonMessages.isEmpty()) {
+                rawAdapter.publishBatch(jsonMessages);
+            }
+            for (byte[] jsonMessage : directReplyJsonMessages) {
+                rawAdapter.publishForDirectReply(jsonMessage);
+            }
+            messages.forEach(messageHandler::call);
+        } catch (ChannelException | JsonConversionException e) {
+            LOG.error("Exception while batch publish to adapter", e);
+            throw e;
+        }
+    }
+
+    private boolean isDirectReply(Message message) {
+        return directReplyTopic != null && directReplyTopic.equals(message.getTopics().getResponse());
+    }
 
 }
@@ -1,8 +1,11 @@
 package io.github.tcdl.msb.acknowledge;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import io.github.tcdl.msb.api.AcknowledgementHandler;
+import io.github.tcdl.msb.jfr.MessageEventType;
+import io.github.tcdl.msb.jfr.MessageEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +20,9 @@ public class AcknowledgementHandlerImpl implements AcknowledgementHandlerInterna
 
     private static final Logger LOG = LoggerFactory.getLogger(AcknowledgementHandlerImpl.class);
 
+    private static final AtomicReferenceFieldUpdater<AcknowledgementHandlerImpl, Object> RECEIVED_EVENT =
+            AtomicReferenceFieldUpdater.newUpdater(AcknowledgementHandlerImpl.class, Object.class, "receivedEvent");
+
     final AcknowledgementAdapter acknowledgementAdapter;
     final boolean isMessageRedelivered;
     final String messageTextIdentifier;
@@ -24,6 +30,10 @@ public class AcknowledgementHandlerImpl implements AcknowledgementHandlerInterna
     final AtomicBoolean acknowledgementSent = new AtomicBoolean(false);
     volatile boolean autoAcknowledgement = true;
 
+    private volatile String topic;
+    private volatile String correlationId;
+    private volatile Object receivedEvent;
+
     public AcknowledgementHandlerImpl(AcknowledgementAdapter acknowledgementAdapter,
                                       boolean isMessageRedelivered, String messageTextIdentifier) {
         super();
@@ -32,6 +42,23 @@ public class AcknowledgementHandlerImpl implements AcknowledgementHandlerInterna
         this.messageTextIdentifier = messageTextIdentifier;
     }
 
+    /**
+     * Sets the topic of the received message and its {@link MessageEventType#RECEIVED} event, which is committed when the message
+     * has been parsed or acknowledged, whichever happens first.
+     *
+     * @param receivedEvent event returned by {@link MessageEvents#begin(MessageEventType)}, may be null
+     */
+    public void messageReceived(String topic, Object receivedEvent) {
+        this.topic = topic;
+        this.receivedEvent = receivedEvent;
+    }
+
+    @Override
+    public void messageParsed(String correlationId) {
+        this.correlationId = correlationId;
+        commitReceivedEvent();
+    }
+
     public boolean isAutoAcknowledgement() {
         return autoAcknowledgement;
     }
@@ -72,7 +99,10 @@ public class AcknowledgementHandlerImpl implements AcknowledgementHandlerInterna
     private void executeAck(String actionName, AckAction ackAction) {
         if (acknowledgementSent.compareAndSet(false, true)) {
             try {
+                commitReceivedEvent();
+                Object ackedEvent = MessageEvents.begin(MessageEventType.ACKED);
                 ackAction.perform();
+                MessageEvents.commitAck(ackedEvent, topic, correlationId, actionName, messageTextIdentifier);
             } catch (Exception e) {
                 LOG.error("[{}] Got exception when trying to {} a message:", messageTextIdentifier, actionName, e);
             }
@@ -108,6 +138,12 @@ public class AcknowledgementHandlerImpl implements AcknowledgementHandlerInterna
         }
     }
 
+    private void commitReceivedEvent() {
+        if (receivedEvent != null) {
+            MessageEvents.commit(RECEIVED_EVENT.getAndSet(this, null), topic, correlationId);
+        }
+    }
+
     @FunctionalInterface
     private interface AckAction {
         void perform() throws Exception;
@@ -21,4 +21,10 @@ public interface AcknowledgementHandlerInternal extends AcknowledgementHandler {
      * Implicit message requeue request invoked when there was an exception during a client callback execution.
      */
     void autoRetry();
+
+    /**
+     * Invoked when the message has been parsed, so that the events recorded for the message carry its correlation id.
+     */
+    default void messageParsed(String correlationId) {
+    }
 }
@@ -4,6 +4,8 @@ import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.api.exception.ChannelException;
 import io.github.tcdl.msb.api.exception.ConfigurationException;
 
+import java.util.Optional;
+
 /**
  * MSBAdapterFactory interface represents a common way for creation a particular AdapterFactory
  * accordingly to MSB Configuration and associated with a proper Topic.
@@ -25,6 +27,16 @@ public interface AdapterFactory {
      */
     ProducerAdapter createProducerAdapter(String topic);
 
+    /**
+     * @param topic topic name
+     * @param isResponseTopic specify if this topic is used to send responses. Adapters may route responses differently.
+     * @return Producer Adapter associated with a topic
+     * @throws ChannelException if some problems during creation were occurred
+     */
+    default ProducerAdapter createProducerAdapter(String topic, boolean isResponseTopic) {
+        return createProducerAdapter(topic);
+    }
+
     /**
      * @param topic topic name
      * @param isResponseTopic specify if this topic used to handle response
@@ -33,6 +45,27 @@ public interface AdapterFactory {
      */
     ConsumerAdapter createConsumerAdapter(String topic, boolean isResponseTopic);
 
+    /**
+     * @param topic topic name
+     * @param isResponseTopic specify if this topic used to handle response
+     * @param prefetchCount max number of unacknowledged messages to be delivered for the topic. If empty, adapter default is used.
+     *                      Adapters that don't support prefetch may ignore it.
+     * @return Consumer Adapter associated with a topic
+     * @throws ChannelException if some problems during creation were occurred
+     */
+    default ConsumerAdapter createConsumerAdapter(String topic, boolean isResponseTopic, Optional<Integer> prefetchCount) {
+        return createConsumerAdapter(topic, isResponseTopic);
+    }
+
+    /**
+     * @return topic of the responses that are delivered straight to the channel a request was published on,
+     * empty if the adapter doesn't support it. Requests with this response topic are published with
+     * {@link ProducerAdapter#publishForDirectReply(byte[])}.
+     */
+    default Optional<String> getDirectReplyTopic() {
+        return Optional.empty();
+    }
+
     /**
      * @return true if custom MSB threading model should be used.
      * @return false if {@link io.github.tcdl.msb.MessageHandler} should be invoked directly.
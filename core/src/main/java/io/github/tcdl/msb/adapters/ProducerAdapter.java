@@ -2,6 +2,9 @@ package io.github.tcdl.msb.adapters;
 
 import io.github.tcdl.msb.api.exception.ChannelException;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 /**
  * {@link ProducerAdapter} allows to produce messages to message bus. One adapter instance is associated with specific topic.
  *
@@ -16,4 +19,48 @@ public interface ProducerAdapter {
      * @throws ChannelException if some problems during publishing message to Broker were occurred
      */
     void publish(String jsonMessage);
+
+    /**
+     * Publishes the message that is already encoded. Implementations should override it to pass the bytes to the broker
+     * without decoding them.
+     *
+     * @param jsonMessage message to publish in JSON format encoded in UTF-8
+     * @throws ChannelException if some problems during publishing message to Broker were occurred
+     */
+    default void publish(byte[] jsonMessage) {
+        publish(new String(jsonMessage, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Publishes the messages to the associated topic at once. Implementations should make it much cheaper than publishing
+     * the messages one by one.
+     *
+     * @param jsonMessages messages to publish in JSON format encoded in UTF-8
+     * @throws ChannelException if some problems during publishing messages to Broker were occurred, some of them may have been published
+     */
+    default void publishBatch(List<byte[]> jsonMessages) {
+        for (byte[] jsonMessage : jsonMessages) {
+            publish(jsonMessage);
+        }
+    }
+
+    /**
+     * Publishes the request whose responses are expected on {@link AdapterFactory#getDirectReplyTopic()}
+     *
+     * @param jsonMessage message to publish in JSON format
+     * @throws ChannelException if some problems during publishing message to Broker were occurred
+     */
+    default void publishForDirectReply(String jsonMessage) {
+        publish(jsonMessage);
+    }
+
+    /**
+     * Publishes the encoded request whose responses are expected on {@link AdapterFactory#getDirectReplyTopic()}
+     *
+     * @param jsonMessage message to publish in JSON format encoded in UTF-8
+     * @throws ChannelException if some problems during publishing message to Broker were occurred
+     */
+    default void publishForDirectReply(byte[] jsonMessage) {
+        publishForDirectReply(new String(jsonMessage, StandardCharsets.UTF_8));
+    }
 }
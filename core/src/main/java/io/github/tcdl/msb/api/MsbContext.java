@@ -1,5 +1,9 @@
 package io.github.tcdl.msb.api;
 
+import io.github.tcdl.msb.config.ServiceDetails;
+
+import java.util.Optional;
+
 /**
  * Specifies the context for the MSB message processing.
  */
@@ -21,4 +25,11 @@ public interface MsbContext {
      * @param shutdownCallback
      */
     void addShutdownCallback(Runnable shutdownCallback);
+
+    /**
+     * Resolves the sender of a compact message, which carries only {@link io.github.tcdl.msb.api.message.MetaMessage#getInstanceId()}.
+     * @param instanceId instance id of the sender
+     * @return service details of the instance, empty if no message with its full service details has been received yet
+     */
+    Optional<ServiceDetails> findServiceDetails(String instanceId);
 }
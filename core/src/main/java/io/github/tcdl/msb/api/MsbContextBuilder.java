@@ -13,6 +13,7 @@ import io.github.tcdl.msb.adapters.AdapterFactoryLoader;
 import io.github.tcdl.msb.api.exception.MsbException;
 import io.github.tcdl.msb.callback.MutableCallbackHandler;
 import io.github.tcdl.msb.collector.CollectorManagerFactory;
+import io.github.tcdl.msb.collector.CollectorReaper;
 import io.github.tcdl.msb.collector.TimeoutManager;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.impl.MsbContextImpl;
@@ -20,6 +21,7 @@ import io.github.tcdl.msb.impl.ObjectFactoryImpl;
 import io.github.tcdl.msb.message.MessageFactory;
 import io.github.tcdl.msb.monitor.agent.DefaultChannelMonitorAgent;
 import io.github.tcdl.msb.support.JsonValidator;
+import io.github.tcdl.msb.support.Trace;
 import io.github.tcdl.msb.threading.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -114,20 +116,35 @@ public class MsbContextBuilder {
             config = ConfigFactory.load();
         }
         MsbConfig msbConfig = new MsbConfig(config);
+        if (msbConfig.getTraceBufferSize() > 0) {
+            Trace.enable(msbConfig.getTraceBufferSize());
+        }
         ObjectMapper messageEnvelopeMapper = createMessageEnvelopeMapper();
 
         AdapterFactory adapterFactory = new AdapterFactoryLoader(msbConfig).getAdapterFactory();
-        MessageHandlerInvoker messageHandlerInvoker = createMessageHandlerInvoker(adapterFactory, msbConfig);
-        ChannelManager channelManager = new ChannelManager(msbConfig, clock, validator, messageEnvelopeMapper, adapterFactory, messageHandlerInvoker);
-        MessageFactory messageFactory = new MessageFactory(msbConfig.getServiceDetails(), clock, payloadMapper);
+        ConsumerExecutorFactory consumerExecutorFactory = createConsumerExecutorFactory(msbConfig);
+        MessageHandlerInvoker messageHandlerInvoker = createMessageHandlerInvoker(adapterFactory, msbConfig, consumerExecutorFactory, clock);
+        MessageHandlerInvoker responseMessageHandlerInvoker = createResponseMessageHandlerInvoker(adapterFactory, msbConfig, consumerExecutorFactory,
+                clock, messageHandlerInvoker);
+        // dedicated thread pools are bulkheads with a size fixed by the responder options
+        ChannelManager channelManager = new ChannelManager(msbConfig, clock, validator, messageEnvelopeMapper, adapterFactory,
+                messageHandlerInvoker, responseMessageHandlerInvoker, consumerExecutorFactory, new ConsumerExecutorFactoryImpl());
+        MessageFactory messageFactory = new MessageFactory(msbConfig.getServiceDetails(), clock, payloadMapper, msbConfig.isCompactServiceDetails(),
+                msbConfig.getFullServiceDetailsIntervalMs());
         TimeoutManager timeoutManager = new TimeoutManager(msbConfig.getTimerThreadPoolSize());
-        CollectorManagerFactory collectorManagerFactory = new CollectorManagerFactory(channelManager);
+        CollectorManagerFactory collectorManagerFactory = new CollectorManagerFactory(channelManager, clock, msbConfig.getOrphanResponseLogIntervalMs());
 
         MsbContextImpl msbContext = new MsbContextImpl(msbConfig, messageFactory, channelManager,
                 clock, timeoutManager,
                 payloadMapper, collectorManagerFactory,
                 new MutableCallbackHandler());
 
+        if (msbConfig.getCollectorReaperIntervalMs() > 0) {
+            CollectorReaper collectorReaper = new CollectorReaper(collectorManagerFactory, clock, msbConfig.getCollectorReaperGracePeriodMs());
+            collectorReaper.start(msbConfig.getCollectorReaperIntervalMs());
+            msbContext.setCollectorReaper(collectorReaper);
+        }
+
         if (enableChannelMonitorAgent) {
             DefaultChannelMonitorAgent.start(msbContext);
         }
@@ -149,18 +166,41 @@ public class MsbContextBuilder {
         return msbContext;
     }
 
-    private MessageHandlerInvoker createMessageHandlerInvoker(AdapterFactory adapterFactory, MsbConfig msbConfig) {
-        ConsumerExecutorFactory consumerExecutorFactory = new ConsumerExecutorFactoryImpl();
+    private ConsumerExecutorFactory createConsumerExecutorFactory(MsbConfig msbConfig) {
+        if (msbConfig.isAdaptiveThreadPoolEnabled()) {
+            return new AdaptiveConsumerExecutorFactory(msbConfig.getAdaptiveThreadPoolMinThreads(), msbConfig.getAdaptiveThreadPoolMaxThreads(),
+                    msbConfig.getAdaptiveThreadPoolTargetQueueWaitMs(), msbConfig.getAdaptiveThreadPoolAdjustmentIntervalMs());
+        }
+        return new ConsumerExecutorFactoryImpl();
+    }
 
+    /**
+     * Invokers that run their own loops on pool threads or rely on the number of threads to preserve the order of messages
+     * get fixed size pools even if the thread pools are adaptive.
+     */
+    private MessageHandlerInvoker createMessageHandlerInvoker(AdapterFactory adapterFactory, MsbConfig msbConfig,
+            ConsumerExecutorFactory consumerExecutorFactory, Clock clock) {
         MessageHandlerInvoker consumerMessageHandlerInvoker;
         if (adapterFactory.isUseMsbThreadingModel()) {
-            if (messageGroupStrategy == null) {
+            ConsumerExecutorFactory fixedSizeExecutorFactory = new ConsumerExecutorFactoryImpl();
+            if (messageGroupStrategy == null && msbConfig.isRingBufferEnabled()) {
+                consumerMessageHandlerInvoker = new RingBufferMessageHandlerInvoker(msbConfig.getConsumerThreadPoolSize(),
+                        msbConfig.getConsumerThreadPoolQueueCapacity(), msbConfig.getRingBufferBatchSize(), msbConfig.getRingBufferWaitStrategy(),
+                        fixedSizeExecutorFactory, clock);
+            } else if (messageGroupStrategy == null && msbConfig.isPriorityLanesEnabled()) {
+                consumerMessageHandlerInvoker = new PriorityLaneMessageHandlerInvoker(msbConfig.getConsumerThreadPoolSize(),
+                        msbConfig.getConsumerThreadPoolQueueCapacity(), msbConfig.getPriorityLanes(), msbConfig.getPriorityLanesDefaultLaneWeight(),
+                        msbConfig.getPriorityLanesScheduling(), msbConfig.getPriorityLanesMaxStarvationMs(), fixedSizeExecutorFactory, clock);
+            } else if (messageGroupStrategy == null) {
                 consumerMessageHandlerInvoker = new ThreadPoolMessageHandlerInvoker(msbConfig.getConsumerThreadPoolSize(), msbConfig.getConsumerThreadPoolQueueCapacity(),
-                        consumerExecutorFactory);
+                        consumerExecutorFactory, msbConfig.isEarliestDeadlineFirst(), clock);
+            } else if (msbConfig.isGroupWorkStealing()) {
+                consumerMessageHandlerInvoker = new OrderedPartitionedMessageHandlerInvoker(msbConfig.getConsumerThreadPoolSize(),
+                        msbConfig.getConsumerThreadPoolQueueCapacity(), fixedSizeExecutorFactory, messageGroupStrategy, clock);
             } else {
                 consumerMessageHandlerInvoker = new GroupedExecutorBasedMessageHandlerInvoker(msbConfig.getConsumerThreadPoolSize(), msbConfig.getConsumerThreadPoolQueueCapacity(),
-                        consumerExecutorFactory,
-                        messageGroupStrategy);
+                        fixedSizeExecutorFactory,
+                        messageGroupStrategy, clock);
             }
         } else {
             consumerMessageHandlerInvoker = new DirectMessageHandlerInvoker();
@@ -168,6 +208,20 @@ public class MsbContextBuilder {
         return new DirectInvocationCapableInvoker(consumerMessageHandlerInvoker, new DirectMessageHandlerInvoker());
     }
 
+    /**
+     * Responses are processed by a reserved thread pool so that requesters are not starved by a backlog of incoming requests.
+     * Falls back to the consumer invoker if the pool is disabled or MSB threading model is not used.
+     */
+    private MessageHandlerInvoker createResponseMessageHandlerInvoker(AdapterFactory adapterFactory, MsbConfig msbConfig,
+            ConsumerExecutorFactory consumerExecutorFactory, Clock clock, MessageHandlerInvoker consumerMessageHandlerInvoker) {
+        if (!adapterFactory.isUseMsbThreadingModel() || msbConfig.getResponseThreadPoolSize() <= 0) {
+            return consumerMessageHandlerInvoker;
+        }
+        MessageHandlerInvoker responseMessageHandlerInvoker = new ThreadPoolMessageHandlerInvoker(msbConfig.getResponseThreadPoolSize(),
+                msbConfig.getResponseThreadPoolQueueCapacity(), consumerExecutorFactory, msbConfig.isEarliestDeadlineFirst(), clock);
+        return new DirectInvocationCapableInvoker(responseMessageHandlerInvoker, new DirectMessageHandlerInvoker());
+    }
+
     /**
      * @return creates an instance of "default" object mapper that is used to parse message envelope (without payload)
      */
@@ -57,6 +57,8 @@ public interface ObjectFactory {
      * @param payloadClass       expected payload class of response messages
      * @param baseRequestOptions request options to be used as a source of response timeout and {@link MessageTemplate}.
      *                           Response time however will be 1 even if {@code baseRequestOptions} define other value.
+     *                           If the adapter supports it, the response is delivered straight to the channel the request was published on
+     *                           (e.g. RabbitMQ Direct Reply-to).
      * @return new instance of a {@link Requester} with original message
      */
     <T> Requester<T> createRequesterForSingleResponse(String namespace, Class<T> payloadClass, RequestOptions baseRequestOptions);
@@ -133,6 +135,32 @@ public interface ObjectFactory {
     <T> ResponderServer createResponderServer(String namespace, MessageTemplate messageTemplate,
             ResponderServer.RequestHandler<T> requestHandler, ResponderServer.ErrorHandler errorHandler, TypeReference<T> payloadTypeReference);
 
+    /**
+     * Same as {@link #createResponderServer(String, ResponderOptions, ResponderServer.RequestHandler, ResponderServer.ErrorHandler, TypeReference)}
+     * with payload type specified as a class
+     */
+    default <T> ResponderServer createResponderServer(String namespace, ResponderOptions responderOptions,
+            ResponderServer.RequestHandler<T> requestHandler, ResponderServer.ErrorHandler errorHandler, Class<T> payloadClass) {
+        return createResponderServer(namespace, responderOptions, requestHandler, errorHandler, new TypeReference<T>() {
+            @Override
+            public Type getType() {
+                return payloadClass;
+            }
+        });
+    }
+
+    /**
+     * @param namespace                 topic on a bus for listening on incoming requests
+     * @param responderOptions          options that specify message template and (optionally) a dedicated thread pool
+     *                                  and prefetch for the responder server
+     * @param requestHandler            handler for processing the request
+     * @param errorHandler              handler for errors to be called after default
+     * @param payloadTypeReference      expected payload type of incoming messages
+     * @return new instance of a {@link ResponderServer} that unmarshals payload into specified payload type
+     */
+    <T> ResponderServer createResponderServer(String namespace, ResponderOptions responderOptions,
+            ResponderServer.RequestHandler<T> requestHandler, ResponderServer.ErrorHandler errorHandler, TypeReference<T> payloadTypeReference);
+
     /**
      * @return instance of converter to convert any objects
      * using object mapper from {@link MsbContext}
@@ -5,6 +5,7 @@ import io.github.tcdl.msb.api.exception.JsonConversionException;
 import io.github.tcdl.msb.api.message.Acknowledge;
 import io.github.tcdl.msb.api.message.Message;
 
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
@@ -63,6 +64,16 @@ public interface Requester<T> {
      */
     void publish(Object requestPayload, Message originalMessage);
 
+    /**
+     * Wraps each payload with protocol information and sends all of them to bus at once, which is much cheaper than publishing them
+     * one by one. In case Requester created with expectation for responses then process them for each request.
+     *
+     * @param requestPayloads payloads which will be sent to bus
+     * @throws ChannelException if an error is encountered during publishing to bus, some of the requests may have been sent
+     * @throws JsonConversionException if unable to parse any of the messages to JSON, none of them is sent to bus in this case
+     */
+    void publishAll(Collection<?> requestPayloads);
+
     /**
      * Overloaded version of
      * {@link Requester#request(java.lang.Object, io.github.tcdl.msb.api.message.Message, java.lang.String...)}
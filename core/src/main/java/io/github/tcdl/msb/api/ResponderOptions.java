@@ -0,0 +1,125 @@
+package io.github.tcdl.msb.api;
+
+/**
+ * Specifies how incoming requests are consumed and processed by a {@link ResponderServer}.
+ *
+ * By default all responder servers of a {@link MsbContext} share the consumer thread pool configured in
+ * the "threadingConfig" section. A responder server may be given its own bulkhead instead: a dedicated
+ * thread pool with its own queue bound and broker prefetch, so a slow namespace can't delay processing
+ * of other namespaces.
+ */
+public class ResponderOptions {
+
+    public static final ResponderOptions DEFAULTS = new Builder().build();
+
+    private final MessageTemplate messageTemplate;
+
+    /**
+     * Number of threads dedicated to the responder server. If not set, the shared consumer thread pool is used.
+     */
+    private final Integer consumerThreadPoolSize;
+
+    /**
+     * Max number of requests waiting in the dedicated thread pool queue. -1 means unlimited.
+     * Is taken into account only if {@link #consumerThreadPoolSize} is set.
+     */
+    private final Integer consumerThreadPoolQueueCapacity;
+
+    /**
+     * Max number of unacknowledged requests the broker is allowed to deliver to the responder server.
+     * If not set, the broker adapter default is used.
+     */
+    private final Integer prefetchCount;
+
+    private ResponderOptions(MessageTemplate messageTemplate, Integer consumerThreadPoolSize, Integer consumerThreadPoolQueueCapacity,
+            Integer prefetchCount) {
+        this.messageTemplate = messageTemplate;
+        this.consumerThreadPoolSize = consumerThreadPoolSize;
+        this.consumerThreadPoolQueueCapacity = consumerThreadPoolQueueCapacity;
+        this.prefetchCount = prefetchCount;
+    }
+
+    public MessageTemplate getMessageTemplate() {
+        return messageTemplate;
+    }
+
+    public Integer getConsumerThreadPoolSize() {
+        return consumerThreadPoolSize;
+    }
+
+    public int getConsumerThreadPoolQueueCapacity() {
+        return consumerThreadPoolQueueCapacity != null ? consumerThreadPoolQueueCapacity : -1;
+    }
+
+    public Integer getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    /**
+     * @return true if requests should be processed by a dedicated thread pool instead of the shared one
+     */
+    public boolean hasDedicatedThreadPool() {
+        return consumerThreadPoolSize != null;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponderOptions [consumerThreadPoolSize=" + consumerThreadPoolSize
+                + ", consumerThreadPoolQueueCapacity=" + consumerThreadPoolQueueCapacity
+                + ", prefetchCount=" + prefetchCount
+                + (messageTemplate != null ? ", messageTemplate=" + messageTemplate : "")
+                + "]";
+    }
+
+    public static class Builder {
+
+        private MessageTemplate messageTemplate;
+        private Integer consumerThreadPoolSize;
+        private Integer consumerThreadPoolQueueCapacity;
+        private Integer prefetchCount;
+
+        public Builder withMessageTemplate(MessageTemplate messageTemplate) {
+            this.messageTemplate = messageTemplate;
+            return this;
+        }
+
+        public Builder withConsumerThreadPoolSize(Integer consumerThreadPoolSize) {
+            this.consumerThreadPoolSize = consumerThreadPoolSize;
+            return this;
+        }
+
+        public Builder withConsumerThreadPoolQueueCapacity(Integer consumerThreadPoolQueueCapacity) {
+            this.consumerThreadPoolQueueCapacity = consumerThreadPoolQueueCapacity;
+            return this;
+        }
+
+        public Builder withPrefetchCount(Integer prefetchCount) {
+            this.prefetchCount = prefetchCount;
+            return this;
+        }
+
+        /**
+         * Convenience method to prepare Builder with properties equal to {@literal source} properties.
+         */
+        public Builder from(ResponderOptions source) {
+            this.messageTemplate = source.messageTemplate;
+            this.consumerThreadPoolSize = source.consumerThreadPoolSize;
+            this.consumerThreadPoolQueueCapacity = source.consumerThreadPoolQueueCapacity;
+            this.prefetchCount = source.prefetchCount;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if thread pool size is not positive or prefetch count is negative
+         */
+        public ResponderOptions build() {
+            if (consumerThreadPoolSize != null && consumerThreadPoolSize < 1) {
+                throw new IllegalArgumentException("'consumerThreadPoolSize' must be positive");
+            }
+            if (prefetchCount != null && prefetchCount < 0) {
+                throw new IllegalArgumentException("'prefetchCount' must not be negative");
+            }
+            return new ResponderOptions(messageTemplate, consumerThreadPoolSize, consumerThreadPoolQueueCapacity, prefetchCount);
+        }
+    }
+}
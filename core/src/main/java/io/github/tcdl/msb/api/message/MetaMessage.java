@@ -8,6 +8,7 @@ import java.time.Instant;
 
 import org.apache.commons.lang3.Validate;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public final class MetaMessage {
@@ -17,16 +18,23 @@ public final class MetaMessage {
     private final Instant publishedAt;
     private final Long durationMs;
     private final ServiceDetails serviceDetails;
+    // set instead of serviceDetails in compact messages only
+    @JsonProperty("instanceId")
+    private final String instanceId;
+    private final Instant deadline;
 
     private MetaMessage(@JsonProperty("ttl") Integer ttl, @JsonProperty("createdAt") Instant createdAt, @JsonProperty("publishedAt") Instant publishedAt,
-            @JsonProperty("durationMs") Long durationMs, @JsonProperty("serviceDetails") ServiceDetails serviceDetails) {
+            @JsonProperty("durationMs") Long durationMs, @JsonProperty("serviceDetails") ServiceDetails serviceDetails,
+            @JsonProperty("instanceId") String instanceId, @JsonProperty("deadline") Instant deadline) {
         Validate.notNull(createdAt, "the 'createdAt' must not be null");
-        Validate.notNull(serviceDetails, "the 'serviceDetails' must not be null");
+        Validate.isTrue(serviceDetails != null || instanceId != null, "either the 'serviceDetails' or the 'instanceId' must not be null");
         this.ttl = ttl;
         this.createdAt = createdAt;
         this.publishedAt = publishedAt;
         this.durationMs = durationMs;
         this.serviceDetails = serviceDetails;
+        this.instanceId = serviceDetails == null ? instanceId : null;
+        this.deadline = deadline;
     }
 
     public static class Builder {
@@ -35,6 +43,8 @@ public final class MetaMessage {
         private Instant publishedAt;
         private ServiceDetails serviceDetails;
         private Clock clock;
+        private Instant deadline;
+        private boolean compactServiceDetails;
 
         public Builder(Integer ttl, Instant createdAt, ServiceDetails serviceDetails, Clock clock) {
             this.ttl = ttl;
@@ -43,10 +53,30 @@ public final class MetaMessage {
             this.clock = clock;
         }     
 
+        /**
+         * @param deadline point in time after which the result of the message processing is not needed by anybody.
+         *                 Is inherited from the original message when a request is made on behalf of another request.
+         */
+        public Builder withDeadline(Instant deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        /**
+         * Makes the meta carry only the instance id of the service details.
+         */
+        public Builder withCompactServiceDetails() {
+            this.compactServiceDetails = true;
+            return this;
+        }
+
         public MetaMessage build() {
             publishedAt = clock.instant();
             Long durationMs = Duration.between(this.createdAt, publishedAt).toMillis();;
-            return new MetaMessage(ttl, createdAt, publishedAt, durationMs, serviceDetails);
+            if (compactServiceDetails) {
+                return new MetaMessage(ttl, createdAt, publishedAt, durationMs, null, serviceDetails.getInstanceId(), deadline);
+            }
+            return new MetaMessage(ttl, createdAt, publishedAt, durationMs, serviceDetails, null, deadline);
         }
     }
 
@@ -66,12 +96,29 @@ public final class MetaMessage {
         return durationMs;
     }
 
+    /**
+     * @return details of the service that has sent the message, null if the message is compact
+     */
     public ServiceDetails getServiceDetails() {
         return serviceDetails;
     }
 
+    /**
+     * @return instance id of the service that has sent the message
+     */
+    @JsonIgnore
+    public String getInstanceId() {
+        return serviceDetails != null ? serviceDetails.getInstanceId() : instanceId;
+    }
+
+    public Instant getDeadline() {
+        return deadline;
+    }
+
     @Override
     public String toString() {
-        return "MetaMessage [ttl=" + ttl + ", createdAt=" + createdAt + ", durationMs=" + durationMs + ", serviceDetails=" + serviceDetails + "]";
+        return "MetaMessage [ttl=" + ttl + ", createdAt=" + createdAt + ", durationMs=" + durationMs
+                + (serviceDetails != null ? ", serviceDetails=" + serviceDetails : ", instanceId=" + instanceId)
+                + (deadline != null ? ", deadline=" + deadline : "") + "]";
     }    
 }
\ No newline at end of file
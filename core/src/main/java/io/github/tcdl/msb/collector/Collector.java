@@ -12,13 +12,17 @@ import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.events.EventHandlers;
 import io.github.tcdl.msb.impl.MessageContextImpl;
 import io.github.tcdl.msb.impl.MsbContextImpl;
+import io.github.tcdl.msb.jfr.MessageEventType;
+import io.github.tcdl.msb.jfr.MessageEvents;
+import io.github.tcdl.msb.support.Trace;
+import io.github.tcdl.msb.support.TraceEvent;
+import io.github.tcdl.msb.support.TypedConverter;
 import io.github.tcdl.msb.support.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Clock;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -55,15 +59,20 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
     private volatile int responsesRemaining;
     private final boolean shouldWaitUntilResponseTimeout;
 
-    private final TypeReference<T> payloadTypeReference;
+    private final TypedConverter<T> payloadConverter;
 
     private final long startedAt;
     private final TimeoutManager timeoutManager;
-    private final ObjectMapper payloadMapper;
 
     private final Clock clock;
+    private final String topic;
     private final Message requestMessage;
 
+    /**
+     * Deadline inherited from the original message the request was made on behalf of. Responses are not awaited after it.
+     */
+    private final Instant deadline;
+
     private final Optional<BiConsumer<Message, MessageContext>> onRawResponse;
     private final Optional<BiConsumer<T, MessageContext>> onResponse;
     private final Optional<BiConsumer<Acknowledge, MessageContext>> onAcknowledge;
@@ -103,6 +112,11 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
 
     private final boolean directlyInvokable;
 
+    /**
+     * Flight recorder event begun when the collector is created or null if it is not recorded.
+     */
+    private final Object endedEvent;
+
     public Collector(String topic, Message requestMessage, RequestOptions requestOptions, MsbContextImpl msbContext, EventHandlers<T> eventHandlers,
             TypeReference<T> payloadTypeReference) {
         this(topic, requestMessage, requestOptions, msbContext, eventHandlers, payloadTypeReference, false);
@@ -110,14 +124,25 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
 
     public Collector(String topic, Message requestMessage, RequestOptions requestOptions, MsbContextImpl msbContext, EventHandlers<T> eventHandlers,
                      TypeReference<T> payloadTypeReference, boolean directlyInvokableCallbacks) {
+        this(topic, requestMessage, requestOptions, msbContext, eventHandlers, new TypedConverter<>(payloadTypeReference, msbContext.getPayloadMapper()),
+                directlyInvokableCallbacks);
+    }
+
+    /**
+     * @param payloadConverter converter of response payloads shared by all collectors of a requester
+     */
+    public Collector(String topic, Message requestMessage, RequestOptions requestOptions, MsbContextImpl msbContext, EventHandlers<T> eventHandlers,
+                     TypedConverter<T> payloadConverter, boolean directlyInvokableCallbacks) {
+        this.topic = topic;
         this.requestMessage = requestMessage;
+        this.deadline = requestMessage.getMeta() != null ? requestMessage.getMeta().getDeadline() : null;
 
         this.clock = msbContext.getClock();
         this.collectorManager = msbContext.getCollectorManagerFactory().findOrCreateCollectorManager(topic);
         this.timeoutManager = msbContext.getTimeoutManager();
-        this.payloadMapper = msbContext.getPayloadMapper();
 
         this.startedAt = clock.instant().toEpochMilli();
+        this.endedEvent = MessageEvents.begin(MessageEventType.COLLECTOR_ENDED);
         this.ackMessages = new LinkedList<>();
         this.payloadMessages = new LinkedList<>();
         this.timeoutMsById = new HashMap<>();
@@ -134,7 +159,7 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
 
         this.shouldWaitUntilResponseTimeout = (responsesRemaining == RequestOptions.WAIT_FOR_RESPONSES_UNTIL_TIMEOUT);
 
-        this.payloadTypeReference = payloadTypeReference;
+        this.payloadConverter = payloadConverter;
 
         onRawResponse = Optional.ofNullable(eventHandlers.onRawResponse());
         onResponse = Optional.ofNullable(eventHandlers.onResponse());
@@ -168,27 +193,26 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
     public void listenForResponses() {
         if (this.waitForAcksMs != null && this.waitForAcksMs != 0) {
             this.waitForAcksUntil = Instant.ofEpochMilli(this.startedAt).plusMillis(waitForAcksMs);
+            if (deadline != null && deadline.isBefore(waitForAcksUntil)) {
+                this.waitForAcksUntil = deadline;
+            }
         }
         collectorManager.registerCollector(this);
     }
 
     @Override
     public void handleMessage(Message incomingMessage, AcknowledgementHandler acknowledgeHandler) {
-        LOG.debug("[correlation ids: {}-{}] Received {}",
-                requestMessage.getCorrelationId(), incomingMessage.getCorrelationId(), incomingMessage);
-
         JsonNode rawPayload = incomingMessage.getRawPayload();
         MessageContext messageContext = createMessageContext(acknowledgeHandler, incomingMessage);
         boolean isWithPayload = Utils.isPayloadPresent(rawPayload);
 
         if (isWithPayload) {
-            LOG.debug("[correlation ids: {}-{}] Received Payload {}",
-                    requestMessage.getCorrelationId(), incomingMessage.getCorrelationId(), rawPayload);
+            Trace.record(TraceEvent.RESPONSE_RECEIVED, requestMessage.getCorrelationId());
             payloadMessages.add(incomingMessage);
             try {
                 onRawResponse.ifPresent(handler -> handler.accept(incomingMessage, messageContext));
 
-                T payload = Utils.convert(rawPayload, payloadTypeReference, payloadMapper);
+                T payload = payloadConverter.convert(rawPayload);
                 onResponse.ifPresent(handler -> handler.accept(payload, messageContext));
             } catch (Exception e) {
                 //do not propagate exception outside of this method in order to prevent autoRetry for responses
@@ -196,8 +220,6 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
                 onError.ifPresent(handler -> handler.accept(e, incomingMessage));
             }
         } else {
-            LOG.debug("[correlation ids: {}-{}] Received {}",
-                    requestMessage.getCorrelationId(), incomingMessage.getCorrelationId(), incomingMessage.getAck());
             ackMessages.add(incomingMessage);
             onAcknowledge.ifPresent(handler -> handler.accept(incomingMessage.getAck(), messageContext));
         }
@@ -221,7 +243,6 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
             isInvokeOnEnd = isInvokeOnEnd || isNoMoreMessagesHandlingPossible();
 
             if(isInvokeOnEnd) {
-                LOG.debug("[correlation ids: {}] All messages has been received", requestMessage.getCorrelationId());
                 end();
             }
         }
@@ -232,21 +253,71 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
     }
 
     protected synchronized void end() {
-        LOG.debug("[correlation id: {}] Stop response processing ", requestMessage.getCorrelationId());
+        Trace.record(TraceEvent.COLLECTOR_ENDED, requestMessage.getCorrelationId());
         cancelAckTimeoutTask();
         cancelResponseTimeoutTask();
 
         collectorManager.unregisterCollector(this);
+        if (!isUnsubscribed && endedEvent != null) {
+            MessageEvents.commitCollectorEnded(endedEvent, topic, requestMessage.getCorrelationId(), isAwaitingResponses());
+        }
         isUnsubscribed = true;
 
         if(!isOnEndInvoked && isAllConsumedMessagesHandled()) {
-            isOnEndInvoked = true;
-            LOG.debug("[correlation id: {}] triggering 'onEnd' callback", requestMessage.getCorrelationId());
-            try {
-                onEnd.ifPresent(handler -> handler.call(null));
-            } catch (Exception e) {
-                LOG.warn("Unexpected exception during 'onEnd' handler invocation", e);
-            }
+            invokeOnEnd();
+        }
+    }
+
+    /**
+     * Ends the collector that outlived its absolute deadline. Unlike {@link #end()} triggers "onEnd" callback
+     * even if some consumed messages haven't been handled yet: they are not going to be awaited any more.
+     */
+    synchronized void forceEnd() {
+        LOG.warn("[correlation id: {}] Collector is still active after its deadline {}, ending it", requestMessage.getCorrelationId(),
+                getAbsoluteDeadline());
+        end();
+        if (!isOnEndInvoked) {
+            invokeOnEnd();
+        }
+    }
+
+    /**
+     * Ends the collector right away if the deadline inherited from the original message has passed already. Nobody is
+     * interested in the responses then, so the request should not be published.
+     *
+     * @return true if the collector has ended
+     */
+    public boolean endIfDeadlinePassed() {
+        if (deadline == null || deadline.isAfter(clock.instant())) {
+            return false;
+        }
+        LOG.debug("[correlation id: {}] Deadline {} has passed already, the request is not sent", requestMessage.getCorrelationId(), deadline);
+        end();
+        return true;
+    }
+
+    /**
+     * @return point in time after which neither responses nor acks can be awaited by the collector
+     */
+    Instant getAbsoluteDeadline() {
+        long until = startedAt + currentTimeoutMs;
+        Instant acksUntil = waitForAcksUntil;
+        if (acksUntil != null) {
+            until = Math.max(until, acksUntil.toEpochMilli());
+        }
+        if (deadline != null) {
+            until = Math.min(until, deadline.toEpochMilli());
+        }
+        return Instant.ofEpochMilli(until);
+    }
+
+    private void invokeOnEnd() {
+        isOnEndInvoked = true;
+        Trace.record(TraceEvent.ON_END_TRIGGERED, requestMessage.getCorrelationId());
+        try {
+            onEnd.ifPresent(handler -> handler.call(null));
+        } catch (Exception e) {
+            LOG.warn("Unexpected exception during 'onEnd' handler invocation", e);
         }
     }
 
@@ -266,8 +337,7 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
         int handled = handledMessagesHandledCount.intValue();
         int consumedAndLost = consumedAndLostMessagesCount.intValue();
 
-        LOG.debug("[correlation id: {}] Messages consumed: {}; handled: {} consumed and lost: {}  ",
-                requestMessage.getCorrelationId(), consumed, handled, consumedAndLost);
+        Trace.record(TraceEvent.UNHANDLED_MESSAGES_COUNTED, requestMessage.getCorrelationId(), consumed - consumedAndLost - handled);
 
         return (consumed == consumedAndLost + handled);
     }
@@ -277,9 +347,8 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
             return;
 
         if (acknowledge.getResponsesRemaining() != null) {
-            LOG.debug("[correlation id: {}] Responses remaining for responderId [{}] is set to {}",
-                    requestMessage.getCorrelationId(), acknowledge.getResponderId(),
-                    setResponsesRemainingForResponderId(acknowledge.getResponderId(), acknowledge.getResponsesRemaining()));
+            int responsesRemaining = setResponsesRemainingForResponderId(acknowledge.getResponderId(), acknowledge.getResponsesRemaining());
+            Trace.record(TraceEvent.ACK_RECEIVED, requestMessage.getCorrelationId(), responsesRemaining);
         }
 
         if (acknowledge.getTimeoutMs() != null) {
@@ -371,17 +440,29 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
 
     public void waitForResponses() {
         int newTimeoutMs = this.currentTimeoutMs - toIntExact(clock.instant().toEpochMilli() - this.startedAt);
-        LOG.debug("[correlation id: {}] Waiting for responses until {}.", requestMessage.getCorrelationId(), clock.instant().plus(newTimeoutMs, ChronoUnit.MILLIS));
+        if (deadline != null) {
+            newTimeoutMs = toIntExact(Math.min(newTimeoutMs, deadline.toEpochMilli() - clock.instant().toEpochMilli()));
+        }
+        Trace.record(TraceEvent.WAITING_FOR_RESPONSES, requestMessage.getCorrelationId(), newTimeoutMs);
+        if (newTimeoutMs <= 0) {
+            // the timeout or the deadline has passed while the request was being published
+            end();
+            return;
+        }
         this.responseTimeoutFuture = timeoutManager.enableResponseTimeout(newTimeoutMs, this);
     }
 
     void waitForAcks() {
         if (ackTimeoutFuture == null) {
-            LOG.debug("[correlation id: {}] Waiting for ack until {}.", requestMessage.getCorrelationId(), this.waitForAcksUntil);
+            Trace.record(TraceEvent.WAITING_FOR_ACKS, requestMessage.getCorrelationId(), waitForAcksUntil.toEpochMilli());
             long ackTimeoutMs = waitForAcksUntil.toEpochMilli() - clock.instant().toEpochMilli();
+            if (ackTimeoutMs <= 0) {
+                end();
+                return;
+            }
             ackTimeoutFuture = timeoutManager.enableAckTimeout(toIntExact(ackTimeoutMs), this);
         } else {
-            LOG.debug("[correlation id: {}] Ack timeout is already scheduled", requestMessage.getCorrelationId());
+            Trace.record(TraceEvent.ACK_TIMEOUT_ALREADY_SCHEDULED, requestMessage.getCorrelationId());
         }
     }
 
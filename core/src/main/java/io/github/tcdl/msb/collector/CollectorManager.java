@@ -5,10 +5,16 @@ import io.github.tcdl.msb.MessageHandler;
 import io.github.tcdl.msb.MessageHandlerResolver;
 import io.github.tcdl.msb.api.exception.ConsumerSubscriptionException;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.CorrelationIds;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,11 +31,35 @@ public class CollectorManager implements MessageHandlerResolver {
 
     private final String topic;
     private final ChannelManager channelManager;
+    private final Clock clock;
+
+    /**
+     * Min interval between WARN reports about responses that have no collector. Responses in between are only counted.
+     */
+    private final long orphanResponseLogIntervalMs;
+    private final LongAdder orphanResponsesCount = new LongAdder();
+    private final AtomicLong nextOrphanResponseReportAt = new AtomicLong();
+    private volatile long reportedOrphanResponsesCount;
+
+    /**
+     * Collectors of requests with correlation ids generated by this process are indexed by numeric key,
+     * the rest (e.g. correlation ids inherited from an original message) are kept in the map.
+     */
+    final ShardedLongKeyMap<Collector> collectorsByLocalKey = new ShardedLongKeyMap<>();
     Map<String, Collector> collectorsByCorrelationId = new ConcurrentHashMap<>();
 
     public CollectorManager(String topic, ChannelManager channelManager) {
+        this(topic, channelManager, Clock.systemDefaultZone(), 0);
+    }
+
+    /**
+     * @param orphanResponseLogIntervalMs min interval between WARN reports about responses without a collector, 0 to report each of them
+     */
+    public CollectorManager(String topic, ChannelManager channelManager, Clock clock, long orphanResponseLogIntervalMs) {
         this.topic = topic;
         this.channelManager = channelManager;
+        this.clock = clock;
+        this.orphanResponseLogIntervalMs = orphanResponseLogIntervalMs;
     }
 
     /**
@@ -37,21 +67,80 @@ public class CollectorManager implements MessageHandlerResolver {
      */
     @Override public Optional<MessageHandler> resolveMessageHandler(Message message) {
         String correlationId = message.getCorrelationId();
-        Collector collector = collectorsByCorrelationId.get(correlationId);
+        Collector collector = findCollector(correlationId);
         if (collector != null) {
             return Optional.of(collector);
         } else {
-            LOG.warn("Message with correlationId {} is not expected to be processed by any Collectors", correlationId);
+            reportOrphanResponse(correlationId);
             return Optional.empty();
         }
     }
 
+    /**
+     * Late responses tend to come in storms (e.g. when a responder has been stuck for a while), so only the first
+     * of them within the reporting interval is logged as WARN along with the number of responses since the previous report.
+     */
+    private void reportOrphanResponse(String correlationId) {
+        orphanResponsesCount.increment();
+
+        long now = clock.millis();
+        long reportAt = nextOrphanResponseReportAt.get();
+        if (now >= reportAt && nextOrphanResponseReportAt.compareAndSet(reportAt, now + orphanResponseLogIntervalMs)) {
+            long total = orphanResponsesCount.sum();
+            long sinceLastReport = total - reportedOrphanResponsesCount;
+            reportedOrphanResponsesCount = total;
+            LOG.warn("[topic: {}] Message with correlationId {} is not expected to be processed by any Collectors ({} such messages since last report, {} in total)",
+                    topic, correlationId, sinceLastReport, total);
+        } else {
+            LOG.debug("[topic: {}] Message with correlationId {} is not expected to be processed by any Collectors", topic, correlationId);
+        }
+    }
+
+    /**
+     * @return number of responses received on the topic that had no collector to handle them
+     */
+    public long getOrphanResponsesCount() {
+        return orphanResponsesCount.sum();
+    }
+
+    /**
+     * Force-ends collectors whose absolute deadline is before the given point in time.
+     *
+     * @return number of ended collectors
+     */
+    int reapCollectors(Instant expiredBefore) {
+        int reaped = 0;
+        for (Collector collector : getCollectors()) {
+            if (collector.getAbsoluteDeadline().isBefore(expiredBefore)) {
+                try {
+                    collector.forceEnd();
+                } catch (Exception e) {
+                    LOG.warn("[topic: {}] Failed to end collector with correlationId {}", topic, collector.getRequestMessage().getCorrelationId(), e);
+                    unregisterCollector(collector);
+                }
+                reaped++;
+            }
+        }
+        return reaped;
+    }
+
+    private List<Collector> getCollectors() {
+        List<Collector> collectors = collectorsByLocalKey.values();
+        collectors.addAll(collectorsByCorrelationId.values());
+        return collectors;
+    }
+
     /**
      * @throws ConsumerSubscriptionException if another consumer already listen for messages on topic
      */
     public void registerCollector(Collector collector) {
         String correlationId = collector.getRequestMessage().getCorrelationId();
-        collectorsByCorrelationId.putIfAbsent(correlationId, collector);
+        long localKey = CorrelationIds.toLocalKey(correlationId);
+        if (localKey != CorrelationIds.NOT_LOCAL) {
+            collectorsByLocalKey.putIfAbsent(localKey, collector);
+        } else {
+            collectorsByCorrelationId.putIfAbsent(correlationId, collector);
+        }
 
         if(!isSubscribed) {
             synchronized (this) {
@@ -67,7 +156,30 @@ public class CollectorManager implements MessageHandlerResolver {
      * Remove this collector from collector's map, if it is present.
      */
     public void unregisterCollector(Collector collector) {
-        collectorsByCorrelationId.remove(collector.getRequestMessage().getCorrelationId());
+        String correlationId = collector.getRequestMessage().getCorrelationId();
+        long localKey = CorrelationIds.toLocalKey(correlationId);
+        if (localKey != CorrelationIds.NOT_LOCAL) {
+            collectorsByLocalKey.remove(localKey);
+        } else {
+            collectorsByCorrelationId.remove(correlationId);
+        }
+    }
+
+    /**
+     * @return number of collectors waiting for responses
+     */
+    int getCollectorsCount() {
+        return collectorsByLocalKey.size() + collectorsByCorrelationId.size();
+    }
+
+    private Collector findCollector(String correlationId) {
+        long localKey = CorrelationIds.toLocalKey(correlationId);
+        if (localKey != CorrelationIds.NOT_LOCAL) {
+            Collector collector = collectorsByLocalKey.get(localKey);
+            // the key doesn't cover the whole id, a response with a forged id must not reach the collector
+            return collector != null && correlationId.equals(collector.getRequestMessage().getCorrelationId()) ? collector : null;
+        }
+        return correlationId != null ? collectorsByCorrelationId.get(correlationId) : null;
     }
 
     @Override
@@ -1,5 +1,8 @@
 package io.github.tcdl.msb.collector;
 
+import java.time.Clock;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -9,18 +12,42 @@ public class CollectorManagerFactory {
 
     private Map<String, CollectorManager> collectorManagersByTopic;
     private ChannelManager channelManager;
+    private Clock clock;
+    private long orphanResponseLogIntervalMs;
 
     public CollectorManagerFactory(ChannelManager channelManager) {
+        this(channelManager, Clock.systemDefaultZone(), 0);
+    }
+
+    /**
+     * @param orphanResponseLogIntervalMs min interval between WARN reports about responses without a collector (per topic)
+     */
+    public CollectorManagerFactory(ChannelManager channelManager, Clock clock, long orphanResponseLogIntervalMs) {
         this.collectorManagersByTopic = new ConcurrentHashMap<>();
         this.channelManager = channelManager;
+        this.clock = clock;
+        this.orphanResponseLogIntervalMs = orphanResponseLogIntervalMs;
     }
 
     public CollectorManager findOrCreateCollectorManager(final String topic) {
         CollectorManager collectorManager = collectorManagersByTopic.computeIfAbsent(topic, key -> {
-            CollectorManager newCollectorManager =  new CollectorManager(topic, channelManager);
+            CollectorManager newCollectorManager =  new CollectorManager(topic, channelManager, clock, orphanResponseLogIntervalMs);
             return newCollectorManager;
         });
 
         return collectorManager;
     }
+
+    /**
+     * @return number of responses without a collector received so far, by response topic
+     */
+    public Map<String, Long> getOrphanResponsesCountByTopic() {
+        Map<String, Long> countByTopic = new HashMap<>();
+        collectorManagersByTopic.forEach((topic, collectorManager) -> countByTopic.put(topic, collectorManager.getOrphanResponsesCount()));
+        return countByTopic;
+    }
+
+    Collection<CollectorManager> getCollectorManagers() {
+        return collectorManagersByTopic.values();
+    }
 }
@@ -0,0 +1,113 @@
+package io.github.tcdl.msb.collector;
+
+import io.github.tcdl.msb.support.Utils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Safety net for {@link Collector}s that were never ended, e.g. because their timeout task couldn't be scheduled.
+ * Periodically force-ends collectors that are still registered after their absolute deadline plus a grace period.
+ */
+public class CollectorReaper {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CollectorReaper.class);
+
+    private final CollectorManagerFactory collectorManagerFactory;
+    private final Clock clock;
+    private final long gracePeriodMs;
+
+    private final LongAdder runsCount = new LongAdder();
+    private final LongAdder reapedCollectorsCount = new LongAdder();
+    private volatile long lastRunDurationMs;
+
+    private ScheduledExecutorService scheduler;
+
+    public CollectorReaper(CollectorManagerFactory collectorManagerFactory, Clock clock, long gracePeriodMs) {
+        this.collectorManagerFactory = collectorManagerFactory;
+        this.clock = clock;
+        this.gracePeriodMs = gracePeriodMs;
+    }
+
+    /**
+     * Starts checking collectors every {@code intervalMs} milliseconds.
+     */
+    public synchronized void start(long intervalMs) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Collector reaper is already started");
+        }
+        LOG.info("Starting with interval {} ms and grace period {} ms", intervalMs, gracePeriodMs);
+        scheduler = Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder()
+                .namingPattern("collector-reaper-%d")
+                .daemon(true)
+                .build());
+        scheduler.scheduleWithFixedDelay(this::runSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Force-ends all collectors that are past their absolute deadline plus the grace period.
+     *
+     * @return number of ended collectors
+     */
+    public int reap() {
+        long startedAt = clock.millis();
+        Instant expiredBefore = Instant.ofEpochMilli(startedAt - gracePeriodMs);
+
+        int reaped = 0;
+        for (CollectorManager collectorManager : collectorManagerFactory.getCollectorManagers()) {
+            reaped += collectorManager.reapCollectors(expiredBefore);
+        }
+
+        runsCount.increment();
+        reapedCollectorsCount.add(reaped);
+        lastRunDurationMs = clock.millis() - startedAt;
+        if (reaped > 0) {
+            LOG.warn("Ended {} collectors that outlived their deadline", reaped);
+        }
+        return reaped;
+    }
+
+    private void runSafely() {
+        try {
+            reap();
+        } catch (Exception e) {
+            LOG.error("Error while reaping collectors", e);
+        }
+    }
+
+    /**
+     * @return number of completed checks
+     */
+    public long getRunsCount() {
+        return runsCount.sum();
+    }
+
+    /**
+     * @return total number of collectors that were force-ended
+     */
+    public long getReapedCollectorsCount() {
+        return reapedCollectorsCount.sum();
+    }
+
+    /**
+     * @return duration of the most recent check in milliseconds
+     */
+    public long getLastRunDurationMs() {
+        return lastRunDurationMs;
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            Utils.gracefulShutdown(scheduler, "collector reaper");
+            scheduler = null;
+        }
+    }
+}
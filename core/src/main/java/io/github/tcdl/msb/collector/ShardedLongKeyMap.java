@@ -0,0 +1,216 @@
+package io.github.tcdl.msb.collector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Thread-safe map with primitive non-negative long keys. Entries are spread over a fixed number of shards,
+ * each of them is an open-addressed hash table with linear probing guarded by its own lock,
+ * so lookups neither box the key nor hash strings and concurrent writers rarely contend.
+ *
+ * @param <V> type of values
+ */
+class ShardedLongKeyMap<V> {
+
+    private static final int DEFAULT_SHARDS = 16;
+    private static final int INITIAL_SHARD_CAPACITY = 64;
+
+    private final Shard<V>[] shards;
+    private final int shardMask;
+
+    ShardedLongKeyMap() {
+        this(DEFAULT_SHARDS);
+    }
+
+    /**
+     * @param numberOfShards number of shards, must be a power of two
+     */
+    @SuppressWarnings("unchecked")
+    ShardedLongKeyMap(int numberOfShards) {
+        if (Integer.bitCount(numberOfShards) != 1) {
+            throw new IllegalArgumentException("'numberOfShards' must be a power of two");
+        }
+        this.shards = new Shard[numberOfShards];
+        for (int i = 0; i < numberOfShards; i++) {
+            shards[i] = new Shard<>();
+        }
+        this.shardMask = numberOfShards - 1;
+    }
+
+    V get(long key) {
+        long hash = mix(key);
+        return shardFor(hash).get(key, hash);
+    }
+
+    /**
+     * @return previous value associated with the key or null if the value was added
+     */
+    V putIfAbsent(long key, V value) {
+        checkKey(key);
+        long hash = mix(key);
+        return shardFor(hash).putIfAbsent(key, hash, value);
+    }
+
+    /**
+     * @return removed value or null if there was no value for the key
+     */
+    V remove(long key) {
+        long hash = mix(key);
+        return shardFor(hash).remove(key, hash);
+    }
+
+    int size() {
+        int size = 0;
+        for (Shard<V> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return snapshot of the values. Each shard is copied atomically but the map as a whole is not.
+     */
+    List<V> values() {
+        List<V> values = new ArrayList<>();
+        for (Shard<V> shard : shards) {
+            shard.copyValuesTo(values);
+        }
+        return values;
+    }
+
+    private Shard<V> shardFor(long hash) {
+        return shards[(int) (hash >>> 32) & shardMask];
+    }
+
+    private static void checkKey(long key) {
+        if (key < 0) {
+            throw new IllegalArgumentException("key must not be negative");
+        }
+    }
+
+    /**
+     * Finalization step of MurmurHash3, spreads sequential keys evenly.
+     */
+    private static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Shard<V> {
+        private static final long FREE = -1;
+
+        private long[] keys;
+        private Object[] values;
+        private int size;
+
+        Shard() {
+            allocate(INITIAL_SHARD_CAPACITY);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void copyValuesTo(List<V> target) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != FREE) {
+                    target.add((V) values[i]);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V get(long key, long hash) {
+            int mask = keys.length - 1;
+            for (int i = (int) hash & mask; keys[i] != FREE; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return (V) values[i];
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V putIfAbsent(long key, long hash, V value) {
+            int mask = keys.length - 1;
+            int i = (int) hash & mask;
+            for (; keys[i] != FREE; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return (V) values[i];
+                }
+            }
+            keys[i] = key;
+            values[i] = value;
+            if (++size > keys.length / 2) {
+                resize(keys.length * 2);
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V remove(long key, long hash) {
+            int mask = keys.length - 1;
+            int i = (int) hash & mask;
+            for (; keys[i] != key; i = (i + 1) & mask) {
+                if (keys[i] == FREE) {
+                    return null;
+                }
+            }
+            V removed = (V) values[i];
+            shiftBack(i, mask);
+            size--;
+            return removed;
+        }
+
+        /**
+         * Removes the entry at the given slot and moves subsequent entries of the same probe chain back,
+         * so lookups never stop at a gap.
+         */
+        private void shiftBack(int freeSlot, int mask) {
+            int gap = freeSlot;
+            int i = (gap + 1) & mask;
+            while (keys[i] != FREE) {
+                int home = (int) mix(keys[i]) & mask;
+                // move the entry if its home slot isn't cyclically within (gap, i]
+                if (((i - home) & mask) >= ((i - gap) & mask)) {
+                    keys[gap] = keys[i];
+                    values[gap] = values[i];
+                    gap = i;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[gap] = FREE;
+            values[gap] = null;
+        }
+
+        private void resize(int newCapacity) {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            allocate(newCapacity);
+            int mask = newCapacity - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != FREE) {
+                    int i = (int) mix(oldKeys[j]) & mask;
+                    while (keys[i] != FREE) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, FREE);
+            values = new Object[capacity];
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.tcdl.msb.collector;
 
 import io.github.tcdl.msb.RunOnShutdownScheduledExecutorDecorator;
+import io.github.tcdl.msb.support.Trace;
+import io.github.tcdl.msb.support.TraceEvent;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,16 +25,15 @@ public class TimeoutManager {
     }
 
     protected ScheduledFuture<?> enableResponseTimeout(int timeoutMs, Collector collector) {
-        LOG.debug("[correlation id: {}] Enabling response timeout for {} ms", collector.getRequestMessage().getCorrelationId(), timeoutMs);
+        Trace.record(TraceEvent.RESPONSE_TIMEOUT_SCHEDULED, collector.getRequestMessage().getCorrelationId(), timeoutMs);
 
         if (timeoutMs <= 0) {
-            LOG.debug("[correlation id: {}] Unable to schedule timeout with negative delay : {}", collector.getRequestMessage().getCorrelationId(), timeoutMs);
             return null;
         }
 
         try {
             return timeoutExecutorDecorator.schedule(() -> {
-                LOG.debug("[correlation id: {}] Response timeout expired.", collector.getRequestMessage().getCorrelationId());
+                Trace.record(TraceEvent.RESPONSE_TIMEOUT_EXPIRED, collector.getRequestMessage().getCorrelationId());
                 collector.end();
             }, timeoutMs, TimeUnit.MILLISECONDS);
         } catch (RejectedExecutionException e) {
@@ -43,20 +44,19 @@ public class TimeoutManager {
     }
 
     protected ScheduledFuture<?> enableAckTimeout(int timeoutMs, Collector collector) {
-        LOG.debug("[correlation id: {}] Enabling ack timeout for {} ms", collector.getRequestMessage().getCorrelationId(), timeoutMs);
+        Trace.record(TraceEvent.ACK_TIMEOUT_SCHEDULED, collector.getRequestMessage().getCorrelationId(), timeoutMs);
 
         if (timeoutMs <= 0) {
-            LOG.debug("[correlation id: {}] Unable to schedule timeout with negative delay : {}", collector.getRequestMessage().getCorrelationId(), timeoutMs);
             return null;
         }
 
         try {
             return timeoutExecutorDecorator.schedule(() -> {
-                if (collector.isAwaitingResponses()) {
-                    LOG.debug("[correlation id: {}] Ack timeout expired, but waiting for responses.", collector.getRequestMessage().getCorrelationId());
+                boolean awaitingResponses = collector.isAwaitingResponses();
+                Trace.record(TraceEvent.ACK_TIMEOUT_EXPIRED, collector.getRequestMessage().getCorrelationId(), awaitingResponses ? 1 : 0);
+                if (awaitingResponses) {
                     return;
                 }
-                LOG.debug("[correlation id: {}] Ack timeout expired.", collector.getRequestMessage().getCorrelationId());
                 collector.end();
             }, timeoutMs, TimeUnit.MILLISECONDS);
         } catch (RejectedExecutionException e) {
@@ -2,11 +2,17 @@ package io.github.tcdl.msb.config;
 
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import io.github.tcdl.msb.threading.PriorityLane;
+import io.github.tcdl.msb.threading.PriorityLaneMessageHandlerInvoker;
+import io.github.tcdl.msb.threading.RingBufferMessageHandlerInvoker;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static io.github.tcdl.msb.config.ConfigurationUtil.*;
 
@@ -29,6 +35,11 @@ public class MsbConfig {
 
     private final boolean validateMessage;
 
+    private final boolean compactServiceDetails;
+    private final long fullServiceDetailsIntervalMs;
+
+    private final int traceBufferSize;
+
     private final int timerThreadPoolSize;
 
     private final boolean mdcLogging;
@@ -43,8 +54,54 @@ public class MsbConfig {
 
     private final int consumerThreadPoolQueueCapacity;
 
+    private final int responseThreadPoolSize;
+
+    private final int responseThreadPoolQueueCapacity;
+
+    private final boolean earliestDeadlineFirst;
+
+    private final boolean groupWorkStealing;
+
+    private final boolean parseOnInvokerThreads;
+
+    private final boolean ringBufferEnabled;
+
+    private final RingBufferMessageHandlerInvoker.WaitStrategy ringBufferWaitStrategy;
+
+    private final int ringBufferBatchSize;
+
+    private final boolean adaptiveThreadPoolEnabled;
+
+    private final int adaptiveThreadPoolMinThreads;
+
+    private final int adaptiveThreadPoolMaxThreads;
+
+    private final long adaptiveThreadPoolTargetQueueWaitMs;
+
+    private final long adaptiveThreadPoolAdjustmentIntervalMs;
+
+    private final boolean priorityLanesEnabled;
+
+    private final PriorityLaneMessageHandlerInvoker.Scheduling priorityLanesScheduling;
+
+    private final long priorityLanesMaxStarvationMs;
+
+    private final int priorityLanesDefaultLaneWeight;
+
+    private final List<PriorityLane> priorityLanes;
+
     private final int defaultResponseTimeout;
 
+    private final long orphanResponseLogIntervalMs;
+
+    private final long collectorReaperIntervalMs;
+
+    private final long collectorReaperGracePeriodMs;
+
+    private final long channelMonitorAnnounceIntervalMs;
+
+    private final long channelMonitorInstanceExpiryMs;
+
     public MsbConfig(Config loadedConfig) {
         Config config = loadedConfig.getConfig("msbConfig");
 
@@ -56,9 +113,37 @@ public class MsbConfig {
         this.brokerConfig = config.hasPath("brokerConfig") ? config.getConfig("brokerConfig") : ConfigFactory.empty();
         this.timerThreadPoolSize = getInt(config, "timerThreadPoolSize");
         this.validateMessage = getBoolean(config, "validateMessage");
+        this.compactServiceDetails = getBoolean(config, "compactServiceDetails");
+        this.fullServiceDetailsIntervalMs = config.getLong("fullServiceDetailsIntervalMs");
+        this.traceBufferSize = getInt(config, "traceBufferSize");
+
+        this.orphanResponseLogIntervalMs = config.getLong("collectorConfig.orphanResponseLogIntervalMs");
+        this.collectorReaperIntervalMs = config.getLong("collectorConfig.reaperIntervalMs");
+        this.collectorReaperGracePeriodMs = config.getLong("collectorConfig.reaperGracePeriodMs");
+
+        this.channelMonitorAnnounceIntervalMs = config.getLong("channelMonitorConfig.announceIntervalMs");
+        this.channelMonitorInstanceExpiryMs = config.getLong("channelMonitorConfig.instanceExpiryMs");
 
         this.consumerThreadPoolSize = config.getInt("threadingConfig.consumerThreadPoolSize");
         this.consumerThreadPoolQueueCapacity = config.getInt("threadingConfig.consumerThreadPoolQueueCapacity");
+        this.responseThreadPoolSize = config.getInt("threadingConfig.responseThreadPoolSize");
+        this.responseThreadPoolQueueCapacity = config.getInt("threadingConfig.responseThreadPoolQueueCapacity");
+        this.earliestDeadlineFirst = config.getBoolean("threadingConfig.earliestDeadlineFirst");
+        this.groupWorkStealing = config.getBoolean("threadingConfig.groupWorkStealing");
+        this.parseOnInvokerThreads = config.getBoolean("threadingConfig.parseOnInvokerThreads");
+        this.ringBufferEnabled = config.getBoolean("threadingConfig.ringBuffer.enabled");
+        this.ringBufferWaitStrategy = RingBufferMessageHandlerInvoker.WaitStrategy.valueOf(config.getString("threadingConfig.ringBuffer.waitStrategy"));
+        this.ringBufferBatchSize = config.getInt("threadingConfig.ringBuffer.batchSize");
+        this.adaptiveThreadPoolEnabled = config.getBoolean("threadingConfig.adaptiveThreadPool.enabled");
+        this.adaptiveThreadPoolMinThreads = config.getInt("threadingConfig.adaptiveThreadPool.minThreads");
+        this.adaptiveThreadPoolMaxThreads = config.getInt("threadingConfig.adaptiveThreadPool.maxThreads");
+        this.adaptiveThreadPoolTargetQueueWaitMs = config.getLong("threadingConfig.adaptiveThreadPool.targetQueueWaitMs");
+        this.adaptiveThreadPoolAdjustmentIntervalMs = config.getLong("threadingConfig.adaptiveThreadPool.adjustmentIntervalMs");
+        this.priorityLanesEnabled = config.getBoolean("threadingConfig.priorityLanes.enabled");
+        this.priorityLanesScheduling = PriorityLaneMessageHandlerInvoker.Scheduling.valueOf(config.getString("threadingConfig.priorityLanes.scheduling"));
+        this.priorityLanesMaxStarvationMs = config.getLong("threadingConfig.priorityLanes.maxStarvationMs");
+        this.priorityLanesDefaultLaneWeight = config.getInt("threadingConfig.priorityLanes.defaultLaneWeight");
+        this.priorityLanes = readPriorityLanes(config.getConfigList("threadingConfig.priorityLanes.lanes"));
 
         Config mdcLogging = config.getConfig("mdcLogging");
         Config mdcLoggingMessageKeys= mdcLogging.getConfig("messageKeys");
@@ -83,6 +168,17 @@ public class MsbConfig {
         }
     }
 
+    private List<PriorityLane> readPriorityLanes(List<? extends Config> laneConfigs) {
+        List<PriorityLane> lanes = new ArrayList<>();
+        for (Config laneConfig : laneConfigs) {
+            lanes.add(new PriorityLane(getString(laneConfig, "name"),
+                    laneConfig.hasPath("weight") ? laneConfig.getInt("weight") : 1,
+                    laneConfig.hasPath("tags") ? laneConfig.getStringList("tags") : Collections.emptyList(),
+                    laneConfig.hasPath("namespaces") ? laneConfig.getStringList("namespaces") : Collections.emptyList()));
+        }
+        return Collections.unmodifiableList(lanes);
+    }
+
     private String getBrokerAdapterFactory(Config config) {
         return getString(config, "brokerAdapterFactory");
     }
@@ -99,6 +195,18 @@ public class MsbConfig {
         return validateMessage;
     }
 
+    public boolean isCompactServiceDetails() {
+        return compactServiceDetails;
+    }
+
+    public long getFullServiceDetailsIntervalMs() {
+        return fullServiceDetailsIntervalMs;
+    }
+
+    public int getTraceBufferSize() {
+        return traceBufferSize;
+    }
+
     public Config getBrokerConfig() {
         return brokerConfig;
     }
@@ -138,13 +246,39 @@ public class MsbConfig {
                 ", serviceDetails=" + serviceDetails +
                 ", schema='" + schema + '\'' +
                 ", validateMessage=" + validateMessage +
+                ", compactServiceDetails=" + compactServiceDetails +
+                ", fullServiceDetailsIntervalMs=" + fullServiceDetailsIntervalMs +
+                ", traceBufferSize=" + traceBufferSize +
                 ", timerThreadPoolSize=" + timerThreadPoolSize +
+                ", orphanResponseLogIntervalMs=" + orphanResponseLogIntervalMs +
+                ", collectorReaperIntervalMs=" + collectorReaperIntervalMs +
+                ", collectorReaperGracePeriodMs=" + collectorReaperGracePeriodMs +
+                ", channelMonitorAnnounceIntervalMs=" + channelMonitorAnnounceIntervalMs +
+                ", channelMonitorInstanceExpiryMs=" + channelMonitorInstanceExpiryMs +
                 ", mdcLogging=" + mdcLogging +
                 ", mdcLoggingKeyMessageTags='" + mdcLoggingKeyMessageTags + '\'' +
                 ", mdcLoggingKeyCorrelationId='" + mdcLoggingKeyCorrelationId + '\'' +
                 ", mdcLoggingSplitTagsBy='" + mdcLoggingSplitTagsBy + '\'' +
                 ", consumerThreadPoolSize=" + consumerThreadPoolSize +
                 ", consumerThreadPoolQueueCapacity=" + consumerThreadPoolQueueCapacity +
+                ", responseThreadPoolSize=" + responseThreadPoolSize +
+                ", responseThreadPoolQueueCapacity=" + responseThreadPoolQueueCapacity +
+                ", earliestDeadlineFirst=" + earliestDeadlineFirst +
+                ", groupWorkStealing=" + groupWorkStealing +
+                ", parseOnInvokerThreads=" + parseOnInvokerThreads +
+                ", ringBufferEnabled=" + ringBufferEnabled +
+                ", ringBufferWaitStrategy=" + ringBufferWaitStrategy +
+                ", ringBufferBatchSize=" + ringBufferBatchSize +
+                ", adaptiveThreadPoolEnabled=" + adaptiveThreadPoolEnabled +
+                ", adaptiveThreadPoolMinThreads=" + adaptiveThreadPoolMinThreads +
+                ", adaptiveThreadPoolMaxThreads=" + adaptiveThreadPoolMaxThreads +
+                ", adaptiveThreadPoolTargetQueueWaitMs=" + adaptiveThreadPoolTargetQueueWaitMs +
+                ", adaptiveThreadPoolAdjustmentIntervalMs=" + adaptiveThreadPoolAdjustmentIntervalMs +
+                ", priorityLanesEnabled=" + priorityLanesEnabled +
+                ", priorityLanesScheduling=" + priorityLanesScheduling +
+                ", priorityLanesMaxStarvationMs=" + priorityLanesMaxStarvationMs +
+                ", priorityLanesDefaultLaneWeight=" + priorityLanesDefaultLaneWeight +
+                ", priorityLanes=" + priorityLanes +
                 ", brokerConfig='" + brokerConfig.root().render() + '\'' +
                 '}';
     }
@@ -156,4 +290,96 @@ public class MsbConfig {
     public int getConsumerThreadPoolQueueCapacity() {
         return consumerThreadPoolQueueCapacity;
     }
+
+    public int getResponseThreadPoolSize() {
+        return responseThreadPoolSize;
+    }
+
+    public int getResponseThreadPoolQueueCapacity() {
+        return responseThreadPoolQueueCapacity;
+    }
+
+    public boolean isEarliestDeadlineFirst() {
+        return earliestDeadlineFirst;
+    }
+
+    public boolean isGroupWorkStealing() {
+        return groupWorkStealing;
+    }
+
+    public boolean isParseOnInvokerThreads() {
+        return parseOnInvokerThreads;
+    }
+
+    public boolean isRingBufferEnabled() {
+        return ringBufferEnabled;
+    }
+
+    public RingBufferMessageHandlerInvoker.WaitStrategy getRingBufferWaitStrategy() {
+        return ringBufferWaitStrategy;
+    }
+
+    public int getRingBufferBatchSize() {
+        return ringBufferBatchSize;
+    }
+
+    public boolean isAdaptiveThreadPoolEnabled() {
+        return adaptiveThreadPoolEnabled;
+    }
+
+    public int getAdaptiveThreadPoolMinThreads() {
+        return adaptiveThreadPoolMinThreads;
+    }
+
+    public int getAdaptiveThreadPoolMaxThreads() {
+        return adaptiveThreadPoolMaxThreads;
+    }
+
+    public long getAdaptiveThreadPoolTargetQueueWaitMs() {
+        return adaptiveThreadPoolTargetQueueWaitMs;
+    }
+
+    public long getAdaptiveThreadPoolAdjustmentIntervalMs() {
+        return adaptiveThreadPoolAdjustmentIntervalMs;
+    }
+
+    public boolean isPriorityLanesEnabled() {
+        return priorityLanesEnabled;
+    }
+
+    public PriorityLaneMessageHandlerInvoker.Scheduling getPriorityLanesScheduling() {
+        return priorityLanesScheduling;
+    }
+
+    public long getPriorityLanesMaxStarvationMs() {
+        return priorityLanesMaxStarvationMs;
+    }
+
+    public int getPriorityLanesDefaultLaneWeight() {
+        return priorityLanesDefaultLaneWeight;
+    }
+
+    public List<PriorityLane> getPriorityLanes() {
+        return priorityLanes;
+    }
+
+    public long getOrphanResponseLogIntervalMs() {
+        return orphanResponseLogIntervalMs;
+    }
+
+    public long getCollectorReaperIntervalMs() {
+        return collectorReaperIntervalMs;
+    }
+
+    public long getCollectorReaperGracePeriodMs() {
+        return collectorReaperGracePeriodMs;
+    }
+
+    public long getChannelMonitorAnnounceIntervalMs() {
+        return channelMonitorAnnounceIntervalMs;
+    }
+
+    public long getChannelMonitorInstanceExpiryMs() {
+        return channelMonitorInstanceExpiryMs;
+    }
 }
@@ -7,12 +7,15 @@ import io.github.tcdl.msb.api.ObjectFactory;
 import io.github.tcdl.msb.callback.MutableCallbackHandler;
 import io.github.tcdl.msb.collector.CollectorManager;
 import io.github.tcdl.msb.collector.CollectorManagerFactory;
+import io.github.tcdl.msb.collector.CollectorReaper;
 import io.github.tcdl.msb.collector.TimeoutManager;
 import io.github.tcdl.msb.config.MsbConfig;
+import io.github.tcdl.msb.config.ServiceDetails;
 import io.github.tcdl.msb.message.MessageFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.time.Clock;
+import java.util.Optional;
 
 /**
  * Specifies the context for MSB message processing.
@@ -30,6 +33,7 @@ public class MsbContextImpl implements MsbContext {
     private final ObjectMapper payloadMapper;
     private final CollectorManagerFactory collectorManagerFactory;
     private final MutableCallbackHandler shutdownCallbackHandler;
+    private volatile CollectorReaper collectorReaper;
     private volatile boolean isShutdownComplete = false;
 
     public MsbContextImpl(MsbConfig msbConfig, MessageFactory messageFactory, ChannelManager channelManager,
@@ -58,6 +62,9 @@ public class MsbContextImpl implements MsbContext {
             LOG.info("Shutting down MSB context...");
             shutdownCallbackHandler.runCallbacks();
             objectFactory.shutdown();
+            if (collectorReaper != null) {
+                collectorReaper.shutdown();
+            }
             timeoutManager.shutdown();
             channelManager.shutdown();
             LOG.info("MSB context has been shut down.");
@@ -127,8 +134,27 @@ public class MsbContextImpl implements MsbContext {
         this.objectFactory = objectFactory;
     }
 
+    /**
+     * @return reaper of collectors that outlived their deadline along with its metrics or null if the reaper is disabled
+     */
+    public CollectorReaper getCollectorReaper() {
+        return collectorReaper;
+    }
+
+    public void setCollectorReaper(CollectorReaper collectorReaper) {
+        this.collectorReaper = collectorReaper;
+    }
+
     @Override
     public void addShutdownCallback(Runnable shutdownCallback) {
         shutdownCallbackHandler.add(shutdownCallback);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<ServiceDetails> findServiceDetails(String instanceId) {
+        return channelManager.getServiceDetailsRegistry().find(instanceId);
+    }
 }
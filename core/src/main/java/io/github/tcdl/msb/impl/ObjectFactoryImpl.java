@@ -7,6 +7,7 @@ import io.github.tcdl.msb.api.ObjectFactory;
 import io.github.tcdl.msb.api.PayloadConverter;
 import io.github.tcdl.msb.api.RequestOptions;
 import io.github.tcdl.msb.api.Requester;
+import io.github.tcdl.msb.api.ResponderOptions;
 import io.github.tcdl.msb.api.ResponderServer;
 import io.github.tcdl.msb.api.monitor.AggregatorStats;
 import io.github.tcdl.msb.api.monitor.ChannelMonitorAggregator;
@@ -67,7 +68,7 @@ public class ObjectFactoryImpl implements ObjectFactory {
                 .withWaitForResponses(1)
                 .withAckTimeout(0)
                 .build();
-        return RequesterImpl.create(namespace, requestOptions, msbContext, toTypeReference(payloadClass));
+        return RequesterImpl.createWithDirectReply(namespace, requestOptions, msbContext, toTypeReference(payloadClass));
     }
 
     /**
@@ -105,6 +106,15 @@ public class ObjectFactoryImpl implements ObjectFactory {
         return ResponderServerImpl.create(namespace, messageTemplate, msbContext, requestHandler, errorHandler, payloadTypeReference);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> ResponderServer createResponderServer(String namespace, ResponderOptions responderOptions,
+            ResponderServer.RequestHandler<T> requestHandler, ResponderServer.ErrorHandler errorHandler, TypeReference<T> payloadTypeReference) {
+        return ResponderServerImpl.create(namespace, responderOptions, msbContext, requestHandler, errorHandler, payloadTypeReference);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -3,14 +3,19 @@ package io.github.tcdl.msb.impl;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.tcdl.msb.api.PayloadConverter;
-import io.github.tcdl.msb.support.Utils;
+import io.github.tcdl.msb.support.TypedConverter;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Implementation of {@link PayloadConverter}
+ * Implementation of {@link PayloadConverter}. Converters of the destination types are cached.
  */
 public class PayloadConverterImpl implements PayloadConverter {
 
     private ObjectMapper payloadMapper;
+    private final Map<Type, TypedConverter<?>> convertersByType = new ConcurrentHashMap<>();
 
     protected PayloadConverterImpl(ObjectMapper payloadMapper) {
         this.payloadMapper = payloadMapper;
@@ -20,15 +25,21 @@ public class PayloadConverterImpl implements PayloadConverter {
      * {@inheritDoc}
      */
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T getAs(Object source, Class<T> destClass) {
-        return Utils.convert(source, destClass, payloadMapper);
+        TypedConverter<T> converter = (TypedConverter<T>) convertersByType.computeIfAbsent(destClass,
+                key -> new TypedConverter<>(destClass, payloadMapper));
+        return converter.convert(source);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T getAs(Object source, TypeReference<T> destTypeReference) {
-        return Utils.convert(source, destTypeReference, payloadMapper);
+        TypedConverter<T> converter = (TypedConverter<T>) convertersByType.computeIfAbsent(destTypeReference.getType(),
+                key -> new TypedConverter<>(destTypeReference, payloadMapper));
+        return converter.convert(source);
     }
 }
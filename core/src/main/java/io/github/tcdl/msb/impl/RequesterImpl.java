@@ -8,9 +8,14 @@ import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.collector.Collector;
 import io.github.tcdl.msb.events.EventHandlers;
 import io.github.tcdl.msb.message.MessageFactory;
+import io.github.tcdl.msb.support.TypedConverter;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.Validate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
@@ -29,7 +34,8 @@ public class RequesterImpl<T> implements Requester<T> {
     private MessageFactory messageFactory;
     private String namespace;
     EventHandlers<T> eventHandlers;
-    private TypeReference<T> payloadTypeReference;
+    private TypedConverter<T> payloadConverter;
+    private boolean directReply;
 
     /**
      * Creates a new instance of a requester.
@@ -40,10 +46,21 @@ public class RequesterImpl<T> implements Requester<T> {
      * @return instance of a requester
      */
     static <T> RequesterImpl<T> create(String namespace, RequestOptions requestOptions, MsbContextImpl context, TypeReference<T> payloadTypeReference) {
-        return new RequesterImpl<>(namespace, requestOptions, context, payloadTypeReference);
+        return new RequesterImpl<>(namespace, requestOptions, context, payloadTypeReference, false);
     }
 
-    private RequesterImpl(String namespace, RequestOptions requestOptions, MsbContextImpl context, TypeReference<T> payloadTypeReference) {
+    /**
+     * Creates a new instance of a requester that expects its responses on the direct reply topic of the adapter if there is one.
+     *
+     * @see ChannelManager#getDirectReplyTopic()
+     */
+    static <T> RequesterImpl<T> createWithDirectReply(String namespace, RequestOptions requestOptions, MsbContextImpl context,
+            TypeReference<T> payloadTypeReference) {
+        return new RequesterImpl<>(namespace, requestOptions, context, payloadTypeReference, true);
+    }
+
+    private RequesterImpl(String namespace, RequestOptions requestOptions, MsbContextImpl context, TypeReference<T> payloadTypeReference,
+            boolean directReply) {
         Validate.notNull(namespace, "the 'namespace' must not be null");
         Validate.notNull(requestOptions, "the 'messageOptions' must not be null");
         Validate.notNull(context, "the 'context' must not be null");
@@ -51,7 +68,9 @@ public class RequesterImpl<T> implements Requester<T> {
         this.namespace = namespace;
         this.requestOptions = requestOptions;
         this.context = context;
-        this.payloadTypeReference = payloadTypeReference;
+        // fire-and-forget requesters don't collect responses and have no payload type
+        this.payloadConverter = payloadTypeReference != null ? new TypedConverter<>(payloadTypeReference, context.getPayloadMapper()) : null;
+        this.directReply = directReply;
 
         this.eventHandlers = new EventHandlers<>();
         this.messageFactory = context.getMessageFactory();
@@ -141,28 +160,51 @@ public class RequesterImpl<T> implements Requester<T> {
         publish(false, requestOptions, requestPayload, originalMessage, tags);
     }
 
-    private void publish(boolean invokeHandlersDirectly, RequestOptions requestOptions, Object requestPayload, Message originalMessage, String... tags) {
-        MessageTemplate messageTemplate = MessageTemplate.copyOf(requestOptions.getMessageTemplate());
-        if (tags != null) {
-            for(String tag: tags) {
-                if(tag != null) {
-                    messageTemplate.addTag(tag);
-                }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publishAll(Collection<?> requestPayloads) {
+        Validate.notNull(requestPayloads, "the 'requestPayloads' must not be null");
+        List<Message> messages = new ArrayList<>(requestPayloads.size());
+        for (Object requestPayload : requestPayloads) {
+            messages.add(createMessage(requestOptions, requestPayload, null, ArrayUtils.EMPTY_STRING_ARRAY));
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        // all messages are created with the same options and so go to the same topic
+        String topic = messages.get(0).getTopics().getTo();
+
+        if (isWaitForAckMs() || isWaitForResponses()) {
+            List<Collector> collectors = new ArrayList<>(messages.size());
+            for (Message message : messages) {
+                Collector collector = createCollector(message.getTopics().getResponse(), message, requestOptions, context, eventHandlers, false);
+                collector.listenForResponses();
+                collectors.add(collector);
             }
+
+            getChannelManager().findOrCreateProducer(topic)
+                    .publishBatch(messages);
+
+            collectors.forEach(Collector::waitForResponses);
+        } else {
+            getChannelManager().findOrCreateProducer(topic)
+                    .publishBatch(messages);
         }
-        Message.Builder messageBuilder = messageFactory.createRequestMessageBuilder(
-                namespace,
-                requestOptions.getForwardNamespace(),
-                messageTemplate,
-                originalMessage);
+    }
 
-        Message message = messageFactory.createRequestMessage(messageBuilder, requestPayload);
+    private void publish(boolean invokeHandlersDirectly, RequestOptions requestOptions, Object requestPayload, Message originalMessage, String... tags) {
+        Message message = createMessage(requestOptions, requestPayload, originalMessage, tags);
 
         //use Collector instance to handle expected responses/acks
         if (isWaitForAckMs() || isWaitForResponses()) {
             String topic = message.getTopics().getResponse();
 
             Collector collector = createCollector(topic, message, requestOptions, context, eventHandlers, invokeHandlersDirectly);
+            if (collector.endIfDeadlinePassed()) {
+                return;
+            }
             collector.listenForResponses();
 
             getChannelManager().findOrCreateProducer(message.getTopics().getTo())
@@ -175,6 +217,32 @@ public class RequesterImpl<T> implements Requester<T> {
         }
     }
 
+    private Message createMessage(RequestOptions requestOptions, Object requestPayload, Message originalMessage, String... tags) {
+        MessageTemplate messageTemplate = MessageTemplate.copyOf(requestOptions.getMessageTemplate());
+        if (tags != null) {
+            for(String tag: tags) {
+                if(tag != null) {
+                    messageTemplate.addTag(tag);
+                }
+            }
+        }
+        Optional<String> directReplyTopic = directReply ? getChannelManager().getDirectReplyTopic() : Optional.empty();
+        Message.Builder messageBuilder = directReplyTopic.isPresent()
+                ? messageFactory.createRequestMessageBuilder(
+                        namespace,
+                        requestOptions.getForwardNamespace(),
+                        directReplyTopic.get(),
+                        messageTemplate,
+                        originalMessage)
+                : messageFactory.createRequestMessageBuilder(
+                        namespace,
+                        requestOptions.getForwardNamespace(),
+                        messageTemplate,
+                        originalMessage);
+
+        return messageFactory.createRequestMessage(messageBuilder, requestPayload);
+    }
+
     private boolean isWaitForAckMs() {
         return requestOptions.getAckTimeout() != null && requestOptions.getAckTimeout() != 0;
     }
@@ -232,6 +300,6 @@ public class RequesterImpl<T> implements Requester<T> {
     }
 
     Collector<T> createCollector(String topic, Message requestMessage, RequestOptions requestOptions, MsbContextImpl context, EventHandlers<T> eventHandlers, boolean invokeHandlersDirectly) {
-        return new Collector<>(topic, requestMessage, requestOptions, context, eventHandlers, payloadTypeReference, invokeHandlersDirectly);
+        return new Collector<>(topic, requestMessage, requestOptions, context, eventHandlers, payloadConverter, invokeHandlersDirectly);
     }
 }
@@ -8,6 +8,7 @@ import io.github.tcdl.msb.api.Responder;
 import io.github.tcdl.msb.api.message.Acknowledge.Builder;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.message.MessageFactory;
+import io.github.tcdl.msb.message.PreparedEnvelope;
 import io.github.tcdl.msb.support.Utils;
 
 import org.apache.commons.lang3.Validate;
@@ -22,6 +23,8 @@ public class ResponderImpl implements Responder {
     private ChannelManager channelManager;
     private MessageFactory messageFactory;
     private Message.Builder messageBuilder;
+    // may be prepared more than once by concurrent senders, it is immutable
+    private PreparedEnvelope envelope;
 
     public ResponderImpl(MessageTemplate messageTemplate, Message originalMessage, 
             MsbContextImpl msbContext) {
@@ -37,8 +40,7 @@ public class ResponderImpl implements Responder {
      */
     @Override
     public void sendAck(Integer timeoutMs, Integer responsesRemaining) {
-        Builder ackBuilder = this.messageFactory.createAckBuilder();
-        ackBuilder.withResponderId(responderId);
+        Builder ackBuilder = this.messageFactory.createAckBuilder(responderId);
         ackBuilder.withTimeoutMs(timeoutMs != null && timeoutMs > -1 ? timeoutMs : null);
         ackBuilder.withResponsesRemaining(responsesRemaining == null ? 1 : responsesRemaining);
 
@@ -51,8 +53,7 @@ public class ResponderImpl implements Responder {
      */
     @Override
     public void send(Object responsePayload) {
-        Builder ackBuilder = this.messageFactory.createAckBuilder();
-        ackBuilder.withResponderId(responderId);
+        Builder ackBuilder = this.messageFactory.createAckBuilder(responderId);
         ackBuilder.withResponsesRemaining(-1);
 
         Message message = this.messageFactory.createResponseMessage(this.messageBuilder, ackBuilder.build(), responsePayload);
@@ -60,9 +61,15 @@ public class ResponderImpl implements Responder {
     }
 
     private void sendMessage(Message message) {
-        Producer producer = channelManager.findOrCreateProducer(message.getTopics().getTo());
+        Producer producer = channelManager.findOrCreateProducer(message.getTopics().getTo(), true);
         LOG.debug("Publishing message to topic : {}", message.getTopics().getTo());
-        producer.publish(message);
+        // all responses are built by the same builder, so their envelope is serialized once
+        PreparedEnvelope preparedEnvelope = envelope;
+        if (preparedEnvelope == null) {
+            preparedEnvelope = producer.prepareEnvelope(message);
+            envelope = preparedEnvelope;
+        }
+        producer.publish(message, preparedEnvelope);
     }
 
     private void validateReceivedMessage(Message originalMessage) {
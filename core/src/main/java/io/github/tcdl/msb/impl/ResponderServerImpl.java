@@ -3,8 +3,10 @@ package io.github.tcdl.msb.impl;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.tcdl.msb.ChannelManager;
+import io.github.tcdl.msb.MessageHandler;
 import io.github.tcdl.msb.api.*;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.TypedConverter;
 import io.github.tcdl.msb.support.Utils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
@@ -18,24 +20,24 @@ public class ResponderServerImpl<T> implements ResponderServer {
     private String namespace;
     private MsbContextImpl msbContext;
     private MessageTemplate messageTemplate;
+    private ResponderOptions responderOptions;
     private RequestHandler<T> requestHandler;
     private Optional<ErrorHandler> errorHandler;
-    private ObjectMapper payloadMapper;
-    private TypeReference<T> payloadTypeReference;
+    private TypedConverter<T> payloadConverter;
 
     private ResponderServerImpl(String namespace,
-            MessageTemplate messageTemplate,
+            ResponderOptions responderOptions,
             MsbContextImpl msbContext,
             RequestHandler<T> requestHandler,
             ErrorHandler errorHandler,
             TypeReference<T> payloadTypeReference) {
         this.namespace = namespace;
-        this.messageTemplate = messageTemplate;
+        this.responderOptions = responderOptions;
+        this.messageTemplate = responderOptions.getMessageTemplate();
         this.msbContext = msbContext;
         this.requestHandler = requestHandler;
         this.errorHandler = Optional.ofNullable(errorHandler);
-        this.payloadMapper = msbContext.getPayloadMapper();
-        this.payloadTypeReference = payloadTypeReference;
+        this.payloadConverter = new TypedConverter<>(payloadTypeReference, msbContext.getPayloadMapper());
         Validate.notNull(requestHandler, "requestHandler must not be null");
     }
 
@@ -44,7 +46,17 @@ public class ResponderServerImpl<T> implements ResponderServer {
      */
     static <T> ResponderServerImpl<T> create(String namespace,  MessageTemplate messageTemplate, MsbContextImpl msbContext,
             RequestHandler<T> requestHandler,  ErrorHandler errorHandler, TypeReference<T> payloadTypeReference) {
-        return new ResponderServerImpl<>(namespace, messageTemplate, msbContext, requestHandler, errorHandler, payloadTypeReference);
+        ResponderOptions responderOptions = new ResponderOptions.Builder().withMessageTemplate(messageTemplate).build();
+        return create(namespace, responderOptions, msbContext, requestHandler, errorHandler, payloadTypeReference);
+    }
+
+    /**
+     * {@link io.github.tcdl.msb.api.ObjectFactory#createResponderServer(String, ResponderOptions, RequestHandler, ErrorHandler, TypeReference)}
+     */
+    static <T> ResponderServerImpl<T> create(String namespace, ResponderOptions responderOptions, MsbContextImpl msbContext,
+            RequestHandler<T> requestHandler, ErrorHandler errorHandler, TypeReference<T> payloadTypeReference) {
+        Validate.notNull(responderOptions, "responderOptions must not be null");
+        return new ResponderServerImpl<>(namespace, responderOptions, msbContext, requestHandler, errorHandler, payloadTypeReference);
     }
 
     /**
@@ -59,13 +71,14 @@ public class ResponderServerImpl<T> implements ResponderServer {
     public ResponderServer listen() {
         ChannelManager channelManager = msbContext.getChannelManager();
 
-        channelManager.subscribe(namespace,
-                (incomingMessage, acknowledgeHandler) -> {
-                    LOG.debug("[{}] Received message with id: [{}]", namespace, incomingMessage.getId());
-                    Responder responder = createResponder(incomingMessage);
-                    ResponderContext responderContext = createResponderContext(responder, acknowledgeHandler, incomingMessage);
-                    onResponder(responderContext);
-                });
+        MessageHandler messageHandler = (incomingMessage, acknowledgeHandler) -> {
+            LOG.debug("[{}] Received message with id: [{}]", namespace, incomingMessage.getId());
+            Responder responder = createResponder(incomingMessage);
+            ResponderContext responderContext = createResponderContext(responder, acknowledgeHandler, incomingMessage);
+            onResponder(responderContext);
+        };
+
+        channelManager.subscribe(namespace, messageHandler, responderOptions);
 
         return this;
     }
@@ -87,7 +100,7 @@ public class ResponderServerImpl<T> implements ResponderServer {
         Object rawPayload = originalMessage.getRawPayload();
         try {
             MsbThreadContext.setMessageContext(responderContext);
-            T request = Utils.convert(rawPayload, payloadTypeReference, payloadMapper);
+            T request = payloadConverter.convert(rawPayload);
             LOG.debug("[{}] Process message with id: [{}]", namespace, originalMessage.getId());
             requestHandler.process(request, responderContext);
         } catch (Exception e) {
@@ -0,0 +1,17 @@
+package io.github.tcdl.msb.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("msb.CollectorEnded")
+@Label("Collector Ended")
+class CollectorEndedEvent extends MessageEvent {
+
+    @Label("Timed Out")
+    boolean timedOut;
+
+    @Override
+    MessageEvent newEvent() {
+        return new CollectorEndedEvent();
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.tcdl.msb.jfr;
+
+/**
+ * The only class besides the events that refers to the flight recorder API, it is loaded only if the API is available.
+ */
+class FlightRecorderEvents {
+
+    // instances of each event type indexed by MessageEventType ordinals, used to check if the type is enabled
+    private static final MessageEvent[] EVENTS = {
+            new MessageReceivedEvent(),
+            new MessageParsedEvent(),
+            new MessageQueuedEvent(),
+            new MessageDequeuedEvent(),
+            new HandlerExecutedEvent(),
+            new MessageAckedEvent(),
+            new MessagePublishedEvent(),
+            new CollectorEndedEvent()
+    };
+
+    private FlightRecorderEvents() {
+    }
+
+    static Object begin(MessageEventType type) {
+        MessageEvent prototype = EVENTS[type.ordinal()];
+        if (!prototype.isEnabled()) {
+            return null;
+        }
+        MessageEvent event = prototype.newEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commit(Object event, String topic, String correlationId) {
+        MessageEvent messageEvent = (MessageEvent) event;
+        messageEvent.topic = topic;
+        messageEvent.correlationId = correlationId;
+        messageEvent.commit();
+    }
+
+    static void commitAck(Object event, String topic, String correlationId, String action, String consumer) {
+        MessageAckedEvent ackedEvent = (MessageAckedEvent) event;
+        ackedEvent.action = action;
+        ackedEvent.consumer = consumer;
+        commit(ackedEvent, topic, correlationId);
+    }
+
+    static void commitHandlerExecuted(Object event, String topic, String correlationId, boolean failed) {
+        HandlerExecutedEvent executedEvent = (HandlerExecutedEvent) event;
+        executedEvent.failed = failed;
+        commit(executedEvent, topic, correlationId);
+    }
+
+    static void commitCollectorEnded(Object event, String topic, String correlationId, boolean timedOut) {
+        CollectorEndedEvent endedEvent = (CollectorEndedEvent) event;
+        endedEvent.timedOut = timedOut;
+        commit(endedEvent, topic, correlationId);
+    }
+}
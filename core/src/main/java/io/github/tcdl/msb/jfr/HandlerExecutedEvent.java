@@ -0,0 +1,17 @@
+package io.github.tcdl.msb.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("msb.HandlerExecuted")
+@Label("Handler Executed")
+class HandlerExecutedEvent extends MessageEvent {
+
+    @Label("Failed")
+    boolean failed;
+
+    @Override
+    MessageEvent newEvent() {
+        return new HandlerExecutedEvent();
+    }
+}
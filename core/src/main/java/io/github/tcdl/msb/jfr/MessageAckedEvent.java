@@ -0,0 +1,20 @@
+package io.github.tcdl.msb.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("msb.MessageAcked")
+@Label("Message Acknowledged")
+class MessageAckedEvent extends MessageEvent {
+
+    @Label("Action")
+    String action;
+
+    @Label("Consumer")
+    String consumer;
+
+    @Override
+    MessageEvent newEvent() {
+        return new MessageAckedEvent();
+    }
+}
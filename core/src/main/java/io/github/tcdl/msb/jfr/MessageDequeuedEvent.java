@@ -0,0 +1,14 @@
+package io.github.tcdl.msb.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("msb.MessageDequeued")
+@Label("Message Dequeued")
+class MessageDequeuedEvent extends MessageEvent {
+
+    @Override
+    MessageEvent newEvent() {
+        return new MessageDequeuedEvent();
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.tcdl.msb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base class of the flight recorder events of the message lifecycle. The duration of an event is the time between
+ * {@link MessageEvents#begin(MessageEventType)} and its commit.
+ */
+@Category({"MSB", "Messages"})
+abstract class MessageEvent extends Event {
+
+    @Label("Topic")
+    String topic;
+
+    @Label("Correlation Id")
+    String correlationId;
+
+    abstract MessageEvent newEvent();
+}
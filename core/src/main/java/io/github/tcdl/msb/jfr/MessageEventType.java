@@ -0,0 +1,24 @@
+package io.github.tcdl.msb.jfr;
+
+/**
+ * Steps of the message lifecycle reported to Java Flight Recorder by {@link MessageEvents}.
+ */
+public enum MessageEventType {
+
+    /** A message has been delivered by the broker, the event is committed once the message has been parsed or acknowledged */
+    RECEIVED,
+    /** A message has been validated and parsed */
+    PARSED,
+    /** A message has been put into the queue of a thread pool */
+    QUEUED,
+    /** A message has been taken from the queue of a thread pool, the duration is the time it has spent in the queue */
+    DEQUEUED,
+    /** A message handler has returned or thrown an exception */
+    HANDLER_EXECUTED,
+    /** A message has been confirmed, requeued or rejected */
+    ACKED,
+    /** A message has been published */
+    PUBLISHED,
+    /** A collector has received all the expected responses or timed out, the duration is the lifetime of the collector */
+    COLLECTOR_ENDED
+}
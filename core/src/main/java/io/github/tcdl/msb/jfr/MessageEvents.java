@@ -0,0 +1,103 @@
+package io.github.tcdl.msb.jfr;
+
+import io.github.tcdl.msb.api.message.Message;
+
+/**
+ * Reports the message lifecycle to Java Flight Recorder as "msb.*" events carrying the topic and the correlation id of the message.
+ *
+ * An event is begun by {@link #begin(MessageEventType)} and committed by one of the commit methods, its duration is the time in between.
+ * If the flight recorder API is not available in the JVM or the event type is not enabled in any running recording, {@link #begin(MessageEventType)}
+ * returns null without allocating anything and committing null does nothing. Events are passed around as plain objects so that
+ * callers don't depend on the flight recorder API.
+ */
+public class MessageEvents {
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private MessageEvents() {
+    }
+
+    /**
+     * @return begun event or null if it is not going to be recorded
+     */
+    public static Object begin(MessageEventType type) {
+        return AVAILABLE ? FlightRecorderEvents.begin(type) : null;
+    }
+
+    /**
+     * Records an event without duration.
+     */
+    public static void record(MessageEventType type, String topic, String correlationId) {
+        commit(begin(type), topic, correlationId);
+    }
+
+    /**
+     * Records an event of the message without duration.
+     */
+    public static void record(MessageEventType type, Message message) {
+        commit(begin(type), message);
+    }
+
+    /**
+     * @param event event returned by {@link #begin(MessageEventType)}, may be null
+     */
+    public static void commit(Object event, String topic, String correlationId) {
+        if (event != null) {
+            FlightRecorderEvents.commit(event, topic, correlationId);
+        }
+    }
+
+    /**
+     * Commits the event with the destination topic and the correlation id of the message.
+     *
+     * @param event event returned by {@link #begin(MessageEventType)}, may be null
+     */
+    public static void commit(Object event, Message message) {
+        if (event != null) {
+            String topic = message.getTopics() != null ? message.getTopics().getTo() : null;
+            FlightRecorderEvents.commit(event, topic, message.getCorrelationId());
+        }
+    }
+
+    /**
+     * @param event {@link MessageEventType#ACKED} event returned by {@link #begin(MessageEventType)}, may be null
+     * @param correlationId correlation id of the message, null if it has not been parsed
+     * @param action "confirm", "requeue" or "reject"
+     * @param consumer identifier of the consumer that has received the message
+     */
+    public static void commitAck(Object event, String topic, String correlationId, String action, String consumer) {
+        if (event != null) {
+            FlightRecorderEvents.commitAck(event, topic, correlationId, action, consumer);
+        }
+    }
+
+    /**
+     * @param event {@link MessageEventType#HANDLER_EXECUTED} event returned by {@link #begin(MessageEventType)}, may be null
+     * @param failed true if the handler has thrown an exception
+     */
+    public static void commitHandlerExecuted(Object event, Message message, boolean failed) {
+        if (event != null) {
+            String topic = message.getTopics() != null ? message.getTopics().getTo() : null;
+            FlightRecorderEvents.commitHandlerExecuted(event, topic, message.getCorrelationId(), failed);
+        }
+    }
+
+    /**
+     * @param event {@link MessageEventType#COLLECTOR_ENDED} event returned by {@link #begin(MessageEventType)}, may be null
+     * @param timedOut true if the collector has ended before all expected responses and acks had been received
+     */
+    public static void commitCollectorEnded(Object event, String topic, String correlationId, boolean timedOut) {
+        if (event != null) {
+            FlightRecorderEvents.commitCollectorEnded(event, topic, correlationId, timedOut);
+        }
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.tcdl.msb.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("msb.MessageParsed")
+@Label("Message Parsed")
+class MessageParsedEvent extends MessageEvent {
+
+    @Override
+    MessageEvent newEvent() {
+        return new MessageParsedEvent();
+    }
+}
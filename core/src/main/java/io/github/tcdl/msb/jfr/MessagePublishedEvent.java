@@ -0,0 +1,14 @@
+package io.github.tcdl.msb.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("msb.MessagePublished")
+@Label("Message Published")
+class MessagePublishedEvent extends MessageEvent {
+
+    @Override
+    MessageEvent newEvent() {
+        return new MessagePublishedEvent();
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.tcdl.msb.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("msb.MessageQueued")
+@Label("Message Queued")
+class MessageQueuedEvent extends MessageEvent {
+
+    @Override
+    MessageEvent newEvent() {
+        return new MessageQueuedEvent();
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.tcdl.msb.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("msb.MessageReceived")
+@Label("Message Received")
+class MessageReceivedEvent extends MessageEvent {
+
+    @Override
+    MessageEvent newEvent() {
+        return new MessageReceivedEvent();
+    }
+}
@@ -9,27 +9,54 @@ import io.github.tcdl.msb.api.message.MetaMessage;
 import io.github.tcdl.msb.api.message.MetaMessage.Builder;
 import io.github.tcdl.msb.api.message.Topics;
 import io.github.tcdl.msb.config.ServiceDetails;
+import io.github.tcdl.msb.support.CorrelationIds;
 import io.github.tcdl.msb.support.Utils;
 import org.apache.commons.lang3.Validate;
 
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class MessageFactory {
 
+    static final long DEFAULT_FULL_SERVICE_DETAILS_INTERVAL_MS = 60000;
+
     private ServiceDetails serviceDetails;
     private Clock clock;
     private ObjectMapper payloadMapper;
+    private boolean compactServiceDetails;
+    private long fullServiceDetailsIntervalMs;
+    private final Map<String, Long> fullServiceDetailsSentAtByTopic = new ConcurrentHashMap<>();
 
     public MessageFactory(ServiceDetails serviceDetails, Clock clock, ObjectMapper payloadMapper) {
+        this(serviceDetails, clock, payloadMapper, false);
+    }
+
+    /**
+     * @param compactServiceDetails put only the instance id into the meta of messages except announcements and heartbeat responses
+     */
+    public MessageFactory(ServiceDetails serviceDetails, Clock clock, ObjectMapper payloadMapper, boolean compactServiceDetails) {
+        this(serviceDetails, clock, payloadMapper, compactServiceDetails, DEFAULT_FULL_SERVICE_DETAILS_INTERVAL_MS);
+    }
+
+    /**
+     * @param compactServiceDetails        put only the instance id into the meta of messages except announcements and heartbeat responses
+     * @param fullServiceDetailsIntervalMs in compact mode the first message to each topic and then one per this interval carry
+     *                                     the full service details
+     */
+    public MessageFactory(ServiceDetails serviceDetails, Clock clock, ObjectMapper payloadMapper, boolean compactServiceDetails,
+            long fullServiceDetailsIntervalMs) {
         Validate.notNull(serviceDetails, "'serviceDetails' must not be null");
         Validate.notNull(clock, "'clock' must not be null");
         Validate.notNull(clock, "'payloadMapper' must not be null");
         this.serviceDetails = serviceDetails;
         this.clock = clock;
         this.payloadMapper = payloadMapper;
+        this.compactServiceDetails = compactServiceDetails;
+        this.fullServiceDetailsIntervalMs = fullServiceDetailsIntervalMs;
     }
 
     public Message createRequestMessage(Message.Builder messageBuilder, Object payload) {
@@ -49,9 +76,18 @@ public class MessageFactory {
         return createRequestMessage(messageBuilder, payload);
     }
 
+    /**
+     * If {@literal originalMessage} is provided, the request inherits its expiry time as a deadline so that
+     * the downstream work is cancelled once the original caller is not waiting any more.
+     */
     public Message.Builder createRequestMessageBuilder(String namespace, String forwardNamespace, MessageTemplate messageTemplate, Message originalMessage) {
-        Topics topic = new Topics(namespace, namespace + ":response:" +
-                this.serviceDetails.getInstanceId(), forwardNamespace);
+        return createRequestMessageBuilder(namespace, forwardNamespace, namespace + ":response:" + this.serviceDetails.getInstanceId(),
+                messageTemplate, originalMessage);
+    }
+
+    public Message.Builder createRequestMessageBuilder(String namespace, String forwardNamespace, String responseTopic, MessageTemplate messageTemplate,
+            Message originalMessage) {
+        Topics topic = new Topics(namespace, responseTopic, forwardNamespace);
         return createMessageBuilder(topic, messageTemplate, originalMessage, false);
     }
 
@@ -69,11 +105,26 @@ public class MessageFactory {
         return new Acknowledge.Builder().withResponderId(Utils.generateId());
     }
 
+    /**
+     * Unlike {@link #createAckBuilder()} doesn't generate a responder id that would be replaced anyway.
+     */
+    public Acknowledge.Builder createAckBuilder(String responderId) {
+        return new Acknowledge.Builder().withResponderId(responderId);
+    }
+
     private Message.Builder createMessageBuilder(Topics topics, MessageTemplate messageTemplate, Message originalMessage, boolean isResponseMessage) {
         Message.Builder messageBuilder = new Message.Builder().withId(Utils.generateId());
         messageBuilder.withTags(createTags(messageTemplate, originalMessage));
         messageBuilder.withTopics(topics);
-        messageBuilder.withMetaBuilder(createMetaBuilder(messageTemplate));
+        Builder metaBuilder = createMetaBuilder(messageTemplate);
+        // announcements and heartbeat responses carry the full service details for the monitoring aggregator
+        if (compactServiceDetails && !isMonitoringTopic(topics.getTo()) && !isFullServiceDetailsDue(topics.getTo())) {
+            metaBuilder.withCompactServiceDetails();
+        }
+        if (!isResponseMessage && originalMessage != null) {
+            Utils.getExpiryTime(originalMessage).ifPresent(metaBuilder::withDeadline);
+        }
+        messageBuilder.withMetaBuilder(metaBuilder);
         if (isResponseMessage) {
             messageBuilder.withCorrelationId(createCorrelationId(originalMessage));
         } else {
@@ -82,6 +133,27 @@ public class MessageFactory {
         return messageBuilder;
     }
 
+    /**
+     * Receivers learn the service details of compact messages from the full ones, see {@link ServiceDetailsRegistry}.
+     */
+    private boolean isFullServiceDetailsDue(String topic) {
+        long now = clock.millis();
+        Long sentAt = fullServiceDetailsSentAtByTopic.get(topic);
+        if (sentAt != null && now - sentAt < fullServiceDetailsIntervalMs) {
+            return false;
+        }
+        if (fullServiceDetailsSentAtByTopic.size() >= ServiceDetailsRegistry.MAX_SIZE) {
+            // response topics come and go with requesters
+            fullServiceDetailsSentAtByTopic.clear();
+        }
+        fullServiceDetailsSentAtByTopic.put(topic, now);
+        return true;
+    }
+
+    private boolean isMonitoringTopic(String topic) {
+        return topic != null && (topic.startsWith(Utils.TOPIC_ANNOUNCE) || topic.startsWith(Utils.TOPIC_HEARTBEAT));
+    }
+
     private Builder createMetaBuilder(MessageTemplate config) {
         Integer ttl = (config == null) ? null : config.getTtl();
         return new MetaMessage.Builder(ttl, clock.instant(), this.serviceDetails, clock);
@@ -91,7 +163,7 @@ public class MessageFactory {
         if (originalMessage != null && originalMessage.getCorrelationId() != null) {
             return originalMessage.getCorrelationId();
         } else {
-            return Utils.generateId();
+            return CorrelationIds.generate();
         }
     }
 
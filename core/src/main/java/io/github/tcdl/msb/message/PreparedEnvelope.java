@@ -0,0 +1,178 @@
+package io.github.tcdl.msb.message;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.tcdl.msb.api.exception.JsonConversionException;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MetaMessage;
+import io.github.tcdl.msb.support.Utils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Envelope of the messages built by the same {@link Message.Builder}, e.g. all responses of a responder. The parts that
+ * the messages share (id, correlation id, tags, topics, ttl, creation time, service details or instance id and deadline) are serialized
+ * once and only the publishing time, the duration, the acknowledgement and the payload are serialized for each message.
+ * All fields of a message are written through a single {@link JsonGenerator}.
+ *
+ * The JSON written by {@link #toJsonBytes(Message)} is equal to the one of the message mapper. The envelope checks this
+ * for the template when it's created and {@link #matches(Message) matches} no message if the output differs or the mapper
+ * includes properties other than by nullness, so that such messages are serialized by the mapper.
+ */
+public class PreparedEnvelope {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PreparedEnvelope.class);
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString CORRELATION_ID = new SerializedString("correlationId");
+    private static final SerializableString TAGS = new SerializedString("tags");
+    private static final SerializableString TOPICS = new SerializedString("topics");
+    private static final SerializableString META = new SerializedString("meta");
+    private static final SerializableString TTL = new SerializedString("ttl");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString PUBLISHED_AT = new SerializedString("publishedAt");
+    private static final SerializableString DURATION_MS = new SerializedString("durationMs");
+    private static final SerializableString SERVICE_DETAILS = new SerializedString("serviceDetails");
+    private static final SerializableString INSTANCE_ID = new SerializedString("instanceId");
+    private static final SerializableString DEADLINE = new SerializedString("deadline");
+    private static final SerializableString ACK = new SerializedString("ack");
+    private static final SerializableString PAYLOAD = new SerializedString("payload");
+
+    private final Message template;
+    private final ObjectMapper messageMapper;
+    private final ObjectWriter writer;
+    private final boolean includeNulls;
+
+    private final SerializableString id;
+    private final SerializableString correlationId;
+    private final SerializableString tags;
+    private final SerializableString topics;
+    private final SerializableString ttl;
+    private final SerializableString createdAt;
+    private final SerializableString serviceDetails;
+    private final SerializableString instanceId;
+    private final SerializableString deadline;
+    private final boolean usable;
+
+    /**
+     * @param template any message built by the builder
+     * @throws JsonConversionException if the shared parts can't be serialized
+     */
+    public PreparedEnvelope(Message template, ObjectMapper messageMapper) {
+        Validate.notNull(template, "the 'template' must not be null");
+        Validate.notNull(messageMapper, "the 'messageMapper' must not be null");
+        this.template = template;
+        this.messageMapper = messageMapper;
+        this.writer = messageMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonInclude.Include inclusion = messageMapper.getSerializationConfig().getDefaultPropertyInclusion().getValueInclusion();
+        this.includeNulls = inclusion == JsonInclude.Include.ALWAYS;
+
+        MetaMessage meta = template.getMeta();
+        this.id = prepare(template.getId());
+        this.correlationId = prepare(template.getCorrelationId());
+        this.tags = prepare(template.getTags());
+        this.topics = prepare(template.getTopics());
+        this.ttl = prepare(meta.getTtl());
+        this.createdAt = prepare(meta.getCreatedAt());
+        this.serviceDetails = prepare(meta.getServiceDetails());
+        this.instanceId = prepare(meta.getServiceDetails() == null ? meta.getInstanceId() : null);
+        this.deadline = prepare(meta.getDeadline());
+
+        boolean supportedInclusion = includeNulls || inclusion == JsonInclude.Include.NON_NULL;
+        this.usable = supportedInclusion && Arrays.equals(write(template), Utils.toJsonBytes(template, messageMapper));
+        if (!usable) {
+            LOG.warn("Prepared envelope doesn't reproduce the message mapper output, messages are serialized by the mapper");
+        }
+    }
+
+    /**
+     * @return true if the message shares all the prepared parts of the envelope
+     */
+    public boolean matches(Message message) {
+        MetaMessage meta = message.getMeta();
+        MetaMessage templateMeta = template.getMeta();
+        return usable
+                && message.getId() == template.getId()
+                && message.getCorrelationId() == template.getCorrelationId()
+                && message.getTags() == template.getTags()
+                && message.getTopics() == template.getTopics()
+                && meta.getTtl() == templateMeta.getTtl()
+                && meta.getCreatedAt() == templateMeta.getCreatedAt()
+                && meta.getServiceDetails() == templateMeta.getServiceDetails()
+                && meta.getInstanceId() == templateMeta.getInstanceId()
+                && meta.getDeadline() == templateMeta.getDeadline();
+    }
+
+    /**
+     * Serializes the message that {@link #matches(Message)} the envelope to JSON encoded in UTF-8.
+     *
+     * @throws JsonConversionException if some problems during parsing to JSON
+     */
+    public byte[] toJsonBytes(Message message) {
+        if (!usable) {
+            return Utils.toJsonBytes(message, messageMapper);
+        }
+        return write(message);
+    }
+
+    private byte[] write(Message message) {
+        MetaMessage meta = message.getMeta();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (JsonGenerator generator = messageMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            writePrepared(generator, ID, id, true);
+            writePrepared(generator, CORRELATION_ID, correlationId, true);
+            writePrepared(generator, TAGS, tags, template.getTags() != null);
+            writePrepared(generator, TOPICS, topics, true);
+            generator.writeFieldName(META);
+            generator.writeStartObject();
+            writePrepared(generator, TTL, ttl, template.getMeta().getTtl() != null);
+            writePrepared(generator, CREATED_AT, createdAt, template.getMeta().getCreatedAt() != null);
+            writeValue(generator, PUBLISHED_AT, meta.getPublishedAt());
+            writeValue(generator, DURATION_MS, meta.getDurationMs());
+            writePrepared(generator, SERVICE_DETAILS, serviceDetails, template.getMeta().getServiceDetails() != null);
+            writePrepared(generator, INSTANCE_ID, instanceId,
+                    template.getMeta().getServiceDetails() == null && template.getMeta().getInstanceId() != null);
+            writePrepared(generator, DEADLINE, deadline, template.getMeta().getDeadline() != null);
+            generator.writeEndObject();
+            writeValue(generator, ACK, message.getAck());
+            writeValue(generator, PAYLOAD, message.getRawPayload());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new JsonConversionException("Failed parse to JSON", e);
+        }
+        return out.toByteArray();
+    }
+
+    private void writePrepared(JsonGenerator generator, SerializableString name, SerializableString value, boolean notNull) throws IOException {
+        if (notNull || includeNulls) {
+            generator.writeFieldName(name);
+            generator.writeRawValue(value);
+        }
+    }
+
+    private void writeValue(JsonGenerator generator, SerializableString name, Object value) throws IOException {
+        if (value != null || includeNulls) {
+            generator.writeFieldName(name);
+            writer.writeValue(generator, value);
+        }
+    }
+
+    private SerializableString prepare(Object value) {
+        try {
+            return new SerializedString(writer.writeValueAsString(value));
+        } catch (IOException e) {
+            throw new JsonConversionException("Failed parse to JSON", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.tcdl.msb.message;
+
+import io.github.tcdl.msb.api.message.MetaMessage;
+import io.github.tcdl.msb.config.ServiceDetails;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service details of the instances that have sent messages, kept by instance id so that receivers of compact messages
+ * (see {@link MetaMessage#getInstanceId()}) can resolve them. Senders in compact mode put the full service details
+ * into the first message to each topic and repeat them periodically.
+ */
+public class ServiceDetailsRegistry {
+
+    /**
+     * Number of instances after which the registry starts over so that it doesn't grow with instances that are gone.
+     */
+    static final int MAX_SIZE = 10_000;
+
+    private final Map<String, ServiceDetails> serviceDetailsByInstanceId = new ConcurrentHashMap<>();
+
+    /**
+     * Remembers the service details of the message sender if the meta carries them.
+     */
+    public void register(MetaMessage meta) {
+        if (meta == null || meta.getServiceDetails() == null) {
+            return;
+        }
+        ServiceDetails serviceDetails = meta.getServiceDetails();
+        String instanceId = serviceDetails.getInstanceId();
+        // details of an instance don't change, so the known ones aren't replaced by each message
+        if (instanceId != null && !serviceDetailsByInstanceId.containsKey(instanceId)) {
+            if (serviceDetailsByInstanceId.size() >= MAX_SIZE) {
+                serviceDetailsByInstanceId.clear();
+            }
+            serviceDetailsByInstanceId.put(instanceId, serviceDetails);
+        }
+    }
+
+    /**
+     * @return details of the service instance, empty if no message with its full service details has been received
+     */
+    public Optional<ServiceDetails> find(String instanceId) {
+        return instanceId == null ? Optional.empty() : Optional.ofNullable(serviceDetailsByInstanceId.get(instanceId));
+    }
+
+    /**
+     * @return service details carried by the meta or registered for its instance id
+     */
+    public Optional<ServiceDetails> resolve(MetaMessage meta) {
+        if (meta.getServiceDetails() != null) {
+            return Optional.of(meta.getServiceDetails());
+        }
+        return find(meta.getInstanceId());
+    }
+}
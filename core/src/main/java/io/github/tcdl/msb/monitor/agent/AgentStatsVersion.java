@@ -0,0 +1,84 @@
+package io.github.tcdl.msb.monitor.agent;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Immutable version of the statistics sent by an agent in the headers of announcements and heartbeat responses.
+ *
+ * The version is increased with each message sent by the agent instance, the start time of the instance tells apart the versions
+ * of a restarted instance that reuses the instance id. A message of an instance with an older start time or a lower version
+ * than the last one received is stale.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AgentStatsVersion implements Comparable<AgentStatsVersion> {
+
+    /** Time when the agent instance was created */
+    private final Instant instanceStartedAt;
+
+    /** Sequence number of the message among the messages sent by the agent instance */
+    private final long statsVersion;
+
+    public AgentStatsVersion(@JsonProperty("instanceStartedAt") Instant instanceStartedAt, @JsonProperty("statsVersion") long statsVersion) {
+        this.instanceStartedAt = instanceStartedAt;
+        this.statsVersion = statsVersion;
+    }
+
+    public Instant getInstanceStartedAt() {
+        return instanceStartedAt;
+    }
+
+    public long getStatsVersion() {
+        return statsVersion;
+    }
+
+    /**
+     * @return true if the other version belongs to the same agent instance
+     */
+    public boolean isSameInstance(AgentStatsVersion other) {
+        return Objects.equals(instanceStartedAt, other.instanceStartedAt);
+    }
+
+    @Override
+    public int compareTo(AgentStatsVersion other) {
+        if (!isSameInstance(other)) {
+            if (instanceStartedAt == null) {
+                return -1;
+            }
+            if (other.instanceStartedAt == null) {
+                return 1;
+            }
+            int result = instanceStartedAt.compareTo(other.instanceStartedAt);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Long.compare(statsVersion, other.statsVersion);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AgentStatsVersion that = (AgentStatsVersion) o;
+        return statsVersion == that.statsVersion &&
+                Objects.equals(instanceStartedAt, that.instanceStartedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(instanceStartedAt, statsVersion);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AgentStatsVersion [instanceStartedAt=%s, statsVersion=%s]", instanceStartedAt, statsVersion);
+    }
+}
@@ -33,16 +33,18 @@ public interface ChannelMonitorAgent {
     void consumerTopicRemoved(String topicName);
 
     /**
-     * Fired when a message is sent to the given topic.
+     * Invoked once when topic producer is created.
      *
      * @param topicName
+     * @return recorder fired when a message is sent to the given topic
      */
-    void producerMessageSent(String topicName);
+    TopicStatsRecorder producerStatsRecorder(String topicName);
 
     /**
-     * Fired when a message is consumed from the given topic.
+     * Invoked once when consumer is created that listens to the messages on the given topic.
      *
      * @param topicName
+     * @return recorder fired when a message is consumed from the given topic
      */
-    void consumerMessageReceived(String topicName);
+    TopicStatsRecorder consumerStatsRecorder(String topicName);
 }
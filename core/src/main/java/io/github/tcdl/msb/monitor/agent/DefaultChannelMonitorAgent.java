@@ -10,37 +10,79 @@ import io.github.tcdl.msb.impl.MsbContextImpl;
 import io.github.tcdl.msb.impl.ResponderImpl;
 import io.github.tcdl.msb.message.MessageFactory;
 import io.github.tcdl.msb.support.Utils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This implementation maintains statistics over all topics. It broadcasts that statistics over the bus for special monitoring microservices. The overall
  * process consists of the following steps:
  *
- * 1. The agent sends an announcement message each time when a new consumer or producer is created for some topic
+ * 1. The agent sends an announcement message when a new consumer or producer is created for some topic. The message contains
+ * the statistics of the topics created since the previous announcement only. Topics created within the announce interval after
+ * an announcement are sent together when the interval elapses.
  * 2. The agent listens on special heartbeat topic for periodic heartbeat messages
- * 3. The agent sends the current statistics in response to the heartbeat.
+ * 3. The agent sends the current statistics of all topics in response to the heartbeat.
+ *
+ * The headers of each message contain the {@link AgentStatsVersion} that lets the aggregator ignore stale messages.
  */
 public class DefaultChannelMonitorAgent implements ChannelMonitorAgent {
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultChannelMonitorAgent.class);
+
     private MsbContextImpl msbContext;
     private ChannelManager channelManager;
     private MessageFactory messageFactory;
     private Clock clock;
+    private long announceIntervalMs;
+
+    private final Instant instanceStartedAt;
+    private final AtomicLong statsVersion = new AtomicLong();
+
+    /**
+     * This map contains statistics info per topic. The statistics are updated in place, snapshots of them are sent.
+     */
+    Map<String, MutableTopicStats> topicInfoMap = new ConcurrentHashMap<>();
 
     /**
-     * This map contains statistics info per topic.
+     * Topics created since the previous announcement.
      */
-    Map<String, AgentTopicStats> topicInfoMap = new ConcurrentHashMap<>();
+    final Set<String> pendingAnnouncements = ConcurrentHashMap.newKeySet();
+
+    // guarded by this
+    private long lastAnnouncedAt = Long.MIN_VALUE / 2;
+    private boolean announcementScheduled;
+    private ScheduledExecutorService announcementScheduler;
 
     public DefaultChannelMonitorAgent(MsbContextImpl msbContext) {
+        this(msbContext, null);
+    }
+
+    /**
+     * @param announcementScheduler executor for delayed announcements, created when the first announcement is delayed if null
+     */
+    DefaultChannelMonitorAgent(MsbContextImpl msbContext, ScheduledExecutorService announcementScheduler) {
         this.msbContext = msbContext;
 
         this.channelManager = msbContext.getChannelManager();
         this.messageFactory = msbContext.getMessageFactory();
         this.clock = msbContext.getClock();
+        this.announceIntervalMs = msbContext.getMsbConfig().getChannelMonitorAnnounceIntervalMs();
+        this.announcementScheduler = announcementScheduler;
+        this.instanceStartedAt = clock.instant();
     }
 
     /**
@@ -59,10 +101,7 @@ public class DefaultChannelMonitorAgent implements ChannelMonitorAgent {
         channelManager.subscribe(Utils.TOPIC_HEARTBEAT, // Launch listener for heartbeat topic
                 (message, acknowledgeHandler) -> {
                         Responder responder = new ResponderImpl(null, message, msbContext);
-                        RestPayload payload = new RestPayload.Builder<Object, Object, Object, Map<String, AgentTopicStats>>()
-                                .withBody(topicInfoMap)
-                                .build();
-                        responder.send(payload);
+                        responder.send(createPayload(snapshot(topicInfoMap.keySet())));
                 });
 
         channelManager.setChannelMonitorAgent(this); // Inject itself in channel manager
@@ -77,10 +116,9 @@ public class DefaultChannelMonitorAgent implements ChannelMonitorAgent {
             return;
         }
 
-        topicInfoMap.compute(topicName,
-                (key, agentTopicStats) -> ensureNotNull(agentTopicStats).withProducers(true));
+        getTopicStats(topicName).setProducers(true);
 
-        doAnnounce();
+        announce(topicName);
     }
 
     /** {@inheritDoc} */
@@ -90,10 +128,9 @@ public class DefaultChannelMonitorAgent implements ChannelMonitorAgent {
             return;
         }
 
-        topicInfoMap.compute(topicName,
-                (key, agentTopicStats) -> ensureNotNull(agentTopicStats).withConsumers(true));
+        getTopicStats(topicName).setConsumers(true);
 
-        doAnnounce();
+        announce(topicName);
     }
 
     /** {@inheritDoc} */
@@ -103,51 +140,129 @@ public class DefaultChannelMonitorAgent implements ChannelMonitorAgent {
             return;
         }
 
-        topicInfoMap.compute(topicName,
-                (key, agentTopicStats) -> ensureNotNull(agentTopicStats).withConsumers(false));
+        getTopicStats(topicName).setConsumers(false);
     }
 
     /** {@inheritDoc} */
     @Override
-    public void producerMessageSent(String topicName) {
+    public TopicStatsRecorder producerStatsRecorder(String topicName) {
         if (Utils.isServiceTopic(topicName)) {
-            return;
+            return TopicStatsRecorder.NOOP;
         }
 
-        Instant now = clock.instant();
-        topicInfoMap.compute(topicName,
-                (key, agentTopicStats) -> ensureNotNull(agentTopicStats).withLastProducedAt(now));
+        return getTopicStats(topicName).producerRecorder;
     }
 
     /** {@inheritDoc} */
     @Override
-    public void consumerMessageReceived(String topicName) {
+    public TopicStatsRecorder consumerStatsRecorder(String topicName) {
         if (Utils.isServiceTopic(topicName)) {
-            return;
+            return TopicStatsRecorder.NOOP;
         }
 
-        Instant now = clock.instant();
-        topicInfoMap.compute(topicName,
-                (key, agentTopicStats) -> ensureNotNull(agentTopicStats).withLastConsumedAt(now));
+        return getTopicStats(topicName).consumerRecorder;
     }
 
-    private AgentTopicStats ensureNotNull(AgentTopicStats topicStats) {
-        return (topicStats != null) ? topicStats : new AgentTopicStats();
+    private MutableTopicStats getTopicStats(String topicName) {
+        return topicInfoMap.computeIfAbsent(topicName, key -> new MutableTopicStats(clock));
+    }
+
+    private Map<String, AgentTopicStats> snapshot(Iterable<String> topicNames) {
+        Map<String, AgentTopicStats> snapshot = new HashMap<>();
+        for (String topicName : topicNames) {
+            MutableTopicStats topicStats = topicInfoMap.get(topicName);
+            if (topicStats != null) {
+                snapshot.put(topicName, topicStats.snapshot());
+            }
+        }
+        return snapshot;
     }
 
     /**
-     * Makes broadcast of the current statistics.
+     * Announces the topic at once if the announce interval has elapsed since the previous announcement, otherwise schedules
+     * the announcement of the pending topics for the end of the interval unless it is already scheduled. The announcement
+     * is published outside the lock because creating the producer may wait for the channel manager.
      */
-    private void doAnnounce() {
-        RestPayload payload = new RestPayload.Builder<Object, Object, Object, Map<String, AgentTopicStats>>()
-                .withBody(topicInfoMap)
-                .build();
+    private void announce(String topicName) {
+        pendingAnnouncements.add(topicName);
+
+        List<String> topicNames;
+        synchronized (this) {
+            if (announcementScheduled) {
+                return;
+            }
+            long delayMs = lastAnnouncedAt + announceIntervalMs - clock.millis();
+            if (delayMs > 0) {
+                announcementScheduled = true;
+                getAnnouncementScheduler().schedule(this::announcePending, delayMs, TimeUnit.MILLISECONDS);
+                return;
+            }
+            topicNames = takePendingAnnouncements();
+        }
+        doAnnounce(topicNames);
+    }
+
+    void announcePending() {
+        List<String> topicNames;
+        synchronized (this) {
+            announcementScheduled = false;
+            topicNames = takePendingAnnouncements();
+        }
+        try {
+            doAnnounce(topicNames);
+        } catch (Exception e) {
+            LOG.error("Error during announcement of topics {}", topicNames, e);
+        }
+    }
+
+    private ScheduledExecutorService getAnnouncementScheduler() {
+        if (announcementScheduler == null) {
+            BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                    .namingPattern("monitor-agent-announce-thread-%d")
+                    .daemon(true)
+                    .build();
+            ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+            msbContext.addShutdownCallback(scheduler::shutdownNow);
+            announcementScheduler = scheduler;
+        }
+        return announcementScheduler;
+    }
+
+    /**
+     * Removes the pending topics and starts a new announce interval. Must be called holding the lock.
+     */
+    private List<String> takePendingAnnouncements() {
+        lastAnnouncedAt = clock.millis();
+
+        List<String> topicNames = new ArrayList<>();
+        for (Iterator<String> iterator = pendingAnnouncements.iterator(); iterator.hasNext(); ) {
+            topicNames.add(iterator.next());
+            iterator.remove();
+        }
+        return topicNames;
+    }
+
+    /**
+     * Makes broadcast of the statistics of the given topics.
+     */
+    private void doAnnounce(List<String> topicNames) {
+        Map<String, AgentTopicStats> announcedTopics = snapshot(topicNames);
+        if (announcedTopics.isEmpty()) {
+            return;
+        }
 
         Producer producer = channelManager.findOrCreateProducer(Utils.TOPIC_ANNOUNCE);
 
         Message.Builder messageBuilder = messageFactory.createBroadcastMessageBuilder(Utils.TOPIC_ANNOUNCE, new MessageTemplate());
-        Message announcementMessage = messageFactory.createBroadcastMessage(messageBuilder, payload);
+        Message announcementMessage = messageFactory.createBroadcastMessage(messageBuilder, createPayload(announcedTopics));
 
         producer.publish(announcementMessage);
     }
+
+    private RestPayload<Object, AgentStatsVersion, Object, Map<String, AgentTopicStats>> createPayload(Map<String, AgentTopicStats> topics) {
+        return new RestPayload.Builder<Object, AgentStatsVersion, Object, Map<String, AgentTopicStats>>()
+                .withHeaders(new AgentStatsVersion(instanceStartedAt, statsVersion.incrementAndGet()))
+                .withBody(topics)
+                .build();
+    }
 }
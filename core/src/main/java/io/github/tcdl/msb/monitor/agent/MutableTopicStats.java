@@ -0,0 +1,58 @@
+package io.github.tcdl.msb.monitor.agent;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Statistics of a topic updated in place by the agent. Message times are kept as epoch millis in volatile fields, so recording
+ * a message is a single volatile write. {@link AgentTopicStats} is created from it only when statistics are sent.
+ */
+class MutableTopicStats {
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private volatile boolean producers;
+    private volatile boolean consumers;
+    private volatile long lastProducedAtMs = NEVER;
+    private volatile long lastConsumedAtMs = NEVER;
+
+    final TopicStatsRecorder producerRecorder;
+    final TopicStatsRecorder consumerRecorder;
+
+    MutableTopicStats(Clock clock) {
+        this.producerRecorder = () -> lastProducedAtMs = clock.millis();
+        this.consumerRecorder = () -> lastConsumedAtMs = clock.millis();
+    }
+
+    boolean isProducers() {
+        return producers;
+    }
+
+    void setProducers(boolean producers) {
+        this.producers = producers;
+    }
+
+    boolean isConsumers() {
+        return consumers;
+    }
+
+    void setConsumers(boolean consumers) {
+        this.consumers = consumers;
+    }
+
+    Instant getLastProducedAt() {
+        return toInstant(lastProducedAtMs);
+    }
+
+    Instant getLastConsumedAt() {
+        return toInstant(lastConsumedAtMs);
+    }
+
+    AgentTopicStats snapshot() {
+        return new AgentTopicStats(producers, consumers, getLastProducedAt(), getLastConsumedAt());
+    }
+
+    private static Instant toInstant(long epochMs) {
+        return epochMs == NEVER ? null : Instant.ofEpochMilli(epochMs);
+    }
+}
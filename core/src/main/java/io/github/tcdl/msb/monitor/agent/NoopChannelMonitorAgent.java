@@ -21,11 +21,13 @@ public class NoopChannelMonitorAgent implements ChannelMonitorAgent {
 
     /** {@inheritDoc} */
     @Override
-    public void producerMessageSent(String topicName) {
+    public TopicStatsRecorder producerStatsRecorder(String topicName) {
+        return TopicStatsRecorder.NOOP;
     }
 
     /** {@inheritDoc} */
     @Override
-    public void consumerMessageReceived(String topicName) {
+    public TopicStatsRecorder consumerStatsRecorder(String topicName) {
+        return TopicStatsRecorder.NOOP;
     }
 }
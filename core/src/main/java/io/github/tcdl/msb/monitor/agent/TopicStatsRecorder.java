@@ -0,0 +1,20 @@
+package io.github.tcdl.msb.monitor.agent;
+
+/**
+ * Records messages sent to or received from a topic. The recorder is resolved once when the producer or the consumer
+ * for the topic is created, so recording a message neither looks up the topic nor allocates.
+ */
+@FunctionalInterface
+public interface TopicStatsRecorder {
+
+    /**
+     * Recorder that does nothing, e.g. for service topics.
+     */
+    TopicStatsRecorder NOOP = () -> {
+    };
+
+    /**
+     * Fired when a message is sent to or consumed from the topic.
+     */
+    void record();
+}
@@ -14,12 +14,19 @@ import io.github.tcdl.msb.api.monitor.AggregatorTopicStats;
 import io.github.tcdl.msb.api.monitor.ChannelMonitorAggregator;
 import io.github.tcdl.msb.config.ServiceDetails;
 import io.github.tcdl.msb.impl.MsbContextImpl;
+import io.github.tcdl.msb.monitor.agent.AgentStatsVersion;
 import io.github.tcdl.msb.monitor.agent.AgentTopicStats;
+import io.github.tcdl.msb.support.TypedConverter;
 import io.github.tcdl.msb.support.Utils;
 
-import java.util.List;
+import java.time.Clock;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -28,26 +35,41 @@ import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
+/**
+ * Keeps the last statistics received from each agent instance and updates the aggregated statistics of only the topics affected
+ * by each announcement or heartbeat response. Announcements are merged into the statistics of the instance, heartbeat responses
+ * replace them. Messages with a stale {@link AgentStatsVersion} are ignored, messages of agents that don't send the version
+ * are always applied. Instances that have sent nothing for the instance expiry time are removed after a heartbeat.
+ */
 public class DefaultChannelMonitorAggregator implements ChannelMonitorAggregator {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultChannelMonitorAggregator.class);
 
     private ChannelManager channelManager;
     private ObjectFactory objectFactory;
-    private ObjectMapper messageMapper;
+    private TypedConverter<RestPayload<Object, AgentStatsVersion, Object, Map<String, AgentTopicStats>>> payloadConverter;
     private ScheduledExecutorService scheduledExecutorService;
     private Callback<AggregatorStats> handler;
+    private Clock clock;
+    private long instanceExpiryMs;
 
     AggregatorStats masterAggregatorStats = new AggregatorStats();
 
+    // guarded by this
+    final Map<String, InstanceStats> instanceStatsById = new HashMap<>();
+    private final Map<String, Set<String>> instanceIdsByTopic = new HashMap<>();
+    private boolean heartbeatResponseAggregated;
+
     public DefaultChannelMonitorAggregator(MsbContextImpl msbContext, ScheduledExecutorService scheduledExecutorService,
             Callback<AggregatorStats> aggregatorStatsHandler) {
         this.channelManager = msbContext.getChannelManager();
         this.objectFactory = msbContext.getObjectFactory();
-        this.messageMapper = msbContext.getPayloadMapper();
+        this.payloadConverter = new TypedConverter<>(new TypeReference<RestPayload<Object, AgentStatsVersion, Object, Map<String, AgentTopicStats>>>() {
+        }, msbContext.getPayloadMapper());
         this.scheduledExecutorService = scheduledExecutorService;
         this.handler = aggregatorStatsHandler;
+        this.clock = msbContext.getClock();
+        this.instanceExpiryMs = msbContext.getMsbConfig().getChannelMonitorInstanceExpiryMs();
     }
 
     @Override
@@ -56,7 +78,7 @@ public class DefaultChannelMonitorAggregator implements ChannelMonitorAggregator
         LOG.debug("Subscribed to {}", TOPIC_ANNOUNCE);
 
         if (activateHeartbeats) {
-            Runnable heartbeatTask = new HeartbeatTask(heartbeatTimeoutMs, objectFactory, this::onHeartbeatResponses);
+            Runnable heartbeatTask = new HeartbeatTask(heartbeatTimeoutMs, objectFactory, this::onHeartbeatResponse, this::onHeartbeatEnd);
             scheduledExecutorService.scheduleAtFixedRate(heartbeatTask, 0, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
             LOG.debug("Periodic heartbeats activated");
         }
@@ -71,27 +93,35 @@ public class DefaultChannelMonitorAggregator implements ChannelMonitorAggregator
         LOG.info("DefaultChannelMonitorAggregator stopped");
     }
 
-    void onHeartbeatResponses(List<Message> heartbeatResponses) {
-        LOG.debug("Handling heartbeat responses {}...", heartbeatResponses);
-        AggregatorStats aggregatorStats = new AggregatorStats();
-        boolean successfullyAggregatedAtLeastOne = false;
-        for (Message msg : heartbeatResponses) {
-            if (aggregateInfo(aggregatorStats, msg)) {
-                successfullyAggregatedAtLeastOne = true;
+    void onHeartbeatResponse(Message heartbeatResponse) {
+        LOG.debug("Handling heartbeat response {}...", heartbeatResponse);
+        synchronized (this) {
+            if (aggregateInfo(heartbeatResponse, true)) {
+                heartbeatResponseAggregated = true;
             }
         }
-        if (successfullyAggregatedAtLeastOne) {
+    }
+
+    void onHeartbeatEnd() {
+        boolean changed;
+        synchronized (this) {
+            changed = removeExpiredInstances() | heartbeatResponseAggregated;
+            heartbeatResponseAggregated = false;
+        }
+        if (changed) {
             LOG.debug("Calling registered handler for heartbeat statistics {}...", masterAggregatorStats);
-            handler.call(aggregatorStats);
-            masterAggregatorStats = aggregatorStats;
+            handler.call(masterAggregatorStats);
             LOG.debug("Heartbeat responses processed");
         }
     }
 
     void onAnnounce(Message announcementMessage, AcknowledgementHandler acknowledgeHandler) {
-        LOG.debug(String.format("Handling announcement message %s...", announcementMessage));
+        LOG.debug("Handling announcement message {}...", announcementMessage);
 
-        boolean successfullyAggregated = aggregateInfo(masterAggregatorStats, announcementMessage);
+        boolean successfullyAggregated;
+        synchronized (this) {
+            successfullyAggregated = aggregateInfo(announcementMessage, false);
+        }
 
         if (successfullyAggregated) {
             LOG.debug("Calling registered handler for announcement statistics {}...", masterAggregatorStats);
@@ -100,7 +130,15 @@ public class DefaultChannelMonitorAggregator implements ChannelMonitorAggregator
         }
     }
 
-    boolean aggregateInfo(AggregatorStats aggregatorStats, Message message) {
+    /**
+     * Applies the statistics of the message to the statistics of the sending instance and updates the aggregated statistics
+     * of the affected topics. Must be called while holding the lock of this aggregator.
+     *
+     * @param snapshot true if the message contains the statistics of all topics of the instance, false if it contains
+     *                 the statistics of some topics only
+     * @return false if the message can't be converted or is stale
+     */
+    boolean aggregateInfo(Message message, boolean snapshot) {
 
         JsonNode rawPayload = message.getRawPayload();
 
@@ -109,25 +147,112 @@ public class DefaultChannelMonitorAggregator implements ChannelMonitorAggregator
             return false;
         }
 
+        RestPayload<Object, AgentStatsVersion, Object, Map<String, AgentTopicStats>> payload;
         try {
-            RestPayload<?, ?, ?, Map<String, AgentTopicStats>> payload = Utils
-                    .convert(rawPayload, new TypeReference<RestPayload<Object, Object, Object, Map<String, AgentTopicStats>>>() {
-                    }, messageMapper);
-            MetaMessage meta = message.getMeta();
-            ServiceDetails serviceDetails = meta.getServiceDetails();
-            String instanceId = serviceDetails.getInstanceId();
-            aggregatorStats.getServiceDetailsById().put(instanceId, serviceDetails);
-
-            Map<String, AgentTopicStats> agentTopicStatsMap = payload.getBody();
-            aggregateTopicStats(aggregatorStats, agentTopicStatsMap, instanceId);
+            payload = payloadConverter.convert(rawPayload);
         } catch (JsonConversionException e) {
             LOG.error("Unable to convert message.", e);
             return false;
         }
 
+        MetaMessage meta = message.getMeta();
+        String instanceId = meta.getInstanceId();
+        InstanceStats instanceStats = instanceStatsById.computeIfAbsent(instanceId, id -> new InstanceStats());
+        instanceStats.lastSeenAt = clock.millis();
+
+        AgentStatsVersion version = payload.getHeaders();
+        if (version != null && instanceStats.version != null) {
+            if (version.compareTo(instanceStats.version) <= 0) {
+                LOG.debug("Ignoring stale statistics {} of instance {}", version, instanceId);
+                return false;
+            }
+            if (!version.isSameInstance(instanceStats.version)) {
+                // the instance was restarted, topics of its previous run are gone
+                snapshot = true;
+            }
+        }
+        if (version != null) {
+            instanceStats.version = version;
+        }
+
+        ServiceDetails serviceDetails = meta.getServiceDetails();
+        if (serviceDetails != null) {
+            masterAggregatorStats.getServiceDetailsById().put(instanceId, serviceDetails);
+        }
+
+        Map<String, AgentTopicStats> agentTopicStatsMap = payload.getBody() != null ? payload.getBody() : Collections.emptyMap();
+        Set<String> affectedTopics = new HashSet<>(agentTopicStatsMap.keySet());
+        if (snapshot) {
+            for (String topic : instanceStats.topics.keySet()) {
+                if (!agentTopicStatsMap.containsKey(topic) && affectedTopics.add(topic)) {
+                    removeFromTopic(topic, instanceId);
+                }
+            }
+            instanceStats.topics.clear();
+        }
+        instanceStats.topics.putAll(agentTopicStatsMap);
+        for (String topic : agentTopicStatsMap.keySet()) {
+            instanceIdsByTopic.computeIfAbsent(topic, key -> new HashSet<>()).add(instanceId);
+        }
+
+        updateTopicStats(affectedTopics);
         return true;
     }
 
+    /**
+     * Removes the instances that have sent nothing for the instance expiry time as well as the aggregated statistics of
+     * the topics and the instances that are not known to this aggregator.
+     *
+     * @return true if anything was removed
+     */
+    private boolean removeExpiredInstances() {
+        long expiredBefore = clock.millis() - instanceExpiryMs;
+        Set<String> affectedTopics = new HashSet<>();
+        for (Iterator<Entry<String, InstanceStats>> iterator = instanceStatsById.entrySet().iterator(); iterator.hasNext(); ) {
+            Entry<String, InstanceStats> entry = iterator.next();
+            if (entry.getValue().lastSeenAt < expiredBefore) {
+                LOG.debug("Removing instance {} that has been silent since {}", entry.getKey(), entry.getValue().lastSeenAt);
+                iterator.remove();
+                for (String topic : entry.getValue().topics.keySet()) {
+                    removeFromTopic(topic, entry.getKey());
+                    affectedTopics.add(topic);
+                }
+            }
+        }
+        updateTopicStats(affectedTopics);
+
+        boolean removed = !affectedTopics.isEmpty();
+        removed |= masterAggregatorStats.getServiceDetailsById().keySet().retainAll(instanceStatsById.keySet());
+        removed |= masterAggregatorStats.getTopicInfoMap().keySet().retainAll(instanceIdsByTopic.keySet());
+        return removed;
+    }
+
+    private void removeFromTopic(String topic, String instanceId) {
+        Set<String> instanceIds = instanceIdsByTopic.get(topic);
+        if (instanceIds != null && instanceIds.remove(instanceId) && instanceIds.isEmpty()) {
+            instanceIdsByTopic.remove(topic);
+        }
+    }
+
+    /**
+     * Recalculates the aggregated statistics of the topics from the statistics of the instances that use them.
+     */
+    private void updateTopicStats(Set<String> topics) {
+        AggregatorStats topicStats = new AggregatorStats();
+        for (String topic : topics) {
+            Set<String> instanceIds = instanceIdsByTopic.get(topic);
+            if (instanceIds == null) {
+                masterAggregatorStats.getTopicInfoMap().remove(topic);
+                continue;
+            }
+            for (String instanceId : instanceIds) {
+                AgentTopicStats agentTopicStats = instanceStatsById.get(instanceId).topics.get(topic);
+                aggregateTopicStats(topicStats, Collections.singletonMap(topic, agentTopicStats), instanceId);
+            }
+        }
+        masterAggregatorStats.getTopicInfoMap().putAll(topicStats.getTopicInfoMap());
+    }
+
     void aggregateTopicStats(AggregatorStats aggregatorStats, Map<String, AgentTopicStats> agentTopicStatsMap, String instanceId) {
         for (Entry<String, AgentTopicStats> entry : agentTopicStatsMap.entrySet()) {
             String topic = entry.getKey();
@@ -160,4 +285,13 @@ public class DefaultChannelMonitorAggregator implements ChannelMonitorAggregator
             });
         }
     }
+
+    /**
+     * The last statistics received from an agent instance.
+     */
+    static class InstanceStats {
+        final Map<String, AgentTopicStats> topics = new HashMap<>();
+        AgentStatsVersion version;
+        long lastSeenAt;
+    }
 }
@@ -7,15 +7,12 @@ import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.api.message.payload.RestPayload;
 import io.github.tcdl.msb.support.Utils;
 
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Sends heartbeat requests and passes the aggregated responses to the registered handler. This task is meant to be scheduled periodically.
+ * Sends heartbeat requests and passes each response to the registered handler as soon as it arrives. The end handler is invoked
+ * when the heartbeat times out. This task is meant to be scheduled periodically.
  */
 public class HeartbeatTask implements Runnable {
 
@@ -23,12 +20,15 @@ public class HeartbeatTask implements Runnable {
 
     private int heartbeatTimeoutMs;
     private ObjectFactory objectFactory;
-    private Callback<List<Message>> heartbeatHandler;
+    private Callback<Message> heartbeatResponseHandler;
+    private Runnable heartbeatEndHandler;
 
-    public HeartbeatTask(int heartbeatTimeoutMs, ObjectFactory objectFactory, Callback<List<Message>> heartbeatHandler) {
+    public HeartbeatTask(int heartbeatTimeoutMs, ObjectFactory objectFactory, Callback<Message> heartbeatResponseHandler,
+            Runnable heartbeatEndHandler) {
         this.heartbeatTimeoutMs = heartbeatTimeoutMs;
         this.objectFactory = objectFactory;
-        this.heartbeatHandler = heartbeatHandler;
+        this.heartbeatResponseHandler = heartbeatResponseHandler;
+        this.heartbeatEndHandler = heartbeatEndHandler;
     }
 
     @Override
@@ -42,10 +42,9 @@ public class HeartbeatTask implements Runnable {
 
             RestPayload emptyPayload = new RestPayload.Builder().build();
 
-            List<Message> messages = Collections.synchronizedList(new LinkedList<>());
             objectFactory.createRequester(Utils.TOPIC_HEARTBEAT, requestOptions)
-                    .onRawResponse((message, achHandler) -> {messages.add(message);})
-                    .onEnd(end -> heartbeatHandler.call(messages))
+                    .onRawResponse((message, achHandler) -> heartbeatResponseHandler.call(message))
+                    .onEnd(end -> heartbeatEndHandler.run())
                     .publish(emptyPayload);
 
             LOG.debug("Heartbeat request sent");
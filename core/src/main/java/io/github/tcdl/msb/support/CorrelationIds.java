@@ -0,0 +1,113 @@
+package io.github.tcdl.msb.support;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates correlation ids for requests sent by the current process.
+ *
+ * The ids are regular version 4 UUID strings, so they are compatible with other MSB implementations. Each id consists of
+ * a tag that is random but the same for the whole process (the first 8 hex digits), 58 bits taken from {@link SecureRandom}
+ * and a 32-bit sequence number (the last 8 hex digits). The tag allows to recognize locally generated ids in responses
+ * and turn them into a primitive long key without hashing the whole string, while the random bits keep the ids unguessable,
+ * so that nobody else on the bus can forge responses to requests of this process.
+ *
+ * The key doesn't cover all random bits, so a collector found by the key must be checked to have the same correlation id.
+ */
+public class CorrelationIds {
+
+    /**
+     * Returned by {@link #toLocalKey(String)} for ids that weren't generated by this process.
+     */
+    public static final long NOT_LOCAL = -1;
+
+    private static final int ID_LENGTH = 36;
+    private static final int TAG_LENGTH = 8;
+    private static final int LEAST_SIGNIFICANT_BITS_POSITION = 19;
+    private static final int LEAST_SIGNIFICANT_BITS_DASH_POSITION = 23;
+
+    // version 4 and IETF variant 2 of UUID
+    private static final long VERSION_BITS = 0x4000L;
+    private static final long VERSION_MASK = 0xF000L;
+    private static final long VARIANT_BITS = 0x8000000000000000L;
+    private static final long KEY_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long SEQUENCE_MASK = 0xFFFFFFFFL;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final long TAG = RANDOM.nextInt() & 0xFFFFFFFFL;
+    private static final String TAG_STRING = toHex(TAG, TAG_LENGTH);
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private CorrelationIds() {
+    }
+
+    /**
+     * @return new unguessable correlation id unique within the process and (with the probability of a random UUID) across processes
+     */
+    public static String generate() {
+        long random = RANDOM.nextLong();
+        long sequenceNumber = SEQUENCE.getAndIncrement() & SEQUENCE_MASK;
+
+        long mostSignificantBits = (TAG << 32) | (random & 0xFFFFFFFFL & ~VERSION_MASK) | VERSION_BITS;
+        long leastSignificantBits = VARIANT_BITS | (((random >>> 32) & 0x3FFFFFFFL) << 32) | sequenceNumber;
+
+        char[] chars = new char[ID_LENGTH];
+        formatHex(mostSignificantBits >>> 32, chars, 0, 8);
+        chars[8] = '-';
+        formatHex(mostSignificantBits >>> 16, chars, 9, 4);
+        chars[13] = '-';
+        formatHex(mostSignificantBits, chars, 14, 4);
+        chars[18] = '-';
+        formatHex(leastSignificantBits >>> 48, chars, 19, 4);
+        chars[23] = '-';
+        formatHex(leastSignificantBits, chars, 24, 12);
+        return new String(chars);
+    }
+
+    /**
+     * @return non-negative key that uniquely identifies a correlation id generated by {@link #generate()} among the ids
+     * generated by this process lately or {@link #NOT_LOCAL} if the id was generated elsewhere. Different ids may have the same
+     * key if they differ in the random bits outside the key only
+     */
+    public static long toLocalKey(String correlationId) {
+        if (correlationId == null || correlationId.length() != ID_LENGTH || !correlationId.regionMatches(0, TAG_STRING, 0, TAG_LENGTH)) {
+            return NOT_LOCAL;
+        }
+
+        long leastSignificantBits = 0;
+        for (int i = LEAST_SIGNIFICANT_BITS_POSITION; i < ID_LENGTH; i++) {
+            if (i == LEAST_SIGNIFICANT_BITS_DASH_POSITION) {
+                if (correlationId.charAt(i) != '-') {
+                    return NOT_LOCAL;
+                }
+                continue;
+            }
+            int digit = Character.digit(correlationId.charAt(i), 16);
+            if (digit < 0) {
+                return NOT_LOCAL;
+            }
+            leastSignificantBits = (leastSignificantBits << 4) | digit;
+        }
+
+        if ((leastSignificantBits & ~KEY_MASK) != VARIANT_BITS) {
+            return NOT_LOCAL;
+        }
+        return leastSignificantBits & KEY_MASK;
+    }
+
+    private static String toHex(long value, int digits) {
+        char[] chars = new char[digits];
+        formatHex(value, chars, 0, digits);
+        return new String(chars);
+    }
+
+    /**
+     * Writes the given number of the lowest hex digits of the value.
+     */
+    private static void formatHex(long value, char[] chars, int offset, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            chars[i] = Character.forDigit((int) value & 0xF, 16);
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.tcdl.msb.support;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.MDC;
+
+import java.util.Map;
+
+/**
+ * Immutable Mapped Diagnostic Context of a consumed message, computed once when the message is consumed.
+ *
+ * The context is handed over to the thread that processes the message by reference. Installing the context replaces the whole
+ * MDC of the thread and uninstalling clears it, so that entries put while processing a message don't leak into the next message
+ * processed by the thread.
+ */
+public class MdcContext {
+
+    private static final ThreadLocal<MdcContext> CURRENT = new ThreadLocal<>();
+
+    private final String[] keys;
+    private final String[] values;
+
+    /**
+     * @param keys MDC keys, the arrays are not copied
+     * @param values values of the keys at the same positions
+     */
+    public MdcContext(String[] keys, String[] values) {
+        Validate.isTrue(keys.length == values.length, "the 'keys' and the 'values' must be of the same length");
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * @return context installed in the current thread or null if there is none
+     */
+    public static MdcContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * For callers that are not given the context of the message.
+     *
+     * @return context installed in the current thread, otherwise a copy of the MDC of the current thread or null if it is empty
+     */
+    public static MdcContext capture() {
+        MdcContext current = CURRENT.get();
+        if (current != null) {
+            return current;
+        }
+        Map<String, String> contextMap = MDC.getCopyOfContextMap();
+        if (contextMap == null || contextMap.isEmpty()) {
+            return null;
+        }
+        String[] keys = new String[contextMap.size()];
+        String[] values = new String[contextMap.size()];
+        int i = 0;
+        for (Map.Entry<String, String> entry : contextMap.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+        return new MdcContext(keys, values);
+    }
+
+    /**
+     * Replaces the MDC of the current thread with the entries and makes the context {@link #current()}.
+     * Does nothing if the context is installed already.
+     */
+    public void install() {
+        if (CURRENT.get() == this) {
+            return;
+        }
+        MDC.clear();
+        for (int i = 0; i < keys.length; i++) {
+            MDC.put(keys[i], values[i]);
+        }
+        CURRENT.set(this);
+    }
+
+    /**
+     * Clears the MDC of the current thread including the entries put while the context was installed.
+     */
+    public void uninstall() {
+        MDC.clear();
+        CURRENT.set(null);
+    }
+
+    public String get(String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+}
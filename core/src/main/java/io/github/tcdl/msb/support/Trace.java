@@ -0,0 +1,154 @@
+package io.github.tcdl.msb.support;
+
+import org.apache.commons.lang3.Validate;
+
+import java.lang.ref.WeakReference;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Lightweight tracing of the per-message processing steps that used to be logged at DEBUG level.
+ *
+ * Each thread records events into its own pre-allocated ring buffer, so recording neither allocates nor synchronizes: the event,
+ * a reference to its subject (topic or correlation id) and a primitive value are stored in place of the oldest entry. While tracing
+ * is disabled (the default) {@link #record(TraceEvent, String, long)} returns after reading a single volatile flag.
+ *
+ * Recorded events are formatted only by {@link #dump()}. Threads keep recording while the buffers are dumped, so an entry
+ * that is being overwritten at the same time may be reported incorrectly.
+ */
+public class Trace {
+
+    private static volatile boolean enabled;
+    private static volatile int capacity;
+    // incremented by clear() so that the threads replace their buffers, which are written by their owner threads only
+    private static volatile int epoch;
+
+    private static final ThreadLocal<Buffer> BUFFER = new ThreadLocal<>();
+    private static final Queue<Buffer> BUFFERS = new ConcurrentLinkedQueue<>();
+
+    private Trace() {
+    }
+
+    /**
+     * Starts recording events, keeping the given number of the latest ones per thread.
+     *
+     * @param capacityPerThread max number of events kept per thread, rounded up to a power of two
+     */
+    public static synchronized void enable(int capacityPerThread) {
+        Validate.isTrue(capacityPerThread > 0, "the 'capacityPerThread' must be positive");
+        capacity = capacityPerThread == 1 ? 1 : Integer.highestOneBit(capacityPerThread - 1) << 1;
+        enabled = true;
+    }
+
+    /**
+     * Stops recording events, events recorded so far are still available via {@link #dump()}.
+     */
+    public static synchronized void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records the event on behalf of the current thread if tracing is enabled.
+     */
+    public static void record(TraceEvent event, String subject, long value) {
+        if (!enabled) {
+            return;
+        }
+        Buffer buffer = BUFFER.get();
+        if (buffer == null || buffer.mask != capacity - 1 || buffer.epoch != epoch) {
+            buffer = register(capacity, epoch);
+        }
+        buffer.add(event, subject, value);
+    }
+
+    public static void record(TraceEvent event, String subject) {
+        record(event, subject, 0);
+    }
+
+    /**
+     * @return events kept in the buffers of all threads, the oldest first for each thread
+     */
+    public static String dump() {
+        StringBuilder result = new StringBuilder();
+        for (Buffer buffer : BUFFERS) {
+            buffer.dump(result);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Drops the events recorded so far. Each thread starts a new buffer with its next event.
+     */
+    public static synchronized void clear() {
+        epoch++;
+        BUFFERS.clear();
+    }
+
+    private static Buffer register(int capacity, int epoch) {
+        BUFFERS.removeIf(buffer -> buffer.thread.get() == null || buffer.epoch != Trace.epoch);
+        Buffer buffer = new Buffer(Thread.currentThread(), capacity, epoch);
+        BUFFERS.add(buffer);
+        BUFFER.set(buffer);
+        return buffer;
+    }
+
+    private static class Buffer {
+
+        final WeakReference<Thread> thread;
+        final String threadName;
+        final int mask;
+        final int epoch;
+
+        final long[] timestamps;
+        final TraceEvent[] events;
+        final String[] subjects;
+        final long[] values;
+
+        // written by the owner thread only
+        long count;
+
+        Buffer(Thread thread, int capacity, int epoch) {
+            this.thread = new WeakReference<>(thread);
+            this.threadName = thread.getName();
+            this.mask = capacity - 1;
+            this.epoch = epoch;
+            this.timestamps = new long[capacity];
+            this.events = new TraceEvent[capacity];
+            this.subjects = new String[capacity];
+            this.values = new long[capacity];
+        }
+
+        void add(TraceEvent event, String subject, long value) {
+            int index = (int) (count & mask);
+            timestamps[index] = System.currentTimeMillis();
+            events[index] = event;
+            subjects[index] = subject;
+            values[index] = value;
+            count++;
+        }
+
+        void dump(StringBuilder result) {
+            long end = count;
+            long start = Math.max(0, end - mask - 1);
+            result.append("Thread '").append(threadName).append("', ").append(end - start).append(" of ").append(end).append(" events:\n");
+            for (long i = start; i < end; i++) {
+                int index = (int) (i & mask);
+                TraceEvent event = events[index];
+                if (event == null) {
+                    continue;
+                }
+                result.append("  ").append(Instant.ofEpochMilli(timestamps[index])).append(' ').append(event)
+                        .append(" [").append(event.getSubjectName()).append(": ").append(subjects[index]).append(']');
+                if (event.getValueName() != null) {
+                    result.append(" [").append(event.getValueName()).append(": ").append(values[index]).append(']');
+                }
+                result.append('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.tcdl.msb.support;
+
+/**
+ * Events recorded by {@link Trace}. The subject of an event is the topic or the correlation id it relates to, the value
+ * is described by {@link #getValueName()}.
+ */
+public enum TraceEvent {
+
+    MESSAGE_RECEIVED("topic", null),
+    MESSAGE_VALIDATED("topic", null),
+    MESSAGE_PARSED("correlation id", null),
+    RESPONSE_RECEIVED("correlation id", null),
+    ACK_RECEIVED("correlation id", "responses remaining"),
+    WAITING_FOR_RESPONSES("correlation id", "timeout ms"),
+    WAITING_FOR_ACKS("correlation id", "until epoch ms"),
+    ACK_TIMEOUT_ALREADY_SCHEDULED("correlation id", null),
+    RESPONSE_TIMEOUT_SCHEDULED("correlation id", "timeout ms"),
+    RESPONSE_TIMEOUT_EXPIRED("correlation id", null),
+    ACK_TIMEOUT_SCHEDULED("correlation id", "timeout ms"),
+    ACK_TIMEOUT_EXPIRED("correlation id", "awaiting responses"),
+    UNHANDLED_MESSAGES_COUNTED("correlation id", "unhandled messages"),
+    COLLECTOR_ENDED("correlation id", null),
+    ON_END_TRIGGERED("correlation id", null);
+
+    private final String subjectName;
+    private final String valueName;
+
+    TraceEvent(String subjectName, String valueName) {
+        this.subjectName = subjectName;
+        this.valueName = valueName;
+    }
+
+    public String getSubjectName() {
+        return subjectName;
+    }
+
+    /**
+     * @return meaning of the value of the event or null if the event has no value
+     */
+    public String getValueName() {
+        return valueName;
+    }
+}
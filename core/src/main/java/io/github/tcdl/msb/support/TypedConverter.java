@@ -0,0 +1,92 @@
+package io.github.tcdl.msb.support;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.tcdl.msb.api.exception.JsonConversionException;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+
+/**
+ * Converter of JSON and other objects to objects of one type. The type is resolved and the reader of the mapper is looked up once
+ * when the converter is created, so create it once per type, e.g. when a requester or a responder server is created.
+ *
+ * Unlike {@link ObjectMapper#convertValue(Object, TypeReference)} a {@link JsonNode} is read directly without copying it into
+ * an intermediate token buffer.
+ */
+public class TypedConverter<T> {
+
+    private final ObjectMapper objectMapper;
+    private final JavaType type;
+    private final ObjectReader reader;
+
+    public TypedConverter(TypeReference<T> typeReference, ObjectMapper objectMapper) {
+        Validate.notNull(typeReference, "the 'typeReference' must not be null");
+        Validate.notNull(objectMapper, "the 'objectMapper' must not be null");
+        this.objectMapper = objectMapper;
+        this.type = objectMapper.getTypeFactory().constructType(typeReference);
+        this.reader = objectMapper.readerFor(type);
+    }
+
+    public TypedConverter(Class<T> clazz, ObjectMapper objectMapper) {
+        Validate.notNull(clazz, "the 'clazz' must not be null");
+        Validate.notNull(objectMapper, "the 'objectMapper' must not be null");
+        this.objectMapper = objectMapper;
+        this.type = objectMapper.getTypeFactory().constructType(clazz);
+        this.reader = objectMapper.readerFor(type);
+    }
+
+    /**
+     * @throws JsonConversionException if the object can't be converted
+     */
+    @SuppressWarnings("unchecked")
+    public T convert(Object source) {
+        if (source == null) {
+            return null;
+        }
+        // the same shortcut as in ObjectMapper.convertValue()
+        Class<?> targetClass = type.getRawClass();
+        if (targetClass != Object.class && !type.hasGenericTypes() && targetClass.isInstance(source)) {
+            return (T) source;
+        }
+        try {
+            if (source instanceof JsonNode) {
+                return reader.readValue((JsonNode) source);
+            }
+            return objectMapper.convertValue(source, type);
+        } catch (Exception e) {
+            throw new JsonConversionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @throws JsonConversionException if problem encountered during parsing JSON
+     */
+    public T fromJson(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return reader.readValue(json);
+        } catch (IOException e) {
+            throw new JsonConversionException("Failed parse from JSON", e);
+        }
+    }
+
+    /**
+     * @throws JsonConversionException if problem encountered during parsing JSON
+     */
+    public T fromJson(byte[] json) {
+        if (json == null || json.length == 0) {
+            return null;
+        }
+        try {
+            return reader.readValue(json);
+        } catch (IOException e) {
+            throw new JsonConversionException("Failed parse from JSON", e);
+        }
+    }
+}
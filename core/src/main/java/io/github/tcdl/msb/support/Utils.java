@@ -7,12 +7,16 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.NullNode;
 import io.github.tcdl.msb.api.exception.JsonConversionException;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MetaMessage;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -58,18 +62,31 @@ public class Utils {
         }
     }
 
+    /**
+     * Serializes the object to JSON encoded in UTF-8. Unlike {@link #toJson(Object, ObjectMapper)} the JSON is written straight into
+     * the recycled buffers of the mapper and copied only once into the result.
+     *
+     * @throws JsonConversionException if some problems during parsing to JSON
+     */
+    public static byte[] toJsonBytes(Object object, ObjectMapper objectMapper) {
+        try {
+            return objectMapper.writeValueAsBytes(object);
+        } catch (JsonProcessingException e) {
+            throw new JsonConversionException("Failed parse to JSON", e);
+        }
+    }
+
     /**
      * @throws JsonConversionException if problem encountered during parsing JSON
      */
     public static <T> T fromJson(String json, Class<T> clazz, ObjectMapper objectMapper) {
-        return fromJson(json,
-                new TypeReference<T>() {
-                    @Override
-                    public Type getType() {
-                        return clazz;
-                    }
-                },
-                objectMapper);
+        if (StringUtils.isEmpty(json))
+            return null;
+        try {
+            return objectMapper.readValue(json, clazz);
+        } catch (IOException e) {
+            throw new JsonConversionException("Failed parse from JSON", e);
+        }
     }
 
     public static <T> T fromJson(String json, TypeReference<T> typeReference, ObjectMapper objectMapper) {
@@ -83,14 +100,11 @@ public class Utils {
     }
 
     public static <T> T convert(Object srcObject, Class<T> destClass, ObjectMapper objectMapper) {
-        return convert(srcObject,
-                new TypeReference<T>() {
-                    @Override
-                    public Type getType() {
-                        return destClass;
-                    }
-                },
-                objectMapper);
+        try {
+            return objectMapper.convertValue(srcObject, destClass);
+        } catch (Exception e) {
+            throw new JsonConversionException(e.getMessage(), e);
+        }
     }
 
     public static <T> T convert(Object srcObject, TypeReference<T> typeReference, ObjectMapper objectMapper) {
@@ -109,6 +123,25 @@ public class Utils {
         return rawPayload != null && !(rawPayload instanceof NullNode);
     }
 
+    /**
+     * @return point in time after which nobody waits for the message any more (the earliest of createdAt + ttl
+     * and the deadline inherited from the original message), or empty if the message never expires
+     */
+    public static Optional<Instant> getExpiryTime(Message message) {
+        MetaMessage meta = message.getMeta();
+        if (meta == null) {
+            return Optional.empty();
+        }
+        Instant expiryTime = meta.getDeadline();
+        if (meta.getTtl() != null && meta.getCreatedAt() != null) {
+            Instant ttlExpiryTime = meta.getCreatedAt().plus(meta.getTtl(), ChronoUnit.MILLIS);
+            if (expiryTime == null || ttlExpiryTime.isBefore(expiryTime)) {
+                expiryTime = ttlExpiryTime;
+            }
+        }
+        return Optional.ofNullable(expiryTime);
+    }
+
     /**
      * Shuts down given executor service and waits for all its tasks to complete.
      */
@@ -0,0 +1,100 @@
+package io.github.tcdl.msb.threading;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConsumerExecutorFactory} that creates {@link AdaptiveThreadPoolExecutor}s and periodically resizes them
+ * between min and max number of threads. The requested number of threads is the initial size of a pool.
+ *
+ * Deadline ordered pools keep a fixed size.
+ */
+public class AdaptiveConsumerExecutorFactory extends ConsumerExecutorFactoryImpl {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveConsumerExecutorFactory.class);
+
+    private final int minThreads;
+    private final int maxThreads;
+    private final long targetQueueWaitMs;
+    private final long adjustmentIntervalMs;
+
+    private final List<AdaptiveThreadPoolExecutor> threadPools = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService scheduler;
+
+    public AdaptiveConsumerExecutorFactory(int minThreads, int maxThreads, long targetQueueWaitMs, long adjustmentIntervalMs) {
+        if (minThreads < 1 || maxThreads < minThreads) {
+            throw new IllegalArgumentException("'minThreads' must be positive and not greater than 'maxThreads'");
+        }
+        if (adjustmentIntervalMs <= 0) {
+            throw new IllegalArgumentException("'adjustmentIntervalMs' must be positive");
+        }
+        this.minThreads = minThreads;
+        this.maxThreads = maxThreads;
+        this.targetQueueWaitMs = targetQueueWaitMs;
+        this.adjustmentIntervalMs = adjustmentIntervalMs;
+    }
+
+    @Override
+    public ExecutorService createConsumerThreadPool(int numberOfThreads, int queueCapacity) {
+        int initialThreads = Math.max(minThreads, Math.min(maxThreads, numberOfThreads));
+        AdaptiveThreadPoolExecutor threadPool = new AdaptiveThreadPoolExecutor(initialThreads, minThreads, maxThreads, targetQueueWaitMs,
+                createQueue(queueCapacity), createThreadFactory());
+        threadPools.add(threadPool);
+        startScheduler();
+        return threadPool;
+    }
+
+    private synchronized void startScheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder()
+                    .namingPattern("msb-consumer-pool-sizer-%d")
+                    .daemon(true)
+                    .build());
+            scheduler.scheduleWithFixedDelay(this::adjustThreadPools, adjustmentIntervalMs, adjustmentIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Resizes all live thread pools and forgets the shut down ones. The scheduler stops once no pool is left
+     * and is started again for the next created pool.
+     */
+    synchronized void adjustThreadPools() {
+        for (AdaptiveThreadPoolExecutor threadPool : threadPools) {
+            if (threadPool.isShutdown()) {
+                threadPools.remove(threadPool);
+                continue;
+            }
+            try {
+                threadPool.adjust();
+            } catch (Exception e) {
+                LOG.error("Error while resizing consumer thread pool", e);
+            }
+        }
+        if (threadPools.isEmpty() && scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * @return thread pools created by this factory that are not shut down yet, their getters expose sizing decisions
+     */
+    public List<AdaptiveThreadPoolExecutor> getThreadPools() {
+        List<AdaptiveThreadPoolExecutor> result = new ArrayList<>();
+        for (AdaptiveThreadPoolExecutor threadPool : threadPools) {
+            if (!threadPool.isShutdown()) {
+                result.add(threadPool);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,230 @@
+package io.github.tcdl.msb.threading;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ThreadPoolExecutor} that measures how long tasks wait in the queue and how much of their run time
+ * is spent blocked (not on CPU), and resizes itself between min and max number of threads on {@link #adjust()}:
+ * <ul>
+ *     <li>additive increase - one thread is added while tasks wait in the queue longer than the target.
+ *     Threads are not added beyond the number of CPUs if handlers are CPU-bound, more threads would only compete for CPU;</li>
+ *     <li>multiplicative decrease - the pool is shrunk by a quarter while the queue is empty and threads are mostly idle.</li>
+ * </ul>
+ */
+public class AdaptiveThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveThreadPoolExecutor.class);
+
+    /**
+     * Handlers that are blocked for less than this share of their run time are considered CPU-bound.
+     */
+    static final double CPU_BOUND_BLOCKING_RATIO = 0.2;
+
+    /**
+     * The pool is shrunk if threads are busy for less than this share of the time.
+     */
+    static final double LOW_UTILIZATION = 0.5;
+
+    static final double DECREASE_FACTOR = 0.75;
+
+    private static final int NUMBER_OF_CPUS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Outcome of an {@link #adjust()} call.
+     */
+    public enum Adjustment {
+        INCREASE,
+        DECREASE,
+        HOLD,
+
+        /**
+         * Tasks wait too long but handlers are CPU-bound, so the pool is not grown.
+         */
+        HOLD_CPU_BOUND
+    }
+
+    private final int minThreads;
+    private final int maxThreads;
+    private final long targetQueueWaitNanos;
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final boolean isCpuTimeMeasured;
+
+    private final LongAdder completedTasks = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+
+    private final LongAdder increasesCount = new LongAdder();
+    private final LongAdder decreasesCount = new LongAdder();
+    private volatile Adjustment lastAdjustment = Adjustment.HOLD;
+    private volatile long averageQueueWaitNanos;
+    private volatile double blockingRatio = -1;
+    private volatile double utilization;
+    private long lastAdjustedAtNanos = System.nanoTime();
+
+    public AdaptiveThreadPoolExecutor(int initialThreads, int minThreads, int maxThreads, long targetQueueWaitMs,
+            BlockingQueue<Runnable> queue, ThreadFactory threadFactory) {
+        super(initialThreads, initialThreads, 0L, TimeUnit.MILLISECONDS, queue, threadFactory);
+        if (minThreads < 1 || maxThreads < minThreads) {
+            throw new IllegalArgumentException("'minThreads' must be positive and not greater than 'maxThreads'");
+        }
+        if (initialThreads < minThreads || initialThreads > maxThreads) {
+            throw new IllegalArgumentException("'initialThreads' must be between 'minThreads' and 'maxThreads'");
+        }
+        this.minThreads = minThreads;
+        this.maxThreads = maxThreads;
+        this.targetQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(targetQueueWaitMs);
+        this.isCpuTimeMeasured = threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new TimedTask(command));
+    }
+
+    /**
+     * Resizes the pool according to the measurements taken since the previous call.
+     *
+     * @return the decision that has been made
+     */
+    public synchronized Adjustment adjust() {
+        long now = System.nanoTime();
+        long elapsedNanos = Math.max(1, now - lastAdjustedAtNanos);
+        lastAdjustedAtNanos = now;
+
+        long tasks = completedTasks.sumThenReset();
+        long totalQueueWaitNanos = queueWaitNanos.sumThenReset();
+        long totalRunNanos = runNanos.sumThenReset();
+        long totalCpuNanos = cpuNanos.sumThenReset();
+
+        int size = getCorePoolSize();
+        averageQueueWaitNanos = tasks == 0 ? 0 : totalQueueWaitNanos / tasks;
+        utilization = Math.min(1.0, (double) totalRunNanos / ((double) elapsedNanos * size));
+        if (isCpuTimeMeasured && totalRunNanos > 0) {
+            blockingRatio = Math.max(0.0, 1.0 - (double) totalCpuNanos / totalRunNanos);
+        }
+
+        boolean hasBacklog = !getQueue().isEmpty();
+        // when all threads are stuck no task starts, so a backlog behind busy threads counts as waiting too
+        boolean isWaiting = averageQueueWaitNanos > targetQueueWaitNanos || (hasBacklog && getActiveCount() >= size);
+
+        Adjustment adjustment;
+        int newSize = size;
+        if (isWaiting) {
+            if (size >= maxThreads) {
+                adjustment = Adjustment.HOLD;
+            } else if (size >= NUMBER_OF_CPUS && blockingRatio >= 0 && blockingRatio < CPU_BOUND_BLOCKING_RATIO) {
+                adjustment = Adjustment.HOLD_CPU_BOUND;
+            } else {
+                adjustment = Adjustment.INCREASE;
+                newSize = size + 1;
+            }
+        } else if (!hasBacklog && utilization < LOW_UTILIZATION && size > minThreads) {
+            adjustment = Adjustment.DECREASE;
+            newSize = Math.max(minThreads, Math.min(size - 1, (int) (size * DECREASE_FACTOR)));
+        } else {
+            adjustment = Adjustment.HOLD;
+        }
+
+        if (newSize > size) {
+            setMaximumPoolSize(newSize);
+            setCorePoolSize(newSize);
+            increasesCount.increment();
+        } else if (newSize < size) {
+            setCorePoolSize(newSize);
+            setMaximumPoolSize(newSize);
+            decreasesCount.increment();
+        }
+        if (newSize != size) {
+            LOG.debug("Resized consumer thread pool from {} to {} threads: average queue wait {} ms, blocking ratio {}, utilization {}",
+                    size, newSize, TimeUnit.NANOSECONDS.toMillis(averageQueueWaitNanos), blockingRatio, utilization);
+        }
+        lastAdjustment = adjustment;
+        return adjustment;
+    }
+
+    /**
+     * @return the decision made on the most recent adjustment
+     */
+    public Adjustment getLastAdjustment() {
+        return lastAdjustment;
+    }
+
+    /**
+     * @return number of adjustments that added threads
+     */
+    public long getIncreasesCount() {
+        return increasesCount.sum();
+    }
+
+    /**
+     * @return number of adjustments that removed threads
+     */
+    public long getDecreasesCount() {
+        return decreasesCount.sum();
+    }
+
+    /**
+     * @return average time tasks spent in the queue before the most recent adjustment, in milliseconds
+     */
+    public double getAverageQueueWaitMs() {
+        return averageQueueWaitNanos / 1_000_000.0;
+    }
+
+    /**
+     * @return share of the run time of tasks not spent on CPU before the most recent adjustment,
+     * -1 if thread CPU time is not measured by the JVM
+     */
+    public double getBlockingRatio() {
+        return blockingRatio;
+    }
+
+    /**
+     * @return share of the time threads were busy before the most recent adjustment
+     */
+    public double getUtilization() {
+        return utilization;
+    }
+
+    public int getMinThreads() {
+        return minThreads;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    private final class TimedTask implements Runnable {
+        private final Runnable delegate;
+        private final long submittedAtNanos = System.nanoTime();
+
+        TimedTask(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            long startedAtNanos = System.nanoTime();
+            long startedCpuNanos = isCpuTimeMeasured ? threadMXBean.getCurrentThreadCpuTime() : 0;
+            queueWaitNanos.add(startedAtNanos - submittedAtNanos);
+            try {
+                delegate.run();
+            } finally {
+                runNanos.add(System.nanoTime() - startedAtNanos);
+                if (isCpuTimeMeasured) {
+                    cpuNanos.add(threadMXBean.getCurrentThreadCpuTime() - startedCpuNanos);
+                }
+                completedTasks.increment();
+            }
+        }
+    }
+}
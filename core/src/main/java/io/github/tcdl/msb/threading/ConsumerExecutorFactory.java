@@ -8,4 +8,12 @@ import java.util.concurrent.ExecutorService;
  */
 public interface ConsumerExecutorFactory {
     ExecutorService createConsumerThreadPool(int numberOfThreads, int queueCapacity);
+
+    /**
+     * Creates a thread pool that takes queued {@link MessageProcessingTask}s with the earliest deadline first.
+     * Implementations that don't support such ordering fall back to {@link #createConsumerThreadPool(int, int)}.
+     */
+    default ExecutorService createDeadlineOrderedConsumerThreadPool(int numberOfThreads, int queueCapacity) {
+        return createConsumerThreadPool(numberOfThreads, queueCapacity);
+    }
 }
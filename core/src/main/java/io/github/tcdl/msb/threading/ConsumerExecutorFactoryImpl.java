@@ -10,20 +10,27 @@ public class ConsumerExecutorFactoryImpl implements ConsumerExecutorFactory {
 
     @Override
     public ExecutorService createConsumerThreadPool(int numberOfThreads, int queueCapacity) {
-        BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
-                .namingPattern("msb-consumer-thread-%d")
-                .build();
+        return new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
+                0L, TimeUnit.MILLISECONDS,
+                createQueue(queueCapacity),
+                createThreadFactory());
+    }
 
-        BlockingQueue<Runnable> queue;
+    @Override
+    public ExecutorService createDeadlineOrderedConsumerThreadPool(int numberOfThreads, int queueCapacity) {
+        return new DeadlineOrderedThreadPoolExecutor(numberOfThreads, queueCapacity, createThreadFactory());
+    }
+
+    protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
         if (queueCapacity == QUEUE_SIZE_UNLIMITED) {
-            queue = new LinkedBlockingQueue<>();
-        } else {
-            queue = new ArrayBlockingQueue<>(queueCapacity);
+            return new LinkedBlockingQueue<>();
         }
+        return new ArrayBlockingQueue<>(queueCapacity);
+    }
 
-        return new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
-                0L, TimeUnit.MILLISECONDS,
-                queue,
-                threadFactory);
+    protected BasicThreadFactory createThreadFactory() {
+        return new BasicThreadFactory.Builder()
+                .namingPattern("msb-consumer-thread-%d")
+                .build();
     }
 }
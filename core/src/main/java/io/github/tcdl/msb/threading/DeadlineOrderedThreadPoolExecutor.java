@@ -0,0 +1,94 @@
+package io.github.tcdl.msb.threading;
+
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ThreadPoolExecutor} that takes queued {@link MessageProcessingTask}s in the order of their deadlines
+ * (earliest deadline first) instead of the arrival order. Tasks without a deadline and tasks with equal deadlines
+ * are taken in the arrival order.
+ *
+ * Under overload this lets the pool spend its capacity on messages that can still be answered in time,
+ * while hopeless ones expire in the queue and are dropped by {@link MessageProcessingTask} itself.
+ */
+class DeadlineOrderedThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private static final Comparator<Runnable> DEADLINE_ORDER = (r1, r2) -> {
+        DeadlineOrderedTask<?> task1 = (DeadlineOrderedTask<?>) r1;
+        DeadlineOrderedTask<?> task2 = (DeadlineOrderedTask<?>) r2;
+        int result = Long.compare(task1.deadline, task2.deadline);
+        return result != 0 ? result : Long.compare(task1.sequenceNumber, task2.sequenceNumber);
+    };
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    DeadlineOrderedThreadPoolExecutor(int numberOfThreads, int queueCapacity, ThreadFactory threadFactory) {
+        super(numberOfThreads, numberOfThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new BoundedPriorityBlockingQueue(queueCapacity),
+                threadFactory);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(command instanceof DeadlineOrderedTask ? command : newTaskFor(command, null));
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        long deadline = runnable instanceof MessageProcessingTask ? ((MessageProcessingTask) runnable).getDeadline() : Long.MAX_VALUE;
+        return new DeadlineOrderedTask<>(Executors.callable(runnable, value), deadline, sequence.getAndIncrement());
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return new DeadlineOrderedTask<>(callable, Long.MAX_VALUE, sequence.getAndIncrement());
+    }
+
+    private static class DeadlineOrderedTask<T> extends FutureTask<T> {
+        private final long deadline;
+        private final long sequenceNumber;
+
+        DeadlineOrderedTask(Callable<T> callable, long deadline, long sequenceNumber) {
+            super(callable);
+            this.deadline = deadline;
+            this.sequenceNumber = sequenceNumber;
+        }
+    }
+
+    /**
+     * {@link PriorityBlockingQueue} that refuses new elements when the capacity is reached so that the executor
+     * rejects tasks the same way as with a bounded FIFO queue.
+     */
+    private static class BoundedPriorityBlockingQueue extends PriorityBlockingQueue<Runnable> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        BoundedPriorityBlockingQueue(int capacity) {
+            super(11, DEADLINE_ORDER);
+            this.capacity = capacity;
+        }
+
+        @Override
+        public synchronized boolean offer(Runnable runnable) {
+            if (capacity != ConsumerExecutorFactoryImpl.QUEUE_SIZE_UNLIMITED && size() >= capacity) {
+                return false;
+            }
+            return super.offer(runnable);
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return capacity == ConsumerExecutorFactoryImpl.QUEUE_SIZE_UNLIMITED ? Integer.MAX_VALUE : Math.max(0, capacity - size());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import io.github.tcdl.msb.MessageHandler;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.collector.ExecutionOptionsAwareMessageHandler;
+import io.github.tcdl.msb.support.MdcContext;
 import org.apache.commons.lang3.Validate;
 
 /**
@@ -31,16 +32,50 @@ public class DirectInvocationCapableInvoker implements MessageHandlerInvoker {
      */
     @Override
     public void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler) {
-        if (messageHandler instanceof ExecutionOptionsAwareMessageHandler && ((ExecutionOptionsAwareMessageHandler) messageHandler).forceDirectInvocation()) {
+        if (isDirectInvocation(messageHandler)) {
             directMessageHandlerInvoker.execute(messageHandler, message, acknowledgeHandler);
         } else {
             clientMessageHandlerInvoker.execute(messageHandler, message, acknowledgeHandler);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler,
+            MdcContext mdcContext) {
+        if (isDirectInvocation(messageHandler)) {
+            directMessageHandlerInvoker.execute(messageHandler, message, acknowledgeHandler, mdcContext);
+        } else {
+            clientMessageHandlerInvoker.execute(messageHandler, message, acknowledgeHandler, mdcContext);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(RawMessageTask task) {
+        clientMessageHandlerInvoker.execute(invoker -> task.run(new DirectInvocationCapableInvoker(invoker, directMessageHandlerInvoker)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getExpiredMessagesCount() {
+        return clientMessageHandlerInvoker.getExpiredMessagesCount();
+    }
+
     @Override
     public void shutdown() {
         clientMessageHandlerInvoker.shutdown();
         directMessageHandlerInvoker.shutdown();
     }
-}
\ No newline at end of file
+
+    private boolean isDirectInvocation(MessageHandler messageHandler) {
+        return messageHandler instanceof ExecutionOptionsAwareMessageHandler
+                && ((ExecutionOptionsAwareMessageHandler) messageHandler).forceDirectInvocation();
+    }
+}
@@ -3,9 +3,13 @@ package io.github.tcdl.msb.threading;
 import io.github.tcdl.msb.MessageHandler;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.MdcContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Clock;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Base class for {@link MessageHandlerInvoker} implementations that rely on a custom
  * threading model.
@@ -15,14 +19,28 @@ public abstract class ExecutorBasedMessageHandlerInvoker implements MessageHandl
     private static final Logger LOG = LoggerFactory.getLogger(ExecutorBasedMessageHandlerInvoker.class);
 
     protected final ConsumerExecutorFactory consumerExecutorFactory;
+    protected final Clock clock;
+    private final LongAdder expiredMessagesCount = new LongAdder();
 
     public ExecutorBasedMessageHandlerInvoker(ConsumerExecutorFactory consumerExecutorFactory) {
+        this(consumerExecutorFactory, Clock.systemDefaultZone());
+    }
+
+    public ExecutorBasedMessageHandlerInvoker(ConsumerExecutorFactory consumerExecutorFactory, Clock clock) {
         this.consumerExecutorFactory = consumerExecutorFactory;
+        this.clock = clock;
     }
 
     @Override
     public void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler) {
-        MessageProcessingTask task = new MessageProcessingTask(messageHandler, message, acknowledgeHandler);
+        execute(messageHandler, message, acknowledgeHandler, MdcContext.capture());
+    }
+
+    @Override
+    public void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler,
+            MdcContext mdcContext) {
+        MessageProcessingTask task = new MessageProcessingTask(messageHandler, message, acknowledgeHandler, mdcContext, clock,
+                expiredMessagesCount::increment);
         doSubmitTask(task, message);
         LOG.debug("[correlation id: {}] Message has been put in the processing queue.",
                 message.getCorrelationId());
@@ -30,4 +48,18 @@ public abstract class ExecutorBasedMessageHandlerInvoker implements MessageHandl
 
     protected abstract void doSubmitTask(MessageProcessingTask task, Message message);
 
+    /**
+     * Processes the message on the calling thread, for invokers whose raw message tasks already run on their own threads.
+     */
+    protected void processInCurrentThread(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler,
+            MdcContext mdcContext) {
+        new MessageProcessingTask(messageHandler, message, acknowledgeHandler, mdcContext, clock, expiredMessagesCount::increment).run();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getExpiredMessagesCount() {
+        return expiredMessagesCount.sum();
+    }
+
 }
@@ -6,6 +6,7 @@ import org.apache.commons.lang3.RandomUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Clock;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
@@ -27,7 +28,12 @@ public class GroupedExecutorBasedMessageHandlerInvoker extends ExecutorBasedMess
 
     public GroupedExecutorBasedMessageHandlerInvoker(int numberOfThreads, int queueCapacity,
             ConsumerExecutorFactory consumerExecutorFactory, MessageGroupStrategy messageGroupStrategy) {
-        super(consumerExecutorFactory);
+        this(numberOfThreads, queueCapacity, consumerExecutorFactory, messageGroupStrategy, Clock.systemDefaultZone());
+    }
+
+    public GroupedExecutorBasedMessageHandlerInvoker(int numberOfThreads, int queueCapacity,
+            ConsumerExecutorFactory consumerExecutorFactory, MessageGroupStrategy messageGroupStrategy, Clock clock) {
+        super(consumerExecutorFactory, clock);
         this.messageGroupStrategy = messageGroupStrategy;
         this.numberOfThreads = numberOfThreads;
 
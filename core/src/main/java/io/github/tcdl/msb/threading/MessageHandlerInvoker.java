@@ -4,6 +4,7 @@ import io.github.tcdl.msb.MessageHandler;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.api.AcknowledgementHandler;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.MdcContext;
 
 /**
  * This interface defines a way to invoke {@link MessageHandler} to process a {@link Message} received.
@@ -24,6 +25,38 @@ public interface MessageHandlerInvoker {
      */
     void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler);
 
+    /**
+     * Same as {@link #execute(MessageHandler, Message, AcknowledgementHandlerInternal)} for a message whose MDC context
+     * has been computed already. Invokers that process the message on another thread install the context there.
+     * By default the context is ignored, it is installed in the calling thread.
+     *
+     * @param mdcContext MDC context of the message or null if there is none
+     * @throws RuntimeException when a message can't be handled.
+     */
+    default void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler,
+            MdcContext mdcContext) {
+        execute(messageHandler, message, acknowledgeHandler);
+    }
+
+    /**
+     * Runs processing of a message that has not been parsed yet. Invokers that don't need the parsed message to choose
+     * a thread run the task on their own threads, so parsing doesn't hold the thread that receives messages from the broker.
+     * By default the task runs on the calling thread and passes the message to this invoker.
+     *
+     * @throws RuntimeException when the task can't be accepted
+     */
+    default void execute(RawMessageTask task) {
+        task.run(this);
+    }
+
+    /**
+     * @return number of messages that were dropped without processing because they had expired while waiting in a queue,
+     * 0 for invokers that don't queue messages
+     */
+    default long getExpiredMessagesCount() {
+        return 0;
+    }
+
     /**
      * Perform cleanup on shutdown if required.
      */
@@ -3,11 +3,15 @@ package io.github.tcdl.msb.threading;
 import io.github.tcdl.msb.MessageHandler;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.jfr.MessageEventType;
+import io.github.tcdl.msb.jfr.MessageEvents;
+import io.github.tcdl.msb.support.MdcContext;
+import io.github.tcdl.msb.support.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
 
-import java.util.Map;
+import java.time.Clock;
+import java.time.Instant;
 
 /**
  * {@link MessageProcessingTask} wraps incoming message.
@@ -18,39 +22,93 @@ public class MessageProcessingTask implements Runnable {
     final Message message;
     final MessageHandler messageHandler;
     final AcknowledgementHandlerInternal ackHandler;
-    final Map<String, String> mdcLogContextMap;
-    final boolean mdcLogCopy;
+    final MdcContext mdcContext;
+    final Clock clock;
+    final long deadline;
+    final Runnable expiredMessageCallback;
+    final Object dequeuedEvent;
 
     public MessageProcessingTask( MessageHandler messageHandler, Message message,
                                      AcknowledgementHandlerInternal ackHandler) {
+        this(messageHandler, message, ackHandler, Clock.systemDefaultZone(), () -> {});
+    }
+
+    /**
+     * @param clock clock used to check if the message has expired while waiting in a queue
+     * @param expiredMessageCallback invoked when the message is dropped because it has expired
+     */
+    public MessageProcessingTask(MessageHandler messageHandler, Message message,
+            AcknowledgementHandlerInternal ackHandler, Clock clock, Runnable expiredMessageCallback) {
+        this(messageHandler, message, ackHandler, MdcContext.capture(), clock, expiredMessageCallback);
+    }
+
+    /**
+     * @param mdcContext MDC context of the message or null if there is none
+     * @param clock clock used to check if the message has expired while waiting in a queue
+     * @param expiredMessageCallback invoked when the message is dropped because it has expired
+     */
+    public MessageProcessingTask(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal ackHandler,
+            MdcContext mdcContext, Clock clock, Runnable expiredMessageCallback) {
         this.message = message;
         this.messageHandler = messageHandler;
         this.ackHandler = ackHandler;
-        this.mdcLogContextMap = MDC.getCopyOfContextMap();
-        this.mdcLogCopy = mdcLogContextMap != null && !mdcLogContextMap.isEmpty();
+        this.mdcContext = mdcContext;
+        this.clock = clock;
+        this.deadline = Utils.getExpiryTime(message).map(Instant::toEpochMilli).orElse(Long.MAX_VALUE);
+        this.expiredMessageCallback = expiredMessageCallback;
+        MessageEvents.record(MessageEventType.QUEUED, message);
+        this.dequeuedEvent = MessageEvents.begin(MessageEventType.DEQUEUED);
     }
 
     /**
      * Passes the message to the configured handler and acknowledges it to AMQP broker.
+     * The message is rejected without processing if it has expired while waiting in a queue because nobody
+     * is interested in its result any more.
      * IMPORTANT CAVEAT: This task is meant to be run in a thread pool so it should handle all its exceptions carefully. In particular it shouldn't
      * throw an exception (because it's going to be swallowed anyway and not printed)
      */
     @Override
     public void run() {
-        if(mdcLogCopy) {
-            MDC.setContextMap(mdcLogContextMap);
+        MessageEvents.commit(dequeuedEvent, message);
+        process(messageHandler, message, ackHandler, mdcContext, deadline, clock, expiredMessageCallback);
+    }
+
+    /**
+     * Processing logic shared with invokers that don't create a task per message.
+     *
+     * @param mdcContext MDC context of the message or null if there is none
+     */
+    static void process(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal ackHandler,
+            MdcContext mdcContext, long deadline, Clock clock, Runnable expiredMessageCallback) {
+        // the message may be processed by the thread that consumed it, the context is installed already then
+        boolean installMdcContext = mdcContext != null && mdcContext != MdcContext.current();
+        if(installMdcContext) {
+            mdcContext.install();
         }
         try {
+            if (deadline < clock.millis()) {
+                LOG.debug("[correlation id: {}] Message has expired while waiting for processing and is dropped", message.getCorrelationId());
+                ackHandler.autoReject();
+                expiredMessageCallback.run();
+                return;
+            }
             LOG.debug("[correlation id: {}] Starting message processing", message.getCorrelationId());
-            messageHandler.handleMessage(message, ackHandler);
+            Object executedEvent = MessageEvents.begin(MessageEventType.HANDLER_EXECUTED);
+            boolean failed = true;
+            try {
+                messageHandler.handleMessage(message, ackHandler);
+                failed = false;
+            } finally {
+                MessageEvents.commitHandlerExecuted(executedEvent, message, failed);
+            }
             LOG.debug("[correlation id: {}] Message has been processed", message.getCorrelationId());
             ackHandler.autoConfirm();
         } catch (Exception e) {
             LOG.error("[correlation id: {}] Failed to process message", message.getCorrelationId(), e);
             ackHandler.autoRetry();
         } finally {
-            if(mdcLogCopy) {
-                MDC.clear();
+            if(installMdcContext) {
+                mdcContext.uninstall();
             }
         }
     }
@@ -66,4 +124,11 @@ public class MessageProcessingTask implements Runnable {
     public AcknowledgementHandlerInternal getAckHandler() {
         return ackHandler;
     }
+
+    /**
+     * @return epoch millis after which the message is not worth processing or {@link Long#MAX_VALUE} if it never expires
+     */
+    public long getDeadline() {
+        return deadline;
+    }
 }
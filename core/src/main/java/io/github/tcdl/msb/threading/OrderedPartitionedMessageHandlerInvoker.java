@@ -0,0 +1,301 @@
+package io.github.tcdl.msb.threading;
+
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Like {@link GroupedExecutorBasedMessageHandlerInvoker} this {@link MessageHandlerInvoker} executes
+ * {@link io.github.tcdl.msb.MessageHandler} sequentially for messages with the same "groupId" while messages with
+ * different "groupId" are processed in parallel. But groups are not pinned to threads:
+ * <ul>
+ *     <li>a group with pending messages is queued to its home worker (chosen by the group id hash) and a worker runs
+ *     one message of the group at a time, so a hot group doesn't pin a thread and other groups of the same worker
+ *     take turns with it;</li>
+ *     <li>a worker without work takes over queued groups of other workers. A group is only in a queue
+ *     when none of its messages is being processed, so the order of messages within a group is preserved;</li>
+ *     <li>messages without a group go to the least loaded worker.</li>
+ * </ul>
+ */
+public class OrderedPartitionedMessageHandlerInvoker extends ExecutorBasedMessageHandlerInvoker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderedPartitionedMessageHandlerInvoker.class);
+
+    /**
+     * Idle workers are woken up on new work, the timeout is only a safety net.
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final MessageGroupStrategy messageGroupStrategy;
+    private final ExecutorService executor;
+    private final Worker[] workers;
+    private final ConcurrentMap<Integer, Group> groupsById = new ConcurrentHashMap<>();
+
+    /**
+     * Max number of messages waiting for processing, the same as for {@link GroupedExecutorBasedMessageHandlerInvoker}
+     * that has a queue of the given capacity per thread.
+     */
+    private final long maxPendingTasks;
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    private final LongAdder stolenItemsCount = new LongAdder();
+    private volatile boolean isShutdown = false;
+
+    public OrderedPartitionedMessageHandlerInvoker(int numberOfThreads, int queueCapacity,
+            ConsumerExecutorFactory consumerExecutorFactory, MessageGroupStrategy messageGroupStrategy) {
+        this(numberOfThreads, queueCapacity, consumerExecutorFactory, messageGroupStrategy, Clock.systemDefaultZone());
+    }
+
+    public OrderedPartitionedMessageHandlerInvoker(int numberOfThreads, int queueCapacity,
+            ConsumerExecutorFactory consumerExecutorFactory, MessageGroupStrategy messageGroupStrategy, Clock clock) {
+        super(consumerExecutorFactory, clock);
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("'numberOfThreads' must be positive");
+        }
+        this.messageGroupStrategy = messageGroupStrategy;
+        this.maxPendingTasks = queueCapacity == ConsumerExecutorFactoryImpl.QUEUE_SIZE_UNLIMITED
+                ? Long.MAX_VALUE
+                : (long) queueCapacity * numberOfThreads;
+
+        this.workers = new Worker[numberOfThreads];
+        for (int i = 0; i < numberOfThreads; i++) {
+            workers[i] = new Worker(i);
+        }
+        // workers never leave their loop until shutdown so the pool doesn't need a queue of its own
+        this.executor = consumerExecutorFactory.createConsumerThreadPool(numberOfThreads, ConsumerExecutorFactoryImpl.QUEUE_SIZE_UNLIMITED);
+        for (Worker worker : workers) {
+            executor.execute(worker);
+        }
+    }
+
+    /**
+     * @throws RejectedExecutionException if the invoker is shut down or too many messages are waiting for processing
+     */
+    @Override
+    protected void doSubmitTask(MessageProcessingTask task, Message message) {
+        if (isShutdown) {
+            throw new RejectedExecutionException("Invoker is shut down");
+        }
+        if (pendingTasks.incrementAndGet() > maxPendingTasks) {
+            pendingTasks.decrementAndGet();
+            throw new RejectedExecutionException("Too many messages are waiting for processing");
+        }
+
+        Optional<Integer> messageGroupId = messageGroupStrategy.getMessageGroupId(message);
+        if (messageGroupId.isPresent()) {
+            submitToGroup(messageGroupId.get(), task);
+        } else {
+            getLeastLoadedWorker().push(() -> runTask(task));
+        }
+    }
+
+    private void submitToGroup(int groupId, MessageProcessingTask task) {
+        while (true) {
+            Group group = groupsById.computeIfAbsent(groupId, id -> new Group(id, workers[getHomeWorkerIndex(id)]));
+            boolean isScheduleNeeded;
+            synchronized (group) {
+                if (group.isRetired) {
+                    // the group has just become empty and left the map, a new one is created on the next attempt
+                    continue;
+                }
+                group.tasks.add(task);
+                isScheduleNeeded = !group.isScheduled;
+                group.isScheduled = true;
+            }
+            if (isScheduleNeeded) {
+                group.home.push(group);
+            }
+            return;
+        }
+    }
+
+    private int getHomeWorkerIndex(int groupId) {
+        // spread sequential ids, the finalization step of MurmurHash3
+        int hash = groupId;
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, workers.length);
+    }
+
+    private Worker getLeastLoadedWorker() {
+        int start = ThreadLocalRandom.current().nextInt(workers.length);
+        Worker leastLoaded = workers[start];
+        for (int i = 1; i < workers.length && leastLoaded.load.get() > 0; i++) {
+            Worker worker = workers[(start + i) % workers.length];
+            if (worker.load.get() < leastLoaded.load.get()) {
+                leastLoaded = worker;
+            }
+        }
+        return leastLoaded;
+    }
+
+    private void runTask(MessageProcessingTask task) {
+        pendingTasks.decrementAndGet();
+        task.run();
+    }
+
+    private void wakeUpWorkerFor(Worker target) {
+        if (target.isParked) {
+            LockSupport.unpark(target.thread);
+            return;
+        }
+        for (Worker worker : workers) {
+            if (worker.isParked) {
+                LockSupport.unpark(worker.thread);
+                return;
+            }
+        }
+    }
+
+    private boolean hasQueuedWork() {
+        for (Worker worker : workers) {
+            if (!worker.queue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of groups and messages taken over by workers from queues of other workers
+     */
+    public long getStolenItemsCount() {
+        return stolenItemsCount.sum();
+    }
+
+    @Override
+    public void shutdown() {
+        isShutdown = true;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+        Utils.gracefulShutdown(executor, "consumer");
+    }
+
+    /**
+     * Messages of the same group. The group is either in a queue of some worker, or is being processed
+     * by a worker, or has no messages (not scheduled).
+     */
+    private final class Group implements Runnable {
+        private final int id;
+        private final Worker home;
+        private final Queue<MessageProcessingTask> tasks = new ArrayDeque<>();
+        private boolean isScheduled = false;
+        private boolean isRetired = false;
+
+        Group(int id, Worker home) {
+            this.id = id;
+            this.home = home;
+        }
+
+        @Override
+        public void run() {
+            MessageProcessingTask task;
+            synchronized (this) {
+                task = tasks.poll();
+            }
+            runTask(task);
+
+            synchronized (this) {
+                if (tasks.isEmpty()) {
+                    isScheduled = false;
+                    isRetired = true;
+                    groupsById.remove(id, this);
+                    return;
+                }
+            }
+            // go to the end of the queue so other groups of the worker get their turn
+            home.push(this);
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final int index;
+        private final ConcurrentLinkedDeque<Runnable> queue = new ConcurrentLinkedDeque<>();
+
+        /**
+         * Queued items plus the item being run, used to pick the least loaded worker.
+         */
+        private final AtomicInteger load = new AtomicInteger();
+        private volatile Thread thread;
+        private volatile boolean isParked = false;
+
+        Worker(int index) {
+            this.index = index;
+        }
+
+        void push(Runnable item) {
+            load.incrementAndGet();
+            queue.addLast(item);
+            wakeUpWorkerFor(this);
+        }
+
+        Runnable poll() {
+            Runnable item = queue.pollFirst();
+            if (item != null) {
+                load.decrementAndGet();
+            }
+            return item;
+        }
+
+        private Runnable steal() {
+            for (int i = 1; i < workers.length; i++) {
+                Runnable item = workers[(index + i) % workers.length].poll();
+                if (item != null) {
+                    stolenItemsCount.increment();
+                    return item;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            while (true) {
+                Runnable item = poll();
+                if (item == null) {
+                    item = steal();
+                }
+
+                if (item != null) {
+                    load.incrementAndGet();
+                    try {
+                        item.run();
+                    } catch (Exception e) {
+                        LOG.error("Unexpected exception while processing a message", e);
+                    } finally {
+                        load.decrementAndGet();
+                    }
+                } else if (isShutdown && pendingTasks.get() == 0) {
+                    return;
+                } else {
+                    // announce parking before the last check so a concurrent push either is seen here or unparks this worker
+                    isParked = true;
+                    if (!hasQueuedWork()) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    isParked = false;
+                }
+            }
+        }
+    }
+}
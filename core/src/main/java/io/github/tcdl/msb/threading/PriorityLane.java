@@ -0,0 +1,77 @@
+package io.github.tcdl.msb.threading;
+
+import io.github.tcdl.msb.api.message.Message;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lane of {@link PriorityLaneMessageHandlerInvoker}. A message belongs to the lane if it has one of the lane tags
+ * or is sent to a topic in one of the lane namespaces (topic prefixes, e.g. "search:").
+ */
+public class PriorityLane {
+
+    private final String name;
+    private final int weight;
+    private final Set<String> tags;
+    private final List<String> namespaces;
+
+    public PriorityLane(String name, int weight, Collection<String> tags, List<String> namespaces) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Weight of lane '" + name + "' must be positive");
+        }
+        this.name = name;
+        this.weight = weight;
+        this.tags = Collections.unmodifiableSet(new LinkedHashSet<>(tags));
+        this.namespaces = Collections.unmodifiableList(namespaces);
+    }
+
+    boolean matches(Message message) {
+        List<String> messageTags = message.getTags();
+        if (messageTags != null) {
+            for (String tag : messageTags) {
+                if (tag != null && tags.contains(tag)) {
+                    return true;
+                }
+            }
+        }
+        String topic = message.getTopics() != null ? message.getTopics().getTo() : null;
+        if (topic != null) {
+            for (String namespace : namespaces) {
+                if (topic.startsWith(namespace)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public Set<String> getTags() {
+        return tags;
+    }
+
+    public List<String> getNamespaces() {
+        return namespaces;
+    }
+
+    @Override
+    public String toString() {
+        return "PriorityLane{" +
+                "name='" + name + '\'' +
+                ", weight=" + weight +
+                ", tags=" + tags +
+                ", namespaces=" + namespaces +
+                '}';
+    }
+}
@@ -0,0 +1,277 @@
+package io.github.tcdl.msb.threading;
+
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link MessageHandlerInvoker} that puts incoming messages into {@link PriorityLane}s by tags or topic namespace
+ * and lets consumer threads take them from the lanes according to the {@link Scheduling} instead of the arrival order.
+ * Messages that match no lane go to the default lane, which is the last one.
+ *
+ * Each lane has its own queue of the given capacity, so a flood of messages in one lane doesn't cause messages
+ * of other lanes to be rejected. Within a lane messages are taken in the arrival order, but like
+ * {@link ThreadPoolMessageHandlerInvoker} this invoker processes messages in parallel.
+ */
+public class PriorityLaneMessageHandlerInvoker extends ExecutorBasedMessageHandlerInvoker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PriorityLaneMessageHandlerInvoker.class);
+
+    public static final String DEFAULT_LANE = "default";
+
+    /**
+     * Defines how consumer threads choose the lane to take the next message from.
+     */
+    public enum Scheduling {
+        /**
+         * Lanes get turns in proportion to their weights (smooth weighted round robin), lanes without messages are skipped.
+         */
+        WEIGHTED_FAIR,
+
+        /**
+         * The first lane with messages is always served first. A message of a lower lane that has waited longer than
+         * the max starvation time is taken before messages of higher lanes.
+         */
+        STRICT
+    }
+
+    private final Lane[] lanes;
+    private final int queueCapacity;
+    private final Scheduling scheduling;
+    private final long maxStarvationNanos;
+    private final ExecutorService executor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition messageQueued = lock.newCondition();
+    private final LongAdder starvationPromotionsCount = new LongAdder();
+    private volatile boolean isShutdown = false;
+
+    /**
+     * @param queueCapacity max number of messages waiting for processing per lane, -1 means unlimited
+     * @param priorityLanes lanes in the order of their priority, a message goes to the first lane it matches
+     * @param maxStarvationMs applicable to {@link Scheduling#STRICT}, 0 means messages of lower lanes may wait forever
+     */
+    public PriorityLaneMessageHandlerInvoker(int numberOfThreads, int queueCapacity, List<PriorityLane> priorityLanes, int defaultLaneWeight,
+            Scheduling scheduling, long maxStarvationMs, ConsumerExecutorFactory consumerExecutorFactory, Clock clock) {
+        super(consumerExecutorFactory, clock);
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("'numberOfThreads' must be positive");
+        }
+        this.lanes = new Lane[priorityLanes.size() + 1];
+        for (int i = 0; i < priorityLanes.size(); i++) {
+            lanes[i] = new Lane(priorityLanes.get(i));
+        }
+        lanes[priorityLanes.size()] = new Lane(new PriorityLane(DEFAULT_LANE, defaultLaneWeight, Collections.emptySet(), Collections.emptyList()));
+        this.queueCapacity = queueCapacity;
+        this.scheduling = scheduling;
+        this.maxStarvationNanos = TimeUnit.MILLISECONDS.toNanos(maxStarvationMs);
+
+        // workers never leave their loop until shutdown so the pool doesn't need a queue of its own
+        this.executor = consumerExecutorFactory.createConsumerThreadPool(numberOfThreads, ConsumerExecutorFactoryImpl.QUEUE_SIZE_UNLIMITED);
+        for (int i = 0; i < numberOfThreads; i++) {
+            executor.execute(this::work);
+        }
+    }
+
+    /**
+     * @throws RejectedExecutionException if the invoker is shut down or the lane of the message is full
+     */
+    @Override
+    protected void doSubmitTask(MessageProcessingTask task, Message message) {
+        Lane lane = classify(message);
+        lock.lock();
+        try {
+            if (isShutdown) {
+                throw new RejectedExecutionException("Invoker is shut down");
+            }
+            if (queueCapacity != ConsumerExecutorFactoryImpl.QUEUE_SIZE_UNLIMITED && lane.tasks.size() >= queueCapacity) {
+                throw new RejectedExecutionException("Lane '" + lane.definition.getName() + "' is full");
+            }
+            lane.tasks.add(new QueuedTask(task, System.nanoTime()));
+            messageQueued.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lane classify(Message message) {
+        for (int i = 0; i < lanes.length - 1; i++) {
+            if (lanes[i].definition.matches(message)) {
+                return lanes[i];
+            }
+        }
+        return lanes[lanes.length - 1];
+    }
+
+    private void work() {
+        while (true) {
+            MessageProcessingTask task;
+            Lane lane;
+            lock.lock();
+            try {
+                while ((lane = selectLane()) == null) {
+                    if (isShutdown) {
+                        return;
+                    }
+                    messageQueued.await();
+                }
+                task = lane.tasks.poll().task;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                task.run();
+            } catch (Exception e) {
+                LOG.error("Unexpected exception while processing a message", e);
+            } finally {
+                lane.processedCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Must be called under the lock.
+     *
+     * @return lane to take the next message from or null if all lanes are empty
+     */
+    private Lane selectLane() {
+        return scheduling == Scheduling.STRICT ? selectStrictly() : selectWeightedFair();
+    }
+
+    private Lane selectStrictly() {
+        int first = 0;
+        while (first < lanes.length && lanes[first].tasks.isEmpty()) {
+            first++;
+        }
+        if (first == lanes.length) {
+            return null;
+        }
+        if (maxStarvationNanos > 0) {
+            long now = System.nanoTime();
+            Lane starving = null;
+            long starvingSince = 0;
+            for (int i = first + 1; i < lanes.length; i++) {
+                QueuedTask head = lanes[i].tasks.peek();
+                if (head != null && now - head.queuedAtNanos >= maxStarvationNanos
+                        && (starving == null || head.queuedAtNanos - starvingSince < 0)) {
+                    starving = lanes[i];
+                    starvingSince = head.queuedAtNanos;
+                }
+            }
+            if (starving != null) {
+                starvationPromotionsCount.increment();
+                return starving;
+            }
+        }
+        return lanes[first];
+    }
+
+    private Lane selectWeightedFair() {
+        Lane selected = null;
+        int totalWeight = 0;
+        for (Lane lane : lanes) {
+            if (lane.tasks.isEmpty()) {
+                // an idle lane doesn't save up turns
+                lane.currentWeight = 0;
+                continue;
+            }
+            lane.currentWeight += lane.definition.getWeight();
+            totalWeight += lane.definition.getWeight();
+            if (selected == null || lane.currentWeight > selected.currentWeight) {
+                selected = lane;
+            }
+        }
+        if (selected != null) {
+            selected.currentWeight -= totalWeight;
+        }
+        return selected;
+    }
+
+    /**
+     * @return number of messages of the lane waiting for processing
+     * @throws IllegalArgumentException if there is no such lane
+     */
+    public int getQueuedMessagesCount(String laneName) {
+        Lane lane = getLane(laneName);
+        lock.lock();
+        try {
+            return lane.tasks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of messages of the lane that have been taken for processing
+     * @throws IllegalArgumentException if there is no such lane
+     */
+    public long getProcessedMessagesCount(String laneName) {
+        return getLane(laneName).processedCount.sum();
+    }
+
+    /**
+     * @return number of times a message of a lower lane was taken before higher lanes because it had waited too long
+     */
+    public long getStarvationPromotionsCount() {
+        return starvationPromotionsCount.sum();
+    }
+
+    private Lane getLane(String laneName) {
+        for (Lane lane : lanes) {
+            if (lane.definition.getName().equals(laneName)) {
+                return lane;
+            }
+        }
+        throw new IllegalArgumentException("Unknown lane '" + laneName + "'");
+    }
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            isShutdown = true;
+            messageQueued.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        Utils.gracefulShutdown(executor, "consumer");
+    }
+
+    private static final class Lane {
+        private final PriorityLane definition;
+        private final Queue<QueuedTask> tasks = new ArrayDeque<>();
+        private final LongAdder processedCount = new LongAdder();
+        private int currentWeight = 0;
+
+        Lane(PriorityLane definition) {
+            this.definition = definition;
+        }
+    }
+
+    private static final class QueuedTask {
+        private final MessageProcessingTask task;
+        private final long queuedAtNanos;
+
+        QueuedTask(MessageProcessingTask task, long queuedAtNanos) {
+            this.task = task;
+            this.queuedAtNanos = queuedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.tcdl.msb.threading;
+
+/**
+ * Processing of an incoming message that has not been parsed yet, see {@link MessageHandlerInvoker#execute(RawMessageTask)}.
+ */
+@FunctionalInterface
+public interface RawMessageTask {
+
+    /**
+     * Parses the message and passes it to the given invoker, or acknowledges it if it can't be processed.
+     * Should handle all its exceptions.
+     *
+     * @param invoker invoker that processes the parsed message on the current thread or queues it
+     */
+    void run(MessageHandlerInvoker invoker);
+}
@@ -0,0 +1,300 @@
+package io.github.tcdl.msb.threading;
+
+import io.github.tcdl.msb.MessageHandler;
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.MdcContext;
+import io.github.tcdl.msb.support.Utils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link MessageHandlerInvoker} that hands messages over to consumer threads through a pre-allocated ring buffer
+ * instead of a thread pool queue. Slots of the ring buffer are reused, so no task object and no queue node
+ * is allocated per message. By default each consumer thread takes one message at a time; with a batch size above 1
+ * a consumer thread takes all available messages (up to the batch size) at once and processes them one after another.
+ *
+ * Consumer threads without messages wait according to the {@link WaitStrategy}. When the ring buffer is full
+ * the message is rejected like by a bounded thread pool, so the thread that delivers messages never waits.
+ *
+ * Messages are processed in parallel, so like {@link ThreadPoolMessageHandlerInvoker} this invoker doesn't preserve
+ * the order of incoming messages.
+ */
+public class RingBufferMessageHandlerInvoker implements MessageHandlerInvoker {
+
+    /**
+     * Capacity used when the queue capacity is unlimited.
+     */
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int SPIN_TRIES = 100;
+    private static final long BLOCKING_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Defines what a consumer thread does while there are no messages in the ring buffer.
+     */
+    public enum WaitStrategy {
+        /**
+         * Keep checking the ring buffer. The lowest latency but a CPU core is fully used by each consumer thread.
+         */
+        BUSY_SPIN,
+
+        /**
+         * Spin for a while and then yield the CPU to other threads between checks.
+         */
+        YIELDING,
+
+        /**
+         * Sleep until a message is published. The highest latency but no CPU is used while idle.
+         */
+        BLOCKING
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final int batchSize;
+    private final WaitStrategy waitStrategy;
+    private final Clock clock;
+
+    /**
+     * Sequence number of the next slot to be claimed by a producer.
+     */
+    private final AtomicLong producerSequence = new AtomicLong();
+
+    /**
+     * Sequence number of the next slot to be taken by a consumer.
+     */
+    private final AtomicLong consumerSequence = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition messagePublished = lock.newCondition();
+    private final AtomicInteger blockedConsumers = new AtomicInteger();
+
+    private final ExecutorService executor;
+    private final LongAdder expiredMessagesCount = new LongAdder();
+    private final Runnable expiredMessageCallback = expiredMessagesCount::increment;
+    private volatile boolean isShutdown = false;
+
+    /**
+     * @param queueCapacity min number of messages waiting for processing, is rounded up to a power of two.
+     *                      -1 means {@link #DEFAULT_CAPACITY}
+     * @param batchSize max number of messages taken by a consumer thread at once
+     */
+    public RingBufferMessageHandlerInvoker(int numberOfThreads, int queueCapacity, int batchSize, WaitStrategy waitStrategy,
+            ConsumerExecutorFactory consumerExecutorFactory, Clock clock) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("'numberOfThreads' must be positive");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("'batchSize' must be positive");
+        }
+        int capacity = queueCapacity == ConsumerExecutorFactoryImpl.QUEUE_SIZE_UNLIMITED ? DEFAULT_CAPACITY : roundUpToPowerOfTwo(queueCapacity);
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(i);
+        }
+        this.mask = capacity - 1;
+        this.batchSize = batchSize;
+        this.waitStrategy = waitStrategy;
+        this.clock = clock;
+
+        // consumer loops never leave until shutdown so the pool doesn't need a queue of its own
+        this.executor = consumerExecutorFactory.createConsumerThreadPool(numberOfThreads, ConsumerExecutorFactoryImpl.QUEUE_SIZE_UNLIMITED);
+        for (int i = 0; i < numberOfThreads; i++) {
+            executor.execute(this::consume);
+        }
+    }
+
+    private static int roundUpToPowerOfTwo(int value) {
+        if (value < 1 || value > 1 << 30) {
+            throw new IllegalArgumentException("'queueCapacity' must be between 1 and 2^30 or -1");
+        }
+        return value == 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * @throws RejectedExecutionException if the invoker is shut down or the ring buffer is full
+     */
+    @Override
+    public void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler) {
+        execute(messageHandler, message, acknowledgeHandler, MdcContext.capture());
+    }
+
+    /**
+     * The context is stored in the slot by reference.
+     *
+     * @throws RejectedExecutionException if the invoker is shut down or the ring buffer is full
+     */
+    @Override
+    public void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler,
+            MdcContext mdcContext) {
+        long deadline = Utils.getExpiryTime(message).map(Instant::toEpochMilli).orElse(Long.MAX_VALUE);
+
+        long sequence;
+        Slot slot;
+        while (true) {
+            if (isShutdown) {
+                throw new RejectedExecutionException("Invoker is shut down");
+            }
+            sequence = producerSequence.get();
+            slot = slots[(int) sequence & mask];
+            long slotSequence = slot.sequence;
+            if (slotSequence == sequence) {
+                if (producerSequence.compareAndSet(sequence, sequence + 1)) {
+                    break;
+                }
+            } else if (slotSequence < sequence) {
+                throw new RejectedExecutionException("Ring buffer is full");
+            }
+        }
+
+        slot.messageHandler = messageHandler;
+        slot.message = message;
+        slot.ackHandler = acknowledgeHandler;
+        slot.mdcContext = mdcContext;
+        slot.deadline = deadline;
+        slot.sequence = sequence + 1;
+
+        if (waitStrategy == WaitStrategy.BLOCKING && blockedConsumers.get() > 0) {
+            lock.lock();
+            try {
+                messagePublished.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void consume() {
+        int idleIterations = 0;
+        while (true) {
+            long first = consumerSequence.get();
+            int available = 0;
+            while (available < batchSize && isPublished(first + available)) {
+                available++;
+            }
+
+            if (available == 0) {
+                if (isShutdown && first >= producerSequence.get()) {
+                    return;
+                }
+                waitForMessage(first, idleIterations++);
+                continue;
+            }
+            idleIterations = 0;
+
+            if (!consumerSequence.compareAndSet(first, first + available)) {
+                continue;
+            }
+            for (long sequence = first; sequence < first + available; sequence++) {
+                processSlot(sequence);
+            }
+        }
+    }
+
+    private boolean isPublished(long sequence) {
+        return slots[(int) sequence & mask].sequence == sequence + 1;
+    }
+
+    private void processSlot(long sequence) {
+        Slot slot = slots[(int) sequence & mask];
+        MessageHandler messageHandler = slot.messageHandler;
+        Message message = slot.message;
+        AcknowledgementHandlerInternal ackHandler = slot.ackHandler;
+        MdcContext mdcContext = slot.mdcContext;
+        long deadline = slot.deadline;
+
+        slot.messageHandler = null;
+        slot.message = null;
+        slot.ackHandler = null;
+        slot.mdcContext = null;
+        // free the slot for the next lap before processing so producers don't wait for the handler
+        slot.sequence = sequence + slots.length;
+
+        MessageProcessingTask.process(messageHandler, message, ackHandler, mdcContext, deadline, clock, expiredMessageCallback);
+    }
+
+    private void waitForMessage(long sequence, int idleIterations) {
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                break;
+            case YIELDING:
+                if (idleIterations > SPIN_TRIES) {
+                    Thread.yield();
+                }
+                break;
+            case BLOCKING:
+                lock.lock();
+                try {
+                    blockedConsumers.incrementAndGet();
+                    // check again after announcing so a concurrent producer either is seen here or signals
+                    if (!isPublished(sequence) && !isShutdown) {
+                        messagePublished.awaitNanos(BLOCKING_WAIT_NANOS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    blockedConsumers.decrementAndGet();
+                    lock.unlock();
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown wait strategy " + waitStrategy);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getExpiredMessagesCount() {
+        return expiredMessagesCount.sum();
+    }
+
+    /**
+     * @return number of messages in the ring buffer that are not taken by consumer threads yet
+     */
+    public long getBacklog() {
+        return Math.max(0, producerSequence.get() - consumerSequence.get());
+    }
+
+    int getCapacity() {
+        return slots.length;
+    }
+
+    @Override
+    public void shutdown() {
+        isShutdown = true;
+        lock.lock();
+        try {
+            messagePublished.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        Utils.gracefulShutdown(executor, "consumer");
+    }
+
+    /**
+     * Slot of the ring buffer. Its sequence equals to the sequence number of the message it waits for when free
+     * and to that number + 1 when the message is published.
+     */
+    private static final class Slot {
+        private volatile long sequence;
+        private MessageHandler messageHandler;
+        private Message message;
+        private AcknowledgementHandlerInternal ackHandler;
+        private MdcContext mdcContext;
+        private long deadline;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
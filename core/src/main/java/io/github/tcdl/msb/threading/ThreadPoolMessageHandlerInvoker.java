@@ -1,10 +1,14 @@
 package io.github.tcdl.msb.threading;
 
+import io.github.tcdl.msb.MessageHandler;
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.MdcContext;
 import io.github.tcdl.msb.support.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Clock;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -13,16 +17,50 @@ import java.util.concurrent.ExecutorService;
  * to concurrent issues when incoming messages order matters. When facing this kind of issues,
  * it is possible either to configure this class to work in a single-threaded mode,
  * or use {@link GroupedExecutorBasedMessageHandlerInvoker} instead.
+ *
+ * If "earliest deadline first" ordering is enabled, queued messages are taken in the order of their expiry time
+ * instead of the arrival order, so under overload the pool prefers messages that can still be answered in time.
  */
 public class ThreadPoolMessageHandlerInvoker extends ExecutorBasedMessageHandlerInvoker {
 
     private static final Logger LOG = LoggerFactory.getLogger(ThreadPoolMessageHandlerInvoker.class);
 
     private final ExecutorService executor;
+    private final boolean earliestDeadlineFirst;
+
+    /**
+     * Processes messages parsed by raw message tasks on the pool thread that runs the task.
+     */
+    private final MessageHandlerInvoker currentThreadInvoker = new MessageHandlerInvoker() {
+        @Override
+        public void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler) {
+            processInCurrentThread(messageHandler, message, acknowledgeHandler, MdcContext.current());
+        }
+
+        @Override
+        public void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler,
+                MdcContext mdcContext) {
+            processInCurrentThread(messageHandler, message, acknowledgeHandler, mdcContext);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    };
 
     public ThreadPoolMessageHandlerInvoker(int numberOfThreads, int queueCapacity, ConsumerExecutorFactory consumerExecutorFactory) {
-        super(consumerExecutorFactory);
-        this.executor = consumerExecutorFactory.createConsumerThreadPool(numberOfThreads, queueCapacity);
+        this(numberOfThreads, queueCapacity, consumerExecutorFactory, false, Clock.systemDefaultZone());
+    }
+
+    public ThreadPoolMessageHandlerInvoker(int numberOfThreads, int queueCapacity, ConsumerExecutorFactory consumerExecutorFactory,
+            boolean earliestDeadlineFirst, Clock clock) {
+        super(consumerExecutorFactory, clock);
+        this.earliestDeadlineFirst = earliestDeadlineFirst;
+        if (earliestDeadlineFirst) {
+            this.executor = consumerExecutorFactory.createDeadlineOrderedConsumerThreadPool(numberOfThreads, queueCapacity);
+        } else {
+            this.executor = consumerExecutorFactory.createConsumerThreadPool(numberOfThreads, queueCapacity);
+        }
     }
 
     @Override
@@ -30,6 +68,18 @@ public class ThreadPoolMessageHandlerInvoker extends ExecutorBasedMessageHandler
         executor.submit(task);
     }
 
+    /**
+     * Runs the task on a pool thread unless queued messages are ordered by deadline, which needs the parsed message.
+     */
+    @Override
+    public void execute(RawMessageTask task) {
+        if (earliestDeadlineFirst) {
+            task.run(this);
+        } else {
+            executor.execute(() -> task.run(currentThreadInvoker));
+        }
+    }
+
     @Override
     public void shutdown() {
         Utils.gracefulShutdown(executor, "consumer");
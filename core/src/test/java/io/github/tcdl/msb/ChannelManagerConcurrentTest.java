@@ -1,11 +1,13 @@
 package io.github.tcdl.msb;
 
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import io.github.tcdl.msb.adapters.AdapterFactory;
 import io.github.tcdl.msb.adapters.AdapterFactoryLoader;
@@ -14,6 +16,7 @@ import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.collector.CollectorManager;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.monitor.agent.ChannelMonitorAgent;
+import io.github.tcdl.msb.monitor.agent.TopicStatsRecorder;
 import io.github.tcdl.msb.support.JsonValidator;
 import io.github.tcdl.msb.support.TestUtils;
 
@@ -34,6 +37,8 @@ public class ChannelManagerConcurrentTest {
 
     private ChannelManager channelManager;
     private ChannelMonitorAgent mockChannelMonitorAgent;
+    private TopicStatsRecorder mockProducerStatsRecorder;
+    private TopicStatsRecorder mockConsumerStatsRecorder;
     private MessageHandler messageHandlerMock;
 
     @Before
@@ -47,6 +52,10 @@ public class ChannelManagerConcurrentTest {
         this.channelManager = new ChannelManager(msbConfig, clock, validator, messageMapper, adapterFactory, messageHandlerInvoker);
 
         mockChannelMonitorAgent = mock(ChannelMonitorAgent.class);
+        mockProducerStatsRecorder = mock(TopicStatsRecorder.class);
+        mockConsumerStatsRecorder = mock(TopicStatsRecorder.class);
+        when(mockChannelMonitorAgent.producerStatsRecorder(anyString())).thenReturn(mockProducerStatsRecorder);
+        when(mockChannelMonitorAgent.consumerStatsRecorder(anyString())).thenReturn(mockConsumerStatsRecorder);
         channelManager.setChannelMonitorAgent(mockChannelMonitorAgent);
         messageHandlerMock = mock(MessageHandler.class);
     }
@@ -91,7 +100,7 @@ public class ChannelManagerConcurrentTest {
         }).run();
 
         assertTrue(messagesSent.await(4000, TimeUnit.MILLISECONDS));
-        verify(mockChannelMonitorAgent, atLeast(numberOfThreads * numberOfInvocationsPerThread)).producerMessageSent(topic);
+        verify(mockProducerStatsRecorder, atLeast(numberOfThreads * numberOfInvocationsPerThread)).record();
     }
 
     @Test
@@ -116,7 +125,7 @@ public class ChannelManagerConcurrentTest {
         }).run();
 
         assertTrue(messagesReceived.await(RequesterResponderIT.MESSAGE_TRANSMISSION_TIME, TimeUnit.MILLISECONDS));
-        verify(mockChannelMonitorAgent, times(numberOfThreads * numberOfInvocationsPerThread)).consumerMessageReceived(topic);
+        verify(mockConsumerStatsRecorder, times(numberOfThreads * numberOfInvocationsPerThread)).record();
     }
 
 }
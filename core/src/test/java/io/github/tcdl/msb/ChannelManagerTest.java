@@ -1,33 +1,54 @@
 package io.github.tcdl.msb;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
 
 import io.github.tcdl.msb.adapters.AdapterFactory;
 import io.github.tcdl.msb.adapters.AdapterFactoryLoader;
+import io.github.tcdl.msb.adapters.ConsumerAdapter;
+import io.github.tcdl.msb.adapters.ProducerAdapter;
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
+import io.github.tcdl.msb.api.ResponderOptions;
 import io.github.tcdl.msb.api.exception.ConsumerSubscriptionException;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.collector.CollectorManager;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.monitor.agent.ChannelMonitorAgent;
+import io.github.tcdl.msb.monitor.agent.TopicStatsRecorder;
 import io.github.tcdl.msb.support.JsonValidator;
 import io.github.tcdl.msb.support.TestUtils;
+import io.github.tcdl.msb.support.Utils;
 
 import java.time.Clock;
+import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import javax.xml.ws.Holder;
 
+import io.github.tcdl.msb.threading.ConsumerExecutorFactory;
 import io.github.tcdl.msb.threading.ConsumerExecutorFactoryImpl;
 import io.github.tcdl.msb.threading.MessageHandlerInvoker;
 import io.github.tcdl.msb.threading.ThreadPoolMessageHandlerInvoker;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -35,6 +56,8 @@ public class ChannelManagerTest {
 
     private ChannelManager channelManager;
     private ChannelMonitorAgent mockChannelMonitorAgent;
+    private TopicStatsRecorder mockProducerStatsRecorder;
+    private TopicStatsRecorder mockConsumerStatsRecorder;
 
     @Before
     public void setUp() {
@@ -49,6 +72,10 @@ public class ChannelManagerTest {
         this.channelManager = new ChannelManager(msbConfig, clock, validator, messageMapper, adapterFactory, messageHandlerInvoker);
 
         mockChannelMonitorAgent = mock(ChannelMonitorAgent.class);
+        mockProducerStatsRecorder = mock(TopicStatsRecorder.class);
+        mockConsumerStatsRecorder = mock(TopicStatsRecorder.class);
+        when(mockChannelMonitorAgent.producerStatsRecorder(anyString())).thenReturn(mockProducerStatsRecorder);
+        when(mockChannelMonitorAgent.consumerStatsRecorder(anyString())).thenReturn(mockConsumerStatsRecorder);
         channelManager.setChannelMonitorAgent(mockChannelMonitorAgent);
     }
 
@@ -59,6 +86,7 @@ public class ChannelManagerTest {
         // Producer was created and monitor agent notified
         Producer producer1 = channelManager.findOrCreateProducer(topic);
         assertNotNull(producer1);
+        verify(mockChannelMonitorAgent).producerStatsRecorder(topic);
         verify(mockChannelMonitorAgent).producerTopicCreated(topic);
 
         // Cached producer was returned and monitor agent wasn't notified
@@ -85,7 +113,50 @@ public class ChannelManagerTest {
         Message message = TestUtils.createSimpleRequestMessage(topic);
         producer.publish(message);
 
-        verify(mockChannelMonitorAgent).producerMessageSent(topic);
+        verify(mockChannelMonitorAgent).producerStatsRecorder(topic);
+        verify(mockProducerStatsRecorder).record();
+    }
+
+    @Test
+    public void testProducerCreatedBeforeAgentIsSetRecordsWithAgent() {
+        String topic = "topic:test-agent-set-later";
+        ChannelMonitorAgent laterAgent = mock(ChannelMonitorAgent.class);
+        TopicStatsRecorder laterStatsRecorder = mock(TopicStatsRecorder.class);
+        when(laterAgent.producerStatsRecorder(topic)).thenReturn(laterStatsRecorder);
+
+        Producer producer = channelManager.findOrCreateProducer(topic);
+        channelManager.setChannelMonitorAgent(laterAgent);
+        producer.publish(TestUtils.createSimpleRequestMessage(topic));
+
+        verify(laterStatsRecorder).record();
+        verify(mockProducerStatsRecorder, never()).record();
+    }
+
+    @Test
+    public void testResponseProducerCreatedAsResponseTopic() {
+        String topic = "topic:test-response-producer:response:instance";
+        AdapterFactory mockAdapterFactory = mock(AdapterFactory.class);
+        when(mockAdapterFactory.createProducerAdapter(anyString(), anyBoolean())).thenReturn(mock(ProducerAdapter.class));
+        when(mockAdapterFactory.getDirectReplyTopic()).thenReturn(Optional.empty());
+        MessageHandlerInvoker mockSharedInvoker = mock(MessageHandlerInvoker.class);
+        ChannelManager channelManager = new ChannelManager(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone(), new JsonValidator(),
+                TestUtils.createMessageMapper(), mockAdapterFactory, mockSharedInvoker);
+
+        channelManager.findOrCreateProducer(topic, true);
+
+        verify(mockAdapterFactory).createProducerAdapter(topic, true);
+    }
+
+    @Test
+    public void testExpiredMessagesCountedOverInvokers() {
+        MessageHandlerInvoker mockConsumerInvoker = mock(MessageHandlerInvoker.class);
+        MessageHandlerInvoker mockResponseInvoker = mock(MessageHandlerInvoker.class);
+        when(mockConsumerInvoker.getExpiredMessagesCount()).thenReturn(3L);
+        when(mockResponseInvoker.getExpiredMessagesCount()).thenReturn(2L);
+        ChannelManager channelManager = new ChannelManager(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone(), new JsonValidator(),
+                TestUtils.createMessageMapper(), mock(AdapterFactory.class), mockConsumerInvoker, mockResponseInvoker, new ConsumerExecutorFactoryImpl());
+
+        assertEquals(5, channelManager.getExpiredMessagesCount());
     }
 
     @Test
@@ -105,7 +176,8 @@ public class ChannelManagerTest {
         channelManager.findOrCreateProducer(topic).publish(message);
 
         assertTrue(awaitReceiveEvents.await(4000, TimeUnit.MILLISECONDS));
-        verify(mockChannelMonitorAgent).consumerMessageReceived(topic);
+        verify(mockChannelMonitorAgent).consumerStatsRecorder(topic);
+        verify(mockConsumerStatsRecorder).record();
         assertNotNull(messageEvent.value);
     }
 
@@ -132,4 +204,133 @@ public class ChannelManagerTest {
         verify(mockChannelMonitorAgent, never()).consumerTopicRemoved(topic2);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSubscribeWithDedicatedThreadPool() throws Exception {
+        String topic = "topic:test-dedicated-pool";
+        MsbConfig msbConfig = TestUtils.createMsbConfigurations();
+        ObjectMapper messageMapper = TestUtils.createMessageMapper();
+        AdapterFactory mockAdapterFactory = mock(AdapterFactory.class);
+        ConsumerAdapter mockConsumerAdapter = mock(ConsumerAdapter.class);
+        MessageHandlerInvoker mockSharedInvoker = mock(MessageHandlerInvoker.class);
+        ConsumerExecutorFactory mockConsumerExecutorFactory = mock(ConsumerExecutorFactory.class);
+        ExecutorService mockExecutor = mock(ExecutorService.class);
+
+        when(mockAdapterFactory.isUseMsbThreadingModel()).thenReturn(true);
+        when(mockAdapterFactory.createConsumerAdapter(anyString(), anyBoolean(), any())).thenReturn(mockConsumerAdapter);
+        when(mockConsumerExecutorFactory.createConsumerThreadPool(anyInt(), anyInt())).thenReturn(mockExecutor);
+        when(mockExecutor.awaitTermination(anyLong(), any())).thenReturn(true);
+
+        ChannelManager channelManager = new ChannelManager(msbConfig, Clock.systemDefaultZone(), new JsonValidator(), messageMapper,
+                mockAdapterFactory, mockSharedInvoker, mockSharedInvoker, mockConsumerExecutorFactory);
+
+        ResponderOptions responderOptions = new ResponderOptions.Builder()
+                .withConsumerThreadPoolSize(2)
+                .withConsumerThreadPoolQueueCapacity(10)
+                .withPrefetchCount(3)
+                .build();
+        channelManager.subscribe(topic, (message, acknowledgeHandler) -> {}, responderOptions);
+
+        verify(mockConsumerExecutorFactory).createConsumerThreadPool(2, 10);
+        verify(mockAdapterFactory).createConsumerAdapter(topic, false, Optional.of(3));
+
+        ArgumentCaptor<ConsumerAdapter.RawMessageHandler> rawHandlerCaptor = ArgumentCaptor.forClass(ConsumerAdapter.RawMessageHandler.class);
+        verify(mockConsumerAdapter).subscribe(rawHandlerCaptor.capture());
+        String json = Utils.toJson(TestUtils.createSimpleRequestMessage(topic), messageMapper);
+        rawHandlerCaptor.getValue().onMessage(json, mock(AcknowledgementHandlerInternal.class));
+
+        verify(mockExecutor).submit(any(Runnable.class));
+        verify(mockSharedInvoker, never()).execute(any(), any(), any(), any());
+
+        // the dedicated pool survives re-subscription
+        channelManager.unsubscribe(topic);
+        channelManager.subscribe(topic, (message, acknowledgeHandler) -> {}, responderOptions);
+        verify(mockConsumerExecutorFactory, times(1)).createConsumerThreadPool(anyInt(), anyInt());
+
+        channelManager.shutdown();
+        verify(mockExecutor).shutdown();
+    }
+
+    @Test
+    public void testDedicatedThreadPoolCreatedBySeparateFactory() throws Exception {
+        String topic = "topic:test-dedicated-pool-factory";
+        AdapterFactory mockAdapterFactory = mock(AdapterFactory.class);
+        ConsumerExecutorFactory mockConsumerExecutorFactory = mock(ConsumerExecutorFactory.class);
+        ConsumerExecutorFactory mockDedicatedExecutorFactory = mock(ConsumerExecutorFactory.class);
+        ExecutorService mockExecutor = mock(ExecutorService.class);
+
+        when(mockAdapterFactory.isUseMsbThreadingModel()).thenReturn(true);
+        when(mockAdapterFactory.createConsumerAdapter(anyString(), anyBoolean(), any())).thenReturn(mock(ConsumerAdapter.class));
+        when(mockDedicatedExecutorFactory.createConsumerThreadPool(anyInt(), anyInt())).thenReturn(mockExecutor);
+        when(mockExecutor.awaitTermination(anyLong(), any())).thenReturn(true);
+
+        MessageHandlerInvoker mockSharedInvoker = mock(MessageHandlerInvoker.class);
+        ChannelManager channelManager = new ChannelManager(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone(), new JsonValidator(),
+                TestUtils.createMessageMapper(), mockAdapterFactory, mockSharedInvoker, mockSharedInvoker, mockConsumerExecutorFactory,
+                mockDedicatedExecutorFactory);
+
+        ResponderOptions responderOptions = new ResponderOptions.Builder()
+                .withConsumerThreadPoolSize(2)
+                .withConsumerThreadPoolQueueCapacity(10)
+                .build();
+        channelManager.subscribe(topic, (message, acknowledgeHandler) -> {}, responderOptions);
+
+        verify(mockDedicatedExecutorFactory).createConsumerThreadPool(2, 10);
+        verifyZeroInteractions(mockConsumerExecutorFactory);
+        assertSame(mockConsumerExecutorFactory, channelManager.getConsumerExecutorFactory());
+
+        channelManager.shutdown();
+    }
+
+    @Test
+    public void testSubscribeWithDedicatedThreadPoolIgnoredWithoutMsbThreadingModel() {
+        String topic = "topic:test-dedicated-pool-direct";
+        AdapterFactory mockAdapterFactory = mock(AdapterFactory.class);
+        ConsumerExecutorFactory mockConsumerExecutorFactory = mock(ConsumerExecutorFactory.class);
+        MessageHandlerInvoker mockSharedInvoker = mock(MessageHandlerInvoker.class);
+
+        when(mockAdapterFactory.isUseMsbThreadingModel()).thenReturn(false);
+        when(mockAdapterFactory.createConsumerAdapter(anyString(), anyBoolean(), any())).thenReturn(mock(ConsumerAdapter.class));
+
+        ChannelManager channelManager = new ChannelManager(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone(), new JsonValidator(),
+                TestUtils.createMessageMapper(), mockAdapterFactory, mockSharedInvoker, mockSharedInvoker, mockConsumerExecutorFactory);
+
+        channelManager.subscribe(topic, (message, acknowledgeHandler) -> {},
+                new ResponderOptions.Builder().withConsumerThreadPoolSize(2).build());
+
+        verify(mockConsumerExecutorFactory, never()).createConsumerThreadPool(anyInt(), anyInt());
+        verify(mockAdapterFactory).createConsumerAdapter(topic, false, Optional.empty());
+    }
+
+    @Test
+    public void testSubscribeForResponsesUsesResponseInvoker() {
+        String topic = "topic:test-response-lane";
+        ObjectMapper messageMapper = TestUtils.createMessageMapper();
+        AdapterFactory mockAdapterFactory = mock(AdapterFactory.class);
+        ConsumerAdapter mockConsumerAdapter = mock(ConsumerAdapter.class);
+        MessageHandlerInvoker mockSharedInvoker = mock(MessageHandlerInvoker.class);
+        MessageHandlerInvoker mockResponseInvoker = mock(MessageHandlerInvoker.class);
+        CollectorManager mockCollectorManager = mock(CollectorManager.class);
+        MessageHandler mockMessageHandler = mock(MessageHandler.class);
+
+        when(mockAdapterFactory.createConsumerAdapter(anyString(), anyBoolean(), any())).thenReturn(mockConsumerAdapter);
+        when(mockCollectorManager.resolveMessageHandler(any())).thenReturn(Optional.of(mockMessageHandler));
+
+        ChannelManager channelManager = new ChannelManager(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone(), new JsonValidator(),
+                messageMapper, mockAdapterFactory, mockSharedInvoker, mockResponseInvoker, new ConsumerExecutorFactoryImpl());
+
+        channelManager.subscribeForResponses(topic, mockCollectorManager);
+
+        verify(mockAdapterFactory).createConsumerAdapter(topic, true, Optional.empty());
+        ArgumentCaptor<ConsumerAdapter.RawMessageHandler> rawHandlerCaptor = ArgumentCaptor.forClass(ConsumerAdapter.RawMessageHandler.class);
+        verify(mockConsumerAdapter).subscribe(rawHandlerCaptor.capture());
+        String json = Utils.toJson(TestUtils.createSimpleResponseMessage(topic), messageMapper);
+        rawHandlerCaptor.getValue().onMessage(json, mock(AcknowledgementHandlerInternal.class));
+
+        verify(mockResponseInvoker).execute(eq(mockMessageHandler), any(), any(), any());
+        verify(mockSharedInvoker, never()).execute(any(), any(), any(), any());
+
+        channelManager.shutdown();
+        verify(mockSharedInvoker).shutdown();
+        verify(mockResponseInvoker).shutdown();
+    }
+}
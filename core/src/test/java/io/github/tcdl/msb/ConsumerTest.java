@@ -8,13 +8,16 @@ import static org.mockito.Mockito.*;
 import io.github.tcdl.msb.adapters.ConsumerAdapter;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.threading.MessageHandlerInvoker;
+import io.github.tcdl.msb.threading.RawMessageTask;
 import io.github.tcdl.msb.api.exception.JsonConversionException;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.api.message.MetaMessage;
 import io.github.tcdl.msb.api.message.Topics;
 import io.github.tcdl.msb.collector.ConsumedMessagesAwareMessageHandler;
 import io.github.tcdl.msb.config.MsbConfig;
+import io.github.tcdl.msb.message.ServiceDetailsRegistry;
 import io.github.tcdl.msb.monitor.agent.ChannelMonitorAgent;
+import io.github.tcdl.msb.monitor.agent.TopicStatsRecorder;
 import io.github.tcdl.msb.support.JsonValidator;
 import io.github.tcdl.msb.support.TestUtils;
 import io.github.tcdl.msb.support.Utils;
@@ -24,11 +27,13 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -95,6 +100,7 @@ public class ConsumerTest {
         when(msbConfMock.getMdcLoggingKeyCorrelationId()).thenReturn(MDC_KEY_CORR_ID);
         when(msbConfMock.getMdcLoggingKeyMessageTags()).thenReturn(MDC_KEY_TAGS);
         when(msbConfMock.isMdcLogging()).thenReturn(true);
+        when(channelMonitorAgentMock.consumerStatsRecorder(anyString())).thenReturn(TopicStatsRecorder.NOOP);
         when(msbConfMock.getMdcLoggingSplitTagsBy()).thenReturn(MDC_SPLIT_BY);
     }
 
@@ -167,7 +173,7 @@ public class ConsumerTest {
 
     @Test
     public void testConsumedMessagesAwareMessageHandlerNotifiedWhenMessageLost() throws JsonConversionException {
-        doThrow(new RuntimeException("Something really unexpected.")).when(messageHandlerInvokerMock).execute(any(), any(), any());
+        doThrow(new RuntimeException("Something really unexpected.")).when(messageHandlerInvokerMock).execute(any(), any(), any(), any());
 
         Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
         Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, consumedMessagesAwareMessageHandlerResolverMock, msbConfMock, clock, channelMonitorAgentMock, validator, messageMapper);
@@ -178,6 +184,19 @@ public class ConsumerTest {
         verify(consumedMessagesAwareMessageHandlerMock, times(1)).notifyConsumedMessageIsLost();
     }
 
+    @Test
+    public void testServiceDetailsOfSenderRegistered() throws JsonConversionException {
+        Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        ServiceDetailsRegistry serviceDetailsRegistry = new ServiceDetailsRegistry();
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock,
+                channelMonitorAgentMock, validator, messageMapper, serviceDetailsRegistry);
+
+        consumer.handleRawMessage(Utils.toJson(originalMessage, messageMapper), acknowledgementHandlerMock);
+
+        String instanceId = originalMessage.getMeta().getInstanceId();
+        assertEquals(instanceId, serviceDetailsRegistry.find(instanceId).get().getInstanceId());
+    }
+
     @Test
     public void testMessageHandlerCantBeResolved() throws JsonConversionException {
         when(messageHandlerResolverMock.resolveMessageHandler(any()))
@@ -194,13 +213,42 @@ public class ConsumerTest {
 
     @Test
     public void testMessageHandlerInvokeException() throws JsonConversionException {
-        doThrow(new RuntimeException("Something really unexpected.")).when(messageHandlerInvokerMock).execute(any(), any(), any());
+        doThrow(new RuntimeException("Something really unexpected.")).when(messageHandlerInvokerMock).execute(any(), any(), any(), any());
+
+        Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, channelMonitorAgentMock, validator, messageMapper);
+
+        consumer.handleRawMessage(Utils.toJson(originalMessage, messageMapper), acknowledgementHandlerMock);
+
+        verify(acknowledgementHandlerMock, times(1)).autoRetry();
+    }
+
+    @Test
+    public void testMessageParsedByInvokerThreads() throws JsonConversionException {
+        when(msbConfMock.isParseOnInvokerThreads()).thenReturn(true);
+        Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, channelMonitorAgentMock, validator, messageMapper);
+
+        consumer.handleRawMessage(Utils.toJson(originalMessage, messageMapper), acknowledgementHandlerMock);
 
+        ArgumentCaptor<RawMessageTask> taskCaptor = ArgumentCaptor.forClass(RawMessageTask.class);
+        verify(messageHandlerInvokerMock).execute(taskCaptor.capture());
+        verifyMessageNotHandled();
+
+        taskCaptor.getValue().run(messageHandlerInvokerMock);
+        verifyMessageHandled();
+    }
+
+    @Test
+    public void testMessageRetriedWhenInvokerRejectsRawMessage() throws JsonConversionException {
+        when(msbConfMock.isParseOnInvokerThreads()).thenReturn(true);
+        doThrow(new RejectedExecutionException()).when(messageHandlerInvokerMock).execute(any(RawMessageTask.class));
         Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
         Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, channelMonitorAgentMock, validator, messageMapper);
 
         consumer.handleRawMessage(Utils.toJson(originalMessage, messageMapper), acknowledgementHandlerMock);
 
+        verifyMessageNotHandled();
         verify(acknowledgementHandlerMock, times(1)).autoRetry();
     }
 
@@ -342,10 +390,10 @@ public class ConsumerTest {
     }
 
     private void verifyMessageHandled() {
-        verify(messageHandlerInvokerMock, times(1)).execute(eq(messageHandlerMock), any(Message.class), eq(acknowledgementHandlerMock));
+        verify(messageHandlerInvokerMock, times(1)).execute(eq(messageHandlerMock), any(Message.class), eq(acknowledgementHandlerMock), any());
     }
 
     private void verifyMessageNotHandled() {
-        verify(messageHandlerInvokerMock, never()).execute(any(), any(), any());
+        verify(messageHandlerInvokerMock, never()).execute(any(), any(), any(), any());
     }
 }
\ No newline at end of file
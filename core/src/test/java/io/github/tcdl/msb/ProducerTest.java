@@ -12,22 +12,33 @@ import io.github.tcdl.msb.api.message.MetaMessage;
 import io.github.tcdl.msb.api.message.Topics;
 import io.github.tcdl.msb.api.message.payload.RestPayload;
 import io.github.tcdl.msb.config.MsbConfig;
+import io.github.tcdl.msb.message.PreparedEnvelope;
 import io.github.tcdl.msb.support.TestUtils;
 import io.github.tcdl.msb.support.Utils;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -82,7 +93,7 @@ public class ProducerTest {
     public void testPublishRawAdapterThrowChannelException() throws ChannelException {
         Message originaMessage = TestUtils.createSimpleRequestMessage(TOPIC);
 
-        Mockito.doThrow(ChannelException.class).when(adapterMock).publish(anyString());
+        Mockito.doThrow(ChannelException.class).when(adapterMock).publish(any(byte[].class));
 
         Producer producer = new Producer(adapterMock, TOPIC, handlerMock, messageMapper);
         producer.publish(originaMessage);
@@ -90,6 +101,110 @@ public class ProducerTest {
         verify(handlerMock, never()).call(any(Message.class));
     }
 
+    @Test
+    public void testPublishSerializedMessage() {
+        Message message = TestUtils.createSimpleRequestMessage(TOPIC);
+
+        Producer producer = new Producer(adapterMock, TOPIC, handlerMock, messageMapper);
+        producer.publish(message);
+
+        verify(adapterMock).publish(aryEq(Utils.toJson(message, messageMapper).getBytes(StandardCharsets.UTF_8)));
+        verify(adapterMock, never()).publish(anyString());
+    }
+
+    @Test
+    public void testPublishWithMatchingEnvelope() {
+        Message message = TestUtils.createSimpleRequestMessage(TOPIC);
+        PreparedEnvelope envelope = Mockito.mock(PreparedEnvelope.class);
+        byte[] jsonMessage = "{}".getBytes(StandardCharsets.UTF_8);
+        Mockito.when(envelope.matches(message)).thenReturn(true);
+        Mockito.when(envelope.toJsonBytes(message)).thenReturn(jsonMessage);
+
+        Producer producer = new Producer(adapterMock, TOPIC, handlerMock, messageMapper);
+        producer.publish(message, envelope);
+
+        verify(adapterMock).publish(jsonMessage);
+        verify(handlerMock).call(message);
+    }
+
+    @Test
+    public void testPublishWithOtherEnvelope() {
+        Message message = TestUtils.createSimpleRequestMessage(TOPIC);
+        PreparedEnvelope envelope = producerEnvelopeOf(TestUtils.createSimpleRequestMessage(TOPIC));
+
+        Producer producer = new Producer(adapterMock, TOPIC, handlerMock, messageMapper);
+        producer.publish(message, envelope);
+
+        verify(adapterMock).publish(aryEq(Utils.toJsonBytes(message, messageMapper)));
+    }
+
+    @Test
+    public void testPublishForDirectReplyWhenResponseTopicMatches() {
+        Message message = TestUtils.createSimpleRequestMessage(TOPIC);
+
+        Producer producer = new Producer(adapterMock, TOPIC, handlerMock, messageMapper, message.getTopics().getResponse());
+        producer.publish(message);
+
+        verify(adapterMock).publishForDirectReply(any(byte[].class));
+        verify(adapterMock, never()).publish(any(byte[].class));
+    }
+
+    @Test
+    public void testPublishWhenResponseTopicIsNotDirectReplyTopic() {
+        Message message = TestUtils.createSimpleRequestMessage(TOPIC);
+
+        Producer producer = new Producer(adapterMock, TOPIC, handlerMock, messageMapper, "_direct-reply:other");
+        producer.publish(message);
+
+        verify(adapterMock).publish(any(byte[].class));
+        verify(adapterMock, never()).publishForDirectReply(any(byte[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPublishBatch() {
+        List<Message> messages = Arrays.asList(TestUtils.createSimpleRequestMessage(TOPIC), TestUtils.createSimpleRequestMessage(TOPIC));
+
+        Producer producer = new Producer(adapterMock, TOPIC, handlerMock, messageMapper);
+        producer.publishBatch(messages);
+
+        ArgumentCaptor<List> jsonMessagesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(adapterMock).publishBatch(jsonMessagesCaptor.capture());
+        assertEquals(2, jsonMessagesCaptor.getValue().size());
+        verify(adapterMock, never()).publish(any(byte[].class));
+        verify(handlerMock).call(messages.get(0));
+        verify(handlerMock).call(messages.get(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPublishBatchWithDirectReplyMessages() {
+        Message directReplyMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        Message message = TestUtils.createSimpleRequestMessage("test:other-producer");
+
+        Producer producer = new Producer(adapterMock, TOPIC, handlerMock, messageMapper, directReplyMessage.getTopics().getResponse());
+        producer.publishBatch(Arrays.asList(directReplyMessage, message));
+
+        ArgumentCaptor<List> jsonMessagesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(adapterMock).publishBatch(jsonMessagesCaptor.capture());
+        assertArrayEquals(Utils.toJsonBytes(message, messageMapper), (byte[]) jsonMessagesCaptor.getValue().get(0));
+        verify(adapterMock).publishForDirectReply(aryEq(Utils.toJsonBytes(directReplyMessage, messageMapper)));
+        verify(handlerMock, times(2)).call(any(Message.class));
+    }
+
+    @Test(expected = ChannelException.class)
+    @SuppressWarnings("unchecked")
+    public void testPublishBatchRawAdapterThrowChannelException() {
+        Mockito.doThrow(ChannelException.class).when(adapterMock).publishBatch(anyListOf(byte[].class));
+
+        Producer producer = new Producer(adapterMock, TOPIC, handlerMock, messageMapper);
+        try {
+            producer.publishBatch(Collections.singletonList(TestUtils.createSimpleRequestMessage(TOPIC)));
+        } finally {
+            verify(handlerMock, never()).call(any(Message.class));
+        }
+    }
+
     @Test(expected = JsonConversionException.class)
     @Ignore("Need to create message that when parse to JSON will cause JsonProcessingException in Utils.toJson or use PowerMock")
     @SuppressWarnings("unchecked")
@@ -99,7 +214,7 @@ public class ProducerTest {
         Producer producer = new Producer(adapterMock, TOPIC, handlerMock, messageMapper);
         producer.publish(brokenMessage);
 
-        verify(adapterMock, never()).publish(anyString());
+        verify(adapterMock, never()).publish(any(byte[].class));
         verify(handlerMock, never()).call(any(Message.class));
     }
 
@@ -124,4 +239,8 @@ public class ProducerTest {
                 .withPayload(payloadNode)
                 .build();
     }
-}
\ No newline at end of file
+
+    private PreparedEnvelope producerEnvelopeOf(Message template) {
+        return new Producer(adapterMock, TOPIC, handlerMock, messageMapper).prepareEnvelope(template);
+    }
+}
@@ -2,7 +2,16 @@ package io.github.tcdl.msb.acknowledge;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
+
+import io.github.tcdl.msb.jfr.MessageEventType;
+import io.github.tcdl.msb.jfr.MessageEvents;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.stream.IntStream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -223,6 +232,31 @@ public class AcknowledgementHandlerTest {
         });
     }
 
+    @Test
+    public void testEventsCarryTopicAndCorrelationId() throws Exception {
+        Path recordingFile = Files.createTempFile("msb", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("msb.MessageReceived");
+            recording.enable("msb.MessageAcked");
+            recording.start();
+
+            handler.messageReceived("test:ack", MessageEvents.begin(MessageEventType.RECEIVED));
+            handler.messageParsed("correlationId");
+            handler.confirmMessage();
+
+            recording.stop();
+            recording.dump(recordingFile);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+            assertEquals(2, events.size());
+            for (RecordedEvent event : events) {
+                assertEquals("test:ack", event.getString("topic"));
+                assertEquals("correlationId", event.getString("correlationId"));
+            }
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+
     private void submitMultipleAutoConfirmAutoRejectRequests() {
         IntStream.range(0, 5).forEach((i) -> {
             handler.autoReject();
@@ -0,0 +1,67 @@
+package io.github.tcdl.msb.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ResponderOptionsTest {
+
+    @Test
+    public void testDefaults() {
+        ResponderOptions responderOptions = ResponderOptions.DEFAULTS;
+
+        assertFalse(responderOptions.hasDedicatedThreadPool());
+        assertEquals(-1, responderOptions.getConsumerThreadPoolQueueCapacity());
+        assertNull(responderOptions.getPrefetchCount());
+        assertNull(responderOptions.getMessageTemplate());
+    }
+
+    @Test
+    public void testDedicatedThreadPool() {
+        ResponderOptions responderOptions = new ResponderOptions.Builder()
+                .withConsumerThreadPoolSize(3)
+                .withConsumerThreadPoolQueueCapacity(100)
+                .build();
+
+        assertTrue(responderOptions.hasDedicatedThreadPool());
+        assertEquals(Integer.valueOf(3), responderOptions.getConsumerThreadPoolSize());
+        assertEquals(100, responderOptions.getConsumerThreadPoolQueueCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroThreadPoolSize() {
+        new ResponderOptions.Builder()
+                .withConsumerThreadPoolSize(0)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativePrefetchCount() {
+        new ResponderOptions.Builder()
+                .withPrefetchCount(-1)
+                .build();
+    }
+
+    @Test
+    public void testBuilderFromExistingResponderOptions() {
+        MessageTemplate sourceMessageTemplate = new MessageTemplate();
+
+        ResponderOptions source = new ResponderOptions.Builder()
+                .withMessageTemplate(sourceMessageTemplate)
+                .withConsumerThreadPoolSize(2)
+                .withConsumerThreadPoolQueueCapacity(10)
+                .withPrefetchCount(5)
+                .build();
+
+        ResponderOptions result = new ResponderOptions.Builder().from(source).build();
+
+        assertSame(sourceMessageTemplate, result.getMessageTemplate());
+        assertEquals(Integer.valueOf(2), result.getConsumerThreadPoolSize());
+        assertEquals(10, result.getConsumerThreadPoolQueueCapacity());
+        assertEquals(Integer.valueOf(5), result.getPrefetchCount());
+    }
+}
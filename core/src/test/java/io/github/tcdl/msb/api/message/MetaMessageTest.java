@@ -1,10 +1,17 @@
 package io.github.tcdl.msb.api.message;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import java.time.Clock;
+import java.time.Instant;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.typesafe.config.ConfigFactory;
 import io.github.tcdl.msb.config.MsbConfig;
+import io.github.tcdl.msb.support.TestUtils;
+import io.github.tcdl.msb.support.Utils;
 import org.junit.Test;
 
 /**
@@ -20,4 +27,46 @@ public class MetaMessageTest {
         MetaMessage metaMessage = new MetaMessage.Builder(0, clock.instant().minusMillis(1), msbConf.getServiceDetails(), clock).build();
         assertTrue(metaMessage.getDurationMs() > 0);
     }
+
+    @Test
+    public void testDeadlineJsonSerialization() {
+        MsbConfig msbConf = new MsbConfig(ConfigFactory.load());
+        Instant deadline = Instant.parse("2016-01-01T10:00:00.500Z");
+        MetaMessage metaMessage = new MetaMessage.Builder(null, clock.instant(), msbConf.getServiceDetails(), clock)
+                .withDeadline(deadline)
+                .build();
+
+        String json = Utils.toJson(metaMessage, TestUtils.createMessageMapper());
+        MetaMessage deserialized = Utils.fromJson(json, MetaMessage.class, TestUtils.createMessageMapper());
+
+        assertEquals(deadline, deserialized.getDeadline());
+    }
+
+    @Test
+    public void testCompactServiceDetailsJsonSerialization() {
+        MsbConfig msbConf = new MsbConfig(ConfigFactory.load());
+        MetaMessage metaMessage = new MetaMessage.Builder(null, clock.instant(), msbConf.getServiceDetails(), clock)
+                .withCompactServiceDetails()
+                .build();
+
+        String json = Utils.toJson(metaMessage, TestUtils.createMessageMapper());
+        MetaMessage deserialized = Utils.fromJson(json, MetaMessage.class, TestUtils.createMessageMapper());
+
+        assertFalse(json.contains("serviceDetails"));
+        assertNull(deserialized.getServiceDetails());
+        assertEquals(msbConf.getServiceDetails().getInstanceId(), deserialized.getInstanceId());
+    }
+
+    @Test
+    public void testInstanceIdOfFullServiceDetails() {
+        MsbConfig msbConf = new MsbConfig(ConfigFactory.load());
+        MetaMessage metaMessage = new MetaMessage.Builder(null, clock.instant(), msbConf.getServiceDetails(), clock).build();
+
+        String json = Utils.toJson(metaMessage, TestUtils.createMessageMapper());
+        MetaMessage deserialized = Utils.fromJson(json, MetaMessage.class, TestUtils.createMessageMapper());
+
+        assertFalse(Utils.fromJson(json, JsonNode.class, TestUtils.createMessageMapper()).has("instanceId"));
+        assertEquals(msbConf.getServiceDetails().getInstanceId(), deserialized.getInstanceId());
+        assertEquals(msbConf.getServiceDetails().getName(), deserialized.getServiceDetails().getName());
+    }
 }
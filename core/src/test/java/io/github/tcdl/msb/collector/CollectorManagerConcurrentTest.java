@@ -0,0 +1,92 @@
+package io.github.tcdl.msb.collector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.googlecode.junittoolbox.MultithreadingTester;
+import io.github.tcdl.msb.ChannelManager;
+import io.github.tcdl.msb.MessageHandler;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MetaMessage;
+import io.github.tcdl.msb.support.CorrelationIds;
+import io.github.tcdl.msb.support.TestUtils;
+import io.github.tcdl.msb.support.Utils;
+
+import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+/**
+ * Registers, resolves and unregisters 100k collectors from concurrent threads, with locally generated correlation ids
+ * (numeric index) and with foreign ones (string map).
+ */
+public class CollectorManagerConcurrentTest {
+
+    private static final String TOPIC = "collector-subscriber";
+    private static final int NUMBER_OF_THREADS = 10;
+    private static final int COLLECTORS_PER_THREAD = 10_000;
+
+    @Test
+    public void testLocalCorrelationIds() {
+        runScenario(CorrelationIds::generate);
+    }
+
+    @Test
+    public void testForeignCorrelationIds() {
+        runScenario(Utils::generateId);
+    }
+
+    private void runScenario(Supplier<String> correlationIdGenerator) {
+        CollectorManager collectorManager = new CollectorManager(TOPIC, mock(ChannelManager.class));
+
+        Collector[][] collectors = new Collector[NUMBER_OF_THREADS][COLLECTORS_PER_THREAD];
+        Message[][] messages = new Message[NUMBER_OF_THREADS][COLLECTORS_PER_THREAD];
+        Message template = TestUtils.createSimpleRequestMessage(TOPIC);
+        for (int thread = 0; thread < NUMBER_OF_THREADS; thread++) {
+            for (int i = 0; i < COLLECTORS_PER_THREAD; i++) {
+                Message message = new Message.Builder()
+                        .withId(template.getId())
+                        .withCorrelationId(correlationIdGenerator.get())
+                        .withTopics(template.getTopics())
+                        .withMetaBuilder(new MetaMessage.Builder(null, template.getMeta().getCreatedAt(),
+                                template.getMeta().getServiceDetails(), Clock.systemDefaultZone()))
+                        .build();
+                Collector collector = mock(Collector.class, withSettings().stubOnly());
+                when(collector.getRequestMessage()).thenReturn(message);
+                messages[thread][i] = message;
+                collectors[thread][i] = collector;
+            }
+        }
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        new MultithreadingTester().numThreads(NUMBER_OF_THREADS).numRoundsPerThread(1).add(() -> {
+            int thread = threadCounter.getAndIncrement();
+            for (int i = 0; i < COLLECTORS_PER_THREAD; i++) {
+                collectorManager.registerCollector(collectors[thread][i]);
+            }
+            for (int i = 0; i < COLLECTORS_PER_THREAD; i++) {
+                assertSame(collectors[thread][i], collectorManager.resolveMessageHandler(messages[thread][i]).get());
+            }
+            for (int i = 0; i < COLLECTORS_PER_THREAD; i += 2) {
+                collectorManager.unregisterCollector(collectors[thread][i]);
+            }
+            for (int i = 0; i < COLLECTORS_PER_THREAD; i++) {
+                Optional<MessageHandler> messageHandler = collectorManager.resolveMessageHandler(messages[thread][i]);
+                if (i % 2 == 0) {
+                    assertFalse(messageHandler.isPresent());
+                } else {
+                    assertSame(collectors[thread][i], messageHandler.get());
+                }
+            }
+        }).run();
+
+        assertEquals(NUMBER_OF_THREADS * COLLECTORS_PER_THREAD / 2, collectorManager.getCollectorsCount());
+    }
+}
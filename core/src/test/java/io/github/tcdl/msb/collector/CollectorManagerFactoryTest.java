@@ -4,6 +4,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
 import io.github.tcdl.msb.ChannelManager;
+import io.github.tcdl.msb.support.TestUtils;
+
+import java.util.Collections;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -37,4 +41,14 @@ public class CollectorManagerFactoryTest {
 
         assertNotEquals(collectorManager1, collectorManager2);
     }
+
+    @Test
+    public void testOrphanResponsesCountByTopic() {
+        String topic = "topic:test-collector-manager-orphans";
+        CollectorManagerFactory factory = new CollectorManagerFactory(channelManagerMock);
+
+        factory.findOrCreateCollectorManager(topic).resolveMessageHandler(TestUtils.createSimpleResponseMessage(topic));
+
+        assertEquals(Collections.singletonMap(topic, 1L), factory.getOrphanResponsesCountByTopic());
+    }
 }
@@ -2,6 +2,7 @@ package io.github.tcdl.msb.collector;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -11,6 +12,7 @@ import static org.mockito.Mockito.when;
 import io.github.tcdl.msb.ChannelManager;
 import io.github.tcdl.msb.MessageHandler;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.CorrelationIds;
 import io.github.tcdl.msb.support.TestUtils;
 
 import org.junit.Before;
@@ -19,6 +21,8 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.util.Optional;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -48,6 +52,37 @@ public class CollectorManagerTest {
         assertEquals(resolved.get(), collectorMock);
     }
 
+    @Test
+    public void testHandleMessageRegisteredCollectorWithLocalCorrelationId() {
+        Message originalAndReceivedMessage = TestUtils.createMsbRequestMessageWithCorrelationId(TOPIC, CorrelationIds.generate(), "body");
+        when(collectorMock.getRequestMessage()).thenReturn(originalAndReceivedMessage);
+        CollectorManager collectorManager = new CollectorManager(TOPIC, channelManagerMock);
+        collectorManager.registerCollector(collectorMock);
+
+        assertEquals(1, collectorManager.collectorsByLocalKey.size());
+        assertEquals(0, collectorManager.collectorsByCorrelationId.size());
+        assertEquals(collectorMock, collectorManager.resolveMessageHandler(originalAndReceivedMessage).get());
+
+        collectorManager.unregisterCollector(collectorMock);
+        assertEquals(0, collectorManager.getCollectorsCount());
+        assertFalse(collectorManager.resolveMessageHandler(originalAndReceivedMessage).isPresent());
+    }
+
+    @Test
+    public void testHandleMessageWithForgedLocalCorrelationId() {
+        String correlationId = CorrelationIds.generate();
+        char forgedDigit = correlationId.charAt(10) == '0' ? '1' : '0';
+        String forgedCorrelationId = correlationId.substring(0, 10) + forgedDigit + correlationId.substring(11);
+        when(collectorMock.getRequestMessage()).thenReturn(TestUtils.createMsbRequestMessageWithCorrelationId(TOPIC, correlationId, "body"));
+        CollectorManager collectorManager = new CollectorManager(TOPIC, channelManagerMock);
+        collectorManager.registerCollector(collectorMock);
+
+        Message forgedMessage = TestUtils.createMsbRequestMessageWithCorrelationId(TOPIC, forgedCorrelationId, "body");
+
+        assertEquals(CorrelationIds.toLocalKey(correlationId), CorrelationIds.toLocalKey(forgedCorrelationId));
+        assertFalse(collectorManager.resolveMessageHandler(forgedMessage).isPresent());
+    }
+
     @Test
     public void testHandleMessageRegisteredCollectorForTopicUnexpectedCorrelationId() {
         Message receivedMessage = TestUtils.createSimpleRequestMessage(TOPIC);
@@ -70,6 +105,49 @@ public class CollectorManagerTest {
         assertFalse(resolved.isPresent());
     }
 
+    @Test
+    public void testOrphanResponsesCounted() {
+        CollectorManager collectorManager = new CollectorManager(TOPIC, channelManagerMock, Clock.systemDefaultZone(), 60000);
+        collectorManager.registerCollector(collectorMock);
+
+        for (int i = 0; i < 3; i++) {
+            assertFalse(collectorManager.resolveMessageHandler(TestUtils.createSimpleResponseMessage(TOPIC)).isPresent());
+        }
+        collectorManager.resolveMessageHandler(collectorMock.getRequestMessage());
+
+        assertEquals(3, collectorManager.getOrphanResponsesCount());
+    }
+
+    @Test
+    public void testReapCollectorsPastDeadline() {
+        Instant now = Instant.now();
+        Collector expiredCollectorMock = mock(Collector.class);
+        when(expiredCollectorMock.getRequestMessage()).thenReturn(TestUtils.createSimpleRequestMessage(TOPIC));
+        when(expiredCollectorMock.getAbsoluteDeadline()).thenReturn(now.minusMillis(1));
+        when(collectorMock.getAbsoluteDeadline()).thenReturn(now.plusMillis(1000));
+
+        CollectorManager collectorManager = new CollectorManager(TOPIC, channelManagerMock);
+        collectorManager.registerCollector(collectorMock);
+        collectorManager.registerCollector(expiredCollectorMock);
+
+        assertEquals(1, collectorManager.reapCollectors(now));
+        verify(expiredCollectorMock).forceEnd();
+        verify(collectorMock, never()).forceEnd();
+    }
+
+    @Test
+    public void testReapCollectorsUnregistersCollectorThatFailedToEnd() {
+        Instant now = Instant.now();
+        when(collectorMock.getAbsoluteDeadline()).thenReturn(now.minusMillis(1));
+        doThrow(new RuntimeException()).when(collectorMock).forceEnd();
+
+        CollectorManager collectorManager = new CollectorManager(TOPIC, channelManagerMock);
+        collectorManager.registerCollector(collectorMock);
+
+        assertEquals(1, collectorManager.reapCollectors(now));
+        assertEquals(0, collectorManager.getCollectorsCount());
+    }
+
     @Test
     public void testRegisterCollector() {
         CollectorManager collectorManager = new CollectorManager(TOPIC, channelManagerMock);
@@ -0,0 +1,81 @@
+package io.github.tcdl.msb.collector;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.tcdl.msb.ChannelManager;
+import io.github.tcdl.msb.support.TestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CollectorReaperTest {
+
+    private static final Instant NOW = Instant.parse("2016-01-01T10:00:00Z");
+    private static final long GRACE_PERIOD_MS = 1000;
+
+    @Mock
+    private ChannelManager channelManagerMock;
+
+    @Mock
+    private Collector collectorWithinGracePeriodMock;
+
+    @Mock
+    private Collector expiredCollectorMock;
+
+    private CollectorManagerFactory collectorManagerFactory;
+    private CollectorReaper collectorReaper;
+
+    @Before
+    public void setUp() {
+        when(collectorWithinGracePeriodMock.getRequestMessage()).thenReturn(TestUtils.createSimpleRequestMessage("test:reaper-1"));
+        when(collectorWithinGracePeriodMock.getAbsoluteDeadline()).thenReturn(NOW.minusMillis(GRACE_PERIOD_MS - 1));
+        when(expiredCollectorMock.getRequestMessage()).thenReturn(TestUtils.createSimpleRequestMessage("test:reaper-2"));
+        when(expiredCollectorMock.getAbsoluteDeadline()).thenReturn(NOW.minusMillis(GRACE_PERIOD_MS + 1));
+
+        collectorManagerFactory = new CollectorManagerFactory(channelManagerMock);
+        collectorManagerFactory.findOrCreateCollectorManager("test:reaper-1").registerCollector(collectorWithinGracePeriodMock);
+        collectorManagerFactory.findOrCreateCollectorManager("test:reaper-2").registerCollector(expiredCollectorMock);
+
+        collectorReaper = new CollectorReaper(collectorManagerFactory, Clock.fixed(NOW, ZoneId.systemDefault()), GRACE_PERIOD_MS);
+    }
+
+    @Test
+    public void testReapEndsOnlyCollectorsPastGracePeriod() {
+        assertEquals(1, collectorReaper.reap());
+
+        verify(expiredCollectorMock).forceEnd();
+        verify(collectorWithinGracePeriodMock, never()).forceEnd();
+    }
+
+    @Test
+    public void testMetrics() {
+        collectorReaper.reap();
+        collectorReaper.reap();
+
+        assertEquals(2, collectorReaper.getRunsCount());
+        // the mock isn't unregistered by forceEnd() so it is reaped on every run
+        assertEquals(2, collectorReaper.getReapedCollectorsCount());
+        assertEquals(0, collectorReaper.getLastRunDurationMs());
+    }
+
+    @Test
+    public void testStartAndShutdown() throws Exception {
+        collectorReaper.start(10);
+        Thread.sleep(100);
+        collectorReaper.shutdown();
+
+        verify(expiredCollectorMock, atLeastOnce()).forceEnd();
+    }
+}
@@ -26,6 +26,7 @@ import io.github.tcdl.msb.support.Utils;
 
 import java.io.IOException;
 import java.time.Clock;
+import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -1195,7 +1196,137 @@ public class CollectorTest {
         verify(timeoutManagerMock, times(1)).enableAckTimeout(anyInt(), any());
     }
 
+    @Test
+    public void testResponseTimeoutClampedToDeadline() {
+        when(requestOptionsMock.getResponseTimeout()).thenReturn(10000);
+        when(requestOptionsMock.getWaitForResponses()).thenReturn(1);
+        Message requestMessage = TestUtils.createMessageBuilder(Clock.systemDefaultZone())
+                .withMetaBuilder(TestUtils.createSimpleMetaBuilder(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone())
+                        .withDeadline(Clock.systemDefaultZone().instant().plusMillis(1000)))
+                .build();
+        Collector<RestPayload> collector = createCollector(requestMessage);
+
+        collector.waitForResponses();
+
+        ArgumentCaptor<Integer> timeoutCaptor = ArgumentCaptor.forClass(Integer.class);
+        verify(timeoutManagerMock).enableResponseTimeout(timeoutCaptor.capture(), eq(collector));
+        assertTrue(timeoutCaptor.getValue() <= 1000);
+    }
+
+    @Test
+    public void testResponseTimeoutNotExtendedToDeadline() {
+        when(requestOptionsMock.getResponseTimeout()).thenReturn(100);
+        when(requestOptionsMock.getWaitForResponses()).thenReturn(1);
+        Message requestMessage = TestUtils.createMessageBuilder(Clock.systemDefaultZone())
+                .withMetaBuilder(TestUtils.createSimpleMetaBuilder(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone())
+                        .withDeadline(Clock.systemDefaultZone().instant().plusMillis(10000)))
+                .build();
+        Collector<RestPayload> collector = createCollector(requestMessage);
+
+        collector.waitForResponses();
+
+        ArgumentCaptor<Integer> timeoutCaptor = ArgumentCaptor.forClass(Integer.class);
+        verify(timeoutManagerMock).enableResponseTimeout(timeoutCaptor.capture(), eq(collector));
+        assertTrue(timeoutCaptor.getValue() <= 100);
+    }
+
+    @Test
+    public void testEndedRightAwayWhenDeadlinePassed() {
+        Callback<Void> onEnd = mock(Callback.class);
+        when(eventHandlers.onEnd()).thenReturn(onEnd);
+        when(requestOptionsMock.getWaitForResponses()).thenReturn(1);
+        Message requestMessage = TestUtils.createMessageBuilder(Clock.systemDefaultZone())
+                .withMetaBuilder(TestUtils.createSimpleMetaBuilder(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone())
+                        .withDeadline(Clock.systemDefaultZone().instant().minusMillis(1000)))
+                .build();
+        Collector<RestPayload> collector = createCollector(requestMessage);
+
+        assertTrue(collector.endIfDeadlinePassed());
+
+        verify(onEnd).call(any());
+        verify(collectorManagerMock).unregisterCollector(collector);
+        verify(timeoutManagerMock, never()).enableResponseTimeout(anyInt(), any());
+    }
+
+    @Test
+    public void testEndedWhenDeadlinePassedBeforeWaitingForResponses() {
+        Callback<Void> onEnd = mock(Callback.class);
+        when(eventHandlers.onEnd()).thenReturn(onEnd);
+        when(requestOptionsMock.getResponseTimeout()).thenReturn(10000);
+        when(requestOptionsMock.getWaitForResponses()).thenReturn(1);
+        Message requestMessage = TestUtils.createMessageBuilder(Clock.systemDefaultZone())
+                .withMetaBuilder(TestUtils.createSimpleMetaBuilder(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone())
+                        .withDeadline(Clock.systemDefaultZone().instant().minusMillis(1)))
+                .build();
+        Collector<RestPayload> collector = createCollector(requestMessage);
+        collector.listenForResponses();
+
+        collector.waitForResponses();
+
+        verify(onEnd).call(any());
+        verify(collectorManagerMock).unregisterCollector(collector);
+        verify(timeoutManagerMock, never()).enableResponseTimeout(anyInt(), any());
+    }
+
+    @Test
+    public void testNotEndedBeforeDeadline() {
+        Message requestMessage = TestUtils.createMessageBuilder(Clock.systemDefaultZone())
+                .withMetaBuilder(TestUtils.createSimpleMetaBuilder(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone())
+                        .withDeadline(Clock.systemDefaultZone().instant().plusMillis(10000)))
+                .build();
+
+        assertFalse(createCollector(requestMessage).endIfDeadlinePassed());
+        assertFalse(createCollector().endIfDeadlinePassed());
+    }
+
+    @Test
+    public void testForceEndInvokesOnEndDespiteUnhandledMessages() {
+        Callback<Void> onEnd = mock(Callback.class);
+        when(eventHandlers.onEnd()).thenReturn(onEnd);
+        Collector<RestPayload> collector = createCollector();
+        notifyMessagesConsumed(collector, 1);
+
+        collector.end();
+        verify(onEnd, never()).call(any());
+
+        collector.forceEnd();
+        collector.forceEnd();
+        verify(onEnd, times(1)).call(any());
+        verify(collectorManagerMock, atLeastOnce()).unregisterCollector(collector);
+    }
+
+    @Test
+    public void testAbsoluteDeadlineIsLatestOfTimeouts() {
+        when(requestOptionsMock.getResponseTimeout()).thenReturn(1000);
+        when(requestOptionsMock.getAckTimeout()).thenReturn(3000);
+        Instant before = Instant.ofEpochMilli(System.currentTimeMillis());
+        Collector<RestPayload> collector = createCollector();
+        Instant after = Instant.now();
+
+        assertThat(collector.getAbsoluteDeadline()).isGreaterThanOrEqualTo(before.plusMillis(1000)).isLessThanOrEqualTo(after.plusMillis(1000));
+
+        collector.listenForResponses();
+        assertThat(collector.getAbsoluteDeadline()).isGreaterThanOrEqualTo(before.plusMillis(3000)).isLessThanOrEqualTo(after.plusMillis(3000));
+    }
+
+    @Test
+    public void testAbsoluteDeadlineClampedToDeadline() {
+        when(requestOptionsMock.getResponseTimeout()).thenReturn(10000);
+        Instant deadline = Clock.systemDefaultZone().instant().plusMillis(1000);
+        Message requestMessage = TestUtils.createMessageBuilder(Clock.systemDefaultZone())
+                .withMetaBuilder(TestUtils.createSimpleMetaBuilder(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone())
+                        .withDeadline(deadline))
+                .build();
+        Collector<RestPayload> collector = createCollector(requestMessage);
+
+        assertEquals(deadline.toEpochMilli(), collector.getAbsoluteDeadline().toEpochMilli());
+    }
+
     private Collector<RestPayload> createCollector() {
+        return createCollector(originalMessage);
+    }
+
+    private Collector<RestPayload> createCollector(Message originalMessage) {
         return new Collector<RestPayload>(TOPIC, originalMessage, requestOptionsMock, msbContext, eventHandlers, new TypeReference<RestPayload>() {
         }) {
             MessageContext createMessageContext(AcknowledgementHandler acknowledgementHandler, Message originalMessage) {
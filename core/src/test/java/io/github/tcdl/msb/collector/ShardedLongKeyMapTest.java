@@ -0,0 +1,87 @@
+package io.github.tcdl.msb.collector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+public class ShardedLongKeyMapTest {
+
+    @Test
+    public void testPutIfAbsentAndGet() {
+        ShardedLongKeyMap<String> map = new ShardedLongKeyMap<>();
+
+        assertNull(map.putIfAbsent(42, "first"));
+        assertEquals("first", map.putIfAbsent(42, "second"));
+
+        assertEquals("first", map.get(42));
+        assertNull(map.get(43));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testRemove() {
+        ShardedLongKeyMap<String> map = new ShardedLongKeyMap<>();
+        map.putIfAbsent(1, "value");
+
+        assertEquals("value", map.remove(1));
+        assertNull(map.remove(1));
+        assertNull(map.get(1));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testGrowsBeyondInitialCapacity() {
+        ShardedLongKeyMap<Long> map = new ShardedLongKeyMap<>(1);
+        int count = 10_000;
+
+        for (long key = 0; key < count; key++) {
+            assertNull(map.putIfAbsent(key, key));
+        }
+
+        assertEquals(count, map.size());
+        for (long key = 0; key < count; key++) {
+            assertEquals(Long.valueOf(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void testRemoveKeepsOtherEntriesReachable() {
+        ShardedLongKeyMap<Long> map = new ShardedLongKeyMap<>(1);
+        int count = 1_000;
+        for (long key = 0; key < count; key++) {
+            map.putIfAbsent(key, key);
+        }
+
+        for (long key = 0; key < count; key += 2) {
+            assertEquals(Long.valueOf(key), map.remove(key));
+        }
+
+        assertEquals(count / 2, map.size());
+        for (long key = 0; key < count; key++) {
+            assertEquals(key % 2 == 0 ? null : Long.valueOf(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void testValues() {
+        ShardedLongKeyMap<String> map = new ShardedLongKeyMap<>();
+        map.putIfAbsent(1, "first");
+        map.putIfAbsent(2, "second");
+
+        assertEquals(new HashSet<>(Arrays.asList("first", "second")), new HashSet<>(map.values()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeKeyRejected() {
+        new ShardedLongKeyMap<String>().putIfAbsent(-1, "value");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNumberOfShardsNotPowerOfTwo() {
+        new ShardedLongKeyMap<String>(3);
+    }
+}
@@ -21,6 +21,10 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.time.Clock;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
@@ -77,6 +81,43 @@ public class RequesterImplTest {
         verify(collectorMock, times(4)).waitForResponses();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPublishAllNoWaitForResponses() throws Exception {
+        RequesterImpl<RestPayload> requester = initRequesterForResponsesWith(0, 0, 0, null, null, null, null);
+        ArgumentCaptor<List> messagesCaptor = ArgumentCaptor.forClass(List.class);
+
+        requester.publishAll(Arrays.asList(TestUtils.createSimpleRequestPayload(), TestUtils.createSimpleRequestPayload()));
+
+        verify(producerMock).publishBatch(messagesCaptor.capture());
+        List<Message> messages = messagesCaptor.getValue();
+        assertEquals(2, messages.size());
+        assertNotEquals(messages.get(0).getCorrelationId(), messages.get(1).getCorrelationId());
+        verify(producerMock, never()).publish(any(Message.class));
+        verify(collectorMock, never()).listenForResponses();
+    }
+
+    @Test
+    public void testPublishAllWaitForResponses() throws Exception {
+        RequesterImpl<RestPayload> requester = initRequesterForResponsesWith(1, 0, 0, null, null, null, null);
+
+        requester.publishAll(Arrays.asList(TestUtils.createSimpleRequestPayload(), TestUtils.createSimpleRequestPayload(),
+                TestUtils.createSimpleRequestPayload()));
+
+        verify(collectorMock, times(3)).listenForResponses();
+        verify(producerMock).publishBatch(anyListOf(Message.class));
+        verify(collectorMock, times(3)).waitForResponses();
+    }
+
+    @Test
+    public void testPublishAllEmpty() throws Exception {
+        RequesterImpl<RestPayload> requester = initRequesterForResponsesWith(1, 0, 0, null, null, null, null);
+
+        requester.publishAll(Collections.emptyList());
+
+        verify(producerMock, never()).publishBatch(anyListOf(Message.class));
+    }
+
     private void publishByAllMethods(RequesterImpl<RestPayload> requester) {
         Message originalMessage = TestUtils.createMsbRequestMessage("some:topic", "body text");
         requester.publish(TestUtils.createSimpleRequestPayload());
@@ -354,6 +395,50 @@ public class RequesterImplTest {
         assertNotNull(requestMessage.getRawPayload());
     }
 
+    @Test
+    public void testRequestMessageWithDirectReplyTopic() throws Exception {
+        String directReplyTopic = "_direct-reply:instance";
+        ChannelManager channelManagerMock = mock(ChannelManager.class);
+        Producer producerMock = mock(Producer.class);
+        when(channelManagerMock.findOrCreateProducer(NAMESPACE)).thenReturn(producerMock);
+        when(channelManagerMock.getDirectReplyTopic()).thenReturn(Optional.of(directReplyTopic));
+        ArgumentCaptor<Message> messageArgumentCaptor = ArgumentCaptor.forClass(Message.class);
+
+        MsbContextImpl msbContext = TestUtils.createMsbContextBuilder()
+                .withChannelManager(channelManagerMock)
+                .withClock(Clock.systemDefaultZone())
+                .build();
+
+        Requester<RestPayload> requester = RequesterImpl.createWithDirectReply(NAMESPACE, TestUtils.createSimpleRequestOptions(), msbContext,
+                new TypeReference<RestPayload>(){});
+        requester.publish(TestUtils.createSimpleRequestPayload());
+        verify(producerMock).publish(messageArgumentCaptor.capture());
+
+        assertEquals(directReplyTopic, messageArgumentCaptor.getValue().getTopics().getResponse());
+    }
+
+    @Test
+    public void testRequestMessageWithoutDirectReplySupport() throws Exception {
+        ChannelManager channelManagerMock = mock(ChannelManager.class);
+        Producer producerMock = mock(Producer.class);
+        when(channelManagerMock.findOrCreateProducer(NAMESPACE)).thenReturn(producerMock);
+        when(channelManagerMock.getDirectReplyTopic()).thenReturn(Optional.empty());
+        ArgumentCaptor<Message> messageArgumentCaptor = ArgumentCaptor.forClass(Message.class);
+
+        MsbContextImpl msbContext = TestUtils.createMsbContextBuilder()
+                .withChannelManager(channelManagerMock)
+                .withClock(Clock.systemDefaultZone())
+                .build();
+
+        Requester<RestPayload> requester = RequesterImpl.createWithDirectReply(NAMESPACE, TestUtils.createSimpleRequestOptions(), msbContext,
+                new TypeReference<RestPayload>(){});
+        requester.publish(TestUtils.createSimpleRequestPayload());
+        verify(producerMock).publish(messageArgumentCaptor.capture());
+
+        assertEquals(NAMESPACE + ":response:" + msbContext.getMsbConfig().getServiceDetails().getInstanceId(),
+                messageArgumentCaptor.getValue().getTopics().getResponse());
+    }
+
     @Test
     public void testRequestMessageWithTags() throws Exception {
         ChannelManager channelManagerMock = mock(ChannelManager.class);
@@ -408,6 +493,31 @@ public class RequesterImplTest {
         assertEquals(forwardNamespace, requestMessage.getTopics().getForward());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRequestNotPublishedWhenDeadlineOfOriginalMessagePassed() throws Exception {
+        ChannelManager channelManagerMock = mock(ChannelManager.class);
+        Producer producerMock = mock(Producer.class);
+        when(channelManagerMock.findOrCreateProducer(NAMESPACE)).thenReturn(producerMock);
+        Callback<Void> endHandler = mock(Callback.class);
+
+        MsbContextImpl msbContext = TestUtils.createMsbContextBuilder()
+                .withChannelManager(channelManagerMock)
+                .withClock(Clock.systemDefaultZone())
+                .build();
+        Message originalMessage = TestUtils.createMessageBuilder(Clock.systemDefaultZone())
+                .withMetaBuilder(TestUtils.createSimpleMetaBuilder(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone())
+                        .withDeadline(Clock.systemDefaultZone().instant().minusMillis(1000)))
+                .build();
+        RequestOptions requestOptions = new RequestOptions.Builder().withWaitForResponses(1).build();
+
+        RequesterImpl.create(NAMESPACE, requestOptions, msbContext, new TypeReference<RestPayload>() {
+        }).onEnd(endHandler).publish(TestUtils.createSimpleRequestPayload(), originalMessage);
+
+        verify(producerMock, never()).publish(any(Message.class));
+        verify(endHandler).call(any());
+    }
+
     private RequesterImpl<RestPayload> initRequesterForResponsesWith(Integer numberOfResponses, Integer respTimeout, Integer ackTimeout,
                                                                      BiConsumer<RestPayload, MessageContext> onResponse, BiConsumer<Acknowledge, MessageContext> onAcknowledge,
                                                                      BiConsumer<Exception, Message> onError,
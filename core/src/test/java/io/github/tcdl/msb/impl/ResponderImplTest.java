@@ -3,8 +3,11 @@ package io.github.tcdl.msb.impl;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
@@ -18,6 +21,7 @@ import io.github.tcdl.msb.api.Responder;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.message.MessageFactory;
+import io.github.tcdl.msb.message.PreparedEnvelope;
 import io.github.tcdl.msb.support.TestUtils;
 
 import java.time.Clock;
@@ -56,7 +60,7 @@ public class ResponderImplTest {
 
         when(msbContextSpy.getChannelManager()).thenReturn(mockChannelManager);
         when(msbContextSpy.getMessageFactory()).thenReturn(spyMessageFactory);
-        when(mockChannelManager.findOrCreateProducer(anyString())).thenReturn(mockProducer);
+        when(mockChannelManager.findOrCreateProducer(anyString(), anyBoolean())).thenReturn(mockProducer);
 
         responder = new ResponderImpl(messageTemplate, originalMessage, msbContextSpy);
     }
@@ -73,7 +77,7 @@ public class ResponderImplTest {
         ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
         responder.send("");
 
-        verify(mockChannelManager).findOrCreateProducer(argument.capture());
+        verify(mockChannelManager).findOrCreateProducer(argument.capture(), eq(true));
 
         assertEquals(originalMessage.getTopics().getResponse(), argument.getValue());
     }
@@ -82,7 +86,7 @@ public class ResponderImplTest {
     public void testProducerPublishMethodInvoked() {
         responder.send("");
 
-        verify(mockProducer, times(1)).publish(anyObject());
+        verify(mockProducer, times(1)).publish(anyObject(), any());
     }
 
     @Test
@@ -92,7 +96,7 @@ public class ResponderImplTest {
         ArgumentCaptor<Message> argument = ArgumentCaptor.forClass(Message.class);
         responder.send(responsePayload);
 
-        verify(mockProducer).publish(argument.capture());
+        verify(mockProducer).publish(argument.capture(), any());
 
         assertNotNull(argument.getValue().getRawPayload());
         TestUtils.assertRawPayload(responsePayload, argument.getValue());
@@ -106,7 +110,7 @@ public class ResponderImplTest {
         ArgumentCaptor<Message> argument = ArgumentCaptor.forClass(Message.class);
         responder.send(TestUtils.createSimpleRequestPayload());
 
-        verify(mockProducer).publish(argument.capture());
+        verify(mockProducer).publish(argument.capture(), any());
 
         Message responseMessage = argument.getValue();
         assertArrayEquals(tags, responseMessage.getTags().toArray());
@@ -119,7 +123,7 @@ public class ResponderImplTest {
         ArgumentCaptor<Message> argument = ArgumentCaptor.forClass(Message.class);
         responder.sendAck(timeout, responsesRemaining);
 
-        verify(mockProducer).publish(argument.capture());
+        verify(mockProducer).publish(argument.capture(), any());
 
         assertEquals(argument.getValue().getAck().getTimeoutMs(), timeout);
         assertEquals(argument.getValue().getAck().getResponsesRemaining(), responsesRemaining);
@@ -130,14 +134,26 @@ public class ResponderImplTest {
         ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
         responder.sendAck(1000, 1);
 
-        verify(mockProducer).publish(messageCaptor.capture());
+        verify(mockProducer).publish(messageCaptor.capture(), any());
         String responderIdInAck = messageCaptor.getValue().getAck().getResponderId();
 
         reset(mockProducer);
         responder.send(TestUtils.createSimpleResponsePayload());
-        verify(mockProducer).publish(messageCaptor.capture());
+        verify(mockProducer).publish(messageCaptor.capture(), any());
 
         String responderIdInAckPayload = messageCaptor.getValue().getAck().getResponderId();
         assertEquals(responderIdInAck, responderIdInAckPayload);
     }
+
+    @Test
+    public void testEnvelopePreparedOnceForAllResponses() {
+        PreparedEnvelope envelope = mock(PreparedEnvelope.class);
+        when(mockProducer.prepareEnvelope(any(Message.class))).thenReturn(envelope);
+
+        responder.sendAck(1000, 1);
+        responder.send(TestUtils.createSimpleResponsePayload());
+
+        verify(mockProducer, times(1)).prepareEnvelope(any(Message.class));
+        verify(mockProducer, times(2)).publish(any(Message.class), eq(envelope));
+    }
 }
@@ -9,6 +9,7 @@ import io.github.tcdl.msb.api.MessageTemplate;
 import io.github.tcdl.msb.api.RequestOptions;
 import io.github.tcdl.msb.api.Responder;
 import io.github.tcdl.msb.api.ResponderContext;
+import io.github.tcdl.msb.api.ResponderOptions;
 import io.github.tcdl.msb.api.ResponderServer;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.api.message.payload.RestPayload;
@@ -22,6 +23,7 @@ import java.util.Map;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
@@ -68,7 +70,7 @@ public class ResponderServerImplTest {
 
         ResponderServerImpl spyResponderServer = (ResponderServerImpl) spy(responderServer).listen();
 
-        verify(spyChannelManager).subscribe(anyString(), subscriberCaptor.capture());
+        verify(spyChannelManager).subscribe(anyString(), subscriberCaptor.capture(), any(ResponderOptions.class));
 
         assertNull("MessageContext must be absent outside message handler execution", MsbThreadContext.getMessageContext());
         subscriberCaptor.getValue().handleMessage(originalMessage, null);
@@ -158,7 +160,7 @@ public class ResponderServerImplTest {
 
         ChannelManager mockChannelManager = mock(ChannelManager.class);
         Producer mockProducer = mock(Producer.class);
-        when(mockChannelManager.findOrCreateProducer(anyString())).thenReturn(mockProducer);
+        when(mockChannelManager.findOrCreateProducer(anyString(), anyBoolean())).thenReturn(mockProducer);
         MsbContextImpl msbContext1 = new TestUtils.TestMsbContextBuilder()
                 .withChannelManager(mockChannelManager)
                 .build();
@@ -175,7 +177,7 @@ public class ResponderServerImplTest {
         responder.send("response");
 
         // Verify that 2 messages were published
-        verify(mockProducer, times(2)).publish(any(Message.class));
+        verify(mockProducer, times(2)).publish(any(Message.class), any());
     }
 
     @Test
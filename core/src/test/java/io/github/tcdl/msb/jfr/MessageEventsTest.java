@@ -0,0 +1,121 @@
+package io.github.tcdl.msb.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.TestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class MessageEventsTest {
+
+    private Recording recording;
+    private Path recordingFile;
+
+    @Before
+    public void setUp() throws IOException {
+        recording = new Recording();
+        recordingFile = Files.createTempFile("msb", ".jfr");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        recording.close();
+        Files.deleteIfExists(recordingFile);
+    }
+
+    @Test
+    public void testNothingBegunWithoutRecording() {
+        assertNull(MessageEvents.begin(MessageEventType.PUBLISHED));
+    }
+
+    @Test
+    public void testNullEventCommitIgnored() {
+        MessageEvents.commit(null, "topic", "correlationId");
+        MessageEvents.commitAck(null, "topic", "correlationId", "confirm", "consumer");
+        MessageEvents.commitHandlerExecuted(null, TestUtils.createSimpleRequestMessage("test:jfr"), false);
+        MessageEvents.commitCollectorEnded(null, "topic", "correlationId", true);
+    }
+
+    @Test
+    public void testMessageEventRecorded() throws IOException {
+        Message message = TestUtils.createSimpleRequestMessage("test:jfr");
+        recording.enable("msb.MessagePublished");
+        recording.disable("msb.MessageReceived");
+        recording.start();
+
+        Object event = MessageEvents.begin(MessageEventType.PUBLISHED);
+        assertNotNull(event);
+        MessageEvents.commit(event, message);
+        assertNull("the type is disabled", MessageEvents.begin(MessageEventType.RECEIVED));
+
+        RecordedEvent recorded = stopAndReadSingleEvent();
+        assertEquals("msb.MessagePublished", recorded.getEventType().getName());
+        assertEquals("test:jfr", recorded.getString("topic"));
+        assertEquals(message.getCorrelationId(), recorded.getString("correlationId"));
+    }
+
+    @Test
+    public void testAckEventRecorded() throws IOException {
+        recording.enable("msb.MessageAcked");
+        recording.start();
+
+        MessageEvents.commitAck(MessageEvents.begin(MessageEventType.ACKED), "test:jfr", "correlationId", "reject", "consumer tag: 1");
+
+        RecordedEvent recorded = stopAndReadSingleEvent();
+        assertEquals("test:jfr", recorded.getString("topic"));
+        assertEquals("correlationId", recorded.getString("correlationId"));
+        assertEquals("reject", recorded.getString("action"));
+        assertEquals("consumer tag: 1", recorded.getString("consumer"));
+    }
+
+    @Test
+    public void testFailedHandlerExecutionRecorded() throws IOException {
+        Message message = TestUtils.createSimpleRequestMessage("test:jfr");
+        recording.enable("msb.HandlerExecuted");
+        recording.start();
+
+        MessageEvents.commitHandlerExecuted(MessageEvents.begin(MessageEventType.HANDLER_EXECUTED), message, true);
+
+        RecordedEvent recorded = stopAndReadSingleEvent();
+        assertEquals("test:jfr", recorded.getString("topic"));
+        assertEquals(message.getCorrelationId(), recorded.getString("correlationId"));
+        assertTrue(recorded.getBoolean("failed"));
+    }
+
+    @Test
+    public void testCollectorEndedEventRecorded() throws IOException {
+        recording.enable("msb.CollectorEnded");
+        recording.start();
+
+        MessageEvents.commitCollectorEnded(MessageEvents.begin(MessageEventType.COLLECTOR_ENDED), "test:jfr:response", "correlationId", true);
+
+        RecordedEvent recorded = stopAndReadSingleEvent();
+        assertEquals("test:jfr:response", recorded.getString("topic"));
+        assertTrue(recorded.getBoolean("timedOut"));
+        assertFalse(recorded.getDuration().isNegative());
+    }
+
+    private RecordedEvent stopAndReadSingleEvent() throws IOException {
+        recording.stop();
+        recording.dump(recordingFile);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        assertEquals(1, events.size());
+        return events.get(0);
+    }
+}
@@ -4,6 +4,7 @@ import io.github.tcdl.msb.api.MessageTemplate;
 import io.github.tcdl.msb.api.message.Acknowledge;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.api.message.Message.Builder;
+import io.github.tcdl.msb.api.message.MetaMessage;
 import io.github.tcdl.msb.api.message.payload.RestPayload;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.config.ServiceDetails;
@@ -185,6 +186,38 @@ public class MessageFactoryTest {
         assertNull(message.getTopics().getForward());
     }
 
+    @Test
+    public void testCreateRequestMessageBuilderInheritsDeadlineFromOriginalMessage() {
+        String namespace = "test:request-builder";
+        Instant originalDeadline = FIXED_CLOCK_INSTANT.plusMillis(500);
+        Message originalMessage = TestUtils.createMessageBuilder(FIXED_CLOCK)
+                .withMetaBuilder(TestUtils.createSimpleMetaBuilder(TestUtils.createMsbConfigurations(), FIXED_CLOCK).withDeadline(originalDeadline))
+                .build();
+
+        Message message = messageFactory.createRequestMessageBuilder(namespace, null, messageOptions, originalMessage).build();
+
+        assertEquals(originalDeadline, message.getMeta().getDeadline());
+    }
+
+    @Test
+    public void testCreateRequestMessageBuilderDeadlineFromOriginalMessageTtl() {
+        String namespace = "test:request-builder";
+        Message originalMessage = TestUtils.createMessageBuilder(FIXED_CLOCK)
+                .withMetaBuilder(new MetaMessage.Builder(300, FIXED_CLOCK_INSTANT, serviceDetails, FIXED_CLOCK))
+                .build();
+
+        Message message = messageFactory.createRequestMessageBuilder(namespace, null, messageOptions, originalMessage).build();
+
+        assertEquals(FIXED_CLOCK_INSTANT.plusMillis(300), message.getMeta().getDeadline());
+    }
+
+    @Test
+    public void testCreateRequestMessageBuilderWithoutOriginalMessageHasNoDeadline() {
+        Message message = messageFactory.createRequestMessageBuilder("test:request-builder", null, messageOptions, null).build();
+
+        assertNull(message.getMeta().getDeadline());
+    }
+
     @Test
     public void testCreateResponseMessageBuilder() {
         String namespace = "test:response-builder";
@@ -277,4 +310,46 @@ public class MessageFactoryTest {
 
         assertTrue(publishedAt.isAfter(createdAt));
     }
+
+    @Test
+    public void testCompactServiceDetails() {
+        MessageFactory compactMessageFactory = new MessageFactory(serviceDetails, FIXED_CLOCK, TestUtils.createMessageMapper(), true);
+
+        Message first = compactMessageFactory.createRequestMessage(
+                compactMessageFactory.createRequestMessageBuilder("test:compact", null, null, null), null);
+        Message message = compactMessageFactory.createRequestMessage(
+                compactMessageFactory.createRequestMessageBuilder("test:compact", null, null, null), null);
+
+        // receivers learn the service details from the first message to the topic
+        assertEquals(serviceDetails, first.getMeta().getServiceDetails());
+        assertNull(message.getMeta().getServiceDetails());
+        assertEquals(serviceDetails.getInstanceId(), message.getMeta().getInstanceId());
+    }
+
+    @Test
+    public void testFullServiceDetailsRepeatedInCompactMode() {
+        // each message reads the clock 3 times, so every 4th message is at least 1000 ms after the previous full one
+        IncrementingClock clock = new IncrementingClock(FIXED_CLOCK_INSTANT, ZoneId.systemDefault(), 100, ChronoUnit.MILLIS);
+        MessageFactory compactMessageFactory = new MessageFactory(serviceDetails, clock, TestUtils.createMessageMapper(), true, 1000);
+
+        long fullMessages = Stream.generate(() -> compactMessageFactory.createBroadcastMessageBuilder("test:compact", null).build())
+                .limit(5)
+                .filter(message -> message.getMeta().getServiceDetails() != null)
+                .count();
+
+        assertEquals(2, fullMessages);
+    }
+
+    @Test
+    public void testFullServiceDetailsOfAnnouncementsInCompactMode() {
+        MessageFactory compactMessageFactory = new MessageFactory(serviceDetails, FIXED_CLOCK, TestUtils.createMessageMapper(), true);
+
+        Message announcement = compactMessageFactory.createBroadcastMessage(
+                compactMessageFactory.createBroadcastMessageBuilder(Utils.TOPIC_ANNOUNCE, null), null);
+        Message heartbeatResponse = compactMessageFactory.createResponseMessage(compactMessageFactory.createResponseMessageBuilder(null,
+                TestUtils.createMsbRequestMessageNoPayload(Utils.TOPIC_HEARTBEAT, Utils.TOPIC_HEARTBEAT + ":response:instance")), null, null);
+
+        assertEquals(serviceDetails, announcement.getMeta().getServiceDetails());
+        assertEquals(serviceDetails, heartbeatResponse.getMeta().getServiceDetails());
+    }
 }
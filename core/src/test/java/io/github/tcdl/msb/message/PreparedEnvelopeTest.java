@@ -0,0 +1,130 @@
+package io.github.tcdl.msb.message;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tcdl.msb.api.MessageTemplate;
+import io.github.tcdl.msb.api.message.Acknowledge;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.IncrementingClock;
+import io.github.tcdl.msb.support.TestUtils;
+import io.github.tcdl.msb.support.Utils;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PreparedEnvelopeTest {
+
+    private final MessageFactory messageFactory = new MessageFactory(TestUtils.createMsbConfigurations().getServiceDetails(),
+            new IncrementingClock(Instant.parse("2016-01-01T10:00:00Z"), ZoneId.systemDefault(), 7, ChronoUnit.MILLIS), TestUtils.createMessageMapper());
+
+    private final ObjectMapper messageMapper = TestUtils.createMessageMapper();
+
+    @Test
+    public void testSerializedLikeMessageMapper() {
+        Message.Builder builder = createResponseMessageBuilder();
+        Message ack = messageFactory.createResponseMessage(builder, messageFactory.createAckBuilder("responder").withResponsesRemaining(1).build(), null);
+        Message response = messageFactory.createResponseMessage(builder, messageFactory.createAckBuilder("responder").withResponsesRemaining(-1).build(),
+                TestUtils.createSimpleResponsePayload());
+
+        PreparedEnvelope envelope = new PreparedEnvelope(ack, messageMapper);
+
+        assertArrayEquals(Utils.toJsonBytes(ack, messageMapper), envelope.toJsonBytes(ack));
+        assertArrayEquals(Utils.toJsonBytes(response, messageMapper), envelope.toJsonBytes(response));
+    }
+
+    @Test
+    public void testSerializedLikeMapperIncludingNulls() {
+        ObjectMapper mapper = TestUtils.createMessageMapper().setSerializationInclusion(JsonInclude.Include.ALWAYS);
+        Message.Builder builder = messageFactory.createResponseMessageBuilder(null, TestUtils.createMsbRequestMessageNoPayload("test:envelope"));
+        Message response = messageFactory.createResponseMessage(builder, new Acknowledge.Builder().withResponderId("responder").build(), null);
+
+        PreparedEnvelope envelope = new PreparedEnvelope(response, mapper);
+
+        assertEquals(Utils.toJson(response, mapper), new String(envelope.toJsonBytes(response), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSerializedLikeMessageMapperWithCompactServiceDetails() {
+        MessageFactory compactMessageFactory = new MessageFactory(TestUtils.createMsbConfigurations().getServiceDetails(),
+                Clock.systemDefaultZone(), TestUtils.createMessageMapper(), true);
+        Message request = TestUtils.createMsbRequestMessageNoPayload("test:envelope", "test:envelope:response:instance");
+        // the first message to the topic carries the full service details
+        compactMessageFactory.createResponseMessageBuilder(null, request);
+        Message.Builder builder = compactMessageFactory.createResponseMessageBuilder(null, request);
+        Message response = compactMessageFactory.createResponseMessage(builder, null, "payload");
+
+        PreparedEnvelope envelope = new PreparedEnvelope(response, messageMapper);
+
+        assertArrayEquals(Utils.toJsonBytes(response, messageMapper), envelope.toJsonBytes(response));
+    }
+
+    @Test
+    public void testSerializedLikeMessageMapperInAllConfigurations() throws Exception {
+        for (JsonInclude.Include inclusion : new JsonInclude.Include[] {JsonInclude.Include.NON_NULL, JsonInclude.Include.ALWAYS}) {
+            ObjectMapper mapper = TestUtils.createMessageMapper().setSerializationInclusion(inclusion);
+            for (boolean compactServiceDetails : new boolean[] {false, true}) {
+                MessageFactory factory = new MessageFactory(TestUtils.createMsbConfigurations().getServiceDetails(),
+                        Clock.systemDefaultZone(), mapper, compactServiceDetails);
+                for (boolean withTemplate : new boolean[] {false, true}) {
+                    MessageTemplate messageTemplate = withTemplate ? TestUtils.createSimpleMessageTemplate("response-tag") : null;
+                    Message.Builder builder = factory.createResponseMessageBuilder(messageTemplate,
+                            TestUtils.createMsbRequestMessageNoPayload("test:envelope", "test:envelope:response:instance"));
+                    Message ackOnly = factory.createResponseMessage(builder, factory.createAckBuilder("responder").withResponsesRemaining(1).build(), null);
+                    Message payloadOnly = factory.createResponseMessage(builder, null, TestUtils.createSimpleResponsePayload());
+                    Message empty = factory.createResponseMessage(builder, null, null);
+                    PreparedEnvelope envelope = new PreparedEnvelope(empty, mapper);
+
+                    for (Message message : new Message[] {ackOnly, payloadOnly, empty}) {
+                        String configuration = inclusion + ", compact service details " + compactServiceDetails + ", template " + withTemplate;
+                        assertTrue(configuration, envelope.matches(message));
+                        assertArrayEquals(configuration, mapper.writeValueAsString(message).getBytes(StandardCharsets.UTF_8),
+                                envelope.toJsonBytes(message));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNotUsedWithUnsupportedInclusion() {
+        ObjectMapper mapper = TestUtils.createMessageMapper().setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        Message response = messageFactory.createResponseMessage(createResponseMessageBuilder(), null, null);
+
+        PreparedEnvelope envelope = new PreparedEnvelope(response, mapper);
+
+        assertFalse(envelope.matches(response));
+        assertArrayEquals(Utils.toJsonBytes(response, mapper), envelope.toJsonBytes(response));
+    }
+
+    @Test
+    public void testMatchesMessagesOfSameBuilder() {
+        Message.Builder builder = createResponseMessageBuilder();
+        Message first = messageFactory.createResponseMessage(builder, null, null);
+        Message second = messageFactory.createResponseMessage(builder, null, "payload");
+
+        assertTrue(new PreparedEnvelope(first, messageMapper).matches(second));
+    }
+
+    @Test
+    public void testDoesNotMatchMessagesOfOtherBuilder() {
+        Message first = messageFactory.createResponseMessage(createResponseMessageBuilder(), null, null);
+        Message other = messageFactory.createResponseMessage(createResponseMessageBuilder(), null, null);
+
+        assertFalse(new PreparedEnvelope(first, messageMapper).matches(other));
+    }
+
+    private Message.Builder createResponseMessageBuilder() {
+        MessageTemplate messageTemplate = TestUtils.createSimpleMessageTemplate("response-tag");
+        Message originalMessage = TestUtils.createSimpleRequestMessageWithTags("test:envelope", "request-tag");
+        return messageFactory.createResponseMessageBuilder(messageTemplate, originalMessage);
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.tcdl.msb.message;
+
+import io.github.tcdl.msb.api.message.MetaMessage;
+import io.github.tcdl.msb.config.ServiceDetails;
+import io.github.tcdl.msb.support.TestUtils;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class ServiceDetailsRegistryTest {
+
+    private final ServiceDetails serviceDetails = TestUtils.createMsbConfigurations().getServiceDetails();
+
+    private final ServiceDetailsRegistry registry = new ServiceDetailsRegistry();
+
+    @Test
+    public void testFullServiceDetailsRegistered() {
+        registry.register(createMeta(false));
+
+        assertSame(serviceDetails, registry.find(serviceDetails.getInstanceId()).get());
+    }
+
+    @Test
+    public void testCompactMetaResolvedByInstanceId() {
+        MetaMessage compactMeta = createMeta(true);
+        registry.register(compactMeta);
+        assertFalse(registry.resolve(compactMeta).isPresent());
+
+        registry.register(createMeta(false));
+
+        assertSame(serviceDetails, registry.resolve(compactMeta).get());
+    }
+
+    @Test
+    public void testUnknownInstance() {
+        assertFalse(registry.find("unknown").isPresent());
+        assertFalse(registry.find(null).isPresent());
+    }
+
+    private MetaMessage createMeta(boolean compact) {
+        MetaMessage.Builder builder = new MetaMessage.Builder(null, Instant.now(), serviceDetails, Clock.systemDefaultZone());
+        if (compact) {
+            builder.withCompactServiceDetails();
+        }
+        return builder.build();
+    }
+}
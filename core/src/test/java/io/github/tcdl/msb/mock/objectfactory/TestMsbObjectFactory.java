@@ -102,6 +102,24 @@ public class TestMsbObjectFactory implements ObjectFactory {
         return capture.getResponderServerMock();
     }
 
+    @Override
+    public <T> ResponderServer createResponderServer(String namespace, ResponderOptions responderOptions,
+            ResponderServer.RequestHandler<T> requestHandler, ResponderServer.ErrorHandler errorHandler, TypeReference<T> payloadTypeReference) {
+        ResponderCapture<T> capture = new ResponderCapture<>(namespace, responderOptions.getMessageTemplate(), requestHandler, errorHandler,
+                payloadTypeReference, null);
+        storage.addCapture(capture);
+        return capture.getResponderServerMock();
+    }
+
+    @Override
+    public <T> ResponderServer createResponderServer(String namespace, ResponderOptions responderOptions,
+            ResponderServer.RequestHandler<T> requestHandler, ResponderServer.ErrorHandler errorHandler, Class<T> payloadClass) {
+        ResponderCapture<T> capture = new ResponderCapture<>(namespace, responderOptions.getMessageTemplate(), requestHandler, errorHandler,
+                null, payloadClass);
+        storage.addCapture(capture);
+        return capture.getResponderServerMock();
+    }
+
     @Override
     public <T> Requester<T> createRequesterForFireAndForget(String namespace) {
         return createRequesterForFireAndForget(namespace, null);
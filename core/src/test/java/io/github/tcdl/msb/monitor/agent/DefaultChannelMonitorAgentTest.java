@@ -9,6 +9,8 @@ import io.github.tcdl.msb.config.ServiceDetails;
 import io.github.tcdl.msb.impl.MsbContextImpl;
 import io.github.tcdl.msb.message.MessageFactory;
 import io.github.tcdl.msb.support.TestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableSet;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -17,17 +19,23 @@ import org.mockito.Mockito;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static io.github.tcdl.msb.support.Utils.TOPIC_ANNOUNCE;
 import static io.github.tcdl.msb.support.Utils.TOPIC_HEARTBEAT;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,6 +44,7 @@ public class DefaultChannelMonitorAgentTest {
 
     private DefaultChannelMonitorAgent channelMonitorAgent;
     private ChannelManager mockChannelManager;
+    private ScheduledExecutorService mockAnnouncementScheduler;
 
     @Before
     public void setUp() {
@@ -50,7 +59,8 @@ public class DefaultChannelMonitorAgentTest {
                 .withClock(clock)
                 .withTimeoutManager(mockTimeoutManager)
                 .build();
-        channelMonitorAgent = new DefaultChannelMonitorAgent(msbContext);
+        mockAnnouncementScheduler = mock(ScheduledExecutorService.class);
+        channelMonitorAgent = new DefaultChannelMonitorAgent(msbContext, mockAnnouncementScheduler);
     }
 
     @Test
@@ -100,6 +110,63 @@ public class DefaultChannelMonitorAgentTest {
         verifyMessageContainsTopic(message, topicName);
     }
 
+    @Test
+    public void testAnnouncementsWithinIntervalDelayed() {
+        Producer mockProducer = mock(Producer.class);
+        when(mockChannelManager.findOrCreateProducer(TOPIC_ANNOUNCE)).thenReturn(mockProducer);
+
+        channelMonitorAgent.producerTopicCreated("topic1");
+        channelMonitorAgent.consumerTopicCreated("topic2");
+        channelMonitorAgent.producerTopicCreated("topic3");
+
+        ArgumentCaptor<Runnable> announcementCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockAnnouncementScheduler).schedule(announcementCaptor.capture(), eq(1000L), eq(TimeUnit.MILLISECONDS));
+        verify(mockProducer, times(1)).publish(any(Message.class));
+        assertEquals(ImmutableSet.of("topic2", "topic3"), channelMonitorAgent.pendingAnnouncements);
+
+        // the interval elapses
+        announcementCaptor.getValue().run();
+
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(mockProducer, times(2)).publish(messageCaptor.capture());
+        JsonNode body = messageCaptor.getAllValues().get(1).getRawPayload().get("body");
+        assertEquals(ImmutableSet.of("topic2", "topic3"), ImmutableSet.copyOf(body.fieldNames()));
+        assertTrue(channelMonitorAgent.pendingAnnouncements.isEmpty());
+    }
+
+    @Test
+    public void testAnnouncementPublishedOutsideAgentLock() {
+        Producer mockProducer = mock(Producer.class);
+        when(mockChannelManager.findOrCreateProducer(TOPIC_ANNOUNCE)).thenAnswer(invocation -> {
+            assertFalse(Thread.holdsLock(channelMonitorAgent));
+            return mockProducer;
+        });
+
+        channelMonitorAgent.producerTopicCreated("topic1");
+        channelMonitorAgent.producerTopicCreated("topic2");
+        channelMonitorAgent.announcePending();
+
+        verify(mockProducer, times(2)).publish(any(Message.class));
+    }
+
+    @Test
+    public void testAnnouncementsVersioned() {
+        Producer mockProducer = mock(Producer.class);
+        when(mockChannelManager.findOrCreateProducer(TOPIC_ANNOUNCE)).thenReturn(mockProducer);
+
+        channelMonitorAgent.producerTopicCreated("topic1");
+        channelMonitorAgent.producerTopicCreated("topic2");
+        channelMonitorAgent.announcePending();
+
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(mockProducer, times(2)).publish(messageCaptor.capture());
+        JsonNode headers1 = messageCaptor.getAllValues().get(0).getRawPayload().get("headers");
+        JsonNode headers2 = messageCaptor.getAllValues().get(1).getRawPayload().get("headers");
+        assertEquals(1, headers1.get("statsVersion").asLong());
+        assertEquals(2, headers2.get("statsVersion").asLong());
+        assertEquals(headers1.get("instanceStartedAt"), headers2.get("instanceStartedAt"));
+    }
+
     @Test
     public void testRemoveConsumerForNormalTopic() {
         String topicName = "search:parsers:facets:v1";
@@ -118,7 +185,7 @@ public class DefaultChannelMonitorAgentTest {
     public void testMessageProduce() {
         String topicName = "search:parsers:facets:v1";
 
-        channelMonitorAgent.producerMessageSent(topicName);
+        channelMonitorAgent.producerStatsRecorder(topicName).record();
 
         assertTrue(channelMonitorAgent.topicInfoMap.containsKey(topicName));
         assertEquals(CLOCK_INSTANT, channelMonitorAgent.topicInfoMap.get(topicName).getLastProducedAt());
@@ -128,12 +195,44 @@ public class DefaultChannelMonitorAgentTest {
     public void testMessageConsumed() {
         String topicName = "search:parsers:facets:v1";
 
-        channelMonitorAgent.consumerMessageReceived(topicName);
+        channelMonitorAgent.consumerStatsRecorder(topicName).record();
 
         assertTrue(channelMonitorAgent.topicInfoMap.containsKey(topicName));
         assertEquals(CLOCK_INSTANT, channelMonitorAgent.topicInfoMap.get(topicName).getLastConsumedAt());
     }
 
+    @Test
+    public void testStatsRecorderResolvedPerTopic() {
+        TopicStatsRecorder producerRecorder = channelMonitorAgent.producerStatsRecorder("topic1");
+
+        assertSame(producerRecorder, channelMonitorAgent.producerStatsRecorder("topic1"));
+        assertNotSame(producerRecorder, channelMonitorAgent.consumerStatsRecorder("topic1"));
+        assertNotSame(producerRecorder, channelMonitorAgent.producerStatsRecorder("topic2"));
+    }
+
+    @Test
+    public void testStatsOfServiceTopicNotRecorded() {
+        assertSame(TopicStatsRecorder.NOOP, channelMonitorAgent.producerStatsRecorder(TOPIC_ANNOUNCE));
+        assertSame(TopicStatsRecorder.NOOP, channelMonitorAgent.consumerStatsRecorder(TOPIC_HEARTBEAT));
+        assertTrue(channelMonitorAgent.topicInfoMap.isEmpty());
+    }
+
+    @Test
+    public void testSnapshotAnnounced() {
+        String topicName = "search:parsers:facets:v1";
+        Producer mockProducer = mock(Producer.class);
+        when(mockChannelManager.findOrCreateProducer(TOPIC_ANNOUNCE)).thenReturn(mockProducer);
+        channelMonitorAgent.consumerStatsRecorder(topicName).record();
+
+        channelMonitorAgent.consumerTopicCreated(topicName);
+
+        Message message = verifyProducerInvokedAndReturnMessage(mockProducer);
+        JsonNode topicStats = message.getRawPayload().get("body").get(topicName);
+        assertTrue(topicStats.get("consumers").asBoolean());
+        assertFalse(topicStats.get("producers").asBoolean());
+        assertEquals(CLOCK_INSTANT.toString(), topicStats.get("lastConsumedAt").asText());
+    }
+
     @Test
     public void testStart() {
         ChannelMonitorAgent startedAgent = channelMonitorAgent.start();
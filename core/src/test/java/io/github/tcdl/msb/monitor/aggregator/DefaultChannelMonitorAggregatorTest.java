@@ -20,12 +20,12 @@ import io.github.tcdl.msb.api.monitor.AggregatorStats;
 import io.github.tcdl.msb.api.monitor.AggregatorTopicStats;
 import io.github.tcdl.msb.config.ServiceDetails;
 import io.github.tcdl.msb.impl.MsbContextImpl;
+import io.github.tcdl.msb.monitor.agent.AgentStatsVersion;
 import io.github.tcdl.msb.monitor.agent.AgentTopicStats;
 import io.github.tcdl.msb.support.TestUtils;
 import io.github.tcdl.msb.support.Utils;
 
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -86,7 +86,9 @@ public class DefaultChannelMonitorAggregatorTest {
         Message hbMessage1 = createAnnouncementMessageWith2Topics(INSTANCE_ID_1, TOPIC1, TOPIC2);
         Message hbMessage2 = createAnnouncementMessageWith2Topics(INSTANCE_ID_2, TOPIC1, TOPIC2);
 
-        channelMonitor.onHeartbeatResponses(Arrays.asList(hbMessage1, hbMessage2));
+        channelMonitor.onHeartbeatResponse(hbMessage1);
+        channelMonitor.onHeartbeatResponse(hbMessage2);
+        channelMonitor.onHeartbeatEnd();
 
         assertEquals(2, channelMonitor.masterAggregatorStats.getServiceDetailsById().size());
         assertTrue(channelMonitor.masterAggregatorStats.getServiceDetailsById().containsKey(INSTANCE_ID_1));
@@ -107,14 +109,105 @@ public class DefaultChannelMonitorAggregatorTest {
 
         Message announcementMessage = createAnnouncementMessageWith2Topics(INSTANCE_ID, TOPIC1, TOPIC2);
 
-        AggregatorStats aggregatorStats = new AggregatorStats();
-        channelMonitor.aggregateInfo(aggregatorStats, announcementMessage);
+        channelMonitor.aggregateInfo(announcementMessage, false);
 
+        AggregatorStats aggregatorStats = channelMonitor.masterAggregatorStats;
         assertEquals(1, aggregatorStats.getServiceDetailsById().size());
         assertTrue(aggregatorStats.getServiceDetailsById().containsKey(INSTANCE_ID));
         assertEquals(2, aggregatorStats.getTopicInfoMap().size());
     }
 
+    @Test
+    public void testAnnouncementsMerged() {
+        String INSTANCE_ID = "instanceId";
+
+        channelMonitor.onAnnounce(createMessage(INSTANCE_ID, 1, ImmutableMap.of("topic1", new AgentTopicStats().withProducers(true))), null);
+        channelMonitor.onAnnounce(createMessage(INSTANCE_ID, 2, ImmutableMap.of("topic2", new AgentTopicStats().withConsumers(true))), null);
+
+        Map<String, AggregatorTopicStats> topicInfoMap = channelMonitor.masterAggregatorStats.getTopicInfoMap();
+        assertEquals(ImmutableSet.of("topic1", "topic2"), topicInfoMap.keySet());
+        assertEquals(ImmutableSet.of(INSTANCE_ID), topicInfoMap.get("topic1").getProducers());
+        assertEquals(ImmutableSet.of(INSTANCE_ID), topicInfoMap.get("topic2").getConsumers());
+        verify(mockHandler, times(2)).call(channelMonitor.masterAggregatorStats);
+    }
+
+    @Test
+    public void testStaleMessageIgnored() {
+        String INSTANCE_ID = "instanceId";
+        Instant LAST_PRODUCED_AT = Instant.parse("2007-12-03T10:15:30.00Z");
+
+        channelMonitor.onAnnounce(createMessage(INSTANCE_ID, 2, ImmutableMap.of("topic1",
+                new AgentTopicStats().withProducers(true).withLastProducedAt(LAST_PRODUCED_AT))), null);
+        channelMonitor.onAnnounce(createMessage(INSTANCE_ID, 1, ImmutableMap.of("topic1",
+                new AgentTopicStats().withConsumers(true))), null);
+
+        AggregatorTopicStats topicStats = channelMonitor.masterAggregatorStats.getTopicInfoMap().get("topic1");
+        assertEquals(ImmutableSet.of(INSTANCE_ID), topicStats.getProducers());
+        assertTrue(topicStats.getConsumers().isEmpty());
+        assertEquals(LAST_PRODUCED_AT, topicStats.getLastProducedAt());
+        verify(mockHandler, times(1)).call(channelMonitor.masterAggregatorStats);
+    }
+
+    @Test
+    public void testHeartbeatResponseReplacesTopicsOfInstance() {
+        String INSTANCE_ID_1 = "instanceId1";
+        String INSTANCE_ID_2 = "instanceId2";
+
+        channelMonitor.onAnnounce(createMessage(INSTANCE_ID_1, 1, ImmutableMap.of(
+                "topic1", new AgentTopicStats().withProducers(true),
+                "topic2", new AgentTopicStats().withProducers(true))), null);
+        channelMonitor.onAnnounce(createMessage(INSTANCE_ID_2, 1, ImmutableMap.of("topic2", new AgentTopicStats().withConsumers(true))), null);
+
+        channelMonitor.onHeartbeatResponse(createMessage(INSTANCE_ID_1, 2, ImmutableMap.of("topic3", new AgentTopicStats().withProducers(true))));
+        channelMonitor.onHeartbeatResponse(createMessage(INSTANCE_ID_2, 2, ImmutableMap.of("topic2", new AgentTopicStats().withConsumers(true))));
+        channelMonitor.onHeartbeatEnd();
+
+        Map<String, AggregatorTopicStats> topicInfoMap = channelMonitor.masterAggregatorStats.getTopicInfoMap();
+        assertEquals(ImmutableSet.of("topic2", "topic3"), topicInfoMap.keySet());
+        assertTrue(topicInfoMap.get("topic2").getProducers().isEmpty());
+        assertEquals(ImmutableSet.of(INSTANCE_ID_2), topicInfoMap.get("topic2").getConsumers());
+        assertEquals(ImmutableSet.of(INSTANCE_ID_1), topicInfoMap.get("topic3").getProducers());
+    }
+
+    @Test
+    public void testRestartedInstanceReplacesTopics() {
+        String INSTANCE_ID = "instanceId";
+
+        channelMonitor.onAnnounce(createMessage(INSTANCE_ID, Instant.ofEpochMilli(1000), 5,
+                ImmutableMap.of("topic1", new AgentTopicStats().withProducers(true))), null);
+        channelMonitor.onAnnounce(createMessage(INSTANCE_ID, Instant.ofEpochMilli(2000), 1,
+                ImmutableMap.of("topic2", new AgentTopicStats().withProducers(true))), null);
+
+        assertEquals(ImmutableSet.of("topic2"), channelMonitor.masterAggregatorStats.getTopicInfoMap().keySet());
+    }
+
+    @Test
+    public void testSilentInstanceExpired() {
+        String INSTANCE_ID_1 = "instanceId1";
+        String INSTANCE_ID_2 = "instanceId2";
+
+        channelMonitor.onAnnounce(createMessage(INSTANCE_ID_1, 1, ImmutableMap.of(
+                "topic1", new AgentTopicStats().withProducers(true),
+                "topic2", new AgentTopicStats().withProducers(true))), null);
+        channelMonitor.onAnnounce(createMessage(INSTANCE_ID_2, 1, ImmutableMap.of("topic2", new AgentTopicStats().withConsumers(true))), null);
+        channelMonitor.instanceStatsById.get(INSTANCE_ID_1).lastSeenAt = 0;
+
+        channelMonitor.onHeartbeatEnd();
+
+        AggregatorStats aggregatorStats = channelMonitor.masterAggregatorStats;
+        assertEquals(ImmutableSet.of(INSTANCE_ID_2), aggregatorStats.getServiceDetailsById().keySet());
+        assertEquals(ImmutableSet.of("topic2"), aggregatorStats.getTopicInfoMap().keySet());
+        assertTrue(aggregatorStats.getTopicInfoMap().get("topic2").getProducers().isEmpty());
+        verify(mockHandler, times(3)).call(aggregatorStats);
+    }
+
+    @Test
+    public void testHeartbeatEndWithoutChanges() {
+        channelMonitor.onHeartbeatEnd();
+
+        verifyNoMoreInteractions(mockHandler);
+    }
+
     @Test
     public void testAggregateTopicStatsInitial() {
         // Given
@@ -289,6 +382,19 @@ public class DefaultChannelMonitorAggregatorTest {
         assertEquals(expectedLastConsumedAt, aggregatorStats.getTopicInfoMap().get(topic).getLastConsumedAt());
     }
 
+    private Message createMessage(String instanceId, long statsVersion, Map<String, AgentTopicStats> topicInfoMap) {
+        return createMessage(instanceId, Instant.ofEpochMilli(1000), statsVersion, topicInfoMap);
+    }
+
+    private Message createMessage(String instanceId, Instant instanceStartedAt, long statsVersion, Map<String, AgentTopicStats> topicInfoMap) {
+        RestPayload<?, ?, ?, Map<String, AgentTopicStats>> payload = new RestPayload.Builder<Object, AgentStatsVersion, Object, Map<String, AgentTopicStats>>()
+                .withHeaders(new AgentStatsVersion(instanceStartedAt, statsVersion))
+                .withBody(topicInfoMap)
+                .build();
+
+        return TestUtils.createMsbRequestMessage("to", instanceId, payload);
+    }
+
     private Message createAnnouncementMessageWith2Topics(String instanceId, String topic1, String topic2) {
         Map<String, AgentTopicStats> topicInfoMap = new HashMap<>();
         topicInfoMap.put(topic1, new AgentTopicStats().withProducers(true).withLastProducedAt(Instant.now()));
@@ -3,7 +3,9 @@ package io.github.tcdl.msb.monitor.aggregator;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import io.github.tcdl.msb.api.Callback;
@@ -17,13 +19,13 @@ import io.github.tcdl.msb.api.monitor.ChannelMonitorAggregator;
 import io.github.tcdl.msb.support.TestUtils;
 import io.github.tcdl.msb.support.Utils;
 
-import java.util.List;
 import java.util.function.BiConsumer;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -33,8 +35,10 @@ public class HeartbeatTaskTest {
     @SuppressWarnings("unchecked")
     private Requester<JsonNode> mockRequester = mock(Requester.class);
     @SuppressWarnings("unchecked")
-    private Callback<List<Message>> mockMessageHandler = mock(Callback.class);
-    private HeartbeatTask heartbeatTask = new HeartbeatTask(ChannelMonitorAggregator.DEFAULT_HEARTBEAT_TIMEOUT_MS, mockObjectFactory, mockMessageHandler);
+    private Callback<Message> mockMessageHandler = mock(Callback.class);
+    private Runnable mockEndHandler = mock(Runnable.class);
+    private HeartbeatTask heartbeatTask = new HeartbeatTask(ChannelMonitorAggregator.DEFAULT_HEARTBEAT_TIMEOUT_MS, mockObjectFactory, mockMessageHandler,
+            mockEndHandler);
 
     @Before
     public void setUp() {
@@ -54,7 +58,6 @@ public class HeartbeatTaskTest {
 
         ArgumentCaptor<BiConsumer> onResponseCaptor = ArgumentCaptor.forClass(BiConsumer.class);
         ArgumentCaptor<Callback> onEndCaptor = ArgumentCaptor.forClass(Callback.class);
-        ArgumentCaptor<List> messageCaptor = ArgumentCaptor.forClass(List.class);
 
         verify(mockObjectFactory).createRequester(eq(Utils.TOPIC_HEARTBEAT), any(RequestOptions.class));
         verify(mockRequester).onRawResponse(onResponseCaptor.capture());
@@ -66,11 +69,15 @@ public class HeartbeatTaskTest {
         Message msg2 = TestUtils.createSimpleRequestMessage("from:responder");
         onResponseCaptor.getValue().accept(msg1, null);
         onResponseCaptor.getValue().accept(msg2, null);
-        onEndCaptor.getValue().call(null);
 
-        verify(mockMessageHandler).call(messageCaptor.capture());
+        InOrder inOrder = inOrder(mockMessageHandler, mockEndHandler);
+        inOrder.verify(mockMessageHandler).call(msg1);
+        inOrder.verify(mockMessageHandler).call(msg2);
+        verify(mockEndHandler, never()).run();
+
+        onEndCaptor.getValue().call(null);
 
-        Assert.assertArrayEquals(new Message[] {msg1, msg2}, messageCaptor.getValue().toArray());
+        verify(mockEndHandler).run();
     }
 
     @Test
@@ -0,0 +1,64 @@
+package io.github.tcdl.msb.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class CorrelationIdsTest {
+
+    @Test
+    public void testGenerateReturnsValidUuid() {
+        String correlationId = CorrelationIds.generate();
+
+        UUID uuid = UUID.fromString(correlationId);
+        assertEquals(correlationId, uuid.toString());
+        assertEquals(4, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    public void testGenerateReturnsUniqueIds() {
+        assertNotEquals(CorrelationIds.generate(), CorrelationIds.generate());
+    }
+
+    @Test
+    public void testToLocalKeyOfGeneratedId() {
+        long firstKey = CorrelationIds.toLocalKey(CorrelationIds.generate());
+        long secondKey = CorrelationIds.toLocalKey(CorrelationIds.generate());
+
+        assertTrue(firstKey >= 0);
+        assertTrue(secondKey >= 0);
+        assertNotEquals(firstKey, secondKey);
+    }
+
+    @Test
+    public void testGeneratedIdsNotPredictable() {
+        String firstId = CorrelationIds.generate();
+        String secondId = CorrelationIds.generate();
+
+        // the same process tag, but the random parts differ besides the sequence number in the last digits
+        assertEquals(firstId.substring(0, 8), secondId.substring(0, 8));
+        assertNotEquals(firstId.substring(9, 28), secondId.substring(9, 28));
+    }
+
+    @Test
+    public void testToLocalKeyOfForeignId() {
+        assertEquals(CorrelationIds.NOT_LOCAL, CorrelationIds.toLocalKey(Utils.generateId()));
+        assertEquals(CorrelationIds.NOT_LOCAL, CorrelationIds.toLocalKey("some-correlation-id"));
+        assertEquals(CorrelationIds.NOT_LOCAL, CorrelationIds.toLocalKey(null));
+    }
+
+    @Test
+    public void testToLocalKeyOfCorruptedId() {
+        String correlationId = CorrelationIds.generate();
+
+        assertEquals(CorrelationIds.NOT_LOCAL, CorrelationIds.toLocalKey(correlationId.substring(0, 35) + "x"));
+        assertEquals(CorrelationIds.NOT_LOCAL, CorrelationIds.toLocalKey(correlationId.substring(0, 23) + "0" + correlationId.substring(24)));
+        // variant bits don't match
+        assertEquals(CorrelationIds.NOT_LOCAL, CorrelationIds.toLocalKey(correlationId.substring(0, 19) + "0" + correlationId.substring(20)));
+    }
+}
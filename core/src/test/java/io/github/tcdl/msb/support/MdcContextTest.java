@@ -0,0 +1,151 @@
+package io.github.tcdl.msb.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.threading.MessageProcessingTask;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+public class MdcContextTest {
+
+    private final MdcContext context = new MdcContext(new String[] {"msbCorrelationId", "tagKey"}, new String[] {"correlationId", "tagValue"});
+
+    @After
+    public void tearDown() {
+        if (MdcContext.current() != null) {
+            MdcContext.current().uninstall();
+        }
+        MDC.clear();
+    }
+
+    @Test
+    public void testInstall() {
+        context.install();
+
+        assertSame(context, MdcContext.current());
+        assertEquals("correlationId", MDC.get("msbCorrelationId"));
+        assertEquals("tagValue", MDC.get("tagKey"));
+        assertEquals("tagValue", context.get("tagKey"));
+    }
+
+    @Test
+    public void testInstallReplacesOtherEntries() {
+        MDC.put("other", "value");
+
+        context.install();
+
+        assertNull(MDC.get("other"));
+    }
+
+    @Test
+    public void testUninstallClearsEntriesPutWhileInstalled() {
+        context.install();
+        MDC.put("handlerKey", "value");
+
+        context.uninstall();
+
+        assertNull(MdcContext.current());
+        assertNull(MDC.get("handlerKey"));
+        assertNull(MDC.get("msbCorrelationId"));
+        assertNull(MDC.get("tagKey"));
+    }
+
+    @Test
+    public void testCaptureInstalledContext() {
+        context.install();
+
+        assertSame(context, MdcContext.capture());
+    }
+
+    @Test
+    public void testInstallInstalledContextKeepsMdc() {
+        context.install();
+        MDC.put("other", "value");
+
+        context.install();
+
+        assertEquals("value", MDC.get("other"));
+    }
+
+    @Test
+    public void testCaptureOtherEntries() {
+        MDC.put("other", "value");
+
+        MdcContext captured = MdcContext.capture();
+
+        assertEquals("value", captured.get("other"));
+    }
+
+    @Test
+    public void testCaptureEmpty() {
+        assertNull(MdcContext.capture());
+    }
+
+    @Test
+    public void testEntriesOfHandlerNotLeakedToNextMessage() throws InterruptedException {
+        AtomicReference<String> leakedValue = new AtomicReference<>();
+        Message message = TestUtils.createSimpleRequestMessage("test:mdc");
+        AcknowledgementHandlerInternal ackHandler = mock(AcknowledgementHandlerInternal.class);
+
+        context.install();
+        MessageProcessingTask first = new MessageProcessingTask((msg, ack) -> MDC.put("handlerKey", "value"), message, ackHandler);
+        MessageProcessingTask second = new MessageProcessingTask((msg, ack) -> leakedValue.set(MDC.get("handlerKey")), message, ackHandler);
+        context.uninstall();
+
+        Thread thread = new Thread(() -> {
+            first.run();
+            second.run();
+        });
+        thread.start();
+        thread.join();
+
+        assertNull(leakedValue.get());
+    }
+
+    @Test
+    public void testGivenContextInstalledInProcessingThread() throws InterruptedException {
+        AtomicReference<String> correlationIdInHandler = new AtomicReference<>();
+        Message message = TestUtils.createSimpleRequestMessage("test:mdc");
+
+        MessageProcessingTask task = new MessageProcessingTask((msg, ackHandler) -> correlationIdInHandler.set(MDC.get("msbCorrelationId")),
+                message, mock(AcknowledgementHandlerInternal.class), context, Clock.systemDefaultZone(), () -> {});
+
+        Thread thread = new Thread(task);
+        thread.start();
+        thread.join();
+
+        assertEquals("correlationId", correlationIdInHandler.get());
+    }
+
+    @Test
+    public void testContextHandedOverToProcessingThread() throws InterruptedException {
+        AtomicReference<String> correlationIdInHandler = new AtomicReference<>();
+        AtomicReference<MdcContext> contextAfterProcessing = new AtomicReference<>();
+        Message message = TestUtils.createSimpleRequestMessage("test:mdc");
+
+        context.install();
+        MessageProcessingTask task = new MessageProcessingTask((msg, ackHandler) -> correlationIdInHandler.set(MDC.get("msbCorrelationId")),
+                message, mock(AcknowledgementHandlerInternal.class));
+        context.uninstall();
+
+        Thread thread = new Thread(() -> {
+            task.run();
+            contextAfterProcessing.set(MdcContext.current());
+        });
+        thread.start();
+        thread.join();
+
+        assertEquals("correlationId", correlationIdInHandler.get());
+        assertNull(contextAfterProcessing.get());
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.tcdl.msb.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TraceTest {
+
+    @Before
+    public void setUp() {
+        Trace.disable();
+        Trace.clear();
+    }
+
+    @After
+    public void tearDown() {
+        Trace.disable();
+        Trace.clear();
+    }
+
+    @Test
+    public void testNothingRecordedWhileDisabled() {
+        Trace.record(TraceEvent.MESSAGE_RECEIVED, "test:topic");
+
+        assertFalse(Trace.isEnabled());
+        assertEquals("", Trace.dump());
+    }
+
+    @Test
+    public void testEventsDumped() {
+        Trace.enable(4);
+        Trace.record(TraceEvent.MESSAGE_RECEIVED, "test:topic");
+        Trace.record(TraceEvent.RESPONSE_TIMEOUT_SCHEDULED, "correlationId", 3000);
+
+        String dump = Trace.dump();
+
+        assertTrue(dump, dump.startsWith("Thread '" + Thread.currentThread().getName() + "', 2 of 2 events:\n"));
+        assertTrue(dump, dump.contains(" MESSAGE_RECEIVED [topic: test:topic]\n"));
+        assertTrue(dump, dump.contains(" RESPONSE_TIMEOUT_SCHEDULED [correlation id: correlationId] [timeout ms: 3000]\n"));
+        assertTrue(dump, dump.indexOf("MESSAGE_RECEIVED") < dump.indexOf("RESPONSE_TIMEOUT_SCHEDULED"));
+    }
+
+    @Test
+    public void testOldestEventsOverwritten() {
+        Trace.enable(3);
+        for (int i = 0; i < 6; i++) {
+            Trace.record(TraceEvent.WAITING_FOR_RESPONSES, "id" + i, i);
+        }
+
+        String dump = Trace.dump();
+
+        // capacity is rounded up to 4
+        assertTrue(dump, dump.contains("4 of 6 events"));
+        assertFalse(dump, dump.contains("id1"));
+        assertTrue(dump, dump.contains("id2"));
+        assertTrue(dump, dump.contains("id5"));
+    }
+
+    @Test
+    public void testEventsOfEachThreadDumped() throws InterruptedException {
+        Trace.enable(4);
+        Trace.record(TraceEvent.COLLECTOR_ENDED, "first");
+        Thread thread = new Thread(() -> Trace.record(TraceEvent.COLLECTOR_ENDED, "second"), "trace-test-thread");
+        thread.start();
+        thread.join();
+
+        String dump = Trace.dump();
+
+        assertTrue(dump, dump.contains("Thread 'trace-test-thread', 1 of 1 events:\n"));
+        assertTrue(dump, dump.contains("[correlation id: first]"));
+        assertTrue(dump, dump.contains("[correlation id: second]"));
+    }
+
+    @Test
+    public void testEventsOfOtherThreadsDumpedAfterClear() throws Exception {
+        Trace.enable(4);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> Trace.record(TraceEvent.COLLECTOR_ENDED, "beforeClear")).get();
+            Trace.clear();
+            executor.submit(() -> Trace.record(TraceEvent.COLLECTOR_ENDED, "afterClear")).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        String dump = Trace.dump();
+
+        assertFalse(dump, dump.contains("beforeClear"));
+        assertTrue(dump, dump.contains("afterClear"));
+    }
+
+    @Test
+    public void testRecordedEventsKeptAfterDisable() {
+        Trace.enable(4);
+        Trace.record(TraceEvent.COLLECTOR_ENDED, "correlationId");
+        Trace.disable();
+        Trace.record(TraceEvent.ON_END_TRIGGERED, "correlationId");
+
+        String dump = Trace.dump();
+
+        assertTrue(dump, dump.contains("COLLECTOR_ENDED"));
+        assertFalse(dump, dump.contains("ON_END_TRIGGERED"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveCapacityRejected() {
+        Trace.enable(0);
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.tcdl.msb.support;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tcdl.msb.api.exception.JsonConversionException;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TypedConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testConvertJsonNode() throws Exception {
+        JsonNode node = objectMapper.readTree("{\"field\":\"value\"}");
+
+        SimpleBean bean = new TypedConverter<>(SimpleBean.class, objectMapper).convert(node);
+
+        assertEquals("value", bean.getField());
+    }
+
+    @Test
+    public void testConvertJsonNodeToGenericType() throws Exception {
+        JsonNode node = objectMapper.readTree("[{\"field\":\"first\"},{\"field\":\"second\"}]");
+
+        List<SimpleBean> beans = new TypedConverter<>(new TypeReference<List<SimpleBean>>() {}, objectMapper).convert(node);
+
+        assertEquals(2, beans.size());
+        assertEquals("second", beans.get(1).getField());
+    }
+
+    @Test
+    public void testConvertObject() {
+        Map<String, String> map = Collections.singletonMap("field", "value");
+
+        SimpleBean bean = new TypedConverter<>(SimpleBean.class, objectMapper).convert(map);
+
+        assertEquals("value", bean.getField());
+    }
+
+    @Test
+    public void testConvertInstanceOfType() throws Exception {
+        JsonNode node = objectMapper.readTree("{\"field\":\"value\"}");
+
+        assertSame(node, new TypedConverter<>(JsonNode.class, objectMapper).convert(node));
+    }
+
+    @Test
+    public void testConvertNull() {
+        assertNull(new TypedConverter<>(SimpleBean.class, objectMapper).convert(null));
+    }
+
+    @Test(expected = JsonConversionException.class)
+    public void testConvertIncompatibleJsonNode() throws Exception {
+        JsonNode node = objectMapper.readTree("{\"unknown\":\"value\"}");
+
+        new TypedConverter<>(SimpleBean.class, objectMapper).convert(node);
+    }
+
+    @Test
+    public void testFromJson() {
+        TypedConverter<SimpleBean> converter = new TypedConverter<>(SimpleBean.class, objectMapper);
+
+        assertEquals("value", converter.fromJson("{\"field\":\"value\"}").getField());
+        assertEquals("value", converter.fromJson("{\"field\":\"value\"}".getBytes(StandardCharsets.UTF_8)).getField());
+        assertNull(converter.fromJson(""));
+    }
+
+    @Test(expected = JsonConversionException.class)
+    public void testFromBrokenJson() {
+        new TypedConverter<>(SimpleBean.class, objectMapper).fromJson("{\"field\":");
+    }
+}
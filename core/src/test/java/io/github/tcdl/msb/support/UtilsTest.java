@@ -5,7 +5,14 @@ import io.github.tcdl.msb.api.exception.JsonConversionException;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MetaMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Optional;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -17,6 +24,41 @@ import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 public class UtilsTest {
+    @Test
+    public void testGetExpiryTime() {
+        Instant createdAt = Instant.parse("2016-01-01T10:00:00Z");
+        Clock clock = Clock.fixed(createdAt, ZoneId.systemDefault());
+        Message message = TestUtils.createMessageBuilder(clock)
+                .withMetaBuilder(new MetaMessage.Builder(500, createdAt, TestUtils.createMsbConfigurations().getServiceDetails(), clock))
+                .build();
+
+        assertEquals(Optional.of(createdAt.plusMillis(500)), Utils.getExpiryTime(message));
+    }
+
+    @Test
+    public void testGetExpiryTimeEarliestOfTtlAndDeadline() {
+        Instant createdAt = Instant.parse("2016-01-01T10:00:00Z");
+        Clock clock = Clock.fixed(createdAt, ZoneId.systemDefault());
+        MetaMessage.Builder metaBuilder = new MetaMessage.Builder(500, createdAt, TestUtils.createMsbConfigurations().getServiceDetails(), clock);
+
+        Message messageWithEarlierDeadline = TestUtils.createMessageBuilder(clock)
+                .withMetaBuilder(metaBuilder.withDeadline(createdAt.plusMillis(200)))
+                .build();
+        assertEquals(Optional.of(createdAt.plusMillis(200)), Utils.getExpiryTime(messageWithEarlierDeadline));
+
+        Message messageWithLaterDeadline = TestUtils.createMessageBuilder(clock)
+                .withMetaBuilder(metaBuilder.withDeadline(createdAt.plusMillis(900)))
+                .build();
+        assertEquals(Optional.of(createdAt.plusMillis(500)), Utils.getExpiryTime(messageWithLaterDeadline));
+    }
+
+    @Test
+    public void testGetExpiryTimeNoTtl() {
+        Message message = TestUtils.createMessageBuilder(Clock.systemDefaultZone()).build();
+
+        assertFalse(Utils.getExpiryTime(message).isPresent());
+    }
+
     @Test
     public void testIsServiceTopic() {
         assertTrue(isServiceTopic(TOPIC_ANNOUNCE));
@@ -47,6 +89,15 @@ public class UtilsTest {
         assertEquals("{\"field\":\"value\"}", json);
     }
 
+    @Test
+    public void testJsonBytesSerializationInUtf8() throws Exception {
+        SimpleBean bean = new SimpleBean();
+        bean.setField("v\u00e4lue");
+        byte[] json = Utils.toJsonBytes(bean, new ObjectMapper());
+
+        assertEquals("{\"field\":\"v\u00e4lue\"}", new String(json, StandardCharsets.UTF_8));
+    }
+
     @Test
     public void testJsonDeserializationWithDefaultMapper() throws Exception {
         ObjectMapper objectMapper = new ObjectMapper();
@@ -0,0 +1,157 @@
+package io.github.tcdl.msb.threading;
+
+import io.github.tcdl.msb.threading.AdaptiveThreadPoolExecutor.Adjustment;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveConsumerExecutorFactoryTest {
+
+    private static final long ONE_HOUR_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final List<ExecutorService> threadPools = new ArrayList<>();
+    private final CountDownLatch releaseWorkers = new CountDownLatch(1);
+
+    @After
+    public void tearDown() throws Exception {
+        releaseWorkers.countDown();
+        for (ExecutorService threadPool : threadPools) {
+            threadPool.shutdownNow();
+            threadPool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testInitialSizeWithinBounds() {
+        AdaptiveConsumerExecutorFactory factory = new AdaptiveConsumerExecutorFactory(2, 8, 5, ONE_HOUR_MS);
+
+        assertEquals(2, createThreadPool(factory, 1, -1).getCorePoolSize());
+        assertEquals(5, createThreadPool(factory, 5, -1).getCorePoolSize());
+        assertEquals(8, createThreadPool(factory, 20, 10).getCorePoolSize());
+        assertEquals(3, factory.getThreadPools().size());
+    }
+
+    @Test
+    public void testThreadAddedWhileMessagesWaitBehindBlockedThreads() throws Exception {
+        AdaptiveConsumerExecutorFactory factory = new AdaptiveConsumerExecutorFactory(1, 3, 5, ONE_HOUR_MS);
+        AdaptiveThreadPoolExecutor threadPool = createThreadPool(factory, 1, -1);
+        CountDownLatch started = new CountDownLatch(3);
+        for (int i = 0; i < 5; i++) {
+            threadPool.execute(() -> {
+                started.countDown();
+                awaitRelease();
+            });
+        }
+
+        assertEquals(Adjustment.INCREASE, threadPool.adjust());
+        assertEquals(2, threadPool.getCorePoolSize());
+        awaitActiveThreads(threadPool, 2);
+        assertEquals(Adjustment.INCREASE, threadPool.adjust());
+        assertEquals(3, threadPool.getCorePoolSize());
+        assertTrue("Added threads should take queued messages", started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(Adjustment.HOLD, threadPool.adjust());
+        assertEquals(3, threadPool.getCorePoolSize());
+        assertEquals(2, threadPool.getIncreasesCount());
+        assertEquals(Adjustment.HOLD, threadPool.getLastAdjustment());
+    }
+
+    @Test
+    public void testIdlePoolShrunkToMinThreads() throws Exception {
+        AdaptiveConsumerExecutorFactory factory = new AdaptiveConsumerExecutorFactory(2, 16, 5, ONE_HOUR_MS);
+        AdaptiveThreadPoolExecutor threadPool = createThreadPool(factory, 8, -1);
+        threadPool.prestartAllCoreThreads();
+        Thread.sleep(10);
+
+        assertEquals(Adjustment.DECREASE, threadPool.adjust());
+        assertEquals(6, threadPool.getCorePoolSize());
+        while (threadPool.adjust() == Adjustment.DECREASE) {
+            assertTrue(threadPool.getDecreasesCount() < 10);
+        }
+
+        assertEquals(2, threadPool.getCorePoolSize());
+        assertEquals(2, threadPool.getMaximumPoolSize());
+        assertEquals(Adjustment.HOLD, threadPool.getLastAdjustment());
+        assertTrue(threadPool.getUtilization() < AdaptiveThreadPoolExecutor.LOW_UTILIZATION);
+    }
+
+    @Test
+    public void testQueueWaitMeasured() throws Exception {
+        AdaptiveConsumerExecutorFactory factory = new AdaptiveConsumerExecutorFactory(1, 1, 5, ONE_HOUR_MS);
+        AdaptiveThreadPoolExecutor threadPool = createThreadPool(factory, 1, -1);
+        CountDownLatch processed = new CountDownLatch(2);
+        threadPool.execute(() -> {
+            sleep(50);
+            processed.countDown();
+        });
+        threadPool.execute(processed::countDown);
+        assertTrue(processed.await(5, TimeUnit.SECONDS));
+        Thread.sleep(10);
+
+        threadPool.adjust();
+
+        // the second message waited for the first one
+        assertTrue(threadPool.getAverageQueueWaitMs() >= 20);
+        assertTrue(threadPool.getBlockingRatio() <= 1.0);
+    }
+
+    @Test
+    public void testShutDownPoolsForgotten() {
+        AdaptiveConsumerExecutorFactory factory = new AdaptiveConsumerExecutorFactory(1, 4, 5, ONE_HOUR_MS);
+        AdaptiveThreadPoolExecutor live = createThreadPool(factory, 1, -1);
+        AdaptiveThreadPoolExecutor shutDown = createThreadPool(factory, 1, -1);
+        shutDown.shutdown();
+
+        factory.adjustThreadPools();
+
+        assertEquals(1, factory.getThreadPools().size());
+        assertTrue(factory.getThreadPools().contains(live));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxThreadsLessThanMinThreads() {
+        new AdaptiveConsumerExecutorFactory(4, 2, 5, ONE_HOUR_MS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveAdjustmentInterval() {
+        new AdaptiveConsumerExecutorFactory(1, 2, 5, 0);
+    }
+
+    private AdaptiveThreadPoolExecutor createThreadPool(AdaptiveConsumerExecutorFactory factory, int numberOfThreads, int queueCapacity) {
+        AdaptiveThreadPoolExecutor threadPool = (AdaptiveThreadPoolExecutor) factory.createConsumerThreadPool(numberOfThreads, queueCapacity);
+        threadPools.add(threadPool);
+        return threadPool;
+    }
+
+    private static void awaitActiveThreads(AdaptiveThreadPoolExecutor threadPool, int activeThreads) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (threadPool.getActiveCount() < activeThreads && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private void awaitRelease() {
+        try {
+            releaseWorkers.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
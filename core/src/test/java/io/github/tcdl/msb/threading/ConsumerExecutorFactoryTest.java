@@ -1,9 +1,21 @@
 package io.github.tcdl.msb.threading;
 
+import io.github.tcdl.msb.MessageHandler;
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MetaMessage;
+import io.github.tcdl.msb.support.TestUtils;
 import io.github.tcdl.msb.config.MsbConfig;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -20,6 +32,7 @@ import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ConsumerExecutorFactoryTest {
@@ -58,4 +71,64 @@ public class ConsumerExecutorFactoryTest {
         assertNotNull(queue);
         assertTrue(queue instanceof LinkedBlockingQueue);
     }
+
+    @Test
+    public void testDeadlineOrderedThreadPoolTakesEarliestDeadlineFirst() throws Exception {
+        ExecutorService consumerThreadPool = factory.createDeadlineOrderedConsumerThreadPool(1, -1);
+        CountDownLatch blockWorker = new CountDownLatch(1);
+        List<String> processedMessageIds = new CopyOnWriteArrayList<>();
+        MessageHandler recordingHandler = (message, ackHandler) -> processedMessageIds.add(message.getId());
+
+        // occupy the only worker so the next tasks are queued
+        consumerThreadPool.submit(() -> {
+            blockWorker.await();
+            return null;
+        });
+
+        Instant now = Instant.now();
+        Message noTtl = createMessage("no-ttl", now, null);
+        Message lateDeadline = createMessage("late", now, 60000);
+        Message earlyDeadline = createMessage("early", now, 30000);
+        consumerThreadPool.submit(createTask(recordingHandler, noTtl));
+        consumerThreadPool.submit(createTask(recordingHandler, lateDeadline));
+        consumerThreadPool.submit(createTask(recordingHandler, earlyDeadline));
+
+        blockWorker.countDown();
+        consumerThreadPool.shutdown();
+        assertTrue(consumerThreadPool.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(3, processedMessageIds.size());
+        assertEquals("early", processedMessageIds.get(0));
+        assertEquals("late", processedMessageIds.get(1));
+        assertEquals("no-ttl", processedMessageIds.get(2));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testDeadlineOrderedThreadPoolBoundedQueue() throws Exception {
+        ExecutorService consumerThreadPool = factory.createDeadlineOrderedConsumerThreadPool(1, 1);
+        CountDownLatch blockWorker = new CountDownLatch(1);
+        try {
+            consumerThreadPool.submit(() -> {
+                blockWorker.await();
+                return null;
+            });
+            consumerThreadPool.submit(() -> {});
+            consumerThreadPool.submit(() -> {});
+        } finally {
+            blockWorker.countDown();
+            consumerThreadPool.shutdown();
+        }
+    }
+
+    private MessageProcessingTask createTask(MessageHandler messageHandler, Message message) {
+        return new MessageProcessingTask(messageHandler, message, mock(AcknowledgementHandlerInternal.class));
+    }
+
+    private Message createMessage(String id, Instant createdAt, Integer ttl) {
+        Clock clock = Clock.fixed(createdAt, ZoneId.systemDefault());
+        return TestUtils.createMessageBuilder(clock)
+                .withId(id)
+                .withMetaBuilder(new MetaMessage.Builder(ttl, createdAt, TestUtils.createMsbConfigurations().getServiceDetails(), clock))
+                .build();
+    }
 }
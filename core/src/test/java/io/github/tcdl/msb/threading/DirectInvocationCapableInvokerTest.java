@@ -4,10 +4,12 @@ import io.github.tcdl.msb.MessageHandler;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.collector.ExecutionOptionsAwareMessageHandler;
+import io.github.tcdl.msb.support.MdcContext;
 import io.github.tcdl.msb.support.TestUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -69,6 +71,34 @@ public class DirectInvocationCapableInvokerTest {
         verify(clientMessageHandlerInvoker).execute(eq(messageHandler), eq(message), eq(ackHandler));
     }
 
+    @Test
+    public void execute_shouldPassMdcContextToClientInvoker() throws Exception {
+        MessageHandler messageHandler = mock(MessageHandler.class);
+        MdcContext mdcContext = new MdcContext(new String[0], new String[0]);
+
+        Message message = TestUtils.createSimpleRequestMessage(namespace);
+        instance.execute(messageHandler, message, ackHandler, mdcContext);
+
+        verify(clientMessageHandlerInvoker).execute(eq(messageHandler), eq(message), eq(ackHandler), eq(mdcContext));
+    }
+
+    @Test
+    public void executeRawMessageTask_shouldKeepDirectInvocation() throws Exception {
+        ExecutionOptionsAwareMessageHandler messageHandler = mock(ExecutionOptionsAwareMessageHandler.class);
+        when(messageHandler.forceDirectInvocation()).thenReturn(true);
+        Message message = TestUtils.createSimpleRequestMessage(namespace);
+        MessageHandlerInvoker poolThreadInvoker = mock(MessageHandlerInvoker.class);
+
+        instance.execute(invoker -> invoker.execute(messageHandler, message, ackHandler));
+
+        ArgumentCaptor<RawMessageTask> taskCaptor = ArgumentCaptor.forClass(RawMessageTask.class);
+        verify(clientMessageHandlerInvoker).execute(taskCaptor.capture());
+        taskCaptor.getValue().run(poolThreadInvoker);
+
+        verify(directMessageHandlerInvoker).execute(eq(messageHandler), eq(message), eq(ackHandler));
+        verify(poolThreadInvoker, never()).execute(any(MessageHandler.class), any(Message.class), any(AcknowledgementHandlerInternal.class));
+    }
+
     @Test
     public void shutdown() throws Exception {
         instance.shutdown();
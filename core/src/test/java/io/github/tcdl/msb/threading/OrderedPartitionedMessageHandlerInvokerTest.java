@@ -0,0 +1,194 @@
+package io.github.tcdl.msb.threading;
+
+import io.github.tcdl.msb.MessageHandler;
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MetaMessage;
+import io.github.tcdl.msb.support.TestUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OrderedPartitionedMessageHandlerInvokerTest {
+
+    private static final Message TEMPLATE = TestUtils.createSimpleRequestMessage("test:ordered-invoker");
+
+    /**
+     * Group id is taken from the correlation id of test messages, "-" stands for no group.
+     */
+    private static final MessageGroupStrategy GROUP_STRATEGY = message -> message.getCorrelationId().equals("-")
+            ? Optional.empty()
+            : Optional.of(Integer.valueOf(message.getCorrelationId()));
+
+    @Mock
+    private AcknowledgementHandlerInternal acknowledgeHandler;
+
+    private OrderedPartitionedMessageHandlerInvoker invoker;
+
+    @After
+    public void tearDown() {
+        if (invoker != null) {
+            invoker.shutdown();
+        }
+    }
+
+    @Test
+    public void testMessagesOfGroupProcessedInOrder() throws Exception {
+        int numberOfGroups = 20;
+        int messagesPerGroup = 200;
+        invoker = createInvoker(4, -1);
+
+        List<List<Integer>> processedByGroup = new ArrayList<>();
+        AtomicInteger[] concurrentlyProcessedOfGroup = new AtomicInteger[numberOfGroups];
+        AtomicInteger violations = new AtomicInteger();
+        for (int group = 0; group < numberOfGroups; group++) {
+            processedByGroup.add(Collections.synchronizedList(new ArrayList<>()));
+            concurrentlyProcessedOfGroup[group] = new AtomicInteger();
+        }
+        CountDownLatch allProcessed = new CountDownLatch(numberOfGroups * messagesPerGroup);
+
+        for (int i = 0; i < messagesPerGroup; i++) {
+            for (int group = 0; group < numberOfGroups; group++) {
+                int groupId = group;
+                int sequenceNumber = i;
+                invoker.execute((message, ackHandler) -> {
+                    if (concurrentlyProcessedOfGroup[groupId].incrementAndGet() > 1) {
+                        violations.incrementAndGet();
+                    }
+                    processedByGroup.get(groupId).add(sequenceNumber);
+                    concurrentlyProcessedOfGroup[groupId].decrementAndGet();
+                    allProcessed.countDown();
+                }, createMessage(String.valueOf(groupId)), acknowledgeHandler);
+            }
+        }
+
+        assertTrue(allProcessed.await(10, TimeUnit.SECONDS));
+        assertEquals(0, violations.get());
+        for (List<Integer> processed : processedByGroup) {
+            for (int i = 0; i < messagesPerGroup; i++) {
+                assertEquals(Integer.valueOf(i), processed.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testBusyGroupDoesNotBlockOtherGroups() throws Exception {
+        int numberOfGroups = 10;
+        invoker = createInvoker(2, -1);
+
+        CountDownLatch busyGroupStarted = new CountDownLatch(1);
+        CountDownLatch releaseBusyGroup = new CountDownLatch(1);
+        invoker.execute((message, ackHandler) -> {
+            busyGroupStarted.countDown();
+            await(releaseBusyGroup);
+        }, createMessage("0"), acknowledgeHandler);
+        assertTrue(busyGroupStarted.await(5, TimeUnit.SECONDS));
+
+        // half of these groups share the home thread with the busy group
+        CountDownLatch otherGroupsProcessed = new CountDownLatch(numberOfGroups);
+        for (int group = 1; group <= numberOfGroups; group++) {
+            invoker.execute((message, ackHandler) -> otherGroupsProcessed.countDown(), createMessage(String.valueOf(group)), acknowledgeHandler);
+        }
+
+        assertTrue(otherGroupsProcessed.await(5, TimeUnit.SECONDS));
+        releaseBusyGroup.countDown();
+    }
+
+    @Test
+    public void testMessagesWithoutGroupGoToLeastLoadedWorker() throws Exception {
+        invoker = createInvoker(2, -1);
+
+        CountDownLatch busyWorkerStarted = new CountDownLatch(1);
+        CountDownLatch releaseBusyWorker = new CountDownLatch(1);
+        invoker.execute((message, ackHandler) -> {
+            busyWorkerStarted.countDown();
+            await(releaseBusyWorker);
+        }, createMessage("-"), acknowledgeHandler);
+        assertTrue(busyWorkerStarted.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch processed = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            invoker.execute((message, ackHandler) -> processed.countDown(), createMessage("-"), acknowledgeHandler);
+        }
+
+        assertTrue(processed.await(5, TimeUnit.SECONDS));
+        releaseBusyWorker.countDown();
+    }
+
+    @Test
+    public void testMessageRejectedWhenQueueIsFull() throws Exception {
+        invoker = createInvoker(1, 1);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MessageHandler blockingHandler = (message, ackHandler) -> {
+            started.countDown();
+            await(release);
+        };
+        invoker.execute(blockingHandler, createMessage("1"), acknowledgeHandler);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        invoker.execute(blockingHandler, createMessage("1"), acknowledgeHandler);
+
+        try {
+            invoker.execute(blockingHandler, createMessage("2"), acknowledgeHandler);
+            fail("Message should have been rejected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testShutdownProcessesPendingMessages() throws Exception {
+        invoker = createInvoker(2, -1);
+
+        AtomicInteger processed = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            invoker.execute((message, ackHandler) -> processed.incrementAndGet(), createMessage(String.valueOf(i % 3)), acknowledgeHandler);
+        }
+        invoker.shutdown();
+        invoker = null;
+
+        assertEquals(100, processed.get());
+    }
+
+    private OrderedPartitionedMessageHandlerInvoker createInvoker(int numberOfThreads, int queueCapacity) {
+        return new OrderedPartitionedMessageHandlerInvoker(numberOfThreads, queueCapacity, new ConsumerExecutorFactoryImpl(), GROUP_STRATEGY);
+    }
+
+    private static Message createMessage(String correlationId) {
+        return new Message.Builder()
+                .withId(TEMPLATE.getId())
+                .withCorrelationId(correlationId)
+                .withTopics(TEMPLATE.getTopics())
+                .withMetaBuilder(new MetaMessage.Builder(null, TEMPLATE.getMeta().getCreatedAt(),
+                        TEMPLATE.getMeta().getServiceDetails(), Clock.systemDefaultZone()))
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
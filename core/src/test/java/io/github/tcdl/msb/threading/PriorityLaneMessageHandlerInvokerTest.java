@@ -0,0 +1,198 @@
+package io.github.tcdl.msb.threading;
+
+import io.github.tcdl.msb.MessageHandler;
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MetaMessage;
+import io.github.tcdl.msb.api.message.Topics;
+import io.github.tcdl.msb.support.TestUtils;
+import io.github.tcdl.msb.threading.PriorityLaneMessageHandlerInvoker.Scheduling;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PriorityLaneMessageHandlerInvokerTest {
+
+    private static final Message TEMPLATE = TestUtils.createSimpleRequestMessage("test:priority-lanes");
+
+    private static final List<PriorityLane> LANES = Arrays.asList(
+            new PriorityLane("interactive", 3, Collections.singletonList("interactive"), Collections.emptyList()),
+            new PriorityLane("reports", 1, Collections.emptyList(), Collections.singletonList("reports:")));
+
+    @Mock
+    private AcknowledgementHandlerInternal acknowledgeHandler;
+
+    private PriorityLaneMessageHandlerInvoker invoker;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<String> processedLanes = new CopyOnWriteArrayList<>();
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (invoker != null) {
+            invoker.shutdown();
+        }
+    }
+
+    @Test
+    public void testMessagesClassifiedByTagsAndNamespaces() throws Exception {
+        invoker = createInvoker(Scheduling.WEIGHTED_FAIR, 0, -1);
+        CountDownLatch processed = new CountDownLatch(4);
+        MessageHandler handler = (message, ackHandler) -> processed.countDown();
+
+        invoker.execute(handler, createMessage("test:any", "interactive"), acknowledgeHandler);
+        invoker.execute(handler, createMessage("test:any", "other", "interactive"), acknowledgeHandler);
+        invoker.execute(handler, createMessage("reports:daily", null), acknowledgeHandler);
+        invoker.execute(handler, createMessage("test:any", "batch"), acknowledgeHandler);
+
+        assertTrue(processed.await(5, TimeUnit.SECONDS));
+        invoker.shutdown();
+        assertEquals(2, invoker.getProcessedMessagesCount("interactive"));
+        assertEquals(1, invoker.getProcessedMessagesCount("reports"));
+        assertEquals(1, invoker.getProcessedMessagesCount(PriorityLaneMessageHandlerInvoker.DEFAULT_LANE));
+        invoker = null;
+    }
+
+    @Test
+    public void testStrictSchedulingTakesHigherLaneFirst() throws Exception {
+        invoker = createInvoker(Scheduling.STRICT, 0, -1);
+        blockWorker();
+
+        for (int i = 0; i < 5; i++) {
+            submitRecording("batch");
+        }
+        for (int i = 0; i < 5; i++) {
+            submitRecording("interactive");
+        }
+        assertEquals(5, invoker.getQueuedMessagesCount(PriorityLaneMessageHandlerInvoker.DEFAULT_LANE));
+        release.countDown();
+        invoker.shutdown();
+        invoker = null;
+
+        assertEquals(Arrays.asList("interactive", "interactive", "interactive", "interactive", "interactive",
+                "batch", "batch", "batch", "batch", "batch"), processedLanes);
+    }
+
+    @Test
+    public void testWeightedFairSchedulingSharesTurnsByWeight() throws Exception {
+        invoker = createInvoker(Scheduling.WEIGHTED_FAIR, 0, -1);
+        blockWorker();
+
+        for (int i = 0; i < 20; i++) {
+            submitRecording("batch");
+            submitRecording("interactive");
+        }
+        release.countDown();
+        invoker.shutdown();
+        invoker = null;
+
+        // interactive lane has weight 3 and the default lane has weight 1
+        List<String> firstEight = processedLanes.subList(0, 8);
+        assertEquals(6, Collections.frequency(firstEight, "interactive"));
+        assertEquals(2, Collections.frequency(firstEight, "batch"));
+        assertEquals(40, processedLanes.size());
+    }
+
+    @Test
+    public void testStarvingMessageTakenBeforeHigherLane() throws Exception {
+        invoker = createInvoker(Scheduling.STRICT, 50, -1);
+        blockWorker();
+
+        submitRecording("batch");
+        Thread.sleep(100);
+        for (int i = 0; i < 3; i++) {
+            submitRecording("interactive");
+        }
+        release.countDown();
+        invoker.shutdown();
+
+        assertEquals(Arrays.asList("batch", "interactive", "interactive", "interactive"), processedLanes);
+        assertEquals(1, invoker.getStarvationPromotionsCount());
+        invoker = null;
+    }
+
+    @Test
+    public void testFullLaneDoesNotAffectOtherLanes() throws Exception {
+        invoker = createInvoker(Scheduling.WEIGHTED_FAIR, 0, 2);
+        blockWorker();
+
+        submitRecording("batch");
+        submitRecording("batch");
+        try {
+            submitRecording("batch");
+            fail("Message should have been rejected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        submitRecording("interactive");
+
+        assertEquals(1, invoker.getQueuedMessagesCount("interactive"));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testExecuteAfterShutdown() {
+        invoker = createInvoker(Scheduling.STRICT, 0, -1);
+        invoker.shutdown();
+
+        invoker.execute((message, ackHandler) -> {}, createMessage("test:any", null), acknowledgeHandler);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownLane() {
+        invoker = createInvoker(Scheduling.STRICT, 0, -1);
+
+        invoker.getProcessedMessagesCount("unknown");
+    }
+
+    private PriorityLaneMessageHandlerInvoker createInvoker(Scheduling scheduling, long maxStarvationMs, int queueCapacity) {
+        return new PriorityLaneMessageHandlerInvoker(1, queueCapacity, LANES, 1, scheduling, maxStarvationMs,
+                new ConsumerExecutorFactoryImpl(), Clock.systemDefaultZone());
+    }
+
+    /**
+     * Occupies the only consumer thread so that next messages are queued.
+     */
+    private void blockWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        invoker.execute((message, ackHandler) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, createMessage("test:any", null), acknowledgeHandler);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    private void submitRecording(String tag) {
+        invoker.execute((message, ackHandler) -> processedLanes.add(tag), createMessage("test:any", tag), acknowledgeHandler);
+    }
+
+    private static Message createMessage(String topic, String... tags) {
+        return new Message.Builder()
+                .withId(TEMPLATE.getId())
+                .withCorrelationId(TEMPLATE.getCorrelationId())
+                .withTags(tags == null ? null : Arrays.asList(tags))
+                .withTopics(new Topics(topic, null, null))
+                .withMetaBuilder(new MetaMessage.Builder(null, TEMPLATE.getMeta().getCreatedAt(),
+                        TEMPLATE.getMeta().getServiceDetails(), Clock.systemDefaultZone()))
+                .build();
+    }
+}
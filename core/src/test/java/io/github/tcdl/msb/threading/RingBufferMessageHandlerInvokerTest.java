@@ -0,0 +1,213 @@
+package io.github.tcdl.msb.threading;
+
+import io.github.tcdl.msb.MessageHandler;
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.MdcContext;
+import io.github.tcdl.msb.support.TestUtils;
+import io.github.tcdl.msb.threading.RingBufferMessageHandlerInvoker.WaitStrategy;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RingBufferMessageHandlerInvokerTest {
+
+    private final Message message = TestUtils.createSimpleRequestMessage("test:ring-buffer-invoker");
+
+    @Mock
+    private AcknowledgementHandlerInternal acknowledgeHandler;
+
+    private RingBufferMessageHandlerInvoker invoker;
+
+    @After
+    public void tearDown() {
+        if (invoker != null) {
+            invoker.shutdown();
+        }
+    }
+
+    @Test
+    public void testAllMessagesProcessedWithEachWaitStrategy() throws Exception {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            int numberOfMessages = 10_000;
+            invoker = createInvoker(4, 64, waitStrategy);
+            CountDownLatch processed = new CountDownLatch(numberOfMessages);
+            MessageHandler handler = (message, ackHandler) -> processed.countDown();
+
+            for (int i = 0; i < numberOfMessages; i++) {
+                executeUntilAccepted(handler);
+            }
+
+            assertTrue("Not all messages processed with " + waitStrategy, processed.await(10, TimeUnit.SECONDS));
+            invoker.shutdown();
+            invoker = null;
+        }
+    }
+
+    @Test
+    public void testMessageConfirmedAfterProcessing() {
+        invoker = createInvoker(1, 4, WaitStrategy.BLOCKING);
+
+        invoker.execute((message, ackHandler) -> {}, message, acknowledgeHandler);
+
+        verify(acknowledgeHandler, timeout(5000)).autoConfirm();
+    }
+
+    @Test
+    public void testMessageRetriedOnHandlerFailure() {
+        invoker = createInvoker(1, 4, WaitStrategy.BLOCKING);
+
+        invoker.execute((message, ackHandler) -> {
+            throw new RuntimeException("expected");
+        }, message, acknowledgeHandler);
+
+        verify(acknowledgeHandler, timeout(5000)).autoRetry();
+    }
+
+    @Test
+    public void testGivenMdcContextInstalledInProcessingThread() {
+        invoker = createInvoker(1, 4, WaitStrategy.BLOCKING);
+        MdcContext mdcContext = new MdcContext(new String[] {"msbCorrelationId"}, new String[] {"correlationId"});
+        AtomicReference<MdcContext> contextInHandler = new AtomicReference<>();
+
+        invoker.execute((message, ackHandler) -> contextInHandler.set(MdcContext.current()), message, acknowledgeHandler, mdcContext);
+
+        verify(acknowledgeHandler, timeout(5000)).autoConfirm();
+        assertSame(mdcContext, contextInHandler.get());
+    }
+
+    @Test
+    public void testExpiredMessageRejectedWithoutProcessing() {
+        Clock clock = Clock.fixed(Instant.now().plusSeconds(3600), ZoneId.systemDefault());
+        Message expiredMessage = TestUtils.createMessageBuilder(Clock.systemDefaultZone())
+                .withMetaBuilder(TestUtils.createSimpleMetaBuilder(TestUtils.createMsbConfigurations(), Clock.systemDefaultZone())
+                        .withDeadline(Instant.now()))
+                .build();
+        MessageHandler handler = mock(MessageHandler.class);
+        invoker = new RingBufferMessageHandlerInvoker(1, 4, 1, WaitStrategy.BLOCKING, new ConsumerExecutorFactoryImpl(), clock);
+
+        invoker.execute(handler, expiredMessage, acknowledgeHandler);
+
+        verify(acknowledgeHandler, timeout(5000)).autoReject();
+        verify(handler, never()).handleMessage(any(), any());
+        assertEquals(1, invoker.getExpiredMessagesCount());
+    }
+
+    @Test
+    public void testDeliveryRejectedWhenRingBufferIsFull() throws Exception {
+        invoker = createInvoker(1, 2, WaitStrategy.BLOCKING);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger processed = new AtomicInteger();
+        MessageHandler blockingHandler = (message, ackHandler) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.incrementAndGet();
+        };
+
+        invoker.execute(blockingHandler, message, acknowledgeHandler);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        invoker.execute(blockingHandler, message, acknowledgeHandler);
+        invoker.execute(blockingHandler, message, acknowledgeHandler);
+
+        try {
+            invoker.execute(blockingHandler, message, acknowledgeHandler);
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException expected) {
+            // the delivering thread isn't blocked
+        }
+
+        release.countDown();
+        invoker.shutdown();
+        invoker = null;
+        assertEquals(3, processed.get());
+    }
+
+    @Test
+    public void testSlowHandlerDoesNotHoldBackOtherMessages() throws Exception {
+        invoker = new RingBufferMessageHandlerInvoker(2, 8, 1, WaitStrategy.BLOCKING, new ConsumerExecutorFactoryImpl(),
+                Clock.systemDefaultZone());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastProcessed = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        MessageHandler handler = (message, ackHandler) -> {
+            if (calls.getAndIncrement() == 0) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                fastProcessed.countDown();
+            }
+        };
+
+        invoker.execute(handler, message, acknowledgeHandler);
+        invoker.execute(handler, message, acknowledgeHandler);
+
+        try {
+            assertTrue(fastProcessed.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testExecuteAfterShutdown() {
+        invoker = createInvoker(1, 4, WaitStrategy.BLOCKING);
+        invoker.shutdown();
+
+        invoker.execute((message, ackHandler) -> {}, message, acknowledgeHandler);
+    }
+
+    @Test
+    public void testCapacityRoundedUpToPowerOfTwo() {
+        assertEquals(8, createInvoker(1, 5, WaitStrategy.BLOCKING).getCapacity());
+        invoker.shutdown();
+        assertEquals(RingBufferMessageHandlerInvoker.DEFAULT_CAPACITY, createInvoker(1, -1, WaitStrategy.BLOCKING).getCapacity());
+    }
+
+    private void executeUntilAccepted(MessageHandler handler) {
+        // the broker requeues rejected messages, here they are simply delivered again
+        while (true) {
+            try {
+                invoker.execute(handler, message, acknowledgeHandler);
+                return;
+            } catch (RejectedExecutionException e) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private RingBufferMessageHandlerInvoker createInvoker(int numberOfThreads, int queueCapacity, WaitStrategy waitStrategy) {
+        invoker = new RingBufferMessageHandlerInvoker(numberOfThreads, queueCapacity, 8, waitStrategy, new ConsumerExecutorFactoryImpl(),
+                Clock.systemDefaultZone());
+        return invoker;
+    }
+}
@@ -4,6 +4,7 @@ import com.typesafe.config.ConfigFactory;
 import io.github.tcdl.msb.MessageHandler;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MetaMessage;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.support.TestUtils;
 import io.github.tcdl.msb.threading.ThreadPoolMessageHandlerInvoker;
@@ -15,6 +16,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -78,4 +82,86 @@ public class ThreadPoolMessageHandlerInvokerImplTest {
         invoker.shutdown();
         verify(mockExecutor, times(1)).shutdown();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testExpiredMessageIsDroppedWhenDequeued() {
+        Instant createdAt = Instant.parse("2016-01-01T10:00:00Z");
+        Clock clock = Clock.fixed(createdAt.plusMillis(101), ZoneId.systemDefault());
+        Message expiringMessage = createMessageWithTtl(createdAt, 100);
+        invoker = new ThreadPoolMessageHandlerInvoker(CONFIG_THREADS, CONFIG_QUEUE, consumerExecutorFactory, false, clock);
+
+        invoker.execute(messageHandler, expiringMessage, acknowledgeHandler);
+        ArgumentCaptor<MessageProcessingTask> taskCaptor = ArgumentCaptor.forClass(MessageProcessingTask.class);
+        verify(mockExecutor, times(1)).submit(taskCaptor.capture());
+        taskCaptor.getValue().run();
+
+        verify(messageHandler, never()).handleMessage(any(), any());
+        verify(acknowledgeHandler).autoReject();
+        assertEquals(1, invoker.getExpiredMessagesCount());
+    }
+
+    @Test
+    public void testNotExpiredMessageIsProcessedWhenDequeued() {
+        Instant createdAt = Instant.parse("2016-01-01T10:00:00Z");
+        Clock clock = Clock.fixed(createdAt.plusMillis(99), ZoneId.systemDefault());
+        Message expiringMessage = createMessageWithTtl(createdAt, 100);
+        invoker = new ThreadPoolMessageHandlerInvoker(CONFIG_THREADS, CONFIG_QUEUE, consumerExecutorFactory, false, clock);
+
+        invoker.execute(messageHandler, expiringMessage, acknowledgeHandler);
+        ArgumentCaptor<MessageProcessingTask> taskCaptor = ArgumentCaptor.forClass(MessageProcessingTask.class);
+        verify(mockExecutor, times(1)).submit(taskCaptor.capture());
+        taskCaptor.getValue().run();
+
+        verify(messageHandler).handleMessage(expiringMessage, acknowledgeHandler);
+        verify(acknowledgeHandler).autoConfirm();
+        assertEquals(0, invoker.getExpiredMessagesCount());
+    }
+
+    @Test
+    public void testRawMessageTaskRunsOnPoolThread() {
+        RawMessageTask rawMessageTask = mock(RawMessageTask.class);
+        invoker.execute(rawMessageTask);
+        verify(rawMessageTask, never()).run(any());
+
+        ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockExecutor).execute(runnableCaptor.capture());
+        ArgumentCaptor<MessageHandlerInvoker> invokerCaptor = ArgumentCaptor.forClass(MessageHandlerInvoker.class);
+        runnableCaptor.getValue().run();
+        verify(rawMessageTask).run(invokerCaptor.capture());
+
+        // the parsed message is processed right away on the same pool thread
+        invokerCaptor.getValue().execute(messageHandler, message, acknowledgeHandler);
+        verify(messageHandler).handleMessage(message, acknowledgeHandler);
+        verify(acknowledgeHandler).autoConfirm();
+        verify(mockExecutor, never()).submit(any(Runnable.class));
+    }
+
+    @Test
+    public void testRawMessageTaskRunsInCallingThreadWhenDeadlineOrdered() {
+        when(consumerExecutorFactory.createDeadlineOrderedConsumerThreadPool(CONFIG_THREADS, CONFIG_QUEUE)).thenReturn(mockExecutor);
+        invoker = new ThreadPoolMessageHandlerInvoker(CONFIG_THREADS, CONFIG_QUEUE, consumerExecutorFactory, true, Clock.systemDefaultZone());
+        RawMessageTask rawMessageTask = mock(RawMessageTask.class);
+
+        invoker.execute(rawMessageTask);
+
+        verify(rawMessageTask).run(invoker);
+        verify(mockExecutor, never()).execute(any());
+    }
+
+    @Test
+    public void testDeadlineOrderedExecutorInitialized() {
+        when(consumerExecutorFactory.createDeadlineOrderedConsumerThreadPool(CONFIG_THREADS, CONFIG_QUEUE)).thenReturn(mockExecutor);
+
+        new ThreadPoolMessageHandlerInvoker(CONFIG_THREADS, CONFIG_QUEUE, consumerExecutorFactory, true, Clock.systemDefaultZone());
+
+        verify(consumerExecutorFactory).createDeadlineOrderedConsumerThreadPool(CONFIG_THREADS, CONFIG_QUEUE);
+    }
+
+    private Message createMessageWithTtl(Instant createdAt, int ttl) {
+        MsbConfig msbConfig = TestUtils.createMsbConfigurations();
+        Clock clock = Clock.fixed(createdAt, ZoneId.systemDefault());
+        return TestUtils.createMessageBuilder(clock)
+                .withMetaBuilder(new MetaMessage.Builder(ttl, createdAt, msbConfig.getServiceDetails(), clock))
+                .build();
+    }
+}